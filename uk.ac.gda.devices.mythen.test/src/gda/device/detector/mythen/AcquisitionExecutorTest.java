@@ -0,0 +1,123 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import gda.device.DeviceException;
+
+/**
+ * Tests the {@link AcquisitionExecutor} class.
+ */
+public class AcquisitionExecutorTest {
+
+	private final AcquisitionExecutor executor = new AcquisitionExecutor("mythen");
+
+	@After
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testBusyUntilWorkCompletes() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger runs = new AtomicInteger();
+		executor.submit("work", new AcquisitionExecutor.AcquisitionTask() {
+			@Override
+			public void run() throws Exception {
+				assertTrue(release.await(10, TimeUnit.SECONDS));
+				runs.incrementAndGet();
+			}
+		});
+		assertTrue(executor.isBusy());
+		release.countDown();
+		executor.waitWhileBusy();
+		assertFalse(executor.isBusy());
+		assertEquals(1, runs.get());
+	}
+
+	@Test
+	public void testFailureIsThrownOnce() throws Exception {
+		final DeviceException failure = new DeviceException("acquire failed");
+		executor.submit("work", new AcquisitionExecutor.AcquisitionTask() {
+			@Override
+			public void run() throws Exception {
+				throw failure;
+			}
+		});
+		try {
+			executor.waitWhileBusy();
+			fail("Expected the failure to be thrown");
+		} catch (DeviceException e) {
+			assertSame(failure, e);
+		}
+		executor.waitWhileBusy();
+		executor.checkForFailure();
+	}
+
+	@Test
+	public void testUncheckedFailureIsWrapped() throws Exception {
+		final IllegalStateException failure = new IllegalStateException("no data");
+		executor.submit("work", new AcquisitionExecutor.AcquisitionTask() {
+			@Override
+			public void run() throws Exception {
+				throw failure;
+			}
+		});
+		try {
+			executor.waitWhileBusy();
+			fail("Expected the failure to be thrown");
+		} catch (DeviceException e) {
+			assertSame(failure, e.getCause());
+		}
+	}
+
+	@Test
+	public void testClearFailure() throws Exception {
+		Future<Void> work = executor.submit("work", new AcquisitionExecutor.AcquisitionTask() {
+			@Override
+			public void run() throws Exception {
+				throw new DeviceException("acquire failed");
+			}
+		});
+		try {
+			work.get();
+			fail("Expected the work to fail");
+		} catch (ExecutionException e) {
+			// expected
+		}
+		executor.clearFailure();
+		executor.waitWhileBusy();
+	}
+
+}
@@ -0,0 +1,129 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+import gda.device.DeviceException;
+
+/**
+ * Tests the {@link ProcessingPipeline} class.
+ */
+public class ProcessingPipelineTest {
+
+	private final ProcessingPipeline pipeline = new ProcessingPipeline("mythen", 2);
+
+	@After
+	public void shutdown() {
+		pipeline.shutdown();
+	}
+
+	@Test
+	public void testPointsAreProcessedInOrder() throws Exception {
+		final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+		for (int i = 0; i < 20; i++) {
+			final int point = i;
+			pipeline.submit("point " + i, new AcquisitionExecutor.AcquisitionTask() {
+				@Override
+				public void run() throws Exception {
+					processed.add(point);
+				}
+			});
+		}
+		pipeline.drain();
+		assertEquals(20, processed.size());
+		for (int i = 0; i < 20; i++) {
+			assertEquals(i, processed.get(i).intValue());
+		}
+		assertFalse(pipeline.isBusy());
+	}
+
+	@Test
+	public void testSubmitBlocksWhenFull() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final AcquisitionExecutor.AcquisitionTask blocked = new AcquisitionExecutor.AcquisitionTask() {
+			@Override
+			public void run() throws Exception {
+				assertTrue(release.await(10, TimeUnit.SECONDS));
+			}
+		};
+		pipeline.submit("point 0", blocked);
+		pipeline.submit("point 1", blocked);
+		assertEquals(2, pipeline.getQueuedPoints());
+
+		final CountDownLatch submitted = new CountDownLatch(1);
+		Thread producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					pipeline.submit("point 2", blocked);
+					submitted.countDown();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		producer.start();
+		assertFalse("Submit should wait while the pipeline is full", submitted.await(200, TimeUnit.MILLISECONDS));
+
+		release.countDown();
+		assertTrue(submitted.await(10, TimeUnit.SECONDS));
+		producer.join();
+		pipeline.drain();
+		assertEquals(0, pipeline.getQueuedPoints());
+	}
+
+	@Test
+	public void testDrainThrowsFailure() throws Exception {
+		final DeviceException failure = new DeviceException("processing failed");
+		pipeline.submit("point 0", new AcquisitionExecutor.AcquisitionTask() {
+			@Override
+			public void run() throws Exception {
+				throw failure;
+			}
+		});
+		try {
+			pipeline.drain();
+			fail("Expected the failure to be thrown");
+		} catch (DeviceException e) {
+			assertSame(failure, e);
+		}
+		pipeline.drain();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroDepthRejected() {
+		new ProcessingPipeline("mythen", 0);
+	}
+
+}
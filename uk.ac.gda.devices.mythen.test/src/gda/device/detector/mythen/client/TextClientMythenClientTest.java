@@ -0,0 +1,114 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the arming detection in {@link TextClientMythenClient}.
+ */
+public class TextClientMythenClientTest {
+
+	/**
+	 * Output of a fake text client, delivered one chunk per read as it would be from a pipe.
+	 */
+	private static class ChunkedReader extends Reader {
+
+		private final List<String> chunks;
+
+		int chunksRead;
+
+		ChunkedReader(String... chunks) {
+			this.chunks = new ArrayList<String>(Arrays.asList(chunks));
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) {
+			if (chunksRead == chunks.size()) {
+				return -1;
+			}
+			final String chunk = chunks.get(chunksRead++);
+			chunk.getChars(0, chunk.length(), cbuf, off);
+			return chunk.length();
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static class RecordingListener implements ArmableMythenClient.ArmingListener {
+
+		private final ChunkedReader reader;
+
+		int calls;
+
+		int chunksReadWhenArmed = -1;
+
+		RecordingListener(ChunkedReader reader) {
+			this.reader = reader;
+		}
+
+		@Override
+		public void armed() {
+			calls++;
+			chunksReadWhenArmed = reader.chunksRead;
+		}
+	}
+
+	@Test
+	public void testArmedMessageSeenAsSoonAsItArrives() throws IOException {
+		TextClientMythenClient client = new TextClientMythenClient();
+		client.setArmedMessage("waiting for trigger");
+		assertTrue(client.isArmingReported());
+
+		// the message is split between reads, differs in case and has no newline
+		ChunkedReader reader = new ChunkedReader("Connecting to mythen\n", "Waiting for Tri", "gger", " ... acquired\n",
+				"waiting for trigger\n");
+		RecordingListener listener = new RecordingListener(reader);
+		String output = client.readOutput(reader, listener);
+
+		assertEquals(1, listener.calls);
+		assertEquals(3, listener.chunksReadWhenArmed);
+		assertEquals("Connecting to mythen\nWaiting for Trigger ... acquired\nwaiting for trigger\n", output);
+	}
+
+	@Test
+	public void testArmingNotReportedByDefault() throws IOException {
+		TextClientMythenClient client = new TextClientMythenClient();
+		assertFalse(client.isArmingReported());
+
+		ChunkedReader reader = new ChunkedReader("waiting for trigger\n");
+		RecordingListener listener = new RecordingListener(reader);
+		client.readOutput(reader, listener);
+		assertEquals(0, listener.calls);
+	}
+
+}
@@ -0,0 +1,135 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.eclipse.january.dataset.Dataset;
+import org.junit.Test;
+
+import gda.device.detector.mythen.data.MythenRebinner.Mode;
+
+/**
+ * Tests the {@link AngleRangeView} class.
+ */
+public class AngleRangeViewTest {
+
+	private static final double[][][] INPUT = {
+		{ { 0.1, 10 }, { 0.3, 20 }, { 0.7, 40 }, { 1.5, 5 } },
+		{ { 0.2, 1 }, { 0.9, 3 }, { 2.4, 7 } },
+	};
+
+	@Test
+	public void testBinnedDataSharesOneRange() {
+		final BinnedMythenData binned = MythenRebinner.bin(INPUT, 0.5, Mode.SUM);
+		final AngleRangeView view = AngleRangeView.Source.of(binned).select(0.5, 1.5);
+		assertTrue(view.hasSharedGrid());
+		assertEquals(2, view.getNumberOfDatasets());
+		for (int d = 0; d < 2; d++) {
+			assertEquals(1, view.getStart(d));
+			assertEquals(3, view.getLength(d));
+		}
+		assertEquals(0.5, view.getAngle(1, 0), 0);
+		assertEquals(5, view.getCount(0, 2), 0);
+		assertEquals(3, view.getCount(1, 0), 0);
+	}
+
+	@Test
+	public void testBinnedDatasets() {
+		final BinnedMythenData binned = MythenRebinner.bin(INPUT, 0.5, Mode.SUM);
+		final AngleRangeView view = AngleRangeView.Source.of(binned).select(0.5, 1.5);
+
+		assertArrayEquals(new double[] { 0.5, 1.0, 1.5 }, values(view.getAngleDataset(1)), 1e-12);
+		assertArrayEquals(new double[] { 40, 0, 5 }, values(view.getCountDataset(0)), 0);
+		assertArrayEquals(new double[] { 3, 0, 0 }, values(view.getCountDataset(1)), 0);
+
+		final Dataset image = view.getCountImage();
+		assertArrayEquals(new int[] { 2, 3 }, image.getShape());
+		assertEquals(5, image.getDouble(0, 2), 0);
+		assertEquals(3, image.getDouble(1, 0), 0);
+	}
+
+	@Test
+	public void testProcessedDatasetsWithDifferentGrids() {
+		final MythenProcessedDataset first = processed(new double[] { 1.0, 2.0, 3.0, 4.0 }, new int[] { 10, 20, 30, 40 });
+		final MythenProcessedDataset second = processed(new double[] { 2.5, 3.5, 4.5 }, new int[] { 1, 2, 3 });
+		final AngleRangeView view = AngleRangeView.Source.of(Arrays.asList(first, second)).select(2.0, 3.5);
+
+		assertEquals(1, view.getStart(0));
+		assertEquals(2, view.getLength(0));
+		assertEquals(0, view.getStart(1));
+		assertEquals(2, view.getLength(1));
+		assertEquals(3.5, view.getAngle(1, 1), 0);
+		assertEquals(30, view.getCount(0, 1), 0);
+		assertArrayEquals(new double[] { 20, 30 }, values(view.getCountDataset(0)), 0);
+		assertArrayEquals(new double[] { 2.5, 3.5 }, values(view.getAngleDataset(1)), 0);
+	}
+
+	@Test
+	public void testEmptyRange() {
+		final MythenProcessedDataset dataset = processed(new double[] { 1.0, 2.0 }, new int[] { 10, 20 });
+		final AngleRangeView.Source source = AngleRangeView.Source.of(Arrays.asList(dataset));
+		assertEquals(0, source.select(2.5, 3.0).getLength(0));
+		assertEquals(0, source.select(0.0, 0.5).getLength(0));
+		assertEquals(0, source.select(1.2, 1.8).getLength(0));
+		assertEquals(0, source.select(3.0, 1.0).getLength(0));
+	}
+
+	@Test
+	public void testMatchesGetDataSubset() {
+		final double[][] dataset = { { 1.0, 10 }, { 2.0, 20 } };
+		final AngleRangeView.Source source = AngleRangeView.Source.of(Arrays.asList(processed(new double[] { 1.0, 2.0 }, new int[] { 10, 20 })));
+		final double[] limits = { 0.0, 0.5, 1.0, 1.5, 2.0, 2.5, 3.0 };
+		for (double min : limits) {
+			for (double max : limits) {
+				if (min <= max) {
+					final int expected = MythenDataFileUtils.getDataSubset(new double[][][] { dataset }, min, max)[0].length;
+					assertEquals("range " + min + " to " + max, expected, source.select(min, max).getLength(0));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testGetDataSubsetSearchesEachDataset() {
+		final double[][][] subset = MythenDataFileUtils.getDataSubset(INPUT, 0.2, 1.0);
+		assertEquals(2, subset[0].length);
+		assertEquals(0.3, subset[0][0][0], 0);
+		assertEquals(2, subset[1].length);
+		assertEquals(0.9, subset[1][1][0], 0);
+	}
+
+	private static MythenProcessedDataset processed(double[] angles, int[] counts) {
+		return new MythenProcessedDataset(angles, counts, new int[counts.length], new int[counts.length]);
+	}
+
+	private static double[] values(Dataset dataset) {
+		final double[] values = new double[dataset.getSize()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = dataset.getDouble(i);
+		}
+		return values;
+	}
+
+}
@@ -0,0 +1,92 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link BadChannelMask} class.
+ */
+public class BadChannelMaskTest {
+
+	@Test
+	public void testIsBadMatchesSet() {
+		Set<Integer> badChannels = new HashSet<Integer>(Arrays.asList(0, 63, 64, 127, 1279, 1280, 30719));
+		BadChannelMask mask = BadChannelMask.of(badChannels);
+		for (int channel = -5; channel < 31000; channel++) {
+			assertEquals("Channel " + channel, badChannels.contains(channel), mask.isBad(channel));
+		}
+		assertEquals(badChannels.size(), mask.cardinality());
+		assertEquals(30720, mask.length());
+	}
+
+	@Test
+	public void testCountInRange() {
+		BadChannelMask mask = BadChannelMask.of(1, 5, 63, 64, 65, 200, 1279, 1280);
+		assertEquals(7, mask.countInRange(0, 1280));
+		assertEquals(1, mask.countInRange(1280, 2560));
+		assertEquals(3, mask.countInRange(5, 65));
+		assertEquals(2, mask.countInRange(64, 66));
+		assertEquals(0, mask.countInRange(6, 63));
+		assertEquals(8, mask.countInRange(-10, 100000));
+		assertEquals(0, mask.countInRange(10, 10));
+	}
+
+	@Test
+	public void testEmpty() {
+		assertSame(BadChannelMask.EMPTY, BadChannelMask.of(new HashSet<Integer>()));
+		assertFalse(BadChannelMask.EMPTY.isBad(0));
+		assertEquals(0, BadChannelMask.EMPTY.length());
+		assertEquals(0, BadChannelMask.EMPTY.countInRange(0, 1280));
+	}
+
+	@Test
+	public void testEquality() {
+		assertEquals(BadChannelMask.of(3, 700), BadChannelMask.of(new HashSet<Integer>(Arrays.asList(700, 3))));
+		assertEquals(BadChannelMask.of(3, 700).hashCode(), BadChannelMask.of(700, 3).hashCode());
+	}
+
+	@Test
+	public void testDefaultProviderMask() {
+		BadChannelProvider provider = new BadChannelProvider() {
+			@Override
+			public Set<Integer> getBadChannels() {
+				return new HashSet<Integer>(Arrays.asList(2, 4));
+			}
+		};
+		assertTrue(provider.getBadChannelMask().isBad(4));
+		assertFalse(provider.getBadChannelMask().isBad(3));
+	}
+
+	@Test
+	public void testSimpleProviderMask() {
+		assertEquals(BadChannelMask.of(10, 20), new SimpleBadChannelProvider(10, 20).getBadChannelMask());
+	}
+
+}
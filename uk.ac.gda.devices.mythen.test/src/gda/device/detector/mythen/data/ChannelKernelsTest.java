@@ -0,0 +1,194 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that the {@link UnrolledChannelKernels} give the same results as the {@link ScalarChannelKernels}.
+ */
+public class ChannelKernelsTest {
+
+	private static final int[] SIZES = { 0, 1, 3, 4, 5, 7, 8, 13, 1280, 23040 };
+
+	private final ChannelKernels scalar = ScalarChannelKernels.INSTANCE;
+
+	private final ChannelKernels unrolled = UnrolledChannelKernels.INSTANCE;
+
+	private final Random random = new Random(1234);
+
+	@Test
+	public void testForName() {
+		assertSame(scalar, ChannelKernels.forName("scalar"));
+		assertSame(unrolled, ChannelKernels.forName("unrolled"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownName() {
+		ChannelKernels.forName("vector");
+	}
+
+	@Test
+	public void testUnknownPropertyValueFallsBackToScalar() {
+		assertSame(scalar, DefaultChannelKernels.select("vector"));
+		assertSame(unrolled, DefaultChannelKernels.select("unrolled"));
+	}
+
+	@Test
+	public void testMultiplyGathered() {
+		for (int size : SIZES) {
+			final double[] factors = randomDoubles(size + 10, 0.5, 1.5);
+			final int[] channels = randomChannels(size, factors.length);
+			final double[] expected = randomDoubles(size, 0, 1e5);
+			final double[] actual = expected.clone();
+			scalar.multiplyGathered(expected, factors, channels, size);
+			unrolled.multiplyGathered(actual, factors, channels, size);
+			assertBitwiseEqual(expected, actual);
+		}
+	}
+
+	@Test
+	public void testScale() {
+		for (int size : SIZES) {
+			final double[] expected = randomDoubles(size, 0, 1e5);
+			final double[] actual = expected.clone();
+			scalar.scale(expected, size, 0.37);
+			unrolled.scale(actual, size, 0.37);
+			assertBitwiseEqual(expected, actual);
+		}
+	}
+
+	@Test
+	public void testGatherAndOffset() {
+		for (int size : SIZES) {
+			final double[] table = randomDoubles(size + 10, -30, 30);
+			final int[] channels = randomChannels(size, table.length);
+			final double[] expected = new double[size];
+			final double[] actual = new double[size];
+			scalar.gatherAndOffset(expected, table, channels, size, 10.0, 0.0, 0.08208);
+			unrolled.gatherAndOffset(actual, table, channels, size, 10.0, 0.0, 0.08208);
+			assertBitwiseEqual(expected, actual);
+			for (int i = 0; i < size; i++) {
+				assertEquals(table[channels[i]] + 10.0 + 0.0 + 0.08208, actual[i], 0);
+			}
+		}
+	}
+
+	@Test
+	public void testTruncateWithErrors() {
+		for (int size : SIZES) {
+			final double[] values = randomDoubles(size, 0, 1e6);
+			final int[] expectedCounts = new int[size];
+			final int[] expectedErrors = new int[size];
+			final int[] actualCounts = new int[size];
+			final int[] actualErrors = new int[size];
+			scalar.truncateWithErrors(values, expectedCounts, expectedErrors, size);
+			unrolled.truncateWithErrors(values, actualCounts, actualErrors, size);
+			assertArrayEquals(expectedCounts, actualCounts);
+			assertArrayEquals(expectedErrors, actualErrors);
+		}
+	}
+
+	@Test
+	public void testCompact() {
+		final BadChannelMask mask = BadChannelMask.of(0, 5, 6, 7, 100, 1279, 1280);
+		for (int size : SIZES) {
+			final int[] channels = new int[size];
+			for (int i = 0; i < size; i++) {
+				channels[i] = i;
+			}
+			final double[] counts = randomDoubles(size, 0, 1e5);
+			final double[] angles = randomDoubles(size, -30, 30);
+
+			final int[] expectedChannels = channels.clone();
+			final double[] expectedCounts = counts.clone();
+			final double[] expectedAngles = angles.clone();
+			final int expectedSize = scalar.compact(mask, expectedChannels, expectedCounts, expectedAngles, size);
+			final int actualSize = unrolled.compact(mask, channels, counts, angles, size);
+
+			assertEquals(size - mask.countInRange(0, size), actualSize);
+			assertEquals(expectedSize, actualSize);
+			assertArrayEquals(Arrays.copyOf(expectedChannels, expectedSize), Arrays.copyOf(channels, actualSize));
+			assertBitwiseEqual(Arrays.copyOf(expectedCounts, expectedSize), Arrays.copyOf(counts, actualSize));
+			assertBitwiseEqual(Arrays.copyOf(expectedAngles, expectedSize), Arrays.copyOf(angles, actualSize));
+		}
+	}
+
+	@Test
+	public void testAccumulate() {
+		for (int size : SIZES) {
+			final double[] values = randomDoubles(size, 0, 1e5);
+			final double[] expectedSums = randomDoubles(size + 6, 0, 1e5);
+			final double[] actualSums = expectedSums.clone();
+			final int[] expectedContributors = new int[size + 6];
+			final int[] actualContributors = new int[size + 6];
+			scalar.accumulate(expectedSums, expectedContributors, 3, values, size);
+			unrolled.accumulate(actualSums, actualContributors, 3, values, size);
+			assertBitwiseEqual(expectedSums, actualSums);
+			assertArrayEquals(expectedContributors, actualContributors);
+			assertEquals(0, actualContributors[2]);
+			assertEquals(size > 0 ? 1 : 0, actualContributors[3]);
+		}
+	}
+
+	@Test
+	public void testSumWithinRoundingError() {
+		for (int size : SIZES) {
+			final double[] values = randomDoubles(size, 0, 1e5);
+			final double expected = scalar.sum(values, size);
+			final double actual = unrolled.sum(values, size);
+			// Each addition can be out by half an ulp of the total
+			final double tolerance = Math.max(1, size) * Math.ulp(expected);
+			assertTrue(size + ": " + expected + " != " + actual, Math.abs(expected - actual) <= tolerance);
+		}
+	}
+
+	private double[] randomDoubles(int size, double min, double max) {
+		final double[] values = new double[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = min + (max - min) * random.nextDouble();
+		}
+		return values;
+	}
+
+	private int[] randomChannels(int size, int numChannels) {
+		final int[] channels = new int[size];
+		for (int i = 0; i < size; i++) {
+			channels[i] = random.nextInt(numChannels);
+		}
+		return channels;
+	}
+
+	private static void assertBitwiseEqual(double[] expected, double[] actual) {
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals("Element " + i, Double.doubleToLongBits(expected[i]), Double.doubleToLongBits(actual[i]));
+		}
+	}
+
+}
@@ -0,0 +1,221 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link CorrectionStage}s used by {@link DataConverter}.
+ */
+public class CorrectionStageTest {
+
+	private static final String RAW_FILENAME = "testfiles/gda/device/detector/mythen/data/Si_15keV_5.raw";
+
+	private static final String ANGULAR_CALIBRATION_FILENAME = "testfiles/gda/device/detector/mythen/data/ang.off";
+
+	private MythenRawDataset rawData;
+
+	private AngularCalibrationParameters params;
+
+	@Before
+	public void setUp() {
+		rawData = new MythenRawDataset(new File(RAW_FILENAME));
+		params = new AngularCalibrationParametersFile(new File(ANGULAR_CALIBRATION_FILENAME));
+	}
+
+	@Test
+	public void testExplicitChainMatchesDefaultChain() {
+		DataConverter defaultConverter = new DataConverter();
+		defaultConverter.setBadChannelProvider(new SimpleBadChannelProvider(setOf(3, 700, 1281)));
+		defaultConverter.setFlatFieldData(rawData);
+		defaultConverter.setAngularCalibrationParameters(params);
+		defaultConverter.setBeamlineOffset(0.08208);
+
+		BadChannelCorrection badChannels = new BadChannelCorrection(new SimpleBadChannelProvider(setOf(3, 700, 1281)));
+		FlatFieldCorrection flatField = new FlatFieldCorrection();
+		flatField.setFlatFieldData(rawData);
+		AngularConversion angles = new AngularConversion();
+		angles.setAngularCalibrationParameters(params);
+		angles.setBeamlineOffset(0.08208);
+		DataConverter chainConverter = new DataConverter();
+		chainConverter.setCorrectionStages(Arrays.<CorrectionStage> asList(badChannels, flatField, angles));
+
+		MythenProcessedDataset expected = defaultConverter.process(rawData, 10.0);
+		MythenProcessedDataset actual = chainConverter.process(rawData, 10.0);
+		assertEquals(rawData.size() - 3, actual.size());
+		assertArrayEquals(expected.getAngleArray(), actual.getAngleArray(), 0);
+		assertArrayEquals(expected.getCountArray(), actual.getCountArray(), 0);
+		assertEquals(flatField.getFlatFieldGeneration(), chainConverter.getFlatFieldGeneration());
+	}
+
+	@Test
+	public void testPropertiesConfigureStagesInChain() {
+		BadChannelCorrection badChannels = new BadChannelCorrection();
+		FlatFieldCorrection flatField = new FlatFieldCorrection();
+		AngularConversion angles = new AngularConversion();
+		DataConverter chainConverter = new DataConverter();
+		chainConverter.setCorrectionStages(Arrays.<CorrectionStage> asList(badChannels, flatField, angles));
+		chainConverter.setBadChannelProvider(new SimpleBadChannelProvider(setOf(3, 700, 1281)));
+		chainConverter.setFlatFieldData(rawData);
+		chainConverter.setAngularCalibrationParameters(params);
+		chainConverter.setBeamlineOffset(0.08208);
+
+		DataConverter defaultConverter = new DataConverter();
+		defaultConverter.setBadChannelProvider(new SimpleBadChannelProvider(setOf(3, 700, 1281)));
+		defaultConverter.setFlatFieldData(rawData);
+		defaultConverter.setAngularCalibrationParameters(params);
+		defaultConverter.setBeamlineOffset(0.08208);
+
+		MythenProcessedDataset expected = defaultConverter.process(rawData, 10.0);
+		MythenProcessedDataset actual = chainConverter.process(rawData, 10.0);
+		assertEquals(rawData.size() - 3, actual.size());
+		assertArrayEquals(expected.getAngleArray(), actual.getAngleArray(), 0);
+		assertArrayEquals(expected.getCountArray(), actual.getCountArray(), 0);
+		assertEquals(params, angles.getAngularCalibrationParameters());
+	}
+
+	@Test
+	public void testPropertiesSetBeforeChainConfigureItsStages() {
+		DataConverter chainConverter = new DataConverter();
+		chainConverter.setBadChannelProvider(new SimpleBadChannelProvider(setOf(3, 700, 1281)));
+		chainConverter.setAngularCalibrationParameters(params);
+		AngularConversion angles = new AngularConversion();
+		BadChannelCorrection badChannels = new BadChannelCorrection();
+		chainConverter.setCorrectionStages(Arrays.<CorrectionStage> asList(badChannels, angles));
+
+		assertEquals(params, angles.getAngularCalibrationParameters());
+		assertEquals(rawData.size() - 3, chainConverter.process(rawData, 10.0).size());
+	}
+
+	@Test
+	public void testEmptyChainLeavesFrameUnchanged() {
+		DataConverter converter = new DataConverter();
+		converter.setCorrectionStages(Collections.<CorrectionStage> emptyList());
+		MythenProcessedDataset processed = converter.process(rawData, 10.0);
+		assertEquals(rawData.size(), processed.size());
+		for (int i = 0; i < processed.size(); i++) {
+			assertEquals(rawData.getChannels()[i], processed.getChannel(i));
+			assertEquals(rawData.getChannels()[i], processed.getAngle(i), 0);
+			assertEquals(rawData.getCounts()[i], processed.getCount(i));
+		}
+		assertEquals(0, converter.getFlatFieldGeneration());
+	}
+
+	@Test
+	public void testMonitorNormalisation() {
+		MonitorNormalisation normalisation = new MonitorNormalisation();
+		normalisation.setReferenceMonitor(1000);
+		DataConverter converter = new DataConverter();
+		converter.setCorrectionStages(Collections.<CorrectionStage> singletonList(normalisation));
+
+		MythenRawDataset frame = MythenRawDataset.fromCounts(new int[] { 100, 250, 4 });
+		MythenProcessedDataset processed = converter.process(frame, 0, 500);
+		assertArrayEquals(new double[] { 200, 500, 8 }, processed.getCountArray(), 0);
+		// scaled Poisson error of the raw count: 2 * sqrt(250)
+		assertEquals((int) (2 * Math.sqrt(250)), processed.getError(1));
+	}
+
+	@Test
+	public void testMonitorNormalisationInBatch() {
+		MonitorNormalisation normalisation = new MonitorNormalisation();
+		normalisation.setReferenceMonitor(1000);
+		DataConverter converter = new DataConverter();
+		converter.setCorrectionStages(Collections.<CorrectionStage> singletonList(normalisation));
+
+		MythenRawDataset frame = MythenRawDataset.fromCounts(new int[] { 100, 250, 4 });
+		MythenProcessedDataset[] processed = converter.processBatch(Arrays.asList(frame, frame), new double[] { 0, 0 },
+				new double[] { 500, 2000 }, new double[] { Double.NaN, Double.NaN });
+		assertArrayEquals(new double[] { 200, 500, 8 }, processed[0].getCountArray(), 0);
+		assertArrayEquals(new double[] { 50, 125, 2 }, processed[1].getCountArray(), 0);
+	}
+
+	@Test
+	public void testMonitorNormalisationWithRealisticMonitor() {
+		MonitorNormalisation normalisation = new MonitorNormalisation();
+		normalisation.setReferenceMonitor(2e8);
+		DataConverter converter = new DataConverter();
+		converter.setCorrectionStages(Collections.<CorrectionStage> singletonList(normalisation));
+
+		MythenRawDataset frame = MythenRawDataset.fromCounts(new int[] { 10000, 2500, 0 });
+		MythenProcessedDataset processed = converter.process(frame, 0, 2.5e8);
+		assertArrayEquals(new double[] { 8000, 2000, 0 }, processed.getCountArray(), 0);
+		assertEquals(80, processed.getError(0));
+		assertEquals(40, processed.getError(1));
+		assertEquals(0, processed.getError(2));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testMonitorNormalisationNeedsReferenceMonitor() {
+		DataConverter converter = new DataConverter();
+		converter.setCorrectionStages(Collections.<CorrectionStage> singletonList(new MonitorNormalisation()));
+		converter.process(MythenRawDataset.fromCounts(new int[] { 100 }), 0, 1e6);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testMonitorNormalisationNeedsMonitorReading() {
+		MonitorNormalisation normalisation = new MonitorNormalisation();
+		normalisation.setReferenceMonitor(1000);
+		DataConverter converter = new DataConverter();
+		converter.setCorrectionStages(Collections.<CorrectionStage> singletonList(normalisation));
+		converter.process(MythenRawDataset.fromCounts(new int[] { 100 }), 0);
+	}
+
+	@Test
+	public void testBadChannelCorrectionCompactsFrame() {
+		CorrectionFrame frame = new CorrectionFrame();
+		frame.load(MythenRawDataset.fromCounts(new int[] { 10, 11, 12, 13, 14 }), 0, Double.NaN);
+		new BadChannelCorrection(new SimpleBadChannelProvider(setOf(0, 2))).apply(frame);
+		assertEquals(3, frame.size());
+		assertArrayEquals(new int[] { 1, 3, 4 }, Arrays.copyOf(frame.getChannels(), 3));
+		assertArrayEquals(new double[] { 11, 13, 14 }, Arrays.copyOf(frame.getCounts(), 3), 0);
+	}
+
+	@Test
+	public void testFrameBuffersReused() {
+		CorrectionFrame frame = new CorrectionFrame();
+		frame.load(rawData, 0, Double.NaN);
+		double[] counts = frame.getCounts();
+		frame.load(MythenRawDataset.fromCounts(new int[] { 1, 2 }), 0, Double.NaN);
+		assertEquals(counts, frame.getCounts());
+		assertEquals(2, frame.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFrameCannotGrow() {
+		CorrectionFrame frame = new CorrectionFrame();
+		frame.load(MythenRawDataset.fromCounts(new int[] { 1, 2 }), 0, Double.NaN);
+		frame.setSize(3);
+	}
+
+	private static Set<Integer> setOf(Integer... channels) {
+		return new HashSet<Integer>(Arrays.asList(channels));
+	}
+
+}
@@ -0,0 +1,115 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import gda.device.detector.mythen.data.CountRateCorrection.Model;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.util.StopWatch;
+
+/**
+ * Measures the cost of count-rate correction by converting the same frame with and without it.
+ */
+public class CountRateCorrectionExperiment {
+
+	private static final String RAW_FILENAME = "testfiles/gda/device/detector/mythen/data/Si_15keV_5.raw";
+
+	private static final int ITERATIONS = 2000;
+
+	abstract static class Algorithm {
+
+		String name;
+
+		public Algorithm(String name) {
+			this.name = name;
+		}
+
+		public abstract void run() throws Exception;
+	}
+
+	public static void main(String args[]) throws Exception {
+		final MythenRawDataset rawData = new MythenRawDataset(new File(RAW_FILENAME));
+
+		final DataConverter uncorrected = new DataConverter();
+		uncorrected.setCorrectionStages(Collections.<CorrectionStage> emptyList());
+
+		final DataConverter nonParalyzable = new DataConverter();
+		nonParalyzable.setCorrectionStages(Collections.<CorrectionStage> singletonList(countRateCorrection(Model.NON_PARALYZABLE)));
+
+		final DataConverter paralyzable = new DataConverter();
+		paralyzable.setCorrectionStages(Collections.<CorrectionStage> singletonList(countRateCorrection(Model.PARALYZABLE)));
+
+		Algorithm[] algorithms = new Algorithm[] {
+			new Algorithm("uncorrected") {
+				@Override
+				public void run() {
+					uncorrected.process(rawData, 0, Double.NaN, 1.0);
+				}
+			},
+			new Algorithm("nonParalyzable") {
+				@Override
+				public void run() {
+					nonParalyzable.process(rawData, 0, Double.NaN, 1.0);
+				}
+			},
+			new Algorithm("paralyzable") {
+				@Override
+				public void run() {
+					paralyzable.process(rawData, 0, Double.NaN, 1.0);
+				}
+			}
+		};
+
+		StopWatch sw = new StopWatch(CountRateCorrectionExperiment.class.getSimpleName());
+		for (Algorithm a : algorithms) {
+			System.out.printf("Testing '%s' algorithm...\n", a.name);
+
+			// warm-up
+			for (int i=0; i<ITERATIONS; i++) {
+				a.run();
+			}
+
+			// timing
+			sw.start(a.name);
+			for (int i=0; i<ITERATIONS; i++) {
+				a.run();
+			}
+			sw.stop();
+		}
+
+		// display results
+		System.out.println(sw.prettyPrint());
+		System.out.println(rawData.size() + " channels per frame");
+	}
+
+	private static CountRateCorrection countRateCorrection(Model model) {
+		Map<String, Double> deadTimes = new HashMap<String, Double>();
+		deadTimes.put("standard", 200e-9);
+		CountRateCorrection correction = new CountRateCorrection();
+		correction.setDeadTimes(deadTimes);
+		correction.setModel(model);
+		return correction;
+	}
+
+}
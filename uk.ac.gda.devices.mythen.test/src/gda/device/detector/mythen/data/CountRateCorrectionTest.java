@@ -0,0 +1,126 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertEquals;
+
+import gda.device.detector.mythen.data.CountRateCorrection.Model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link CountRateCorrection} class.
+ */
+public class CountRateCorrectionTest {
+
+	private static final double STANDARD_DEAD_TIME = 200e-9;
+
+	private static final double FAST_DEAD_TIME = 100e-9;
+
+	private CountRateCorrection correction;
+
+	@Before
+	public void setUp() {
+		Map<String, Double> deadTimes = new HashMap<String, Double>();
+		deadTimes.put("standard", STANDARD_DEAD_TIME);
+		deadTimes.put("fast", FAST_DEAD_TIME);
+		correction = new CountRateCorrection();
+		correction.setDeadTimes(deadTimes);
+	}
+
+	@Test
+	public void testNonParalyzable() {
+		double[] counts = { 0, 1000, 1e6 };
+		CountRateCorrection.correct(counts, counts.length, STANDARD_DEAD_TIME, 0.5, Model.NON_PARALYZABLE);
+		assertEquals(0, counts[0], 0);
+		assertEquals(1000 / (1 - 1000 * STANDARD_DEAD_TIME / 0.5), counts[1], 1e-9);
+		assertEquals(1e6 / (1 - 1e6 * STANDARD_DEAD_TIME / 0.5), counts[2], 1e-6);
+	}
+
+	@Test
+	public void testParalyzableInvertsModel() {
+		final double exposureTime = 2.0;
+		final double[] trueRates = { 10, 1e4, 1e5, 1e6, 2e6 };
+		double[] counts = new double[trueRates.length];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = trueRates[i] * Math.exp(-trueRates[i] * STANDARD_DEAD_TIME) * exposureTime;
+		}
+		CountRateCorrection.correct(counts, counts.length, STANDARD_DEAD_TIME, exposureTime, Model.PARALYZABLE);
+		for (int i = 0; i < counts.length; i++) {
+			assertEquals(trueRates[i] * exposureTime, counts[i], trueRates[i] * exposureTime * 1e-9);
+		}
+	}
+
+	@Test
+	public void testUncorrectableChannelsUnchanged() {
+		// above 1/(e tau) the paralyzable model has no solution
+		final double count = 1.0 / STANDARD_DEAD_TIME;
+		double[] counts = { count, 100 };
+		CountRateCorrection.correct(counts, counts.length, STANDARD_DEAD_TIME, 1.0, Model.PARALYZABLE);
+		assertEquals(count, counts[0], 0);
+		counts = new double[] { count * 2 };
+		CountRateCorrection.correct(counts, counts.length, STANDARD_DEAD_TIME, 1.0, Model.NON_PARALYZABLE);
+		assertEquals(count * 2, counts[0], 0);
+	}
+
+	@Test
+	public void testDeadTimeFollowsModuleMode() {
+		ModuleDefinitions modules = new ModuleDefinitions();
+		correction.setModuleDefinitions(modules);
+		assertEquals(STANDARD_DEAD_TIME, correction.getDeadTime(), 0);
+		modules.setMode("fast");
+		assertEquals(FAST_DEAD_TIME, correction.getDeadTime(), 0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testMissingDeadTimeRejected() {
+		correction.setMode("highgain");
+		correction.getDeadTime();
+	}
+
+	@Test
+	public void testStageUsesFrameExposureTime() {
+		correction.setModel(Model.NON_PARALYZABLE);
+		correction.setExposureTime(100);
+		DataConverter converter = new DataConverter();
+		converter.setCorrectionStages(Collections.<CorrectionStage> singletonList(correction));
+		MythenRawDataset frame = MythenRawDataset.fromCounts(new int[] { 500000 });
+
+		final int expected = (int) (500000 / (1 - 500000 * STANDARD_DEAD_TIME / 1.0));
+		assertEquals(expected, converter.process(frame, 0, Double.NaN, 1.0).getCount(0));
+
+		// no exposure time in the frame - the configured one is used
+		final int expectedDefault = (int) (500000 / (1 - 500000 * STANDARD_DEAD_TIME / 100));
+		assertEquals(expectedDefault, converter.process(frame, 0).getCount(0));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testExposureTimeRequired() {
+		DataConverter converter = new DataConverter();
+		converter.setCorrectionStages(Collections.<CorrectionStage> singletonList(correction));
+		converter.process(MythenRawDataset.fromCounts(new int[] { 1 }), 0);
+	}
+
+}
@@ -155,6 +155,120 @@ public class DataConverterTest {
 		}
 	}
 
+	/**
+	 * Tests that the cached per-channel angles give exactly the same result as evaluating the calibration for each
+	 * channel, at more than one detector position.
+	 */
+	@Test
+	public void testAnglesMatchDirectCalculation() {
+		AngularCalibrationParameters params = converter.getAngularCalibrationParameters();
+		for (double position : new double[] { DETECTOR_POSITION, -3.25 }) {
+			MythenProcessedDataset processedData = converter.process(rawData, position);
+			assertAnglesMatch(params, position, processedData);
+		}
+	}
+
+	/**
+	 * Tests that changing the calibration parameters between frames changes the calculated angles.
+	 */
+	@Test
+	public void testChangingCalibrationInvalidatesAngles() {
+		converter.process(rawData, DETECTOR_POSITION);
+		final int numModules = rawData.size() / 1280;
+		AngularCalibrationParameters dummyParams = new DummyAngularCalibrationParameters(numModules);
+		converter.setAngularCalibrationParameters(dummyParams);
+		assertAnglesMatch(dummyParams, DETECTOR_POSITION, converter.process(rawData, DETECTOR_POSITION));
+	}
+
+	/**
+	 * Tests that flat field scaling factors are only recalculated when the provider returns a different dataset.
+	 */
+	@Test
+	public void testFlatFieldGenerationFollowsProviderDataset() {
+		final MythenRawDataset[] flatField = { rawData };
+		converter.setFlatFieldDatasetProvider(new FlatFieldDatasetProvider() {
+			@Override
+			public MythenRawDataset getFlatFieldData() {
+				return flatField[0];
+			}
+		});
+		converter.process(rawData, DETECTOR_POSITION);
+		final long generation = converter.getFlatFieldGeneration();
+		assertTrue(generation > 0);
+		converter.process(rawData, DETECTOR_POSITION);
+		assertEquals(generation, converter.getFlatFieldGeneration());
+
+		flatField[0] = new MythenRawDataset(rawData.getChannels(), rawData.getCounts());
+		converter.process(rawData, DETECTOR_POSITION);
+		assertEquals(generation + 1, converter.getFlatFieldGeneration());
+	}
+
+	/**
+	 * Tests that a provider with a flat field key is not asked for its data while the key is unchanged.
+	 */
+	@Test
+	public void testFlatFieldKeyAvoidsReloading() {
+		final int[] loads = { 0 };
+		final String[] key = { "mode1" };
+		converter.setFlatFieldDatasetProvider(new FlatFieldDatasetProvider() {
+			@Override
+			public MythenRawDataset getFlatFieldData() {
+				loads[0]++;
+				return rawData;
+			}
+
+			@Override
+			public Object getFlatFieldKey() {
+				return key[0];
+			}
+		});
+		for (int i = 0; i < 3; i++) {
+			converter.process(rawData, DETECTOR_POSITION);
+		}
+		assertEquals(1, loads[0]);
+		key[0] = "mode2";
+		converter.process(rawData, DETECTOR_POSITION);
+		assertEquals(2, loads[0]);
+	}
+
+	@Test
+	public void testNoFlatFieldGeneration() {
+		assertEquals(0, converter.getFlatFieldGeneration());
+	}
+
+	@Test
+	public void testProcessBatchMatchesSerialProcessing() {
+		List<MythenRawDataset> frames = new Vector<MythenRawDataset>();
+		double[] positions = new double[8];
+		for (int i = 0; i < positions.length; i++) {
+			frames.add(rawData);
+			positions[i] = DETECTOR_POSITION + i;
+		}
+		MythenProcessedDataset[] batch = converter.processBatch(frames, positions);
+		assertEquals(positions.length, batch.length);
+		for (int i = 0; i < positions.length; i++) {
+			MythenProcessedDataset serial = converter.process(rawData, positions[i]);
+			assertArrayEquals(serial.getAngleArray(), batch[i].getAngleArray(), 0);
+			assertArrayEquals(serial.getCountArray(), batch[i].getCountArray(), 0);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testProcessBatchRejectsMismatchedPositions() {
+		converter.processBatch(Arrays.asList(rawData, rawData), new double[] { DETECTOR_POSITION });
+	}
+
+	private static void assertAnglesMatch(AngularCalibrationParameters params, double position, MythenProcessedDataset processedData) {
+		for (int i = 0; i < processedData.size(); i++) {
+			final int channel = processedData.getChannel(i);
+			AngularCalibrationModuleParameters modparams = params.getParametersForModule(channel / 1280);
+			final double expected = 2.404350 + modparams.getOffset()
+					+ Math.toDegrees(Math.atan((channel % 1280 - modparams.getCenter()) * modparams.getConversion()))
+					+ position + 0.0 + 0.08208;
+			assertEquals("Unexpected angle for channel " + channel, expected, processedData.getAngle(i), 0);
+		}
+	}
+
 	private static Set<Integer> setOf(Integer... channels) {
 		HashSet<Integer> badChannels = new HashSet<Integer>();
 		badChannels.addAll(Arrays.asList(channels));
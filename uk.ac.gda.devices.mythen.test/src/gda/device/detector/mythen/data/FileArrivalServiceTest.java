@@ -0,0 +1,140 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link FileArrivalService} class.
+ */
+public class FileArrivalServiceTest {
+
+	private File directory;
+
+	private File file;
+
+	private FileArrivalService service;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = File.createTempFile("FileArrivalServiceTest", "");
+		directory.delete();
+		directory.mkdir();
+		file = new File(directory, "data.raw");
+		service = new FileArrivalService();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		service.close();
+		file.delete();
+		directory.delete();
+	}
+
+	@Test
+	public void testExistingFileIsReturnedImmediately() throws Exception {
+		write(file, 10, false);
+		long start = System.nanoTime();
+		assertTrue(service.awaitFile(file, 5, TimeUnit.SECONDS));
+		assertTrue(elapsedMillis(start) < 1000);
+	}
+
+	@Test
+	public void testMissingFileTimesOut() throws Exception {
+		long start = System.nanoTime();
+		assertFalse(service.awaitFile(file, 300, TimeUnit.MILLISECONDS));
+		long elapsed = elapsedMillis(start);
+		assertTrue("Returned after " + elapsed + " ms", elapsed >= 290 && elapsed < 2000);
+	}
+
+	@Test
+	public void testFileWrittenLater() throws Exception {
+		writeLater(false);
+		assertTrue(service.awaitFile(file, 5, TimeUnit.SECONDS));
+		assertEquals(100, file.length());
+	}
+
+	@Test
+	public void testFileWrittenLaterWithPollingOnly() throws Exception {
+		service.close();
+		service = new FileArrivalService(false);
+		assertFalse(service.isWatching());
+		writeLater(false);
+		assertTrue(service.awaitFile(file, 5, TimeUnit.SECONDS));
+		assertEquals(100, file.length());
+	}
+
+	@Test
+	public void testGrowingFileIsNotReturnedUntilStable() throws Exception {
+		service.setStabilityInterval(100, TimeUnit.MILLISECONDS);
+		writeLater(true);
+		assertTrue(service.awaitFile(file, 5, TimeUnit.SECONDS));
+		assertEquals(100, file.length());
+	}
+
+	/**
+	 * Writes 100 bytes to the file from another thread, either all at once or in ten chunks 20 ms apart.
+	 */
+	private void writeLater(final boolean slowly) {
+		Thread writer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(100);
+					write(file, 100, slowly);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	private static void write(File file, int length, boolean slowly) throws IOException, InterruptedException {
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			if (slowly) {
+				for (int i = 0; i < 10; i++) {
+					out.write(new byte[length / 10]);
+					out.flush();
+					Thread.sleep(20);
+				}
+			} else {
+				out.write(new byte[length]);
+			}
+		}
+	}
+
+	private static long elapsedMillis(long start) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
+}
@@ -0,0 +1,148 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import gda.device.detector.mythen.data.FrameProcessingEngine.FrameConsumer;
+import gda.device.detector.mythen.data.FrameProcessingEngine.FrameTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link FrameProcessingEngine} class.
+ */
+public class FrameProcessingEngineTest {
+
+	private final FrameProcessingEngine engine = new FrameProcessingEngine(4);
+
+	@Test
+	public void testResultsConsumedInFrameOrder() {
+		final List<Integer> consumed = new ArrayList<Integer>();
+		engine.run(50, new FrameTask<Integer>() {
+			@Override
+			public Integer process(int frame) throws Exception {
+				// later frames finish first
+				Thread.sleep(frame % 4 == 0 ? 5 : 0);
+				return frame * 10;
+			}
+		}, new FrameConsumer<Integer>() {
+			@Override
+			public void accept(int frame, Integer result) {
+				assertEquals(frame * 10, result.intValue());
+				consumed.add(frame);
+			}
+		});
+		assertEquals(50, consumed.size());
+		for (int i = 0; i < consumed.size(); i++) {
+			assertEquals(i, consumed.get(i).intValue());
+		}
+	}
+
+	@Test
+	public void testConsumerRunsOnCallingThread() {
+		final Thread caller = Thread.currentThread();
+		engine.run(10, new FrameTask<Thread>() {
+			@Override
+			public Thread process(int frame) {
+				return Thread.currentThread();
+			}
+		}, new FrameConsumer<Thread>() {
+			@Override
+			public void accept(int frame, Thread worker) {
+				assertTrue(worker != caller);
+				assertEquals(caller, Thread.currentThread());
+			}
+		});
+	}
+
+	@Test
+	public void testNullResultsPassedThrough() {
+		final AtomicInteger nulls = new AtomicInteger();
+		engine.run(6, new FrameTask<String>() {
+			@Override
+			public String process(int frame) {
+				return frame % 2 == 0 ? null : "frame" + frame;
+			}
+		}, new FrameConsumer<String>() {
+			@Override
+			public void accept(int frame, String result) {
+				if (frame % 2 == 0) {
+					assertNull(result);
+					nulls.incrementAndGet();
+				}
+			}
+		});
+		assertEquals(3, nulls.get());
+	}
+
+	@Test
+	public void testWindowLimitsFramesInFlight() {
+		engine.setWindow(3);
+		final AtomicInteger started = new AtomicInteger();
+		final AtomicInteger maxAhead = new AtomicInteger();
+		engine.run(30, new FrameTask<Integer>() {
+			@Override
+			public Integer process(int frame) {
+				return started.incrementAndGet();
+			}
+		}, new FrameConsumer<Integer>() {
+			@Override
+			public void accept(int frame, Integer result) {
+				maxAhead.set(Math.max(maxAhead.get(), started.get() - frame));
+			}
+		});
+		assertTrue("Too many frames in flight: " + maxAhead.get(), maxAhead.get() <= 3);
+	}
+
+	@Test
+	public void testFailureStopsProcessing() {
+		final List<Integer> consumed = new ArrayList<Integer>();
+		try {
+			engine.run(20, new FrameTask<Integer>() {
+				@Override
+				public Integer process(int frame) {
+					if (frame == 5) {
+						throw new IllegalStateException("bad frame");
+					}
+					return frame;
+				}
+			}, new FrameConsumer<Integer>() {
+				@Override
+				public void accept(int frame, Integer result) {
+					consumed.add(result);
+				}
+			});
+			fail("Expected failure");
+		} catch (RuntimeException e) {
+			assertTrue(e.getMessage().contains("frame 5"));
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		assertEquals(5, consumed.size());
+	}
+
+}
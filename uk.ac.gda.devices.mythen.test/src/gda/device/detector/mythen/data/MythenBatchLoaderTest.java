@@ -0,0 +1,117 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link MythenBatchLoader} class.
+ */
+public class MythenBatchLoaderTest {
+
+	private static final String PROCESSED_FILENAME = "testfiles/gda/device/detector/mythen/data/Si_15keV_5.dat";
+
+	private static final String MISSING_FILENAME = "testfiles/gda/device/detector/mythen/data/missing.dat";
+
+	private static String[] filenames(int count) {
+		String[] filenames = new String[count];
+		for (int i = 0; i < count; i++) {
+			filenames[i] = PROCESSED_FILENAME;
+		}
+		return filenames;
+	}
+
+	@Test
+	public void testLoadMatchesSingleFileReads() {
+		double[][] expected = MythenDataFileUtils.readMythenProcessedDataFile(PROCESSED_FILENAME, false);
+		double[][][] data = new MythenBatchLoader().load(filenames(8));
+		assertEquals(8, data.length);
+		for (double[][] frame : data) {
+			assertEquals(expected.length, frame.length);
+			assertArrayEquals(expected[expected.length - 1], frame[frame.length - 1], 0);
+		}
+	}
+
+	@Test
+	public void testFailureIsPropagatedWithFilename() {
+		String[] filenames = filenames(6);
+		filenames[3] = MISSING_FILENAME;
+		try {
+			new MythenBatchLoader().load(filenames);
+			fail("Expected exception for missing file");
+		} catch (RuntimeException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(MISSING_FILENAME));
+		}
+	}
+
+	@Test
+	public void testStreamDeliversInOrder() {
+		final List<Integer> indices = new ArrayList<Integer>();
+		new MythenBatchLoader().stream(filenames(20), new MythenBatchLoader.FrameConsumer() {
+			@Override
+			public void accept(int index, double[][] data) {
+				indices.add(index);
+			}
+		});
+		assertEquals(20, indices.size());
+		for (int i = 0; i < indices.size(); i++) {
+			assertEquals(i, indices.get(i).intValue());
+		}
+	}
+
+	@Test
+	public void testProgressReportedForEveryFile() {
+		final List<Integer> progress = Collections.synchronizedList(new ArrayList<Integer>());
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			MythenBatchLoader loader = new MythenBatchLoader(executor);
+			loader.setProgressListener(new MythenBatchLoader.ProgressListener() {
+				@Override
+				public void progress(int completed, int total) {
+					assertEquals(5, total);
+					progress.add(completed);
+				}
+			});
+			loader.load(filenames(5));
+		} finally {
+			executor.shutdown();
+		}
+		Collections.sort(progress);
+		assertEquals(5, progress.size());
+		assertEquals(5, progress.get(4).intValue());
+	}
+
+	@Test
+	public void testEmptyBatch() {
+		assertEquals(0, new MythenBatchLoader().load(new String[0]).length);
+	}
+
+}
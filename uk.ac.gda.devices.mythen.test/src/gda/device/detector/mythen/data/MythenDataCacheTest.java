@@ -0,0 +1,158 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the {@link MythenDataCache} class.
+ */
+public class MythenDataCacheTest {
+
+	private static final String PROCESSED_FILENAME = "testfiles/gda/device/detector/mythen/data/Si_15keV_5.dat";
+
+	private final List<File> tempFiles = new ArrayList<File>();
+
+	private int loads;
+
+	private final MythenDataCache.Loader<double[][]> countingLoader = new MythenDataCache.Loader<double[][]>() {
+		@Override
+		public double[][] load(File file) throws IOException {
+			loads++;
+			return new double[(int) file.length()][1];
+		}
+	};
+
+	@After
+	public void deleteTempFiles() {
+		for (File file : tempFiles) {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testSecondReadIsHit() throws IOException {
+		MythenDataCache cache = new MythenDataCache(1 << 20);
+		File file = writeTempFile(10);
+		double[][] first = cache.get(file, "rows", countingLoader);
+		double[][] second = cache.get(file, "rows", countingLoader);
+		assertSame(first, second);
+		assertEquals(1, loads);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+
+	@Test
+	public void testVariantsAreCachedSeparately() throws IOException {
+		MythenDataCache cache = new MythenDataCache(1 << 20);
+		File file = writeTempFile(10);
+		cache.get(file, "a", countingLoader);
+		cache.get(file, "b", countingLoader);
+		assertEquals(2, loads);
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testModifiedFileIsReloaded() throws IOException {
+		MythenDataCache cache = new MythenDataCache(1 << 20);
+		File file = writeTempFile(10);
+		double[][] first = cache.get(file, "rows", countingLoader);
+		file.setLastModified(file.lastModified() - 10000);
+		double[][] second = cache.get(file, "rows", countingLoader);
+		assertNotSame(first, second);
+		assertEquals(2, loads);
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvictedWhenOverBound() throws IOException {
+		File a = writeTempFile(100);
+		File b = writeTempFile(100);
+		File c = writeTempFile(100);
+		final long entryBytes = MythenDataCache.estimateBytes(new double[100][1]);
+		MythenDataCache cache = new MythenDataCache(2 * entryBytes);
+
+		cache.get(a, "rows", countingLoader);
+		cache.get(b, "rows", countingLoader);
+		cache.get(a, "rows", countingLoader); // a is now more recently used than b
+		cache.get(c, "rows", countingLoader); // evicts b
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(2 * entryBytes, cache.getBytes());
+
+		loads = 0;
+		cache.get(a, "rows", countingLoader);
+		cache.get(c, "rows", countingLoader);
+		assertEquals(0, loads);
+		cache.get(b, "rows", countingLoader);
+		assertEquals(1, loads);
+	}
+
+	@Test
+	public void testZeroBoundDisablesCaching() throws IOException {
+		MythenDataCache cache = new MythenDataCache(0);
+		File file = writeTempFile(10);
+		cache.get(file, "rows", countingLoader);
+		cache.get(file, "rows", countingLoader);
+		assertEquals(2, loads);
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testProcessedFileReadsShareCache() {
+		MythenDataCache cache = MythenDataCache.getInstance();
+		cache.clear();
+		double[][] first = MythenDataFileUtils.readMythenProcessedDataFile(PROCESSED_FILENAME, false);
+		double[][] second = MythenDataFileUtils.readMythenProcessedDataFile(PROCESSED_FILENAME, false);
+		assertNotSame(first, second);
+		assertArrayEquals(first, second);
+		assertEquals(1, cache.getHitCount());
+	}
+
+	@Test
+	public void testCachedReadsCannotBeModifiedByCallers() {
+		MythenDataCache.getInstance().clear();
+		double[][] first = MythenDataFileUtils.readMythenProcessedDataFile(PROCESSED_FILENAME, false);
+		final double count = first[0][1];
+		first[0][1] = -1;
+		double[][] second = MythenDataFileUtils.readMythenProcessedDataFile(PROCESSED_FILENAME, false);
+		assertEquals(count, second[0][1], 0);
+	}
+
+	private File writeTempFile(int length) throws IOException {
+		File file = File.createTempFile("MythenDataCacheTest", ".dat");
+		tempFiles.add(file);
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write(new byte[length]);
+		}
+		return file;
+	}
+
+}
@@ -0,0 +1,128 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.util.StopWatch;
+
+/**
+ * Measures how the time taken to sum a large scan of Mythen data changes with the number of threads used.
+ * <p>
+ * To keep the memory needed down, the input is made from a smaller number of distinct datasets, each of which
+ * appears several times; every dataset is still interpolated and summed separately.
+ */
+public class MythenParallelSumExperiment {
+
+	private static final int NUM_MODULES = 24;
+
+	private static final int NUM_DATASETS = 1000;
+
+	private static final int NUM_DISTINCT_DATASETS = 50;
+
+	private static final int ITERATIONS = 3;
+
+	private static final double STEP = 0.004;
+
+	abstract static class Algorithm {
+
+		String name;
+
+		public Algorithm(String name) {
+			this.name = name;
+		}
+
+		public abstract void run() throws Exception;
+	}
+
+	public static void main(String args[]) throws Exception {
+		final BadChannelProvider badChannels = new SimpleBadChannelProvider(5, 1300, 1301, 3000);
+		final BadChannelMask mask = badChannels.getBadChannelMask();
+		final int channels = NUM_MODULES * 1280 - mask.countInRange(0, NUM_MODULES * 1280);
+		final double[][][] distinct = new double[NUM_DISTINCT_DATASETS][][];
+		for (int d = 0; d < NUM_DISTINCT_DATASETS; d++) {
+			distinct[d] = new double[channels][];
+			int i = 0;
+			for (int channel = 0; channel < NUM_MODULES * 1280; channel++) {
+				if (!mask.isBad(channel)) {
+					final double angle = 0.0013 + 0.01 * d + (channel / 1280) * 5.0 + (channel % 1280) * 0.00375;
+					final double count = 1000 + (channel * 31 + d * 17) % 97;
+					distinct[d][i++] = new double[] { angle, count, Math.sqrt(count) };
+				}
+			}
+		}
+		final double[][][] datasets = new double[NUM_DATASETS][][];
+		for (int d = 0; d < NUM_DATASETS; d++) {
+			datasets[d] = distinct[d % NUM_DISTINCT_DATASETS];
+		}
+
+		List<Algorithm> algorithms = new ArrayList<Algorithm>();
+		algorithms.add(new Algorithm("serial") {
+			@Override
+			public void run() {
+				MythenSum.sumSerially(datasets, NUM_MODULES, badChannels, STEP);
+			}
+		});
+		for (int threads : threadCounts(Runtime.getRuntime().availableProcessors())) {
+			final ForkJoinPool pool = new ForkJoinPool(threads);
+			algorithms.add(new Algorithm("parallel-" + threads) {
+				@Override
+				public void run() {
+					MythenSum.sum(datasets, NUM_MODULES, badChannels, STEP, pool);
+				}
+			});
+		}
+
+		StopWatch sw = new StopWatch(MythenParallelSumExperiment.class.getSimpleName());
+		for (Algorithm a : algorithms) {
+			System.out.printf("Testing '%s' algorithm...\n", a.name);
+
+			// warm-up
+			for (int i=0; i<ITERATIONS; i++) {
+				a.run();
+			}
+
+			// timing
+			sw.start(a.name);
+			for (int i=0; i<ITERATIONS; i++) {
+				a.run();
+			}
+			sw.stop();
+		}
+
+		// display results
+		System.out.println(sw.prettyPrint());
+	}
+
+	/**
+	 * Returns 1, 2, 4... up to the number of processors, always including the number of processors itself.
+	 */
+	private static List<Integer> threadCounts(int processors) {
+		List<Integer> counts = new ArrayList<Integer>();
+		for (int threads = 1; threads < processors; threads *= 2) {
+			counts.add(threads);
+		}
+		counts.add(processors);
+		return counts;
+	}
+
+}
@@ -0,0 +1,104 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Random;
+
+import org.springframework.util.StopWatch;
+
+/**
+ * Compares the time taken to save a 24-module processed frame using {@code PrintWriter.printf} and using
+ * {@link MythenProcessedDataWriter}.
+ */
+public class MythenProcessedDataWriterExperiment {
+
+	private static final int NUM_CHANNELS = 24 * 1280;
+
+	private static final int ITERATIONS = 200;
+
+	abstract static class Algorithm {
+
+		String name;
+
+		public Algorithm(String name) {
+			this.name = name;
+		}
+
+		public abstract void run() throws Exception;
+	}
+
+	public static void main(String args[]) throws Exception {
+		final double[] angles = new double[NUM_CHANNELS];
+		final int[] counts = new int[NUM_CHANNELS];
+		final int[] errors = new int[NUM_CHANNELS];
+		final int[] channels = new int[NUM_CHANNELS];
+		Random rand = new Random();
+		for (int i = 0; i < NUM_CHANNELS; i++) {
+			angles[i] = -5 + i * 0.004 + rand.nextDouble() * 1e-4;
+			counts[i] = rand.nextInt(1 << 20);
+			errors[i] = (int) Math.sqrt(counts[i]);
+			channels[i] = i;
+		}
+		final MythenProcessedDataset dataset = new MythenProcessedDataset(angles, counts, errors, channels);
+		final File file = File.createTempFile(MythenProcessedDataWriterExperiment.class.getSimpleName(), ".dat");
+		file.deleteOnExit();
+
+		StopWatch sw = new StopWatch(MythenProcessedDataWriterExperiment.class.getSimpleName());
+
+		Algorithm printf = new Algorithm("printf") {
+			@Override
+			public void run() throws Exception {
+				try (PrintWriter pw = new PrintWriter(file)) {
+					for (int i = 0; i < NUM_CHANNELS; i++) {
+						pw.printf("%f\t%d\t%d\t%d\n", angles[i], counts[i], errors[i], channels[i]);
+					}
+				}
+			}
+		};
+
+		Algorithm save = new Algorithm("MythenProcessedDataset.save") {
+			@Override
+			public void run() throws Exception {
+				dataset.save(file, true);
+			}
+		};
+
+		for (Algorithm a : new Algorithm[] { printf, save }) {
+			System.out.printf("Testing '%s'...\n", a.name);
+
+			// warm-up
+			for (int i = 0; i < ITERATIONS; i++) {
+				a.run();
+			}
+
+			// timing
+			sw.start(a.name);
+			for (int i = 0; i < ITERATIONS; i++) {
+				a.run();
+			}
+			sw.stop();
+		}
+
+		System.out.println(sw.prettyPrint());
+		System.out.printf("%d frames of %d channels each%n", ITERATIONS, NUM_CHANNELS);
+	}
+
+}
@@ -0,0 +1,151 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * Tests the {@link MythenProcessedDataWriter} class.
+ */
+public class MythenProcessedDataWriterTest {
+
+	private static final String PROCESSED_FILENAME = "testfiles/gda/device/detector/mythen/data/Si_15keV_5.dat";
+
+	private File actualFile;
+
+	private File expectedFile;
+
+	@Before
+	public void setUp() throws IOException {
+		actualFile = File.createTempFile("MythenProcessedDataWriterTest", ".actual");
+		expectedFile = File.createTempFile("MythenProcessedDataWriterTest", ".expected");
+	}
+
+	@After
+	public void tearDown() {
+		actualFile.delete();
+		expectedFile.delete();
+	}
+
+	@Test
+	public void testDoublesMatchPrintf() throws IOException {
+		final double[] values = new double[100000];
+		Random rand = new Random(5678);
+		for (int i = 0; i < values.length; i++) {
+			switch (i % 4) {
+			case 0:
+				values[i] = rand.nextDouble() * 180 - 90;
+				break;
+			case 1:
+				// exactly representable half-way points and near misses
+				values[i] = (rand.nextInt(2000000) + 0.5) / 1e6;
+				break;
+			case 2:
+				values[i] = rand.nextGaussian() * 1e-6;
+				break;
+			default:
+				values[i] = Double.longBitsToDouble(rand.nextLong());
+			}
+		}
+		final double[] special = { 0.0, -0.0, -1e-9, 0.5e-6, 1.5e-6, 2.5e-6, 0.125, 1.0000005, 123.4567895,
+				999999999999.9999, 1e12, 1e300, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY,
+				Double.NEGATIVE_INFINITY, Integer.MIN_VALUE };
+
+		try (MythenProcessedDataWriter writer = new MythenProcessedDataWriter(actualFile)) {
+			for (double value : values) {
+				writer.writeDouble(value);
+				writer.write('\n');
+			}
+			for (double value : special) {
+				writer.writeDouble(value);
+				writer.newLine();
+			}
+		}
+		try (PrintWriter pw = new PrintWriter(expectedFile)) {
+			for (double value : values) {
+				pw.printf("%f\n", value);
+			}
+			for (double value : special) {
+				pw.printf("%f%n", value);
+			}
+		}
+		assertFilesEqual();
+	}
+
+	@Test
+	public void testIntsMatchPrintf() throws IOException {
+		final int[] values = { 0, 1, -1, 9, 10, 1279, 30719, 16777215, Integer.MAX_VALUE, Integer.MIN_VALUE };
+		try (MythenProcessedDataWriter writer = new MythenProcessedDataWriter(actualFile)) {
+			for (int value : values) {
+				writer.writeInt(value);
+				writer.write('\t');
+			}
+		}
+		try (PrintWriter pw = new PrintWriter(expectedFile)) {
+			for (int value : values) {
+				pw.printf("%d\t", value);
+			}
+		}
+		assertFilesEqual();
+	}
+
+	@Test
+	public void testSaveMatchesPrintfLayout() throws IOException {
+		MythenProcessedDataset dataset = new MythenProcessedDataset(new File(PROCESSED_FILENAME));
+		dataset.save(actualFile, true);
+
+		try (PrintWriter pw = new PrintWriter(expectedFile)) {
+			for (MythenProcessedData line : dataset.getLines()) {
+				pw.printf("%f\t%d\t%d\t%d\n", line.getAngle(), line.getCount(), line.getError(), line.getChannel());
+			}
+		}
+		// Skip the header lines, which include the current time
+		final String actual = new String(FileCopyUtils.copyToByteArray(actualFile));
+		final String expected = new String(FileCopyUtils.copyToByteArray(expectedFile));
+		assertEquals(expected, actual.substring(actual.indexOf("Channel\n") + "Channel\n".length()));
+	}
+
+	@Test
+	public void testSaveProcessedDataFileMatchesPrintf() throws IOException {
+		final double[][] data = MythenDataFileUtils.readMythenProcessedDataFile(PROCESSED_FILENAME, false);
+		MythenDataFileUtils.saveProcessedDataFile(data, actualFile.getAbsolutePath());
+		try (PrintWriter pw = new PrintWriter(expectedFile)) {
+			for (double[] point : data) {
+				pw.printf("%f %f %f%n", point[0], point[1], point[2]);
+			}
+		}
+		assertFilesEqual();
+	}
+
+	private void assertFilesEqual() throws IOException {
+		assertArrayEquals(FileCopyUtils.copyToByteArray(expectedFile), FileCopyUtils.copyToByteArray(actualFile));
+	}
+
+}
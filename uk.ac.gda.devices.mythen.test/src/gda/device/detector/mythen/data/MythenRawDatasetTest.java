@@ -0,0 +1,73 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link MythenRawDataset} class.
+ */
+public class MythenRawDatasetTest {
+
+	private static final String RAW_FILENAME = "testfiles/gda/device/detector/mythen/data/Si_15keV_5.raw";
+
+	@Test
+	public void testLinesViewMatchesArrays() {
+		MythenRawDataset dataset = new MythenRawDataset(new File(RAW_FILENAME));
+		final int[] channels = dataset.getChannels();
+		final int[] counts = dataset.getCounts();
+		final List<MythenRawData> lines = dataset.getLines();
+
+		assertEquals(dataset.size(), lines.size());
+		for (int i = 0; i < lines.size(); i++) {
+			assertEquals(channels[i], lines.get(i).getChannel());
+			assertEquals(counts[i], lines.get(i).getCount());
+		}
+	}
+
+	@Test
+	public void testSetLinesRoundTrip() {
+		MythenRawDataset original = new MythenRawDataset(new File(RAW_FILENAME));
+		MythenRawDataset copy = new MythenRawDataset();
+		copy.setLines(original.getLines());
+		assertArrayEquals(original.getChannels(), copy.getChannels());
+		assertArrayEquals(original.getCounts(), copy.getCounts());
+	}
+
+	@Test
+	public void testFromCounts() {
+		MythenRawDataset dataset = MythenRawDataset.fromCounts(new int[] { 5, 7, 9 });
+		assertArrayEquals(new int[] { 0, 1, 2 }, dataset.getChannels());
+		assertEquals(3, dataset.getLines().size());
+		assertEquals(1, dataset.getLines().get(1).getChannel());
+		assertEquals(7, dataset.getLines().get(1).getCount());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMismatchedArraysRejected() {
+		new MythenRawDataset(new int[] { 0, 1 }, new int[] { 5 });
+	}
+
+}
@@ -0,0 +1,111 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the {@link MythenRawFileReader} class.
+ */
+public class MythenRawFileReaderTest {
+
+	private static final String RAW_FILENAME = "testfiles/gda/device/detector/mythen/data/Si_15keV_5.raw";
+
+	private final MythenRawFileReader reader = new MythenRawFileReader();
+
+	private File tempFile;
+
+	@After
+	public void deleteTempFile() {
+		if (tempFile != null) {
+			tempFile.delete();
+		}
+	}
+
+	@Test
+	public void testMatchesLineByLineParsing() throws IOException {
+		List<int[]> expected = new ArrayList<int[]>();
+		try (BufferedReader br = new BufferedReader(new FileReader(RAW_FILENAME))) {
+			String line;
+			while ((line = br.readLine()) != null) {
+				String[] tokens = line.split(" ");
+				expected.add(new int[] { Integer.parseInt(tokens[0]), Integer.parseInt(tokens[1]) });
+			}
+		}
+
+		MythenRawDataset dataset = reader.read(new File(RAW_FILENAME));
+		assertEquals(expected.size(), dataset.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i)[0], dataset.getChannels()[i]);
+			assertEquals(expected.get(i)[1], dataset.getCounts()[i]);
+		}
+	}
+
+	@Test
+	public void testReaderCanBeReused() throws IOException {
+		MythenRawDataset first = reader.read(new File(RAW_FILENAME));
+		MythenRawDataset small = reader.read(writeTempFile("0 1\n1 2\n"));
+		MythenRawDataset second = reader.read(new File(RAW_FILENAME));
+		assertEquals(2, small.size());
+		assertArrayEquals(first.getCounts(), second.getCounts());
+	}
+
+	@Test
+	public void testTabsCrLfAndBlankLines() throws IOException {
+		MythenRawDataset dataset = reader.read(writeTempFile("# comment\r\n0\t10\r\n\r\n1  20 \r\n2 30"));
+		assertArrayEquals(new int[] { 0, 1, 2 }, dataset.getChannels());
+		assertArrayEquals(new int[] { 10, 20, 30 }, dataset.getCounts());
+	}
+
+	@Test
+	public void testEmptyFile() throws IOException {
+		assertEquals(0, reader.read(writeTempFile("")).size());
+	}
+
+	@Test(expected = IOException.class)
+	public void testMissingCountRejected() throws IOException {
+		reader.read(writeTempFile("0 10\n1\n"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testNonNumericRejected() throws IOException {
+		reader.read(writeTempFile("0 1.5\n"));
+	}
+
+	private File writeTempFile(String contents) throws IOException {
+		tempFile = File.createTempFile("MythenRawFileReaderTest", ".raw");
+		try (FileOutputStream out = new FileOutputStream(tempFile)) {
+			out.write(contents.getBytes("US-ASCII"));
+		}
+		return tempFile;
+	}
+
+}
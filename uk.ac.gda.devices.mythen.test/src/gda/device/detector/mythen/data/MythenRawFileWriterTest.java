@@ -0,0 +1,128 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * Tests the {@link MythenRawFileWriter} and {@link MythenBinaryRawFile} classes.
+ */
+public class MythenRawFileWriterTest {
+
+	private File file;
+
+	private int[] counts;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("MythenRawFileWriterTest", ".raw");
+		counts = new int[2 * 1280];
+		Random rand = new Random(1234);
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = rand.nextInt(1 << 24);
+		}
+	}
+
+	@After
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Test
+	public void testAsciiOutputMatchesPrintf() throws IOException {
+		counts[0] = 0;
+		counts[1] = -17;
+		counts[2] = Integer.MAX_VALUE;
+		new MythenRawFileWriter(RawFileFormat.ASCII).write(file, MythenRawDataset.fromCounts(counts), 0);
+
+		File expectedFile = File.createTempFile("MythenRawFileWriterTest", ".expected");
+		try {
+			PrintWriter pw = new PrintWriter(expectedFile);
+			for (int channel = 0; channel < counts.length; channel++) {
+				pw.printf("%d %d\n", channel, counts[channel]);
+			}
+			pw.close();
+			assertArrayEquals(FileCopyUtils.copyToByteArray(expectedFile),
+					FileCopyUtils.copyToByteArray(file));
+		} finally {
+			expectedFile.delete();
+		}
+	}
+
+	@Test
+	public void testBinaryRoundTrip() throws IOException {
+		for (int bitDepth : new int[] { 4, 8, 16, 24, 32 }) {
+			int[] frame = new int[counts.length];
+			for (int i = 0; i < frame.length; i++) {
+				frame[i] = bitDepth == 32 ? counts[i] : counts[i] & ((1 << bitDepth) - 1);
+			}
+			new MythenBinaryRawFile(2, bitDepth, 1234567890L, 12.5, frame).write(file);
+
+			assertEquals(MythenBinaryRawFile.HEADER_SIZE + frame.length * ((bitDepth + 7) / 8), file.length());
+			MythenBinaryRawFile read = MythenBinaryRawFile.read(file);
+			assertEquals(2, read.getModuleCount());
+			assertEquals(bitDepth, read.getBitDepth());
+			assertEquals(1234567890L, read.getTimestamp());
+			assertEquals(12.5, read.getDelta(), 0);
+			assertArrayEquals(frame, read.getCounts());
+		}
+	}
+
+	@Test
+	public void testBinaryFileReadAsRawDataset() throws IOException {
+		MythenRawFileWriter writer = new MythenRawFileWriter(RawFileFormat.BINARY);
+		writer.write(file, MythenRawDataset.fromCounts(counts), 3.0);
+		MythenRawDataset dataset = new MythenRawDataset(file);
+		assertArrayEquals(counts, dataset.getCounts());
+		assertEquals(1279, dataset.getChannels()[1279]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCountTooLargeForBitDepth() throws IOException {
+		counts[5] = 1 << 16;
+		new MythenBinaryRawFile(2, 16, 0, 0, counts).write(file);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBinaryRequiresFullFrame() throws IOException {
+		new MythenRawFileWriter(RawFileFormat.BINARY).write(file, new MythenRawDataset(new int[] { 0, 2 }, new int[] { 1, 2 }), 0);
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedBinaryFileRejected() throws IOException {
+		new MythenBinaryRawFile(2, 24, 0, 0, counts).write(file);
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(file.length() - 1);
+		}
+		MythenBinaryRawFile.read(file);
+	}
+
+}
@@ -0,0 +1,149 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import gda.device.detector.mythen.data.MythenRebinner.Mode;
+
+/**
+ * Tests the {@link MythenRebinner} class.
+ */
+public class MythenRebinnerTest {
+
+	private static final double[][][] INPUT = {
+		{ { 0.1, 10 }, { 0.3, 20 }, { 0.7, 40 }, { 1.5, 5 } },
+		{ { 0.2, 1 }, { 0.9, 3 }, { 2.4, 7 } },
+	};
+
+	@Test
+	public void testSum() {
+		BinnedMythenData binned = MythenRebinner.bin(INPUT, 0.5, Mode.SUM);
+		assertEquals(0, binned.getFirstBinNumber());
+		assertEquals(5, binned.getNumberOfBins());
+		assertArrayEquals(new double[] { 0, 0.5, 1.0, 1.5, 2.0 }, binned.getAngles(), 1e-12);
+		assertArrayEquals(new double[] { 30, 40, 0, 5, 0, 1, 3, 0, 0, 7 }, binned.getCounts(), 0);
+	}
+
+	@Test
+	public void testMean() {
+		BinnedMythenData binned = MythenRebinner.bin(INPUT, 0.5, Mode.MEAN);
+		assertArrayEquals(new double[] { 15, 40, 0, 5, 0, 1, 3, 0, 0, 7 }, binned.getCounts(), 0);
+	}
+
+	@Test
+	public void testMax() {
+		BinnedMythenData binned = MythenRebinner.bin(INPUT, 0.5, Mode.MAX);
+		assertArrayEquals(new double[] { 20, 40, 0, 5, 0, 1, 3, 0, 0, 7 }, binned.getCounts(), 0);
+	}
+
+	@Test
+	public void testMaxOfNegativeCounts() {
+		BinnedMythenData binned = MythenRebinner.bin(new double[][][] { { { 0.1, -3 }, { 0.2, -2 } } }, 1, Mode.MAX);
+		assertArrayEquals(new double[] { -2 }, binned.getCounts(), 0);
+	}
+
+	@Test
+	public void testNegativeAngles() {
+		BinnedMythenData binned = MythenRebinner.bin(new double[][][] { { { -2.25, 1 }, { -1.75, 2 }, { -0.5, 3 } } }, 1, Mode.SUM);
+		assertEquals(-3, binned.getFirstBinNumber());
+		assertArrayEquals(new double[] { -3, -2, -1 }, binned.getAngles(), 0);
+		assertArrayEquals(new double[] { 1, 2, 3 }, binned.getCounts(), 0);
+	}
+
+	@Test
+	public void testOverlapSharesCountsBetweenBins() {
+		// Channels 0.1 apart, so each covers 0.05 either side of its angle
+		BinnedMythenData binned = MythenRebinner.bin(new double[][][] { { { 0.95, 10 }, { 1.05, 20 }, { 1.15, 30 } } }, 1, Mode.OVERLAP);
+		assertEquals(0, binned.getFirstBinNumber());
+		assertArrayEquals(new double[] { 10, 50 }, binned.getCounts(), 1e-9);
+
+		binned = MythenRebinner.bin(new double[][][] { { { 0.0, 10 }, { 0.1, 20 }, { 0.2, 30 } } }, 0.1, Mode.OVERLAP);
+		assertArrayEquals(new double[] { 5, 15, 25, 15 }, binned.getCounts(), 1e-9);
+	}
+
+	@Test
+	public void testOverlapPreservesTotalCount() {
+		final double[][][] input = syntheticData(3, 2000);
+		final BinnedMythenData binned = MythenRebinner.bin(input, 0.0137, Mode.OVERLAP);
+		for (int d = 0; d < input.length; d++) {
+			double expected = 0;
+			for (double[] channel : input[d]) {
+				expected += channel[1];
+			}
+			double actual = 0;
+			for (int b = 0; b < binned.getNumberOfBins(); b++) {
+				actual += binned.getCount(d, b);
+			}
+			assertEquals(expected, actual, expected * 1e-12);
+		}
+	}
+
+	@Test
+	public void testParallelBinningMatchesSerialBinning() {
+		final double[][][] input = syntheticData(40, 3000);
+		for (Mode mode : Mode.values()) {
+			final BinnedMythenData all = MythenRebinner.bin(input, 0.004, mode);
+			for (int d = 0; d < input.length; d++) {
+				final BinnedMythenData single = MythenRebinner.bin(new double[][][] { input[d] }, 0.004, mode);
+				final int shift = single.getFirstBinNumber() - all.getFirstBinNumber();
+				for (int b = 0; b < single.getNumberOfBins(); b++) {
+					assertEquals(single.getCount(0, b), all.getCount(d, b + shift), 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testNoData() {
+		BinnedMythenData binned = MythenRebinner.bin(new double[][][] { {} }, 0.1, Mode.SUM);
+		assertEquals(1, binned.getNumberOfDatasets());
+		assertEquals(0, binned.getNumberOfBins());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testZeroBinSizeRejected() {
+		MythenRebinner.bin(INPUT, 0, Mode.SUM);
+	}
+
+	@Test
+	public void testBinMythenDataUsesLargestCount() {
+		double[][][] binned = MythenDataFileUtils.binMythenData(INPUT, 0.5);
+		assertEquals(2, binned.length);
+		assertEquals(5, binned[0].length);
+		assertArrayEquals(new double[] { 0.5, 40 }, binned[0][1], 0);
+		assertArrayEquals(new double[] { 2.0, 7 }, binned[1][4], 0);
+	}
+
+	private static double[][][] syntheticData(int numDatasets, int numChannels) {
+		final double[][][] data = new double[numDatasets][numChannels][];
+		for (int d = 0; d < numDatasets; d++) {
+			for (int c = 0; c < numChannels; c++) {
+				final double angle = -3.0011 + 0.013 * d + c * 0.00375 + ((c >= numChannels / 2) ? 0.5 : 0);
+				data[d][c] = new double[] { angle, 100 + (c * 31 + d * 17) % 97 };
+			}
+		}
+		return data;
+	}
+
+}
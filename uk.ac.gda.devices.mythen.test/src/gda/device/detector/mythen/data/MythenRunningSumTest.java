@@ -0,0 +1,127 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link MythenRunningSum} class.
+ */
+public class MythenRunningSumTest {
+
+	private static final int NUM_MODULES = 3;
+
+	private final BadChannelProvider badChannels = new SimpleBadChannelProvider(5, 1300, 1301, 3000);
+
+	private final MythenRunningSum runningSum = new MythenRunningSum();
+
+	private double[][][] datasets;
+
+	@Before
+	public void createDatasets() {
+		// Move up in angle, then back down below the starting angle, so the grid grows in both directions
+		final double[] startAngles = { 10.0013, 10.3713, 11.5013, 14.2013, 9.8013, 4.2513, 7.7013, 12.0513 };
+		datasets = new double[startAngles.length][][];
+		for (int d = 0; d < datasets.length; d++) {
+			datasets[d] = MythenSumTest.syntheticDataset(NUM_MODULES, badChannels, startAngles[d], d);
+		}
+	}
+
+	@Test
+	public void testMatchesSumOfAllDatasets() {
+		for (double step : new double[] { 0.004, 0.05 }) {
+			runningSum.setStep(step);
+			runningSum.start(NUM_MODULES, badChannels);
+			for (double[][] dataset : datasets) {
+				runningSum.add(dataset);
+			}
+			assertEquals(datasets.length, runningSum.getNumberOfDatasets());
+			assertSumEquals(MythenSum.sumSerially(datasets, NUM_MODULES, badChannels, step), runningSum.getSum());
+		}
+	}
+
+	@Test
+	public void testPartialSums() {
+		runningSum.start(NUM_MODULES, badChannels);
+		for (int d = 0; d < datasets.length; d++) {
+			runningSum.add(datasets[d]);
+			final double[][][] added = Arrays.copyOf(datasets, d + 1);
+			assertSumEquals(MythenSum.sumSerially(added, NUM_MODULES, badChannels, runningSum.getGridStep()), runningSum.getSum());
+		}
+	}
+
+	@Test
+	public void testEmptySum() {
+		runningSum.start(NUM_MODULES, badChannels);
+		assertEquals(0, runningSum.getSum().length);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testAddBeforeStartRejected() {
+		runningSum.add(datasets[0]);
+	}
+
+	@Test
+	public void testFailedAddLeavesSumUnchanged() {
+		runningSum.start(NUM_MODULES, badChannels);
+		runningSum.add(datasets[0]);
+		final double[][] before = runningSum.getSum();
+
+		// Last module is missing
+		final double[][] truncated = Arrays.copyOf(datasets[1], 2 * 1280);
+		try {
+			runningSum.add(truncated);
+			fail("Adding a truncated dataset should fail");
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+		assertEquals(1, runningSum.getNumberOfDatasets());
+		assertSumEquals(before, runningSum.getSum());
+	}
+
+	@Test
+	public void testStartDiscardsDataAndAppliesNewStep() {
+		runningSum.start(NUM_MODULES, badChannels);
+		runningSum.add(datasets[0]);
+		runningSum.setStep(0.01);
+		assertEquals(0.004, runningSum.getGridStep(), 0);
+
+		runningSum.start(NUM_MODULES, badChannels);
+		assertEquals(0, runningSum.getNumberOfDatasets());
+		assertEquals(0.01, runningSum.getGridStep(), 0);
+		runningSum.add(datasets[1]);
+		assertSumEquals(MythenSum.sumSerially(new double[][][] { datasets[1] }, NUM_MODULES, badChannels, 0.01), runningSum.getSum());
+	}
+
+	private static void assertSumEquals(double[][] expected, double[][] actual) {
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertArrayEquals(expected[i], actual[i], 0);
+		}
+	}
+
+}
@@ -0,0 +1,146 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link MythenScanFileWriter} and {@link MythenScanFileReader} classes.
+ */
+public class MythenScanFileTest {
+
+	private static final String PROCESSED_FILENAME = "testfiles/gda/device/detector/mythen/data/Si_15keV_5.dat";
+
+	private static final String RAW_FILENAME = "testfiles/gda/device/detector/mythen/data/Si_15keV_5.raw";
+
+	private MythenRawDataset raw;
+
+	private MythenProcessedDataset processed;
+
+	private File tempFile;
+
+	@Before
+	public void loadData() throws IOException {
+		raw = new MythenRawDataset(new File(RAW_FILENAME));
+		processed = new MythenProcessedDataset(new File(PROCESSED_FILENAME));
+		tempFile = File.createTempFile("MythenScanFileTest", "." + MythenScanFileWriter.EXTENSION);
+	}
+
+	@After
+	public void deleteTempFile() {
+		tempFile.delete();
+	}
+
+	@Test
+	public void testRoundTripUncompressed() throws IOException {
+		checkRoundTrip(ScanFileCompression.NONE);
+	}
+
+	@Test
+	public void testRoundTripDeflate() throws IOException {
+		checkRoundTrip(ScanFileCompression.DEFLATE);
+	}
+
+	private void checkRoundTrip(ScanFileCompression compression) throws IOException {
+		try (MythenScanFileWriter writer = new MythenScanFileWriter(tempFile, compression)) {
+			assertEquals(0, writer.append(raw, processed, 1.5));
+			assertEquals(1, writer.append(null, processed, 2.5));
+		}
+		try (MythenScanFileReader reader = new MythenScanFileReader(tempFile)) {
+			assertEquals(2, reader.getNumberOfFrames());
+			MythenScanFrame first = reader.readFrame(0);
+			assertEquals(1.5, first.getDelta(), 0);
+			assertArrayEquals(raw.getCounts(), first.getRawData().getCounts());
+			assertEquals(processed, first.getProcessedData());
+			MythenScanFrame second = reader.readFrame(1);
+			assertEquals(2.5, second.getDelta(), 0);
+			assertEquals(0, second.getRawData().size());
+			assertEquals(processed, second.getProcessedData());
+		}
+	}
+
+	@Test
+	public void testRandomAccessToLastFrame() throws IOException {
+		try (MythenScanFileWriter writer = new MythenScanFileWriter(tempFile, ScanFileCompression.DEFLATE)) {
+			for (int i = 0; i < 10; i++) {
+				writer.append(null, processed, i);
+			}
+		}
+		try (MythenScanFileReader reader = new MythenScanFileReader(tempFile)) {
+			assertEquals(9.0, reader.readFrame(9).getDelta(), 0);
+			assertEquals(3.0, reader.readFrame(3).getDelta(), 0);
+		}
+	}
+
+	@Test
+	public void testIndexRebuiltWhenFileNotClosed() throws IOException {
+		try (MythenScanFileWriter writer = new MythenScanFileWriter(tempFile, ScanFileCompression.NONE)) {
+			for (int i = 0; i < 3; i++) {
+				writer.append(raw, processed, i);
+			}
+		}
+		// Remove the index and trailer, and leave a partly-written frame on the end
+		try (RandomAccessFile file = new RandomAccessFile(tempFile, "rw")) {
+			file.setLength(file.length() - 3 * 8 - MythenScanFileWriter.TRAILER_SIZE - 100);
+		}
+		try (MythenScanFileReader reader = new MythenScanFileReader(tempFile)) {
+			assertEquals(2, reader.getNumberOfFrames());
+			assertEquals(processed, reader.readFrame(1).getProcessedData());
+		}
+	}
+
+	@Test
+	public void testFrameReferenceReadsAsProcessedFile() throws IOException {
+		try (MythenScanFileWriter writer = new MythenScanFileWriter(tempFile, ScanFileCompression.NONE)) {
+			writer.append(raw, processed, 0);
+		}
+		final String reference = MythenScanFileReader.frameReference(tempFile, 0);
+		assertEquals(0, MythenScanFileReader.parseFrameReference(reference));
+		assertEquals(-1, MythenScanFileReader.parseFrameReference(PROCESSED_FILENAME));
+
+		double[][] expected = MythenDataFileUtils.readMythenProcessedDataFile(PROCESSED_FILENAME, false);
+		double[][] actual = MythenDataFileUtils.readMythenProcessedDataFile(reference, false);
+		assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertArrayEquals(expected[i], actual[i], 0);
+		}
+	}
+
+	@Test
+	public void testIsScanFile() throws IOException {
+		try (MythenScanFileWriter writer = new MythenScanFileWriter(tempFile, ScanFileCompression.NONE)) {
+			writer.append(null, processed, 0);
+		}
+		assertTrue(MythenScanFileReader.isScanFile(tempFile));
+		assertFalse(MythenScanFileReader.isScanFile(new File(PROCESSED_FILENAME)));
+	}
+
+}
@@ -0,0 +1,101 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import org.springframework.util.StopWatch;
+
+/**
+ * Compares the time taken to sum a scan's worth of Mythen data with the dense-grid and the aligned-data summing
+ * algorithms.
+ */
+public class MythenSumExperiment {
+
+	private static final int NUM_MODULES = 18;
+
+	private static final int NUM_DATASETS = 100;
+
+	private static final int ITERATIONS = 5;
+
+	private static final double STEP = 0.004;
+
+	abstract static class Algorithm {
+
+		String name;
+
+		public Algorithm(String name) {
+			this.name = name;
+		}
+
+		public abstract void run() throws Exception;
+	}
+
+	public static void main(String args[]) throws Exception {
+		final BadChannelProvider badChannels = new SimpleBadChannelProvider(5, 1300, 1301, 3000);
+		final BadChannelMask mask = badChannels.getBadChannelMask();
+		final double[][][] datasets = new double[NUM_DATASETS][][];
+		for (int d = 0; d < NUM_DATASETS; d++) {
+			final int channels = NUM_MODULES * 1280 - mask.countInRange(0, NUM_MODULES * 1280);
+			datasets[d] = new double[channels][];
+			int i = 0;
+			for (int channel = 0; channel < NUM_MODULES * 1280; channel++) {
+				if (!mask.isBad(channel)) {
+					final double angle = 0.0013 + 0.01 * d + (channel / 1280) * 5.0 + (channel % 1280) * 0.00375;
+					datasets[d][i++] = new double[] { angle, 1000, Math.sqrt(1000) };
+				}
+			}
+		}
+
+		Algorithm[] algorithms = new Algorithm[] {
+			new Algorithm("alignedData") {
+				@Override
+				public void run() {
+					MythenSum.sumUsingAlignedData(datasets, NUM_MODULES, badChannels, STEP);
+				}
+			},
+			new Algorithm("denseGrid") {
+				@Override
+				public void run() {
+					MythenSum.sumSerially(datasets, NUM_MODULES, badChannels, STEP);
+				}
+			}
+		};
+
+		StopWatch sw = new StopWatch(MythenSumExperiment.class.getSimpleName());
+		for (Algorithm a : algorithms) {
+			System.out.printf("Testing '%s' algorithm...\n", a.name);
+
+			// warm-up
+			for (int i=0; i<ITERATIONS; i++) {
+				a.run();
+			}
+
+			// timing
+			sw.start(a.name);
+			for (int i=0; i<ITERATIONS; i++) {
+				a.run();
+			}
+			sw.stop();
+		}
+
+		// display results
+		System.out.println(sw.prettyPrint());
+	}
+
+}
@@ -22,6 +22,7 @@ import java.util.List;
 
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
 
 import gda.device.detector.mythen.data.MythenSum.AlignedData;
 import gda.device.detector.mythen.data.MythenSum.ModuleBoundary;
@@ -135,4 +136,74 @@ public class MythenSumTest {
 		assertSame(firstDataPoint, dataPointsForTheOnlyGridIndex.get(0));
 		assertSame(secondDataPoint, dataPointsForTheOnlyGridIndex.get(1));
 	}
+
+	@Test
+	public void testDenseSumMatchesAlignedDataSum() {
+		final int numModules = 3;
+		final BadChannelProvider badChannels = new SimpleBadChannelProvider(5, 1300, 1301, 3000);
+		final double[][][] datasets = new double[20][][];
+		for (int d = 0; d < datasets.length; d++) {
+			datasets[d] = syntheticDataset(numModules, badChannels, 2.5013 + 0.37 * d, d);
+		}
+		for (double step : new double[] { 0.004, 0.01, 0.05 }) {
+			final double[][] expected = MythenSum.sumUsingAlignedData(datasets, numModules, badChannels, step);
+			final double[][] actual = MythenSum.sum(datasets, numModules, badChannels, step);
+			assertEquals(expected.length, actual.length);
+			for (int i = 0; i < expected.length; i++) {
+				assertArrayEquals(expected[i], actual[i], 0);
+			}
+		}
+	}
+
+	@Test
+	public void testParallelSumMatchesSerialSum() {
+		final int numModules = 3;
+		final BadChannelProvider badChannels = new SimpleBadChannelProvider(5, 1300, 1301, 3000);
+		final double[][][] datasets = new double[MythenSum.PARALLEL_THRESHOLD + 13][][];
+		for (int d = 0; d < datasets.length; d++) {
+			datasets[d] = syntheticDataset(numModules, badChannels, 2.5013 + 0.37 * d, d);
+		}
+		final double[][] expected = MythenSum.sumSerially(datasets, numModules, badChannels, 0.004);
+		final double[][] parallel = MythenSum.sum(datasets, numModules, badChannels, 0.004, new ForkJoinPool(4));
+		final double[][] singleThread = MythenSum.sum(datasets, numModules, badChannels, 0.004, new ForkJoinPool(1));
+		assertEquals(expected.length, parallel.length);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i][0], parallel[i][0], 0);
+			assertEquals(expected[i][1], parallel[i][1], expected[i][1] * 1e-12);
+			// the way the datasets are split does not depend on the number of threads
+			assertArrayEquals(singleThread[i], parallel[i], 0);
+		}
+	}
+
+	@Test
+	public void testSumOfNoData() {
+		assertEquals(0, MythenSum.sum(new double[0][][], 1, new SimpleBadChannelProvider(), 0.01).length);
+	}
+
+	@Test
+	public void testCombineDataScalesPartlyCoveredPoints() {
+		final double[][] combined = MythenSum.combineData(new double[] { 10, 0, 30 }, new int[] { 1, 0, 3 }, 100, 0.5);
+		assertEquals(2, combined.length);
+		assertArrayEquals(new double[] { 50, 30, Math.sqrt(30) }, combined[0], 0);
+		assertArrayEquals(new double[] { 51, 30, Math.sqrt(30) }, combined[1], 0);
+	}
+
+	/**
+	 * Creates a dataset whose angles increase steadily across each module, with a gap between modules.
+	 */
+	static double[][] syntheticDataset(int numModules, BadChannelProvider badChannelProvider, double startAngle, int seed) {
+		final BadChannelMask badChannels = badChannelProvider.getBadChannelMask();
+		final int channels = numModules * 1280 - badChannels.countInRange(0, numModules * 1280);
+		final double[][] data = new double[channels][];
+		int i = 0;
+		for (int channel = 0; channel < numModules * 1280; channel++) {
+			if (!badChannels.isBad(channel)) {
+				final int module = channel / 1280;
+				final double angle = startAngle + module * 5.0 + (channel % 1280) * 0.00375;
+				final double count = 1000 + ((channel * 31 + seed * 17) % 97);
+				data[i++] = new double[] { angle, count, Math.sqrt(count) };
+			}
+		}
+		return data;
+	}
 }
@@ -0,0 +1,141 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link MythenTextDataReader} class.
+ */
+public class MythenTextDataReaderTest {
+
+	private static final String PROCESSED_FILENAME = "testfiles/gda/device/detector/mythen/data/Si_15keV_5.dat";
+
+	private final MythenTextDataReader reader = new MythenTextDataReader();
+
+	@Test
+	public void testProcessedFileMatchesParseDouble() throws IOException {
+		MythenTextData data = reader.read(new File(PROCESSED_FILENAME));
+		assertEquals(3, data.getNumberOfColumns());
+		assertEquals(' ', data.getDelimiter());
+
+		try (BufferedReader br = new BufferedReader(new FileReader(PROCESSED_FILENAME))) {
+			String line;
+			int row = 0;
+			while ((line = br.readLine()) != null) {
+				String[] tokens = line.split(" ");
+				for (int c = 0; c < tokens.length; c++) {
+					assertEquals(Double.parseDouble(tokens[c]), data.getColumn(c)[row], 0);
+				}
+				row++;
+			}
+			assertEquals(row, data.getNumberOfRows());
+		}
+	}
+
+	@Test
+	public void testHeadersTabsAndChannelColumn() throws IOException {
+		MythenTextData data = reader.read("# Filename\t /tmp/x.dat\r\n#Date\t now\n"
+				+ "1.500000\t10\t3\t0\r\n\n2.250000\t20  4\t1\n");
+		assertEquals(Arrays.asList("Filename\t /tmp/x.dat", "Date\t now"), data.getHeaders());
+		assertEquals('\t', data.getDelimiter());
+		assertEquals(4, data.getNumberOfColumns());
+		assertEquals(2, data.getNumberOfRows());
+		assertArrayEquals(new double[] { 1.5, 2.25 }, data.getColumn(0), 0);
+		assertArrayEquals(new int[] { 10, 20 }, data.getIntColumn(1));
+		assertArrayEquals(new int[] { 0, 1 }, data.getIntColumn(3));
+	}
+
+	@Test
+	public void testNumbersMatchParseDouble() throws IOException {
+		Random rand = new Random(91011);
+		String[] tokens = new String[20000];
+		for (int i = 0; i < tokens.length; i++) {
+			switch (i % 4) {
+			case 0:
+				tokens[i] = String.format("%f", rand.nextDouble() * 360 - 180);
+				break;
+			case 1:
+				tokens[i] = Double.toString(rand.nextGaussian() * Math.pow(10, rand.nextInt(40) - 20));
+				break;
+			case 2:
+				tokens[i] = Double.toString(Double.longBitsToDouble(rand.nextLong()));
+				break;
+			default:
+				tokens[i] = Integer.toString(rand.nextInt());
+			}
+		}
+		tokens[0] = "-0.000000";
+		tokens[1] = "12345678901234567890";
+		tokens[2] = "0.1234567890123456789";
+		tokens[3] = "NaN";
+		tokens[4] = "-Infinity";
+		tokens[5] = "1e-300";
+
+		StringBuilder text = new StringBuilder();
+		for (String token : tokens) {
+			text.append(token).append('\n');
+		}
+		double[] values = reader.read(text).getColumn(0);
+		for (int i = 0; i < tokens.length; i++) {
+			assertEquals(tokens[i], Double.doubleToLongBits(Double.parseDouble(tokens[i])), Double.doubleToLongBits(values[i]));
+		}
+	}
+
+	@Test
+	public void testSavedDatasetRoundTrip() throws IOException {
+		MythenProcessedDataset original = new MythenProcessedDataset(new File(PROCESSED_FILENAME));
+		original.setAdditionalHeaderStrings(Arrays.asList("delta\t 12.5"));
+		File file = File.createTempFile("MythenTextDataReaderTest", ".dat");
+		try {
+			original.save(file, true);
+			MythenProcessedDataset reloaded = new MythenProcessedDataset(file);
+			assertArrayEquals(original.getCountArray(), reloaded.getCountArray(), 0);
+			assertArrayEquals(original.getAngleArray(), reloaded.getAngleArray(), 1e-6);
+			assertEquals(Arrays.asList("delta\t 12.5"), reloaded.getHeaderStrings());
+
+			double[][] rows = MythenDataFileUtils.readMythenProcessedDataFile(file.getAbsolutePath(), true);
+			assertEquals(original.size(), rows.length);
+			assertEquals(original.getChannel(5), rows[5][3], 0);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testInconsistentColumnsRejected() throws IOException {
+		reader.read("1 2 3\n4 5\n");
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidNumberRejected() throws IOException {
+		reader.read("1 2 x\n");
+	}
+
+}
@@ -23,7 +23,14 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -97,4 +104,31 @@ public class SplitFilesProvidersTest {
 		}
 	}
 
+	// test that workers loading the bad channels at the same time all see a complete, matching set and mask
+	@Test
+	public void testConcurrentBadChannelLoads() throws Exception {
+		final int numThreads = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			List<Future<BadChannelMask>> masks = new ArrayList<Future<BadChannelMask>>();
+			for (int i = 0; i < numThreads; i++) {
+				masks.add(executor.submit(new Callable<BadChannelMask>() {
+					@Override
+					public BadChannelMask call() throws Exception {
+						start.await();
+						return badChannelProvider.getBadChannelMask();
+					}
+				}));
+			}
+			start.countDown();
+			final BadChannelMask expected = BadChannelMask.of(badChannelProvider.getBadChannels());
+			for (Future<BadChannelMask> mask : masks) {
+				assertEquals(expected, mask.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 }
@@ -19,12 +19,12 @@
 package uk.ac.gda.devices.mythen.visualisation.views;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Vector;
 
 import org.eclipse.core.commands.ExecutionException;
 import org.eclipse.january.dataset.DatasetFactory;
-import org.eclipse.january.dataset.DoubleDataset;
 import org.eclipse.january.dataset.IDataset;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -32,6 +32,7 @@ import org.eclipse.swt.events.SelectionEvent;
 import org.eclipse.swt.layout.GridData;
 import org.eclipse.swt.layout.GridLayout;
 import org.eclipse.swt.widgets.Button;
+import org.eclipse.swt.widgets.Combo;
 import org.eclipse.swt.widgets.Composite;
 import org.eclipse.swt.widgets.Group;
 import org.eclipse.swt.widgets.Label;
@@ -45,7 +46,11 @@ import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.part.ViewPart;
 
+import gda.device.detector.mythen.data.AngleRangeView;
+import gda.device.detector.mythen.data.BinnedMythenData;
 import gda.device.detector.mythen.data.MythenDataFileUtils;
+import gda.device.detector.mythen.data.MythenRebinner;
+import gda.device.detector.mythen.data.MythenScanFileReader;
 import uk.ac.diamond.scisoft.analysis.plotserver.AxisMapBean;
 import uk.ac.diamond.scisoft.analysis.plotserver.DataBean;
 import uk.ac.diamond.scisoft.analysis.plotserver.DataBeanException;
@@ -77,6 +82,7 @@ public class MythenDataControlView extends ViewPart {
 	private Spinner minAngleSpinner;
 	private Spinner maxAngleSpinner;
 	private Spinner binSizeSpinner;
+	private Combo binningModeCombo;
 
 	private Button plot1DButton;
 	private Button plotAgainstChannel;
@@ -205,6 +211,17 @@ public class MythenDataControlView extends ViewPart {
 		binSizeSpinner.setValues((int) (DEFAULT_BIN_SIZE * 1000), 1, 100, 3, 1, 10);
 		binSizeSpinner.setLayoutData(new GridData(GridData.BEGINNING, GridData.CENTER, true, false));
 
+		Label binningModeLabel = new Label(group, SWT.NULL);
+		binningModeLabel.setText("Binning:");
+		binningModeLabel.setLayoutData(new GridData(GridData.END, GridData.CENTER, false, false));
+
+		binningModeCombo = new Combo(group, SWT.READ_ONLY);
+		for (MythenRebinner.Mode mode : MythenRebinner.Mode.values()) {
+			binningModeCombo.add(mode.name().toLowerCase());
+		}
+		binningModeCombo.select(MythenRebinner.Mode.MAX.ordinal());
+		binningModeCombo.setLayoutData(new GridData(GridData.BEGINNING, GridData.CENTER, true, false));
+
 		return group;
 	}
 
@@ -259,37 +276,35 @@ public class MythenDataControlView extends ViewPart {
 
 	private void do1DPlot(double[][][] data, double minAngle, double maxAngle, double binSize) {
 
-		// Bin & restrict data
-		if (!useChannel) {
-			data = MythenDataFileUtils.binMythenData(data, binSize);
-			data = MythenDataFileUtils.getDataSubset(data, minAngle, maxAngle);
-		}
-		// Build DataSets
 		List<IDataset> datasets = new Vector<IDataset>();
-		for (int i = 0; i < data.length; i++) {
-			double[] dataSubset = column(data[i], 1);
-			IDataset dataset = DatasetFactory.createFromObject(dataSubset);
-			dataset.setName("data");
-			datasets.add(dataset);
-		}
-
-		// Build angle axis dataset
-
-		double[] angles;
-		double[] channels;
-
 		if (useChannel) {
+			// Build DataSets
+			for (int i = 0; i < data.length; i++) {
+				double[] dataSubset = column(data[i], 1);
+				IDataset dataset = DatasetFactory.createFromObject(dataSubset);
+				dataset.setName("data");
+				datasets.add(dataset);
+			}
+
 			// Build channel axis dataset
-			channels = column(data[0], 3);
+			double[] channels = column(data[0], 3);
 			channelsDataset = DatasetFactory.createFromObject(channels);
 			channelsDataset.setName("channel");
 		}
 
 		else {
-			// Build angle axis dataset
+			// Bin & restrict data
+			AngleRangeView range = binAndSelect(data, minAngle, maxAngle, binSize);
+
+			// Build DataSets
+			for (int i = 0; i < range.getNumberOfDatasets(); i++) {
+				IDataset dataset = range.getCountDataset(i);
+				dataset.setName("data");
+				datasets.add(dataset);
+			}
 
-			angles = column(data[0], 0);
-			anglesDataset = DatasetFactory.createFromObject(angles);
+			// Build angle axis dataset
+			anglesDataset = range.getAngleDataset(0);
 			anglesDataset.setName("angle");
 		}
 
@@ -328,29 +343,13 @@ public class MythenDataControlView extends ViewPart {
 	private void do2D3DPlot(double[][][] data, double minAngle, double maxAngle, double binSize) {
 
 		// Bin & restrict data
-		data = MythenDataFileUtils.binMythenData(data, binSize);
-		data = MythenDataFileUtils.getDataSubset(data, minAngle, maxAngle);
-
-		IDataset dataset = DatasetFactory.zeros(DoubleDataset.class, data.length, data[0].length);
+		AngleRangeView range = binAndSelect(data, minAngle, maxAngle, binSize);
 
 		// Build DataSet
-		for (int i = 0; i < data.length; i++) {
-			for (int j = 0; j < data[i].length; j++) {
-				dataset.set(data[i][j][1], i, j);
-			}
-		}
-
-
-//		// Build DataSet
-//		double[][] two_d_data = new double[data.length][];
-//		for (int i = 0; i < data.length; i++) {
-//			two_d_data[i] = column(data[i], 1);
-//		}
-//		IDataset dataset = new DataSet("data", two_d_data);
+		IDataset dataset = range.getCountImage();
 
 		// Build angle axis dataset
-		double[] angles = column(data[0], 0);
-		IDataset anglesDataset = DatasetFactory.createFromObject(angles);
+		IDataset anglesDataset = range.getAngleDataset(0);
 		anglesDataset.setName("angle");
 
 		// Open plot view, if not already open
@@ -386,6 +385,15 @@ public class MythenDataControlView extends ViewPart {
 		}
 	}
 
+	private MythenRebinner.Mode getBinningMode() {
+		return MythenRebinner.Mode.values()[binningModeCombo.getSelectionIndex()];
+	}
+
+	private AngleRangeView binAndSelect(double[][][] data, double minAngle, double maxAngle, double binSize) {
+		BinnedMythenData binned = MythenRebinner.bin(data, binSize, getBinningMode());
+		return AngleRangeView.Source.of(binned).select(minAngle, maxAngle);
+	}
+
 	/**
 	 * Given a 2D array of {@code double}s, and a column <em>n</em>, returns the <em>n</em>th 'column' from that array -
 	 * i.e. a 1D array consisting of the <em>n</em>th value from each row.
@@ -406,6 +414,10 @@ public class MythenDataControlView extends ViewPart {
 
 	public void addFileToTable(String filename) {
 		File file = new File(filename);
+		if (MythenScanFileReader.isScanFile(file)) {
+			addScanFileToTable(file);
+			return;
+		}
 		TableItem item = new TableItem(dataFileTable, SWT.NULL);
 		item.setText(new String[] { file.getName() });
 		System.out.println("Loading " + filename);
@@ -414,6 +426,20 @@ public class MythenDataControlView extends ViewPart {
 		updateButtonState();
 	}
 
+	private void addScanFileToTable(File file) {
+		System.out.println("Loading " + file);
+		try (MythenScanFileReader reader = new MythenScanFileReader(file)) {
+			for (int frame = 0; frame < reader.getNumberOfFrames(); frame++) {
+				TableItem item = new TableItem(dataFileTable, SWT.NULL);
+				item.setText(new String[] { file.getName() + "#" + frame });
+				item.setData(reader.readProcessedRows(frame, 4));
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Unable to load Mythen scan file " + file, e);
+		}
+		updateButtonState();
+	}
+
 	public void removeSelectedFilesFromTable() {
 		dataFileTable.remove(dataFileTable.getSelectionIndices());
 		updateButtonState();
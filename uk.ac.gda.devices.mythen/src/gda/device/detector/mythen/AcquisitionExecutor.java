@@ -0,0 +1,218 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import gda.device.DeviceException;
+
+/**
+ * Runs the acquisition and processing work of a single Mythen detector in the background.
+ * <p>
+ * Each piece of work is tracked as a {@link CompletableFuture} until it completes, so a detector can report itself as
+ * busy and {@link #waitWhileBusy() wait} for its work without polling a status flag. If a piece of work fails, the
+ * failure is kept and thrown from the next call to {@link #waitWhileBusy()} or {@link #checkForFailure()}, so it
+ * reaches the scan rather than being lost on a background thread.
+ * <p>
+ * Work runs on virtual threads when the JVM supports them, and otherwise on a cached pool of daemon threads.
+ */
+public class AcquisitionExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(AcquisitionExecutor.class);
+
+	/**
+	 * A piece of acquisition or processing work.
+	 */
+	public interface AcquisitionTask {
+
+		void run() throws Exception;
+	}
+
+	private final String name;
+
+	private final ExecutorService executor;
+
+	private final Set<CompletableFuture<Void>> inFlight = new LinkedHashSet<CompletableFuture<Void>>();
+
+	private Throwable failure;
+
+	/**
+	 * Creates an executor for the named detector.
+	 *
+	 * @param name
+	 *            the detector name, used in thread names and error messages
+	 */
+	public AcquisitionExecutor(String name) {
+		this(name, createExecutorService(name));
+	}
+
+	/**
+	 * Creates an executor that runs its work on the given executor service.
+	 *
+	 * @param name
+	 *            the detector name, used in error messages
+	 * @param executor
+	 *            the executor service to run work on
+	 */
+	public AcquisitionExecutor(String name, ExecutorService executor) {
+		this.name = name;
+		this.executor = executor;
+	}
+
+	/**
+	 * Creates a virtual-thread-per-task executor if the JVM provides one, or a cached pool of daemon threads
+	 * otherwise.
+	 */
+	static ExecutorService createExecutorService(final String name) {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			logger.debug("Virtual threads are not available - {} will use platform threads", name);
+		}
+		final AtomicInteger threadNumber = new AtomicInteger();
+		return Executors.newCachedThreadPool(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, name + "-acquisition-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Starts a piece of work in the background.
+	 *
+	 * @param description
+	 *            describes the work, for log messages
+	 * @param task
+	 *            the work to do
+	 * @return a future that completes when the work is done, or completes exceptionally if it fails
+	 */
+	public CompletableFuture<Void> submit(final String description, final AcquisitionTask task) {
+		final CompletableFuture<Void> future = new CompletableFuture<Void>();
+		synchronized (this) {
+			inFlight.add(future);
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					task.run();
+					complete(future, null);
+				} catch (Throwable t) {
+					logger.error("{} - {} failed", name, description, t);
+					complete(future, t);
+				}
+			});
+		} catch (RuntimeException e) {
+			complete(future, e);
+			throw e;
+		}
+		return future;
+	}
+
+	private void complete(CompletableFuture<Void> future, Throwable t) {
+		synchronized (this) {
+			inFlight.remove(future);
+			if (t != null && failure == null) {
+				failure = t;
+			}
+			notifyAll();
+		}
+		if (t == null) {
+			future.complete(null);
+		} else {
+			future.completeExceptionally(t);
+		}
+	}
+
+	/**
+	 * Returns {@code true} if any work is still in flight.
+	 */
+	public synchronized boolean isBusy() {
+		return !inFlight.isEmpty();
+	}
+
+	/**
+	 * Waits until all the work in flight has completed, then throws the first failure that has not yet been reported.
+	 */
+	public void waitWhileBusy() throws DeviceException, InterruptedException {
+		final List<CompletableFuture<Void>> futures;
+		synchronized (this) {
+			futures = new ArrayList<CompletableFuture<Void>>(inFlight);
+		}
+		for (CompletableFuture<Void> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				// reported below, with any earlier failure taking precedence
+			}
+		}
+		checkForFailure();
+	}
+
+	/**
+	 * Throws the first failure that has not yet been reported, if there is one. The failure is cleared, so it is only
+	 * thrown once.
+	 */
+	public void checkForFailure() throws DeviceException {
+		final Throwable t;
+		synchronized (this) {
+			t = failure;
+			failure = null;
+		}
+		if (t == null) {
+			return;
+		}
+		final Throwable cause = (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+		if (cause instanceof DeviceException) {
+			throw (DeviceException) cause;
+		}
+		throw new DeviceException(name + " - acquisition failed", cause);
+	}
+
+	/**
+	 * Discards any failure that has not yet been reported.
+	 */
+	public synchronized void clearFailure() {
+		failure = null;
+	}
+
+	/**
+	 * Stops accepting work. Work already in flight is allowed to finish.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+}
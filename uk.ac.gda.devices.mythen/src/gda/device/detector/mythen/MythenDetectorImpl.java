@@ -47,9 +47,14 @@ import gda.device.detector.mythen.client.EpicsMythenClient;
 import gda.device.detector.mythen.client.MythenClient;
 import gda.device.detector.mythen.client.Trigger;
 import gda.device.detector.mythen.data.DataConverter;
+import gda.device.detector.mythen.data.FrameProcessingEngine;
 import gda.device.detector.mythen.data.MythenDataFileUtils.FileType;
 import gda.device.detector.mythen.data.MythenProcessedDataset;
 import gda.device.detector.mythen.data.MythenRawDataset;
+import gda.device.detector.mythen.data.MythenRawFileWriter;
+import gda.device.detector.mythen.data.MythenRunningSum;
+import gda.device.detector.mythen.data.RawFileFormat;
+import gda.device.detector.mythen.data.ScanFileCompression;
 import gda.device.detector.mythen.tasks.AtPointEndTask;
 import gda.device.detector.mythen.tasks.ScanTask;
 import gda.device.scannable.ScannableUtils;
@@ -88,6 +93,9 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 
 	protected Scannable deltaScannable;
 
+	/** Monitor (I0) read after each single-frame collection, for normalisation by the data converter. */
+	protected Scannable monitorScannable;
+
 	/** Map containing scannables to record position of in the header. key=scannable, value=label to use to annotate the value (optional, can be null) */
 	protected Map<Scannable, String> scannablesForHeader = new LinkedHashMap<>();
 
@@ -179,6 +187,21 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 		this.deltaScannable = deltaScannable;
 	}
 
+	/**
+	 * Sets the {@link Scannable} giving the monitor (I0) reading. The reading is passed to the data converter with
+	 * each frame, where a {@link gda.device.detector.mythen.data.MonitorNormalisation} stage can use it.
+	 *
+	 * @param monitorScannable
+	 *            the monitor scannable
+	 */
+	public void setMonitorScannable(Scannable monitorScannable) {
+		this.monitorScannable = monitorScannable;
+	}
+
+	public Scannable getMonitorScannable() {
+		return monitorScannable;
+	}
+
 	/**
 	 * Sets the Mythen data converter used by this Mythen detector object.
 	 *
@@ -278,13 +301,35 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 
 	@Override
 	public int getStatus() throws DeviceException {
-		return status;
+		return getAcquisitionExecutor().isBusy() ? BUSY : status;
+	}
+
+	/**
+	 * Waits for the acquisition and processing work in flight to complete, and throws the failure of any of it that
+	 * has not yet been reported.
+	 */
+	@Override
+	public void waitWhileBusy() throws DeviceException, InterruptedException {
+		getAcquisitionExecutor().waitWhileBusy();
+		final ProcessingPipeline pipeline = getProcessingPipeline();
+		if (pipeline != null) {
+			pipeline.checkForFailure();
+		}
 	}
 
 	@Override
 	public void atScanStart() throws DeviceException {
 		collectionNumber = 0;
 		this.scanNumber = scanNumTracker.getCurrentFileNumber();
+		scanFilesForScan.clear();
+		// a failure left over from an earlier scan does not belong to this one
+		getAcquisitionExecutor().clearFailure();
+		getPostProcessingExecutor().clearFailure();
+		final ProcessingPipeline pipeline = getProcessingPipeline();
+		if (pipeline != null) {
+			pipeline.clearFailure();
+		}
+		startRunningSum();
 
 		for (ScanTask task : atScanStartTasks) {
 			task.run();
@@ -327,6 +372,30 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 
 	private boolean hasChannelInfo=true;
 
+	private MythenRawFileWriter rawFileWriter;
+
+	private boolean useScanFile;
+
+	private ScanFileCompression scanFileCompression = ScanFileCompression.NONE;
+
+	private FrameProcessingEngine frameProcessingEngine = FrameProcessingEngine.getDefault();
+
+	private MythenRunningSum runningSum;
+
+	private AcquisitionExecutor acquisitionExecutor;
+
+	private AcquisitionExecutor postProcessingExecutor;
+
+	private int pipelineDepth;
+
+	private ProcessingPipeline processingPipeline;
+
+	/** Whether every dataset collected during the current scan has been added to the running sum. */
+	private volatile boolean runningSumComplete;
+
+	/** Scan files written during the current scan. */
+	protected final List<File> scanFilesForScan = new Vector<File>();
+
 	protected void beforeCollectData() throws DeviceException {
 		collectionNumber++;
 		beforeCollectData(collectionNumber);
@@ -369,6 +438,12 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 			}
 			headerStrings.add(String.format("%s\t: %s", label, position));
 		});
+		if (dataConverter != null) {
+			final long flatFieldGeneration = dataConverter.getFlatFieldGeneration();
+			if (flatFieldGeneration != 0) {
+				headerStrings.add(String.format("Flat field generation\t: %d", flatFieldGeneration));
+			}
+		}
 		return headerStrings;
 	}
 
@@ -378,71 +453,225 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 		}
 	}
 
+	/**
+	 * Returns the exposure time of a single-frame collection in seconds, or {@code NaN} if it has not been set.
+	 */
+	protected double getExposureTimeSeconds() {
+		final BigDecimal time = exposureTime;
+		return (time == null) ? Double.NaN : time.doubleValue();
+	}
+
+	/**
+	 * Returns the current monitor reading, or {@code NaN} if there is no monitor or it cannot be read.
+	 */
+	protected double getMonitorValue() {
+		if (monitorScannable == null) {
+			return Double.NaN;
+		}
+		try {
+			return ScannableUtils.objectToArray(monitorScannable.getPosition())[0];
+		} catch (Exception e) {
+			logger.warn("Unable to read monitor {}", monitorScannable.getName(), e);
+			return Double.NaN;
+		}
+	}
+
 	@Override
 	public void collectData() throws DeviceException {
+		waitForPreviousCollection();
 		beforeCollectData();
-		Thread mythenAcquire = new Thread(new Runnable() {
-
-			@Override
-			public void run() {
+		final File pointRawFile = rawFile;
+		final ProcessingPipeline pipeline = getProcessingPipeline();
+		getAcquisitionExecutor().submit("collection " + collectionNumber, () -> {
+			try {
 				// do data acquisition into the file
 				AcquisitionParameters params = new AcquisitionParameters.Builder()
-				.filename(rawFile.getAbsolutePath())
+				.filename(pointRawFile.getAbsolutePath())
 				.frames(1)
 				.exposureTime(exposureTime)
 				.trigger(NONE)
 				.build();
-				try {
-					logger.debug("starting acquire, expecting to collect for " + exposureTime + "s");
-					mythenClient.acquire(params);
-					logger.debug("finished acquire");
+				logger.debug("starting acquire, expecting to collect for " + exposureTime + "s");
+				mythenClient.acquire(params);
+				logger.debug("finished acquire");
+				if (pipeline == null) {
 					afterCollectData();
 					logger.debug("finished after collect data");
-				} catch (DeviceException e) {
-					logger.error("{}: error text client acquisition failed.", e);
-					throw new RuntimeException("Unable to collect data", e);
-				} finally {
-					status = IDLE;
+				} else {
+					queueCollectionPoint(pipeline, captureCollectionPoint());
 				}
+			} finally {
+				status = IDLE;
 			}
 		});
-		while (mythenAcquire.isAlive()) {
-			try {
-				Thread.sleep(50);
-			} catch (InterruptedException e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
+	}
+
+	/**
+	 * Waits for the previous collection to finish before a new one is started, throwing its failure if it failed.
+	 */
+	protected void waitForPreviousCollection() throws DeviceException {
+		try {
+			getAcquisitionExecutor().waitWhileBusy();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DeviceException(getName() + " - interrupted waiting for the previous collection to finish", e);
+		}
+		final ProcessingPipeline pipeline = getProcessingPipeline();
+		if (pipeline != null) {
+			pipeline.checkForFailure();
 		}
-		mythenAcquire.start();
 	}
 
-	protected void afterCollectData() {
+	/**
+	 * Waits for every point queued in the {@link #setPipelineDepth processing pipeline} to be processed, throwing
+	 * the first processing failure that has not yet been reported. Does nothing if processing is not pipelined.
+	 */
+	protected void drainProcessingPipeline() throws DeviceException {
+		final ProcessingPipeline pipeline = getProcessingPipeline();
+		if (pipeline == null) {
+			return;
+		}
+		try {
+			pipeline.drain();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DeviceException(getName() + " - interrupted waiting for data processing to finish", e);
+		}
+	}
+
+	/**
+	 * Queues a collection in the processing pipeline, which processes it and then runs the at-point-end tasks. Blocks
+	 * while the pipeline is full, so the detector stays busy until there is room.
+	 */
+	protected void queueCollectionPoint(ProcessingPipeline pipeline, final CollectionPoint point)
+			throws InterruptedException {
+		pipeline.submit("processing of " + point.filename, () -> {
+			processCollectionPoint(point);
+			runAtPointEndTasks(point.filename);
+		});
+	}
+
+	protected void afterCollectData() throws DeviceException {
+		processCollectionPoint(captureCollectionPoint());
+		status = IDLE;
+	}
+
+	/**
+	 * Records everything about the collection that has just finished that must be read before the next collection
+	 * starts: the file names, the delta position, the header strings and the monitor. An EPICS client's raw data is
+	 * read here too, as it only holds the latest frame.
+	 */
+	protected CollectionPoint captureCollectionPoint() {
+		return captureCollectionPoint((mythenClient instanceof EpicsMythenClient)
+				? ((EpicsMythenClient) mythenClient).getRawData() : null);
+	}
+
+	/**
+	 * Records the collection that has just finished, as {@link #captureCollectionPoint()} does, with raw data that
+	 * has already been read.
+	 *
+	 * @param pointRawData
+	 *            the raw data, or {@code null} if it is to be read from the raw file when the collection is processed
+	 */
+	protected CollectionPoint captureCollectionPoint(MythenRawDataset pointRawData) {
+		// Header strings are made at the end - motors might not have been in correct positions in beforeCollectData()
+		return new CollectionPoint(collectionFilename, rawFile, pointRawData, delta, getHeaderStrings(),
+				getMonitorValue(), getExposureTimeSeconds());
+	}
+
+	/**
+	 * Reads, converts and saves the data for a collection, and adds it to the running sum.
+	 *
+	 * @param point
+	 *            the collection to process
+	 * @throws DeviceException
+	 *             if raw data supplied by the client cannot be written to the raw file
+	 */
+	protected void processCollectionPoint(CollectionPoint point) throws DeviceException {
 		// read data and process it
-		if (mythenClient instanceof EpicsMythenClient) {
-			rawData = ((EpicsMythenClient) mythenClient).getRawData();
+		final MythenRawDataset pointRawData;
+		if (point.rawData != null) {
+			pointRawData = point.rawData;
+			if (rawFileWriter != null) {
+				try {
+					rawFileWriter.write(point.rawFile, pointRawData, point.delta);
+				} catch (IOException | IllegalArgumentException e) {
+					// the writer rejects frames it cannot pack, such as counts beyond its bit depth
+					throw new DeviceException(getName() + " - unable to write Mythen raw data to "
+							+ point.rawFile.getAbsolutePath(), e);
+				}
+			}
 		} else {
-			rawData = new MythenRawDataset(rawFile);
+			pointRawData = new MythenRawDataset(point.rawFile);
 		}
 
-		// Update header strings at end - motors might not have been in correct positions if this is done in beforeCollectData()
-		List<String> headerStrings = getHeaderStrings();
+		final MythenProcessedDataset pointProcessedData = dataConverter.process(pointRawData, point.delta, point.monitor,
+				point.exposureTimeSeconds);
+		pointProcessedData.setAdditionalHeaderStrings(point.headerStrings);
 
-		processedData = dataConverter.process(rawData, delta);
-		processedData.setAdditionalHeaderStrings(headerStrings);
+		final File pointProcessedFile = saveProcessedData(point, pointProcessedData);
+		rawData = pointRawData;
+		processedData = pointProcessedData;
+		processedFile = pointProcessedFile;
+		addToRunningSum(pointProcessedData);
+	}
 
-		processedFile = new File(getDataDirectory(), collectionFilename + ".dat");
-		processedData.save(processedFile, isHasChannelInfo());
+	/**
+	 * Saves the processed data for a collection and registers its files.
+	 *
+	 * @param point
+	 *            the collection the data belongs to
+	 * @param pointProcessedData
+	 *            the processed data
+	 * @return the processed data file, or {@code null} if the processed data is not saved to a file
+	 */
+	protected File saveProcessedData(CollectionPoint point, MythenProcessedDataset pointProcessedData) {
+		final File pointProcessedFile = new File(getDataDirectory(), point.filename + ".dat");
+		pointProcessedData.save(pointProcessedFile, isHasChannelInfo());
 		if (InterfaceProvider.getTerminalPrinter() != null) {
-			InterfaceProvider.getTerminalPrinter().print("Save to file " + processedFile.getAbsolutePath());
+			InterfaceProvider.getTerminalPrinter().print("Save to file " + pointProcessedFile.getAbsolutePath());
 		}
-		FileRegistrarHelper.registerFiles(new String[] { rawFile.getAbsolutePath(), processedFile.getAbsolutePath() });
+		if (point.rawData == null || rawFileWriter != null) {
+			FileRegistrarHelper.registerFiles(new String[] { point.rawFile.getAbsolutePath(), pointProcessedFile.getAbsolutePath() });
+		} else {
+			// the raw data came from the client and was not written to disk
+			FileRegistrarHelper.registerFiles(new String[] { pointProcessedFile.getAbsolutePath() });
+		}
+		return pointProcessedFile;
+	}
 
-		status = IDLE;
+	/**
+	 * The state of a single-frame collection that its processing needs, captured when the acquisition finishes so
+	 * that the next collection can start before it has been processed.
+	 */
+	protected static class CollectionPoint {
+
+		final String filename;
+		final File rawFile;
+		final MythenRawDataset rawData;
+		final double delta;
+		final List<String> headerStrings;
+		final double monitor;
+		final double exposureTimeSeconds;
+
+		CollectionPoint(String filename, File rawFile, MythenRawDataset rawData, double delta,
+				List<String> headerStrings, double monitor, double exposureTimeSeconds) {
+			this.filename = filename;
+			this.rawFile = rawFile;
+			this.rawData = rawData;
+			this.delta = delta;
+			this.headerStrings = headerStrings;
+			this.monitor = monitor;
+			this.exposureTimeSeconds = exposureTimeSeconds;
+		}
 	}
 
 	@Override
 	public Object readout() throws DeviceException {
+		if (getProcessingPipeline() != null) {
+			// the processed file for this point may not have been written yet, but its name is already known
+			return collectionFilename;
+		}
 		String filename = processedFile.getName();
 		return filename.substring(0, filename.lastIndexOf('.'));
 	}
@@ -454,13 +683,23 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 
 	@Override
 	public void atPointEnd() throws DeviceException {
+		if (getProcessingPipeline() != null) {
+			// the tasks are run by the processing pipeline once this point has been processed
+			return;
+		}
+		runAtPointEndTasks(getCurrentFilename());
+	}
+
+	private void runAtPointEndTasks(String filename) throws DeviceException {
 		for (AtPointEndTask task : atPointEndTasks) {
-			task.run(getCurrentFilename(), processedData);
+			task.run(filename, processedData);
 		}
 	}
 
 	@Override
 	public void atScanEnd() throws DeviceException {
+		drainProcessingPipeline();
+		waitForPostProcessing();
 		for (ScanTask task : atScanEndTasks) {
 			task.run();
 		}
@@ -471,6 +710,12 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 		for (ScanTask task : atScanEndTasks) {
 			task.run();
 		}
+		getAcquisitionExecutor().clearFailure();
+		getPostProcessingExecutor().clearFailure();
+		final ProcessingPipeline pipeline = getProcessingPipeline();
+		if (pipeline != null) {
+			pipeline.clearFailure();
+		}
 		status = IDLE;
 	}
 
@@ -546,16 +791,20 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 				.startIndex(1).trigger(trigger).build();
 		logger.info("Acquiring data");
 		mythenClient.acquire(params);
+		// one monitor reading, taken when the acquisition ends, normalises every frame of the collection
+		final double monitor = getMonitorValue();
 
 		// process data
 		logger.info("Processing data");
-		for (int frame = 1; frame <= numFrames; frame++) {
+		frameProcessingEngine.run(numFrames, index -> {
+			final int frame = index + 1;
 			File rawFile = new File(dataDirectory, String.format(filenameTemplate, prefix, frame, "raw"));
 			MythenRawDataset rawData = new MythenRawDataset(rawFile);
-			MythenProcessedDataset processedData = dataConverter.process(rawData, delta);
+			MythenProcessedDataset processedData = dataConverter.process(rawData, delta, monitor, exposureTime);
 			File processedFile = new File(dataDirectory, String.format(filenameTemplate, prefix, frame, "dat"));
 			processedData.save(processedFile,isHasChannelInfo());
-		}
+			return processedFile;
+		}, (index, processedFile) -> logger.debug("Saved {}", processedFile));
 
 		logger.info("Finished");
 	}
@@ -576,10 +825,11 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 
 		logger.info("Acquiring data");
 		mythenClient.acquire(params);
+		final double monitor = getMonitorValue();
 
 		logger.info("Processing data");
 		MythenRawDataset rawData = new MythenRawDataset(rawFile);
-		MythenProcessedDataset processedData = dataConverter.process(rawData, delta);
+		MythenProcessedDataset processedData = dataConverter.process(rawData, delta, monitor);
 		processedData.save(processedFile,isHasChannelInfo());
 	}
 
@@ -602,10 +852,11 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 
 		logger.info("Acquiring data");
 		mythenClient.acquire(params);
+		final double monitor = getMonitorValue();
 
 		logger.info("Processing data");
 		MythenRawDataset rawData = new MythenRawDataset(rawFile);
-		MythenProcessedDataset processedData = dataConverter.process(rawData, delta);
+		MythenProcessedDataset processedData = dataConverter.process(rawData, delta, monitor);
 		processedData.save(processedFile, isHasChannelInfo());
 	}
 
@@ -634,16 +885,14 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 
 		logger.info("Acquiring data");
 		mythenClient.acquire(params);
+		// one monitor reading, taken when the acquisition ends, normalises every frame of the collection
+		final double monitor = getMonitorValue();
 
-		Thread processing = new Thread(new Runnable() { // post process raw data so it does not block acquisition
-
-					@Override
-					public void run() {
-						logger.info("Processing all frames");
-						afterCollectData(collectionFilenameRoot, numFrames);
-					}
-				}, "DataProcessing");
-		processing.start();
+		// post process raw data in the background, so the detector is free for the next acquisition
+		getPostProcessingExecutor().submit("processing of " + collectionFilenameRoot, () -> {
+			logger.info("Processing all frames");
+			afterCollectData(collectionFilenameRoot, numFrames, monitor);
+		});
 	}
 
 	/**
@@ -653,15 +902,26 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 	 * @param collectionFilenameRoot
 	 */
 	protected void afterCollectData(String collectionFilenameRoot, int numFiles) {
-		boolean clearFirst;
-		for (int i = 0; i < numFiles; i++) {
-			collectionFilename = collectionFilenameRoot + "_" + i;
-			rawFile = new File(getDataDirectory(), collectionFilename + ".raw");
-			// read data and process it
-			rawData = new MythenRawDataset(rawFile);
-			processedData = dataConverter.process(rawData, delta);
-			processedFile = new File(getDataDirectory(), collectionFilename + ".dat");
-			processedData.save(processedFile,isHasChannelInfo());
+		afterCollectData(collectionFilenameRoot, numFiles, getMonitorValue());
+	}
+
+	private void afterCollectData(String collectionFilenameRoot, int numFiles, double monitor) {
+		final File dataDirectory = getDataDirectory();
+		// frames are read, converted and saved in parallel; registering and plotting happen in frame order
+		frameProcessingEngine.run(numFiles, i -> {
+			final String filename = collectionFilenameRoot + "_" + i;
+			final File frameRawFile = new File(dataDirectory, filename + ".raw");
+			final MythenRawDataset frameRawData = new MythenRawDataset(frameRawFile);
+			final MythenProcessedDataset frameProcessedData = dataConverter.process(frameRawData, delta, monitor);
+			final File frameProcessedFile = new File(dataDirectory, filename + ".dat");
+			frameProcessedData.save(frameProcessedFile, isHasChannelInfo());
+			return new ProcessedFrame(filename, frameRawFile, frameRawData, frameProcessedFile, frameProcessedData);
+		}, (i, frame) -> {
+			collectionFilename = frame.filename;
+			rawFile = frame.rawFile;
+			rawData = frame.rawData;
+			processedFile = frame.processedFile;
+			processedData = frame.processedData;
 			if (InterfaceProvider.getTerminalPrinter() != null) {
 				InterfaceProvider.getTerminalPrinter().print("Save to file " + processedFile.getAbsolutePath());
 			}
@@ -669,12 +929,28 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 					.registerFiles(new String[] { rawFile.getAbsolutePath(), processedFile.getAbsolutePath() });
 
 			status = IDLE;
-			if (i == 0) {
-				clearFirst = true;
-			} else {
-				clearFirst = false;
-			}
-			atPointEnd(collectionFilename, processedData, clearFirst);
+			atPointEnd(collectionFilename, processedData, i == 0);
+		});
+	}
+
+	/**
+	 * The files and data for one frame of a multi-frame collection.
+	 */
+	private static class ProcessedFrame {
+
+		final String filename;
+		final File rawFile;
+		final MythenRawDataset rawData;
+		final File processedFile;
+		final MythenProcessedDataset processedData;
+
+		ProcessedFrame(String filename, File rawFile, MythenRawDataset rawData, File processedFile,
+				MythenProcessedDataset processedData) {
+			this.filename = filename;
+			this.rawFile = rawFile;
+			this.rawData = rawData;
+			this.processedFile = processedFile;
+			this.processedData = processedData;
 		}
 	}
 
@@ -716,25 +992,27 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 
 		logger.info("Acquiring data");
 		mythenClient.acquire(params);
-
-		Thread processing = new Thread(new Runnable() { // post process raw data so it does not block acquisition
-
-					@Override
-					public void run() {
-						logger.info("Processing data");
-						for (int i = 1; i < numFrames + 1; i++) {
-							File newrawFile = new File(rawfilenameroot + "_" + i + ".raw");
-							afterCollectData(newrawFile, i);
-						}
-					}
-				}, "DataProcessing");
-		processing.start();
+		// one monitor reading, taken when the acquisition ends, normalises every frame of the collection
+		final double monitor = getMonitorValue();
+
+		// post process raw data in the background, so the detector is free for the next acquisition
+		getPostProcessingExecutor().submit("processing of " + rawfilenameroot, () -> {
+			logger.info("Processing data");
+			for (int i = 1; i < numFrames + 1; i++) {
+				File newrawFile = new File(rawfilenameroot + "_" + i + ".raw");
+				afterCollectData(newrawFile, i, monitor);
+			}
+		});
 	}
 
 	protected void afterCollectData(File rawFile, int num) {
+		afterCollectData(rawFile, num, getMonitorValue());
+	}
+
+	private void afterCollectData(File rawFile, int num, double monitor) {
 		// read data and process it
 		rawData = new MythenRawDataset(rawFile);
-		processedData = dataConverter.process(rawData, delta);
+		processedData = dataConverter.process(rawData, delta, monitor);
 		processedFile = new File(rawFile.getAbsolutePath().replace(".raw", ".dat"));
 		processedData.save(processedFile,isHasChannelInfo());
 		if (InterfaceProvider.getTerminalPrinter() != null) {
@@ -767,7 +1045,7 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 	protected void afterCollectData(File rawFile, String collectionFilename) {
 		// read data and process it
 		rawData = new MythenRawDataset(rawFile);
-		processedData = dataConverter.process(rawData, delta);
+		processedData = dataConverter.process(rawData, delta, getMonitorValue());
 		processedFile = new File(getDataDirectory(), collectionFilename + ".dat");
 		processedData.save(processedFile, isHasChannelInfo());
 		if (InterfaceProvider.getTerminalPrinter() != null) {
@@ -797,4 +1075,214 @@ public class MythenDetectorImpl extends DetectorBase implements Mythen, Initiali
 		this.hasChannelInfo = hasChannelInfo;
 	}
 
+	/**
+	 * Sets the format in which raw data read from an EPICS client is written to the {@code .raw} file. If no format is
+	 * set (the default), raw data from EPICS is not written to disk. Either format can be read back by
+	 * {@link MythenRawDataset#MythenRawDataset(File)}.
+	 *
+	 * @param rawFileFormat
+	 *            the raw file format, or {@code null}
+	 */
+	public void setRawFileFormat(RawFileFormat rawFileFormat) {
+		this.rawFileWriter = rawFileFormat == null ? null : new MythenRawFileWriter(rawFileFormat);
+	}
+
+	/**
+	 * Returns the writer for raw data read from EPICS, or {@code null} if raw data is not to be written.
+	 */
+	protected MythenRawFileWriter getRawFileWriter() {
+		return rawFileWriter;
+	}
+
+	public RawFileFormat getRawFileFormat() {
+		return rawFileWriter == null ? null : rawFileWriter.getFormat();
+	}
+
+	/**
+	 * Sets whether frames collected through EPICS are written to a single scan file per acquisition, with a frame
+	 * index, instead of to one {@code .dat} file per frame. Individual frames are then referred to as
+	 * {@code <scan file>#<frame>}.
+	 *
+	 * @param useScanFile
+	 *            {@code true} to write a scan file
+	 */
+	public void setUseScanFile(boolean useScanFile) {
+		this.useScanFile = useScanFile;
+	}
+
+	public boolean isUseScanFile() {
+		return useScanFile;
+	}
+
+	public void setScanFileCompression(ScanFileCompression scanFileCompression) {
+		this.scanFileCompression = scanFileCompression;
+	}
+
+	public ScanFileCompression getScanFileCompression() {
+		return scanFileCompression;
+	}
+
+	/**
+	 * Sets the engine used to convert the frames of multi-frame acquisitions in parallel. Defaults to the
+	 * {@link FrameProcessingEngine#getDefault() shared engine}.
+	 *
+	 * @param frameProcessingEngine
+	 */
+	public void setFrameProcessingEngine(FrameProcessingEngine frameProcessingEngine) {
+		this.frameProcessingEngine = frameProcessingEngine;
+	}
+
+	public FrameProcessingEngine getFrameProcessingEngine() {
+		return frameProcessingEngine;
+	}
+
+	/**
+	 * Sets the running sum that the data collected during a scan is added to as each dataset is processed. The sum is
+	 * restarted at the start of each scan. No running sum is kept by default.
+	 *
+	 * @param runningSum
+	 */
+	public void setRunningSum(MythenRunningSum runningSum) {
+		this.runningSum = runningSum;
+	}
+
+	public MythenRunningSum getRunningSum() {
+		return runningSum;
+	}
+
+	/**
+	 * Sets the executor that runs this detector's acquisition and processing work. By default each detector creates
+	 * its own executor when it is first needed.
+	 *
+	 * @param acquisitionExecutor
+	 */
+	public synchronized void setAcquisitionExecutor(AcquisitionExecutor acquisitionExecutor) {
+		this.acquisitionExecutor = acquisitionExecutor;
+	}
+
+	public synchronized AcquisitionExecutor getAcquisitionExecutor() {
+		if (acquisitionExecutor == null) {
+			acquisitionExecutor = new AcquisitionExecutor(getName());
+		}
+		return acquisitionExecutor;
+	}
+
+	/**
+	 * Sets the executor that post-processes multi-frame and gated collections. This work runs separately from the
+	 * {@link #setAcquisitionExecutor acquisition executor}, so the detector does not stay busy while it runs; it is
+	 * waited for, and its failures reported, at the end of the scan. By default each detector creates its own executor
+	 * when it is first needed.
+	 *
+	 * @param postProcessingExecutor
+	 */
+	public synchronized void setPostProcessingExecutor(AcquisitionExecutor postProcessingExecutor) {
+		this.postProcessingExecutor = postProcessingExecutor;
+	}
+
+	public synchronized AcquisitionExecutor getPostProcessingExecutor() {
+		if (postProcessingExecutor == null) {
+			postProcessingExecutor = new AcquisitionExecutor(getName() + "-postprocessing");
+		}
+		return postProcessingExecutor;
+	}
+
+	/**
+	 * Waits for the post-processing of multi-frame and gated collections to finish, throwing the first failure that
+	 * has not yet been reported.
+	 */
+	protected void waitForPostProcessing() throws DeviceException {
+		try {
+			getPostProcessingExecutor().waitWhileBusy();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DeviceException(getName() + " - interrupted waiting for post-processing to finish", e);
+		}
+	}
+
+	/**
+	 * Sets the number of single-frame collections whose processing may be queued or running behind the acquisition.
+	 * With a depth of zero, the default, each collection is processed before the detector reports that it has
+	 * finished. With a larger depth, {@link #collectData()} can start the next collection while earlier ones are
+	 * processed in the background, in order; when that many are waiting, the detector stays busy until there is
+	 * room. The at-point-end tasks are then run by the pipeline once each point has been processed, and the pipeline
+	 * is drained at the end of the scan.
+	 *
+	 * @param pipelineDepth
+	 */
+	public synchronized void setPipelineDepth(int pipelineDepth) {
+		if (pipelineDepth < 0) {
+			throw new IllegalArgumentException("Pipeline depth cannot be negative (was " + pipelineDepth + ")");
+		}
+		if (processingPipeline != null) {
+			if (processingPipeline.isBusy()) {
+				throw new IllegalStateException("Cannot change the pipeline depth of " + getName() + " while data is being processed");
+			}
+			processingPipeline.shutdown();
+			processingPipeline = null;
+		}
+		this.pipelineDepth = pipelineDepth;
+	}
+
+	public synchronized int getPipelineDepth() {
+		return pipelineDepth;
+	}
+
+	/**
+	 * Returns the pipeline that processes single-frame collections in the background, or {@code null} if collections
+	 * are processed as part of the acquisition.
+	 */
+	protected synchronized ProcessingPipeline getProcessingPipeline() {
+		if (processingPipeline == null && pipelineDepth > 0) {
+			processingPipeline = new ProcessingPipeline(getName(), pipelineDepth);
+		}
+		return processingPipeline;
+	}
+
+	/**
+	 * Returns the running sum if it holds every dataset collected during the current scan, or {@code null} if there
+	 * is no running sum or a dataset could not be added to it.
+	 */
+	public MythenRunningSum getRunningSumForThisScan() {
+		return runningSumComplete ? runningSum : null;
+	}
+
+	private void startRunningSum() {
+		runningSumComplete = false;
+		if (runningSum == null) {
+			return;
+		}
+		try {
+			runningSum.start(numberOfModules, dataConverter.getBadChannelProvider());
+			runningSumComplete = true;
+		} catch (RuntimeException e) {
+			logger.error("{} - unable to start the running sum; data will not be summed as it is collected", getName(), e);
+		}
+	}
+
+	/**
+	 * Adds a dataset collected during the scan to the {@link #setRunningSum running sum}, if there is one.
+	 *
+	 * @param data the processed data
+	 */
+	protected void addToRunningSum(MythenProcessedDataset data) {
+		if (!runningSumComplete) {
+			return;
+		}
+		try {
+			runningSum.add(data);
+		} catch (RuntimeException e) {
+			runningSumComplete = false;
+			logger.error("{} - unable to add data to the running sum; it will not be used for this scan", getName(), e);
+		}
+	}
+
+	/**
+	 * Returns the scan files written since the start of the current scan.
+	 *
+	 * @return list of scan files
+	 */
+	public List<File> getScanFilesForThisScan() {
+		return new ArrayList<File>(scanFilesForScan);
+	}
+
 }
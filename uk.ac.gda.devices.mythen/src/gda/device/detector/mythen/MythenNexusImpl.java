@@ -18,13 +18,15 @@
 
 package gda.device.detector.mythen;
 
+import java.io.File;
+
 import gda.data.fileregistrar.FileRegistrarHelper;
 import gda.data.nexus.extractor.NexusGroupData;
 import gda.data.nexus.tree.NexusTreeProvider;
 import gda.device.DeviceException;
 import gda.device.detector.NXDetectorData;
 import gda.device.detector.NexusDetector;
-import gda.device.detector.mythen.data.MythenRawDataset;
+import gda.device.detector.mythen.data.MythenProcessedDataset;
 
 public class MythenNexusImpl extends MythenDetectorImpl implements NexusDetector {
 	
@@ -39,21 +41,17 @@ public class MythenNexusImpl extends MythenDetectorImpl implements NexusDetector
 	 * Holds the processed data in memory instead of writing it to a new file 
 	 */
 	@Override
-	protected void afterCollectData() {
-		// read data and process it
-		rawData = new MythenRawDataset(rawFile);
-		processedData = dataConverter.process(rawData, delta);
-		processedFile = null;
-		
+	protected File saveProcessedData(CollectionPoint point, MythenProcessedDataset pointProcessedData) {
 		FileRegistrarHelper.registerFiles(new String[] {
-			rawFile.getAbsolutePath(),
+			point.rawFile.getAbsolutePath(),
 		});
-		
-		status = IDLE;
+		return null;
 	}
 	
 	@Override
 	public NexusTreeProvider readout() throws DeviceException{
+		// the data for this point must have been processed before it can be written to the NeXus file
+		drainProcessingPipeline();
 		NXDetectorData thisFrame = new NXDetectorData(this);
 		thisFrame.addNote(getName(), "Raw file:" + rawFile.getName());
 		thisFrame.addData(getName(), new NexusGroupData(processedData.getCountArray()), "counts", 1);
@@ -0,0 +1,141 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+import gda.device.DeviceException;
+import gda.device.detector.mythen.AcquisitionExecutor.AcquisitionTask;
+
+/**
+ * A bounded background stage that processes collected points in the order they were collected, so that the
+ * acquisition of one point can overlap the processing of earlier ones.
+ * <p>
+ * At most {@link #getDepth()} points are queued or being processed at once. When the pipeline is full,
+ * {@link #submit(String, AcquisitionTask)} blocks until the oldest point has been processed, so a detector that reads
+ * out faster than it can process is held back rather than building an unbounded backlog. Failures are kept and thrown
+ * from {@link #checkForFailure()} or {@link #drain()}, as for an {@link AcquisitionExecutor}.
+ */
+public class ProcessingPipeline {
+
+	private final int depth;
+
+	private final Semaphore slots;
+
+	private final AcquisitionExecutor stage;
+
+	/**
+	 * Creates a pipeline that processes points on a single daemon thread.
+	 *
+	 * @param name
+	 *            the detector name, used in the thread name and error messages
+	 * @param depth
+	 *            the maximum number of points queued or being processed
+	 */
+	public ProcessingPipeline(final String name, int depth) {
+		if (depth < 1) {
+			throw new IllegalArgumentException("Pipeline depth must be at least 1 (was " + depth + ")");
+		}
+		this.depth = depth;
+		this.slots = new Semaphore(depth);
+		this.stage = new AcquisitionExecutor(name, Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread thread = new Thread(r, name + "-processing");
+				thread.setDaemon(true);
+				return thread;
+			}
+		}));
+	}
+
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Returns the number of points queued or being processed.
+	 */
+	public int getQueuedPoints() {
+		return depth - slots.availablePermits();
+	}
+
+	/**
+	 * Queues a point for processing, waiting for room in the pipeline if it is full.
+	 *
+	 * @param description
+	 *            describes the point, for log messages
+	 * @param task
+	 *            the processing to do
+	 */
+	public void submit(String description, final AcquisitionTask task) throws InterruptedException {
+		slots.acquire();
+		try {
+			stage.submit(description, () -> {
+				try {
+					task.run();
+				} finally {
+					slots.release();
+				}
+			});
+		} catch (RuntimeException e) {
+			slots.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns {@code true} if any point is queued or being processed.
+	 */
+	public boolean isBusy() {
+		return stage.isBusy();
+	}
+
+	/**
+	 * Waits until every queued point has been processed, then throws the first failure that has not yet been
+	 * reported.
+	 */
+	public void drain() throws DeviceException, InterruptedException {
+		stage.waitWhileBusy();
+	}
+
+	/**
+	 * Throws the first failure that has not yet been reported, if there is one, without waiting.
+	 */
+	public void checkForFailure() throws DeviceException {
+		stage.checkForFailure();
+	}
+
+	/**
+	 * Discards any failure that has not yet been reported.
+	 */
+	public void clearFailure() {
+		stage.clearFailure();
+	}
+
+	/**
+	 * Stops accepting points. Points already queued are still processed.
+	 */
+	public void shutdown() {
+		stage.shutdown();
+	}
+
+}
@@ -20,17 +20,39 @@ package gda.device.detector.mythen;
 
 import static gda.device.detector.mythen.client.Trigger.SINGLE;
 
-import java.util.concurrent.FutureTask;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import gda.device.DeviceException;
 import gda.device.detector.mythen.client.AcquisitionParameters;
+import gda.device.detector.mythen.client.ArmableMythenClient;
 import gda.device.detector.mythen.tasks.ScanTask;
 
 public class ShutterControlledMythenDetectorImpl extends MythenDetectorImpl {
 
+	private static final Logger logger = LoggerFactory.getLogger(ShutterControlledMythenDetectorImpl.class);
+
 	private ScanTask openShutterTask;
 	
 	private ScanTask closeShutterTask;
+
+	/** Time in seconds to wait for the client to report that the detector is armed before opening the shutter anyway */
+	private double armingTimeout = 1.0;
+
+	/** Time in seconds to wait before opening the shutter if the client cannot report that the detector is armed */
+	private double armingDelay = 0.5;
+
+	private volatile double lastArmingLatency = Double.NaN;
+
+	private final List<Double> armingLatencies = new Vector<Double>();
 	
 	public void setOpenShutterTask(ScanTask openShutterTask) {
 		this.openShutterTask = openShutterTask;
@@ -40,6 +62,28 @@ public class ShutterControlledMythenDetectorImpl extends MythenDetectorImpl {
 		this.closeShutterTask = closeShutterTask;
 	}
 
+	public double getArmingTimeout() {
+		return armingTimeout;
+	}
+
+	public void setArmingTimeout(double armingTimeout) {
+		this.armingTimeout = armingTimeout;
+	}
+
+	public double getArmingDelay() {
+		return armingDelay;
+	}
+
+	/**
+	 * Sets the time in seconds to wait before opening the shutter when the Mythen client cannot report that the
+	 * detector is armed. Clients that {@link ArmableMythenClient#isArmingReported() report arming} do not use this
+	 * delay. A {@link gda.device.detector.mythen.client.TextClientMythenClient} reports arming only once its
+	 * {@code armedMessage} is configured.
+	 */
+	public void setArmingDelay(double armingDelay) {
+		this.armingDelay = armingDelay;
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
 		super.afterPropertiesSet();
@@ -53,44 +97,49 @@ public class ShutterControlledMythenDetectorImpl extends MythenDetectorImpl {
 		}
 	}
 
+	@Override
+	public void atScanStart() throws DeviceException {
+		armingLatencies.clear();
+		super.atScanStart();
+	}
+
 	@Override
 	public void collectData() throws DeviceException {
 		beforeCollectData();
 		
 		// Invoke the client; data collection will not actually begin until the shutter
 		// has been opened
-		FutureTask<Void> collectionTask = new FutureTask<Void>(new Runnable() {
-			@Override
-			public void run() {
-				try {
-					AcquisitionParameters params = new AcquisitionParameters.Builder()
-					.filename(rawFile.getAbsolutePath())
-					.frames(1)
-					.exposureTime(exposureTime)
-					.trigger(SINGLE)
-					.build();
-					mythenClient.acquire(params);
-				} catch (DeviceException e) {
-					throw new RuntimeException("Unable to collect data", e);
-				}
+		final long start = System.nanoTime();
+		final CompletableFuture<Long> armed = new CompletableFuture<Long>();
+		final CompletableFuture<Void> collection = getAcquisitionExecutor().submit("collection " + collectionNumber, () -> {
+			AcquisitionParameters params = new AcquisitionParameters.Builder()
+			.filename(rawFile.getAbsolutePath())
+			.frames(1)
+			.exposureTime(exposureTime)
+			.trigger(SINGLE)
+			.build();
+			if (mythenClient instanceof ArmableMythenClient) {
+				((ArmableMythenClient) mythenClient).acquire(params, () -> armed.complete(System.nanoTime()));
+			} else {
+				mythenClient.acquire(params);
 			}
-		}, null);
-		new Thread(collectionTask).start();
+		});
 		
-		// Give the client a while to start
-		try {
-			Thread.sleep(500);
-		} catch (InterruptedException e) {
-			throw new DeviceException("Could not collect data", e);
-		}
+		waitUntilArmed(armed, collection);
+		lastArmingLatency = armed.isDone() ? (armed.join() - start) / 1e6 : Double.NaN;
+		armingLatencies.add(lastArmingLatency);
+		logger.debug("{} - arming latency for collection {}: {} ms", getName(), collectionNumber, lastArmingLatency);
 		
-		// Open the shutter
-		openShutterTask.run();
+		// Open the shutter, unless the client has already failed
+		if (!collection.isCompletedExceptionally()) {
+			openShutterTask.run();
+		}
 		
 		// Wait for Mythen client to finish
 		try {
-			collectionTask.get();
+			collection.get();
 		} catch (Exception e) {
+			getAcquisitionExecutor().clearFailure();
 			throw new DeviceException("Unable to collect data", e);
 		}
 		
@@ -100,6 +149,65 @@ public class ShutterControlledMythenDetectorImpl extends MythenDetectorImpl {
 		afterCollectData();
 	}
 
+	/**
+	 * Waits until the client reports that the detector is armed, or the acquisition ends, or the arming timeout
+	 * passes. Clients that cannot report arming are given a fixed delay to start instead.
+	 */
+	private void waitUntilArmed(CompletableFuture<Long> armed, CompletableFuture<Void> collection) throws DeviceException {
+		try {
+			if (!isArmingReported()) {
+				// Give the client a while to start
+				Thread.sleep(Math.round(armingDelay * 1000));
+				return;
+			}
+			CompletableFuture.anyOf(armed, collection).get(Math.round(armingTimeout * 1000), TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new DeviceException("Could not collect data", e);
+		} catch (TimeoutException e) {
+			logger.warn("{} - detector was not armed within {} s; opening the shutter anyway", getName(), armingTimeout);
+		} catch (ExecutionException e) {
+			// the acquisition failed before the detector was armed; the failure is reported by collectData()
+		}
+	}
+
+	private boolean isArmingReported() {
+		return (mythenClient instanceof ArmableMythenClient) && ((ArmableMythenClient) mythenClient).isArmingReported();
+	}
+
+	@Override
+	protected List<String> getHeaderStrings() {
+		List<String> headerStrings = super.getHeaderStrings();
+		if (!Double.isNaN(lastArmingLatency)) {
+			headerStrings.add(String.format("Arming latency (ms)\t: %.1f", lastArmingLatency));
+		}
+		return headerStrings;
+	}
+
+	/**
+	 * Returns the time in milliseconds between starting the client and the detector being armed for the most recent
+	 * collection, or {@code NaN} if the client did not report arming.
+	 */
+	public double getLastArmingLatency() {
+		return lastArmingLatency;
+	}
+
+	/**
+	 * Returns the arming latency in milliseconds of each collection in the current scan, in collection order.
+	 */
+	public List<Double> getArmingLatencies() {
+		return new ArrayList<Double>(armingLatencies);
+	}
+
+	/**
+	 * Each collection is processed before {@link #collectData()} returns, so this detector never uses a processing
+	 * pipeline.
+	 */
+	@Override
+	protected ProcessingPipeline getProcessingPipeline() {
+		return null;
+	}
+
 	@Override
 	public void stop() throws DeviceException {
 		closeShutterTask.run();
@@ -31,6 +31,7 @@ import gda.data.fileregistrar.FileRegistrarHelper;
 import gda.device.DeviceException;
 import gda.device.detector.mythen.data.MythenDataFileUtils;
 import gda.device.detector.mythen.data.MythenDataFileUtils.FileType;
+import gda.device.detector.mythen.data.MythenRunningSum;
 import gda.device.detector.mythen.data.MythenSum;
 import uk.ac.diamond.scisoft.analysis.SDAPlotter;
 
@@ -40,6 +41,12 @@ public class SummingMythenDetector extends MythenDetectorImpl {
 
 	protected double step = 0.004;
 
+	private boolean plotPartialSums;
+
+	public SummingMythenDetector() {
+		setRunningSum(new MythenRunningSum());
+	}
+
 	/**
 	 * Sets the angle step to use when summing the data.
 	 */
@@ -51,8 +58,38 @@ public class SummingMythenDetector extends MythenDetectorImpl {
 		return step;
 	}
 
+	/**
+	 * Sets whether the sum of the data collected so far should be plotted at the end of each point in the scan.
+	 */
+	public void setPlotPartialSums(boolean plotPartialSums) {
+		this.plotPartialSums = plotPartialSums;
+	}
+
+	public boolean isPlotPartialSums() {
+		return plotPartialSums;
+	}
+
 	protected String panelName = "Mythen";
 
+	@Override
+	public void atScanStart() throws DeviceException {
+		if (getRunningSum() != null) {
+			getRunningSum().setStep(step);
+		}
+		super.atScanStart();
+	}
+
+	@Override
+	public void atPointEnd() throws DeviceException {
+		super.atPointEnd();
+		if (plotPartialSums) {
+			final MythenRunningSum runningSum = getRunningSumForThisScan();
+			if (runningSum != null) {
+				plotSummedData(runningSum.getSum(), "partial sum");
+			}
+		}
+	}
+
 	@Override
 	public void atScanEnd() throws DeviceException {
 		super.atScanEnd();
@@ -61,26 +98,16 @@ public class SummingMythenDetector extends MythenDetectorImpl {
 
 	protected void sumProcessedData()  throws DeviceException {
 		final int numDatasets = (int) collectionNumber;
-		logger.info(String.format("Going to sum %d dataset(s)", numDatasets));
-
-		// Build filename of each processed data file
-		String[] filenames = new String[numDatasets];
-		for (int i=1; i<=numDatasets; i++) {
-			String filename = buildFilename(i, FileType.PROCESSED);
-			File processedFile = new File(getDataDirectory(), filename);
-			filenames[i-1] = processedFile.getAbsolutePath();
+		final MythenRunningSum runningSum = getRunningSumForThisScan();
+		final double[][] summedData;
+		if (runningSum != null && runningSum.getGridStep() == step && runningSum.getNumberOfDatasets() == numDatasets) {
+			// Every dataset has already been summed as it was collected
+			logger.info(String.format("Using running sum of %d dataset(s)", numDatasets));
+			summedData = runningSum.getSum();
+		} else {
+			summedData = loadAndSum(numDatasets);
 		}
 
-		// Load all processed data files
-		logger.info("Loading processed data...");
-		double[][][] allData = MythenDataFileUtils.readMythenProcessedDataFiles(filenames);
-		logger.info("Done");
-
-		// Sum the data
-		logger.info("Summing data...");
-		double[][] summedData = MythenSum.sum(allData, numberOfModules, dataConverter.getBadChannelProvider(), step);
-		logger.info("Done");
-
 		// Save the summed data
 		File summedDataFile = new File(getDataDirectory(), buildFilename("summed", FileType.PROCESSED));
 		logger.info(String.format("Saving summed data to %s", summedDataFile.getAbsolutePath()));
@@ -99,6 +126,33 @@ public class SummingMythenDetector extends MythenDetectorImpl {
 		FileRegistrarHelper.registerFile(summedDataFile.getAbsolutePath());
 
 		// Plot summed data
+		plotSummedData(summedData, FilenameUtils.getName(summedDataFile.getAbsolutePath()));
+	}
+
+	private double[][] loadAndSum(int numDatasets) {
+		logger.info(String.format("Going to sum %d dataset(s)", numDatasets));
+
+		// Build filename of each processed data file
+		String[] filenames = new String[numDatasets];
+		for (int i=1; i<=numDatasets; i++) {
+			String filename = buildFilename(i, FileType.PROCESSED);
+			File processedFile = new File(getDataDirectory(), filename);
+			filenames[i-1] = processedFile.getAbsolutePath();
+		}
+
+		// Load all processed data files
+		logger.info("Loading processed data...");
+		double[][][] allData = MythenDataFileUtils.readMythenProcessedDataFiles(filenames);
+		logger.info("Done");
+
+		// Sum the data
+		logger.info("Summing data...");
+		double[][] summedData = MythenSum.sum(allData, numberOfModules, dataConverter.getBadChannelProvider(), step);
+		logger.info("Done");
+		return summedData;
+	}
+
+	private void plotSummedData(double[][] summedData, String name) {
 		final int numChannels = summedData.length;
 		double[] angles = new double[numChannels];
 		double[] counts = new double[numChannels];
@@ -106,11 +160,10 @@ public class SummingMythenDetector extends MythenDetectorImpl {
 			angles[i] = summedData[i][0];
 			counts[i] = summedData[i][1];
 		}
-		String name2 = FilenameUtils.getName(summedDataFile.getAbsolutePath());
 		Dataset anglesDataset = DatasetFactory.createFromObject(angles);
 		anglesDataset.setName("angle");
 		Dataset countsDataset = DatasetFactory.createFromObject(counts);
-		countsDataset.setName(name2);
+		countsDataset.setName(name);
 		try {
 			SDAPlotter.plot(panelName, anglesDataset, countsDataset);
 		} catch (Exception e) {
@@ -0,0 +1,53 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.client;
+
+import gda.device.DeviceException;
+
+/**
+ * A {@link MythenClient} that can tell when the detector has been armed - that is, when it is ready and waiting for
+ * its trigger - so that a shutter or trigger source can be opened straight away rather than after a fixed delay.
+ */
+public interface ArmableMythenClient extends MythenClient {
+
+	/**
+	 * Receives the arming signal from an {@link ArmableMythenClient}.
+	 */
+	public interface ArmingListener {
+
+		/**
+		 * Called once, on the acquiring thread, when the detector is armed.
+		 */
+		void armed();
+	}
+
+	/**
+	 * Returns {@code true} if this client is configured to report when the detector is armed. If it is not, the
+	 * listener passed to {@link #acquire(AcquisitionParameters, ArmingListener)} is never called.
+	 */
+	public boolean isArmingReported();
+
+	/**
+	 * Acquires data using the supplied parameters, notifying the listener as soon as the detector is armed. The
+	 * listener is not called if the acquisition fails before the detector is armed.
+	 */
+	public void acquire(AcquisitionParameters params, ArmingListener listener) throws DeviceException;
+
+}
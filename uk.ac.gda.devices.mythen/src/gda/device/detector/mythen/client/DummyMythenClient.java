@@ -19,17 +19,22 @@
 package gda.device.detector.mythen.client;
 
 import gda.device.DeviceException;
+import gda.device.detector.mythen.data.MythenRawDataset;
+import gda.device.detector.mythen.data.MythenRawFileWriter;
+import gda.device.detector.mythen.data.RawFileFormat;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.Random;
 
 /**
  * Dummy implementation of {@link MythenClient}.
  */
-public class DummyMythenClient implements MythenClient {
+public class DummyMythenClient implements ArmableMythenClient {
 
 	private int numberOfModules;
+
+	private MythenRawFileWriter writer = new MythenRawFileWriter(RawFileFormat.ASCII);
 	
 	/**
 	 * Creates a dummy client.
@@ -40,16 +45,41 @@ public class DummyMythenClient implements MythenClient {
 		this.numberOfModules = numberOfModules;
 	}
 	
+	/**
+	 * Sets the format in which dummy frames are written. Defaults to {@link RawFileFormat#ASCII}.
+	 * 
+	 * @param rawFileFormat the raw file format
+	 */
+	public void setRawFileFormat(RawFileFormat rawFileFormat) {
+		writer = new MythenRawFileWriter(rawFileFormat);
+	}
+
+	public RawFileFormat getRawFileFormat() {
+		return writer.getFormat();
+	}
+
 	@Override
 	public void acquire(AcquisitionParameters params) throws DeviceException {
+		acquire(params, null);
+	}
+
+	@Override
+	public boolean isArmingReported() {
+		return true;
+	}
+
+	@Override
+	public void acquire(AcquisitionParameters params, ArmingListener listener) throws DeviceException {
+		if (listener != null) {
+			listener.armed();
+		}
 		Random rand = new Random();
+		int[] counts = new int[numberOfModules*1280];
+		for (int channel=0; channel<counts.length; channel++) {
+			counts[channel] = rand.nextInt(1001);
+		}
 		try {
-			PrintWriter pw = new PrintWriter(params.getFilename());
-			for (int channel=0; channel<numberOfModules*1280; channel++) {
-				int count = rand.nextInt(1001);
-				pw.printf("%d %d\n", channel, count);
-			}
-			pw.close();
+			writer.write(new File(params.getFilename()), MythenRawDataset.fromCounts(counts), 0);
 		} catch (IOException ioe) {
 			throw new DeviceException("Unable to save data", ioe);
 		}
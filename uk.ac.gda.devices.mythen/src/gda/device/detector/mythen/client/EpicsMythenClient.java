@@ -18,8 +18,7 @@
 
 package gda.device.detector.mythen.client;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,7 +30,6 @@ import gda.device.detector.areadetector.v17.ADBase;
 import gda.device.detector.areadetector.v17.ImageMode;
 import gda.device.detector.areadetector.v17.NDArray;
 import gda.device.detector.areadetector.v17.NDPluginBase;
-import gda.device.detector.mythen.data.MythenRawData;
 import gda.device.detector.mythen.data.MythenRawDataset;
 
 /**
@@ -41,7 +39,7 @@ import gda.device.detector.mythen.data.MythenRawDataset;
  * This class is intended for use with Epics implementation that talks to Mythen using socket interface,
  * as used on B18.
  */
-public class EpicsMythenClient implements MythenClient, InitializingBean {
+public class EpicsMythenClient implements ArmableMythenClient, InitializingBean {
 	private static final Logger logger = LoggerFactory.getLogger(EpicsMythenClient.class);
 
 	private ADDetector mythenAreaDetector;
@@ -73,6 +71,21 @@ public class EpicsMythenClient implements MythenClient, InitializingBean {
 
 	@Override
 	public void acquire(AcquisitionParameters params) throws DeviceException {
+		acquire(params, null);
+	}
+
+	@Override
+	public boolean isArmingReported() {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The detector is treated as armed once the area detector has accepted the request to start acquiring.
+	 */
+	@Override
+	public void acquire(AcquisitionParameters params, ArmingListener listener) throws DeviceException {
 		ADBase adBase = mythenAreaDetector.getAdBase();
 		NDArray ndArray = mythenAreaDetector.getNdArray();
 		try {
@@ -100,6 +113,9 @@ public class EpicsMythenClient implements MythenClient, InitializingBean {
 			adBase.setAcquirePeriod(params.getExposureTime().doubleValue());
 			logger.debug("Collecting data from Mythen...");
 			mythenAreaDetector.collectData();
+			if (listener != null) {
+				listener.armed();
+			}
 			mythenAreaDetector.waitWhileBusy();
 			rawArrayData = ndArray.getIntArrayData(numChannels);
 			logger.debug("Finished collecting data from Mythen.");
@@ -114,14 +130,8 @@ public class EpicsMythenClient implements MythenClient, InitializingBean {
 	}
 
 	public MythenRawDataset getRawData() {
-		List<MythenRawData> mythenData = new ArrayList<MythenRawData>();
-		for (int i = 0; i < numChannels; i++) {
-			mythenData.add(new MythenRawData(i, rawArrayData[i]));
-		}
-
-		MythenRawDataset rawDataset = new MythenRawDataset();
-		rawDataset.setLines(mythenData);
-		return rawDataset;
+		final int[] counts = rawArrayData.length == numChannels ? rawArrayData : Arrays.copyOf(rawArrayData, numChannels);
+		return MythenRawDataset.fromCounts(counts);
 	}
 
 }
@@ -24,6 +24,7 @@ import gda.jython.InterfaceProvider;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -35,18 +36,23 @@ import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
-import org.springframework.util.FileCopyUtils;
 
 /**
  * A Mythen client that wraps the SLS Mythen text client to interact with the Mythen hardware.
  */
-public class TextClientMythenClient implements MythenClient, InitializingBean {
+public class TextClientMythenClient implements ArmableMythenClient, InitializingBean {
 
 	private static final Logger logger = LoggerFactory.getLogger(TextClientMythenClient.class);
 
 	private String mythenClientCommand = "mcs_large_client";
 	private AcquisitionParameters params;
 
+	/**
+	 * Text that the client prints when the detector is armed, matched case-insensitively against its standard output.
+	 * Arming is not reported unless this is set.
+	 */
+	private String armedMessage;
+
 	/**
 	 * Sets the name of the text client executable.
 	 */
@@ -58,6 +64,35 @@ public class TextClientMythenClient implements MythenClient, InitializingBean {
 		return mythenClientCommand;
 	}
 
+	/**
+	 * Sets the text that the client prints on standard output when the detector is armed and waiting for its trigger.
+	 * Only set this if the client is known to print the text as soon as it is armed, without buffering its output.
+	 * <p>
+	 * Nothing is set by default. Until it is set, a {@link gda.device.detector.mythen.ShutterControlledMythenDetectorImpl}
+	 * using this client still waits its fixed {@code armingDelay} before opening the shutter. The line the
+	 * {@code mcs_large_client} build on a beamline prints on arming has not been confirmed here. Run the client by hand
+	 * against the detector, note the line it prints while waiting for the trigger, and configure that text, e.g.
+	 *
+	 * <pre>
+	 * &lt;bean id="mythen_client" class="gda.device.detector.mythen.client.TextClientMythenClient"&gt;
+	 *     &lt;property name="host" value="mythen-host" /&gt;
+	 *     &lt;property name="armedMessage" value="<i>text printed by the client when armed</i>" /&gt;
+	 * &lt;/bean&gt;
+	 * </pre>
+	 */
+	public void setArmedMessage(String armedMessage) {
+		this.armedMessage = armedMessage;
+	}
+
+	public String getArmedMessage() {
+		return armedMessage;
+	}
+
+	@Override
+	public boolean isArmingReported() {
+		return armedMessage != null;
+	}
+
 	/**
 	 * The hostname or IP address of the Mythen controller.
 	 */
@@ -96,10 +131,15 @@ public class TextClientMythenClient implements MythenClient, InitializingBean {
 
 	@Override
 	public void acquire(AcquisitionParameters params) throws DeviceException {
+		acquire(params, null);
+	}
+
+	@Override
+	public void acquire(AcquisitionParameters params, ArmingListener listener) throws DeviceException {
 		this.params = params;
 		List<String> args = createCommandLineArgs(params);
 
-		MythenTextClientExecResult result = execProcess(args.toArray(new String[] {}));
+		MythenTextClientExecResult result = execProcess(listener, args.toArray(new String[] {}));
 		
 		if (result.exitValue != 0){
 			throw new DeviceException("Exception while collecting a Mythen image");
@@ -114,7 +154,7 @@ public class TextClientMythenClient implements MythenClient, InitializingBean {
 //		}
 	}
 
-	private MythenTextClientExecResult execProcess(String... args) throws DeviceException {
+	private MythenTextClientExecResult execProcess(ArmingListener listener, String... args) throws DeviceException {
 
 		if (!EXEC_LOCK.tryLock()) {
 			throw new DeviceException("Cannot acquire: client is already running");
@@ -137,6 +177,8 @@ public class TextClientMythenClient implements MythenClient, InitializingBean {
 			try {
 				Process p = pb.start();
 				BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream()));
+				// the output is read as it is written, so the arming message is seen as soon as it is printed
+				result.output = readOutput(br, listener);
 				try {
 					logger.debug("wait for TextClient to complete data acquisition ...");
 					p.waitFor();
@@ -145,8 +187,6 @@ public class TextClientMythenClient implements MythenClient, InitializingBean {
 					throw new DeviceException("Unable to wait for text client to finish", e);
 				}
 
-				result.output = FileCopyUtils.copyToString(br);
-
 				result.exitValue = p.exitValue();
 				if (result.exitValue != 0) {
 					throw new DeviceException(String.format("Client exited with non-zero status: %d", result.exitValue));
@@ -165,6 +205,33 @@ public class TextClientMythenClient implements MythenClient, InitializingBean {
 		}
 	}
 
+	/**
+	 * Reads the client's output until it exits, notifying the listener when the arming message appears. The output
+	 * is searched as it arrives rather than line by line, as the message need not end with a newline.
+	 */
+	String readOutput(Reader br, ArmingListener listener) throws IOException {
+		final String message = (armedMessage == null) ? null : armedMessage.toLowerCase();
+		boolean armed = (listener == null || message == null);
+		StringBuilder output = new StringBuilder();
+		try {
+			char[] buffer = new char[1024];
+			int n;
+			while ((n = br.read(buffer)) >= 0) {
+				// start far enough back to find a message split between two reads
+				final int searchFrom = armed ? 0 : Math.max(0, output.length() - message.length() + 1);
+				output.append(buffer, 0, n);
+				if (!armed && output.substring(searchFrom).toLowerCase().contains(message)) {
+					armed = true;
+					logger.debug("Mythen client reports the detector is armed");
+					listener.armed();
+				}
+			}
+		} finally {
+			br.close();
+		}
+		return output.toString();
+	}
+
 	/**
 	 * Converts the supplied {@link AcquisitionParameters} to a list of text client command line arguments.
 	 */
@@ -0,0 +1,296 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import java.util.List;
+
+import org.eclipse.january.dataset.Dataset;
+import org.eclipse.january.dataset.DatasetFactory;
+
+/**
+ * The channels of a set of datasets that fall within a range of angles.
+ * <p>
+ * A view does not copy any data: it holds, for each dataset, the index of the first channel in the range and the
+ * number of channels, into the arrays of a {@link Source}. When all the datasets share one angle grid - as
+ * {@link BinnedMythenData binned data} does - the range is found with a single binary search; otherwise each
+ * dataset's angles are searched separately. Either way selecting a range takes O(log n) time per dataset.
+ * <p>
+ * The angles of each dataset must be in ascending order.
+ */
+public final class AngleRangeView {
+
+	/**
+	 * Columnar Mythen data that angle ranges can be selected from.
+	 * <p>
+	 * The data is wrapped in January datasets the first time a {@link Dataset} is requested from one of its views;
+	 * the wrappers are then shared by every view of the source, which return slices of them.
+	 */
+	public static final class Source {
+
+		private final int numDatasets;
+
+		/** Angles of each dataset; every element is the same array when the datasets share a grid. */
+		private final double[][] angles;
+
+		/** Counts of each dataset when they are held as {@code int}s, or {@code null}. */
+		private final int[][] intCounts;
+
+		/** Flat array of binned counts, one row per dataset, or {@code null}. */
+		private final double[] binnedCounts;
+
+		private final boolean sharedGrid;
+
+		private Dataset[] angleDatasets;
+
+		private Dataset[] countDatasets;
+
+		private Dataset countImage;
+
+		private Source(double[][] angles, int[][] intCounts, double[] binnedCounts, boolean sharedGrid) {
+			this.numDatasets = angles.length;
+			this.angles = angles;
+			this.intCounts = intCounts;
+			this.binnedCounts = binnedCounts;
+			this.sharedGrid = sharedGrid;
+		}
+
+		/**
+		 * Creates a source over binned data. The data is not copied.
+		 */
+		public static Source of(BinnedMythenData data) {
+			final double[][] angles = new double[data.getNumberOfDatasets()][];
+			for (int d = 0; d < angles.length; d++) {
+				angles[d] = data.getAngles();
+			}
+			return new Source(angles, null, data.getCounts(), true);
+		}
+
+		/**
+		 * Creates a source over processed datasets, each of which may have its own angles. The data is not copied.
+		 */
+		public static Source of(List<MythenProcessedDataset> datasets) {
+			final double[][] angles = new double[datasets.size()][];
+			final int[][] counts = new int[datasets.size()][];
+			for (int d = 0; d < angles.length; d++) {
+				angles[d] = datasets.get(d).angleColumn();
+				counts[d] = datasets.get(d).countColumn();
+			}
+			return new Source(angles, counts, null, false);
+		}
+
+		public int getNumberOfDatasets() {
+			return numDatasets;
+		}
+
+		/**
+		 * Returns {@code true} if every dataset has the same angles.
+		 */
+		public boolean hasSharedGrid() {
+			return sharedGrid;
+		}
+
+		/**
+		 * Selects the channels whose angles are from {@code minAngle} to {@code maxAngle} inclusive.
+		 *
+		 * @param minAngle the smallest angle to include
+		 * @param maxAngle the largest angle to include
+		 * @return a view of the selected channels
+		 */
+		public AngleRangeView select(double minAngle, double maxAngle) {
+			final int[] starts = new int[numDatasets];
+			final int[] ends = new int[numDatasets];
+			for (int d = 0; d < numDatasets; d++) {
+				if (sharedGrid && d > 0) {
+					starts[d] = starts[0];
+					ends[d] = ends[0];
+				} else {
+					starts[d] = firstIndexAtOrAbove(angles[d], minAngle);
+					ends[d] = Math.max(starts[d], firstIndexAbove(angles[d], maxAngle));
+				}
+			}
+			return new AngleRangeView(this, starts, ends);
+		}
+
+		double getCount(int dataset, int index) {
+			if (binnedCounts != null) {
+				return binnedCounts[dataset * angles[0].length + index];
+			}
+			return intCounts[dataset][index];
+		}
+
+		synchronized Dataset getAngleDataset(int dataset) {
+			if (angleDatasets == null) {
+				angleDatasets = new Dataset[numDatasets];
+			}
+			final int index = sharedGrid ? 0 : dataset;
+			if (angleDatasets[index] == null) {
+				angleDatasets[index] = DatasetFactory.createFromObject(angles[index]);
+			}
+			return angleDatasets[index];
+		}
+
+		synchronized Dataset getCountDataset(int dataset) {
+			if (countDatasets == null) {
+				countDatasets = new Dataset[numDatasets];
+			}
+			if (countDatasets[dataset] == null) {
+				countDatasets[dataset] = DatasetFactory.createFromObject(intCounts[dataset]);
+			}
+			return countDatasets[dataset];
+		}
+
+		synchronized Dataset getCountImage() {
+			if (countImage == null) {
+				countImage = DatasetFactory.createFromObject(binnedCounts, numDatasets, angles[0].length);
+			}
+			return countImage;
+		}
+	}
+
+	private final Source source;
+
+	private final int[] starts;
+
+	private final int[] ends;
+
+	private AngleRangeView(Source source, int[] starts, int[] ends) {
+		this.source = source;
+		this.starts = starts;
+		this.ends = ends;
+	}
+
+	public int getNumberOfDatasets() {
+		return starts.length;
+	}
+
+	/**
+	 * Returns the index, in the specified dataset, of the first channel in the range.
+	 */
+	public int getStart(int dataset) {
+		return starts[dataset];
+	}
+
+	/**
+	 * Returns the number of channels of the specified dataset in the range.
+	 */
+	public int getLength(int dataset) {
+		return ends[dataset] - starts[dataset];
+	}
+
+	/**
+	 * Returns {@code true} if every dataset has the same angles, and so the same channels in the range.
+	 */
+	public boolean hasSharedGrid() {
+		return source.hasSharedGrid();
+	}
+
+	/**
+	 * Returns the angle of a channel in the range.
+	 *
+	 * @param dataset the dataset
+	 * @param index the index of the channel within the range
+	 */
+	public double getAngle(int dataset, int index) {
+		return source.angles[dataset][starts[dataset] + index];
+	}
+
+	/**
+	 * Returns the count of a channel in the range.
+	 *
+	 * @param dataset the dataset
+	 * @param index the index of the channel within the range
+	 */
+	public double getCount(int dataset, int index) {
+		return source.getCount(dataset, starts[dataset] + index);
+	}
+
+	/**
+	 * Returns a 1D view of the angles of the specified dataset within the range.
+	 */
+	public Dataset getAngleDataset(int dataset) {
+		return source.getAngleDataset(dataset).getSliceView(new int[] { starts[dataset] }, new int[] { ends[dataset] }, null);
+	}
+
+	/**
+	 * Returns a 1D view of the counts of the specified dataset within the range.
+	 */
+	public Dataset getCountDataset(int dataset) {
+		if (source.binnedCounts != null) {
+			return getCountImage(dataset, dataset + 1).reshape(getLength(dataset));
+		}
+		return source.getCountDataset(dataset).getSliceView(new int[] { starts[dataset] }, new int[] { ends[dataset] }, null);
+	}
+
+	/**
+	 * Returns a 2D view of the counts within the range, with one row per dataset. This is only available for binned
+	 * data.
+	 */
+	public Dataset getCountImage() {
+		return getCountImage(0, getNumberOfDatasets());
+	}
+
+	private Dataset getCountImage(int firstDataset, int endDataset) {
+		if (source.binnedCounts == null) {
+			throw new IllegalStateException("A count image is only available for binned data");
+		}
+		return source.getCountImage().getSliceView(new int[] { firstDataset, starts[0] }, new int[] { endDataset, ends[0] }, null);
+	}
+
+	/**
+	 * Returns the index of the first of the given ascending angles that is at least {@code angle}.
+	 */
+	static int firstIndexAtOrAbove(double[] angles, double angle) {
+		int low = 0;
+		int high = angles.length;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (angles[middle] < angle) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the index of the first of the given ascending angles that is greater than {@code angle}.
+	 */
+	static int firstIndexAbove(double[] angles, double angle) {
+		int low = 0;
+		int high = angles.length;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (angles[middle] <= angle) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%d dataset(s)%s]", getClass().getSimpleName(), getNumberOfDatasets(),
+				hasSharedGrid() && getNumberOfDatasets() > 0 ? ", " + getLength(0) + " channel(s) each" : "");
+	}
+
+}
@@ -0,0 +1,217 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import java.util.Arrays;
+
+/**
+ * Converts the channel numbers in a frame to angles using a set of angular calibration parameters. Frames are left
+ * unchanged (with each angle equal to the channel number) if no parameters have been set.
+ */
+public class AngularConversion implements CorrectionStage {
+
+	private static final int CHANNELS_PER_MODULE = 1280;
+
+	/**
+	 * Per-channel angles calculated from a set of calibration parameters. Replaced, never modified, so a frame that
+	 * is being processed while the calibration changes uses a consistent table.
+	 */
+	private static final class AngleTable {
+
+		final AngularCalibrationParameters params;
+
+		/** Angle of each channel excluding the detector position and the global and beamline offsets; NaN if the
+		 * channel's module has no parameters. */
+		final double[] baseAngles;
+
+		/** Whether any element of {@link #baseAngles} is NaN. */
+		final boolean hasMissing;
+
+		AngleTable(AngularCalibrationParameters params, double[] baseAngles) {
+			this.params = params;
+			this.baseAngles = baseAngles;
+			boolean missing = false;
+			for (double angle : baseAngles) {
+				missing |= Double.isNaN(angle);
+			}
+			this.hasMissing = missing;
+		}
+	}
+
+	private volatile AngleTable angleTable;
+
+	private AngularCalibrationParameters angularCalParams;
+
+	private double blOffset;
+
+	private double globaloff = 0.0;
+
+	/**
+	 * Sets the angular calibration parameters used to calculate the angle from the channel number.
+	 *
+	 * @param params
+	 *            the angular calibration parameters
+	 */
+	public void setAngularCalibrationParameters(AngularCalibrationParameters params) {
+		this.angularCalParams = params;
+		invalidateAngleTable();
+	}
+
+	public AngularCalibrationParameters getAngularCalibrationParameters() {
+		return angularCalParams;
+	}
+
+	/**
+	 * Sets the beamline offset - the angle where the first channel is located when the detector is at zero degrees.
+	 *
+	 * @param beamlineOffset
+	 *            the beamline offset
+	 */
+	public void setBeamlineOffset(double beamlineOffset) {
+		this.blOffset = beamlineOffset;
+	}
+
+	public double getBeamlineOffset() {
+		return blOffset;
+	}
+
+	/**
+	 * Discards the cached per-channel angles, so they are recalculated from the angular calibration parameters when
+	 * the next frame is processed. This is done automatically when {@link #setAngularCalibrationParameters} is called;
+	 * call it directly if the parameters object is modified in place.
+	 */
+	public void invalidateAngleTable() {
+		angleTable = null;
+	}
+
+	@Override
+	public void apply(CorrectionFrame frame) {
+		// Read the calibration once, so it cannot change part way through the frame
+		final AngularCalibrationParameters params = angularCalParams;
+		if (params == null) {
+			return;
+		}
+		final int[] channels = frame.getChannels();
+		final double[] angles = frame.getAngles();
+		final int size = frame.size();
+		final boolean simple = params instanceof SimpleAngularCalibrationParameters;
+		final AngleTable table = getAngleTable(params, maxChannel(channels, size) + 1);
+		final double[] baseAngles = table.baseAngles;
+		final double encoder = frame.getDetectorPosition();
+
+		if (!table.hasMissing && minChannel(channels, size) >= 0) {
+			if (simple) {
+				ChannelKernels.getDefault().gatherAndOffset(angles, baseAngles, channels, size, 0.0, 0.0, 0.0);
+			} else {
+				ChannelKernels.getDefault().gatherAndOffset(angles, baseAngles, channels, size, encoder, globaloff, blOffset);
+			}
+			return;
+		}
+
+		for (int i = 0; i < size; i++) {
+			final int channel = channels[i];
+			double base = (channel >= 0) ? baseAngles[channel] : Double.NaN;
+			if (Double.isNaN(base)) {
+				base = calculateBaseAngle(params, channel);
+			}
+			angles[i] = simple ? base : base + encoder + globaloff + blOffset;
+		}
+	}
+
+	/**
+	 * Returns the per-channel base angles for the given parameters, covering at least {@code numChannels} channels.
+	 */
+	private AngleTable getAngleTable(AngularCalibrationParameters params, int numChannels) {
+		AngleTable table = angleTable;
+		if (table == null || table.params != params || table.baseAngles.length < numChannels) {
+			table = new AngleTable(params, calculateBaseAngles(params, numChannels));
+			angleTable = table;
+		}
+		return table;
+	}
+
+	private static double[] calculateBaseAngles(AngularCalibrationParameters params, int numChannels) {
+		if (params instanceof SimpleAngularCalibrationParameters) {
+			// The simple parameters give one angle per channel
+			double[] angles = new double[numChannels];
+			for (int channel = 0; channel < numChannels; channel++) {
+				angles[channel] = centreOrNaN(params, channel);
+			}
+			return angles;
+		}
+
+		final int numModules = (numChannels + CHANNELS_PER_MODULE - 1) / CHANNELS_PER_MODULE;
+		double[] angles = new double[numModules * CHANNELS_PER_MODULE];
+		for (int imod = 0; imod < numModules; imod++) {
+			AngularCalibrationModuleParameters modparams = params.getParametersForModule(imod);
+			final int start = imod * CHANNELS_PER_MODULE;
+			if (modparams == null) {
+				Arrays.fill(angles, start, start + CHANNELS_PER_MODULE, Double.NaN);
+				continue;
+			}
+			double moffset = modparams.getOffset();
+			double center = modparams.getCenter();
+			double conversion = modparams.getConversion();
+			for (int channelmod = 0; channelmod < CHANNELS_PER_MODULE; channelmod++) {
+				angles[start + channelmod] = 2.404350 + moffset + Math.toDegrees(Math.atan((channelmod - center) * conversion));
+			}
+		}
+		return angles;
+	}
+
+	private static double centreOrNaN(AngularCalibrationParameters params, int channel) {
+		try {
+			return params.getParametersForModule(channel).getCenter();
+		} catch (RuntimeException e) {
+			return Double.NaN;
+		}
+	}
+
+	/**
+	 * Calculates the base angle of a channel directly from the calibration parameters. Used for channels not covered
+	 * by the table, and for channels whose parameters are missing (where it fails as the calculation always has).
+	 */
+	private static double calculateBaseAngle(AngularCalibrationParameters params, int channel) {
+		if (params instanceof SimpleAngularCalibrationParameters) {
+			return params.getParametersForModule(channel).getCenter();
+		}
+		AngularCalibrationModuleParameters modparams = params.getParametersForModule(channel / CHANNELS_PER_MODULE);
+		final int channelmod = channel % CHANNELS_PER_MODULE;
+		return 2.404350 + modparams.getOffset()
+				+ Math.toDegrees(Math.atan((channelmod - modparams.getCenter()) * modparams.getConversion()));
+	}
+
+	private static int minChannel(int[] channels, int size) {
+		int min = 0;
+		for (int i = 0; i < size; i++) {
+			min = Math.min(min, channels[i]);
+		}
+		return min;
+	}
+
+	private static int maxChannel(int[] channels, int size) {
+		int max = -1;
+		for (int i = 0; i < size; i++) {
+			max = Math.max(max, channels[i]);
+		}
+		return max;
+	}
+
+}
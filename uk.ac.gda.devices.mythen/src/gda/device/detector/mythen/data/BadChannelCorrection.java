@@ -0,0 +1,55 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+/**
+ * Removes the channels reported by a {@link BadChannelProvider} from a frame.
+ */
+public class BadChannelCorrection implements CorrectionStage {
+
+	private BadChannelProvider badChannelProvider;
+
+	public BadChannelCorrection() {
+	}
+
+	public BadChannelCorrection(BadChannelProvider badChannelProvider) {
+		this.badChannelProvider = badChannelProvider;
+	}
+
+	public void setBadChannelProvider(BadChannelProvider badChannelProvider) {
+		this.badChannelProvider = badChannelProvider;
+	}
+
+	public BadChannelProvider getBadChannelProvider() {
+		return badChannelProvider;
+	}
+
+	@Override
+	public void apply(CorrectionFrame frame) {
+		final BadChannelProvider provider = badChannelProvider;
+		if (provider == null) {
+			return;
+		}
+		final BadChannelMask mask = provider.getBadChannelMask();
+		frame.setSize(ChannelKernels.getDefault().compact(mask, frame.getChannels(), frame.getCounts(),
+				frame.getAngles(), frame.size()));
+	}
+
+}
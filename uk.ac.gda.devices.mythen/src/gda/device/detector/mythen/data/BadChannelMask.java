@@ -0,0 +1,186 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable set of bad channels stored as a bitmap, one bit per channel, so testing a channel is a single word
+ * lookup with no boxing. Channel numbers start at zero; negative channel numbers are never bad.
+ */
+public final class BadChannelMask {
+
+	/** A mask with no bad channels. */
+	public static final BadChannelMask EMPTY = new BadChannelMask(new long[0]);
+
+	private final long[] words;
+
+	private BadChannelMask(long[] words) {
+		this.words = words;
+	}
+
+	/**
+	 * Creates a mask containing the specified channels.
+	 *
+	 * @param badChannels
+	 *            the bad channels
+	 * @return the mask
+	 */
+	public static BadChannelMask of(Collection<Integer> badChannels) {
+		if (badChannels == null || badChannels.isEmpty()) {
+			return EMPTY;
+		}
+		int max = -1;
+		for (int channel : badChannels) {
+			max = Math.max(max, channel);
+		}
+		long[] words = new long[(max >> 6) + 1];
+		for (int channel : badChannels) {
+			if (channel >= 0) {
+				words[channel >> 6] |= 1L << channel;
+			}
+		}
+		return new BadChannelMask(words);
+	}
+
+	/**
+	 * Creates a mask containing the specified channels.
+	 *
+	 * @param badChannels
+	 *            the bad channels
+	 * @return the mask
+	 */
+	public static BadChannelMask of(int... badChannels) {
+		int max = -1;
+		for (int channel : badChannels) {
+			max = Math.max(max, channel);
+		}
+		if (max < 0) {
+			return EMPTY;
+		}
+		long[] words = new long[(max >> 6) + 1];
+		for (int channel : badChannels) {
+			if (channel >= 0) {
+				words[channel >> 6] |= 1L << channel;
+			}
+		}
+		return new BadChannelMask(words);
+	}
+
+	/**
+	 * Returns {@code true} if the specified channel is bad.
+	 *
+	 * @param channel
+	 *            the channel number
+	 * @return whether the channel is bad
+	 */
+	public boolean isBad(int channel) {
+		final int word = channel >> 6;
+		return word >= 0 && word < words.length && (words[word] & (1L << channel)) != 0;
+	}
+
+	/**
+	 * Returns the number of bad channels in the range {@code [from, to)}.
+	 *
+	 * @param from
+	 *            the first channel in the range
+	 * @param to
+	 *            the channel after the last channel in the range
+	 * @return the number of bad channels
+	 */
+	public int countInRange(int from, int to) {
+		from = Math.max(0, from);
+		to = Math.min(to, words.length << 6);
+		if (from >= to) {
+			return 0;
+		}
+		final int firstWord = from >> 6;
+		final int lastWord = (to - 1) >> 6;
+		final long firstMask = -1L << from;
+		final long lastMask = -1L >>> -to;
+		if (firstWord == lastWord) {
+			return Long.bitCount(words[firstWord] & firstMask & lastMask);
+		}
+		int count = Long.bitCount(words[firstWord] & firstMask);
+		for (int i = firstWord + 1; i < lastWord; i++) {
+			count += Long.bitCount(words[i]);
+		}
+		return count + Long.bitCount(words[lastWord] & lastMask);
+	}
+
+	/**
+	 * Returns the number of bad channels.
+	 */
+	public int cardinality() {
+		int count = 0;
+		for (long word : words) {
+			count += Long.bitCount(word);
+		}
+		return count;
+	}
+
+	/**
+	 * Returns one more than the highest bad channel, or zero if there are no bad channels.
+	 */
+	public int length() {
+		for (int i = words.length - 1; i >= 0; i--) {
+			if (words[i] != 0) {
+				return (i << 6) + 64 - Long.numberOfLeadingZeros(words[i]);
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof BadChannelMask)) {
+			return false;
+		}
+		long[] other = ((BadChannelMask) obj).words;
+		final int common = Math.min(words.length, other.length);
+		for (int i = 0; i < common; i++) {
+			if (words[i] != other[i]) {
+				return false;
+			}
+		}
+		long[] longer = words.length > other.length ? words : other;
+		for (int i = common; i < longer.length; i++) {
+			if (longer[i] != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(Arrays.copyOf(words, (length() + 63) >> 6));
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "[" + cardinality() + " bad channels]";
+	}
+
+}
@@ -32,4 +32,15 @@ public interface BadChannelProvider {
 	 */
 	public Set<Integer> getBadChannels();
 
+	/**
+	 * Returns the bad channels as a bitmap, for testing many channels without boxing. The default implementation
+	 * builds the mask from {@link #getBadChannels()} on every call; implementations should override it to return a
+	 * cached mask.
+	 *
+	 * @return the bad channel mask
+	 */
+	public default BadChannelMask getBadChannelMask() {
+		return BadChannelMask.of(getBadChannels());
+	}
+
 }
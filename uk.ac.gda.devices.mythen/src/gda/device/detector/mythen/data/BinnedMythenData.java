@@ -0,0 +1,135 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+/**
+ * Mythen data that has been rebinned onto a common grid of angle bins by {@link MythenRebinner}.
+ * <p>
+ * The counts of all datasets are held in one flat array, one row of {@link #getNumberOfBins()} values per dataset.
+ * Bin {@code b} covers angles from {@code (firstBinNumber + b) * binSize} up to, but not including, the start of the
+ * next bin.
+ */
+public final class BinnedMythenData {
+
+	private final double binSize;
+
+	private final int firstBinNumber;
+
+	private final int numBins;
+
+	private final int numDatasets;
+
+	private final double[] counts;
+
+	private final double[] angles;
+
+	BinnedMythenData(double binSize, int firstBinNumber, int numBins, int numDatasets, double[] counts) {
+		this.binSize = binSize;
+		this.firstBinNumber = firstBinNumber;
+		this.numBins = numBins;
+		this.numDatasets = numDatasets;
+		this.counts = counts;
+		angles = new double[numBins];
+		for (int b = 0; b < numBins; b++) {
+			angles[b] = getAngle(b);
+		}
+	}
+
+	public double getBinSize() {
+		return binSize;
+	}
+
+	/**
+	 * Returns the number of the first bin, i.e. the start angle of the first bin divided by the bin size.
+	 */
+	public int getFirstBinNumber() {
+		return firstBinNumber;
+	}
+
+	public int getNumberOfBins() {
+		return numBins;
+	}
+
+	public int getNumberOfDatasets() {
+		return numDatasets;
+	}
+
+	/**
+	 * Returns the start angle of the specified bin.
+	 */
+	public double getAngle(int bin) {
+		return (firstBinNumber + bin) * binSize;
+	}
+
+	/**
+	 * Returns the start angle of every bin. The array is shared by all datasets; it is not copied and must not be
+	 * modified.
+	 *
+	 * @return the angles
+	 */
+	public double[] getAngles() {
+		return angles;
+	}
+
+	public double getCount(int dataset, int bin) {
+		return counts[getOffset(dataset) + bin];
+	}
+
+	/**
+	 * Returns the index in {@link #getCounts()} of the first bin of the specified dataset.
+	 */
+	public int getOffset(int dataset) {
+		return dataset * numBins;
+	}
+
+	/**
+	 * Returns the array of counts backing this object, one row per dataset. The array is not copied and must not be
+	 * modified.
+	 *
+	 * @return the counts
+	 */
+	public double[] getCounts() {
+		return counts;
+	}
+
+	/**
+	 * Converts this data to one array of (angle, count) arrays per dataset, the form returned by
+	 * {@link MythenDataFileUtils#binMythenData}.
+	 *
+	 * @return the binned data
+	 */
+	public double[][][] toDoubleArray() {
+		double[][][] data = new double[numDatasets][numBins][];
+		for (int d = 0; d < numDatasets; d++) {
+			final int offset = getOffset(d);
+			for (int b = 0; b < numBins; b++) {
+				data[d][b] = new double[] { getAngle(b), counts[offset + b] };
+			}
+		}
+		return data;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[%d dataset(s), %d bin(s) of %s from %s]", getClass().getSimpleName(), numDatasets,
+				numBins, binSize, getAngle(0));
+	}
+
+}
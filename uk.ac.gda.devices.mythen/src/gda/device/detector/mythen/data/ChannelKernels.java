@@ -0,0 +1,114 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+/**
+ * The per-channel arithmetic used when correcting and summing Mythen frames. Every method works on the first
+ * {@code size} elements of primitive arrays and allocates nothing.
+ * <p>
+ * Two implementations are provided: {@link ScalarChannelKernels}, a plain loop per operation, and
+ * {@link UnrolledChannelKernels}, which processes four channels per iteration so the JIT can keep more work in
+ * flight and use SIMD instructions where it is able to. {@link #getDefault()} returns the implementation named by
+ * the {@value #KERNELS_PROPERTY} system property ({@code scalar} or {@code unrolled}), or the scalar one if the
+ * property is not set or not recognised. The JIT already vectorises the scalar loops, so the unrolled kernels are
+ * only worth selecting where they have been measured to be faster.
+ * <p>
+ * All methods except {@link #sum} give bitwise-identical results in every implementation; {@code sum} may add the
+ * values in a different order.
+ */
+public interface ChannelKernels {
+
+	/** System property used to select the kernels returned by {@link #getDefault()}. */
+	String KERNELS_PROPERTY = "gda.mythen.channelKernels";
+
+	/**
+	 * Returns the kernels selected for this JVM.
+	 *
+	 * @return the kernels
+	 */
+	static ChannelKernels getDefault() {
+		return DefaultChannelKernels.INSTANCE;
+	}
+
+	/**
+	 * Returns the kernels with the given name.
+	 *
+	 * @param name
+	 *            {@code scalar} or {@code unrolled}
+	 * @return the kernels
+	 */
+	static ChannelKernels forName(String name) {
+		switch (name) {
+		case ScalarChannelKernels.NAME:
+			return ScalarChannelKernels.INSTANCE;
+		case UnrolledChannelKernels.NAME:
+			return UnrolledChannelKernels.INSTANCE;
+		default:
+			throw new IllegalArgumentException("Unknown channel kernels '" + name + "'");
+		}
+	}
+
+	/**
+	 * Returns the name of these kernels.
+	 */
+	String getName();
+
+	/**
+	 * Multiplies each value by the factor for its channel: {@code values[i] *= factors[channels[i]]}.
+	 */
+	void multiplyGathered(double[] values, double[] factors, int[] channels, int size);
+
+	/**
+	 * Multiplies each value by a constant: {@code values[i] *= factor}.
+	 */
+	void scale(double[] values, int size, double factor);
+
+	/**
+	 * Looks up the value for each channel and adds three offsets, in order:
+	 * {@code result[i] = table[channels[i]] + a + b + c}.
+	 */
+	void gatherAndOffset(double[] result, double[] table, int[] channels, int size, double a, double b, double c);
+
+	/**
+	 * Truncates each value to an integer and calculates its error as the (truncated) square root of the integer:
+	 * {@code counts[i] = (int) values[i]; errors[i] = (int) Math.sqrt(counts[i])}.
+	 */
+	void truncateWithErrors(double[] values, int[] counts, int[] errors, int size);
+
+	/**
+	 * Removes the channels marked bad in the mask, moving the remaining channels, counts and angles to the start of
+	 * the arrays.
+	 *
+	 * @return the number of channels remaining
+	 */
+	int compact(BadChannelMask mask, int[] channels, double[] counts, double[] angles, int size);
+
+	/**
+	 * Adds values to a run of accumulators and increments the matching contributor counts:
+	 * {@code sums[offset + i] += values[i]; contributors[offset + i]++}.
+	 */
+	void accumulate(double[] sums, int[] contributors, int offset, double[] values, int size);
+
+	/**
+	 * Returns the sum of the values.
+	 */
+	double sum(double[] values, int size);
+
+}
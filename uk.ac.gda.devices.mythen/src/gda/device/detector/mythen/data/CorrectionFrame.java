@@ -0,0 +1,201 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import java.util.Arrays;
+
+/**
+ * The working buffers for one Mythen frame as it passes through a chain of {@link CorrectionStage}s.
+ * <p>
+ * The buffers hold the channel number, count and angle of each channel still in the frame; only the first
+ * {@link #size()} elements are valid. Counts are held as {@code double}s so that successive corrections do not lose
+ * precision, and are truncated to integers when the processed dataset is created. Before any stage runs, each angle
+ * is set to the channel number. The buffers are reused from frame to frame and are only reallocated when a larger
+ * frame arrives.
+ */
+public final class CorrectionFrame {
+
+	private int[] channels = new int[0];
+
+	private double[] counts = new double[0];
+
+	private double[] angles = new double[0];
+
+	private int size;
+
+	private double detectorPosition;
+
+	private double monitor = Double.NaN;
+
+	private double exposureTime = Double.NaN;
+
+	private double errorScale = 1.0;
+
+	/**
+	 * Fills the buffers from a raw dataset.
+	 *
+	 * @param dataset
+	 *            the raw data
+	 * @param detectorPosition
+	 *            the detector position
+	 * @param monitor
+	 *            the monitor (I0) reading for the frame, or {@code NaN} if there is none
+	 */
+	public void load(MythenRawDataset dataset, double detectorPosition, double monitor) {
+		load(dataset, detectorPosition, monitor, Double.NaN);
+	}
+
+	/**
+	 * Fills the buffers from a raw dataset.
+	 *
+	 * @param dataset
+	 *            the raw data
+	 * @param detectorPosition
+	 *            the detector position
+	 * @param monitor
+	 *            the monitor (I0) reading for the frame, or {@code NaN} if there is none
+	 * @param exposureTime
+	 *            the exposure time of the frame in seconds, or {@code NaN} if it is not known
+	 */
+	public void load(MythenRawDataset dataset, double detectorPosition, double monitor, double exposureTime) {
+		final int[] rawChannels = dataset.getChannels();
+		final int[] rawCounts = dataset.getCounts();
+		final int n = rawCounts.length;
+		if (channels.length < n) {
+			channels = new int[n];
+			counts = new double[n];
+			angles = new double[n];
+		}
+		System.arraycopy(rawChannels, 0, channels, 0, n);
+		for (int i = 0; i < n; i++) {
+			counts[i] = rawCounts[i];
+			angles[i] = rawChannels[i];
+		}
+		this.size = n;
+		this.detectorPosition = detectorPosition;
+		this.monitor = monitor;
+		this.exposureTime = exposureTime;
+		this.errorScale = 1.0;
+	}
+
+	/**
+	 * Returns the number of channels in the frame.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Reduces the number of channels in the frame, after a stage has moved the channels it keeps to the start of the
+	 * buffers.
+	 *
+	 * @param size
+	 *            the new number of channels
+	 */
+	public void setSize(int size) {
+		if (size < 0 || size > this.size) {
+			throw new IllegalArgumentException("Cannot change frame size from " + this.size + " to " + size);
+		}
+		this.size = size;
+	}
+
+	/**
+	 * Returns the channel number buffer. The array may be longer than {@link #size()}.
+	 */
+	public int[] getChannels() {
+		return channels;
+	}
+
+	/**
+	 * Returns the count buffer. The array may be longer than {@link #size()}.
+	 */
+	public double[] getCounts() {
+		return counts;
+	}
+
+	/**
+	 * Returns the angle buffer. The array may be longer than {@link #size()}.
+	 */
+	public double[] getAngles() {
+		return angles;
+	}
+
+	public double getDetectorPosition() {
+		return detectorPosition;
+	}
+
+	/**
+	 * Returns the monitor (I0) reading for the frame.
+	 *
+	 * @return the monitor reading, or {@code NaN} if there is none
+	 */
+	public double getMonitor() {
+		return monitor;
+	}
+
+	/**
+	 * Returns the exposure time of the frame.
+	 *
+	 * @return the exposure time in seconds, or {@code NaN} if it is not known
+	 */
+	public double getExposureTime() {
+		return exposureTime;
+	}
+
+	/**
+	 * Records that the counts have been multiplied by a factor that should also apply to their errors, such as a
+	 * monitor normalisation. Without this, the error of a channel is taken to be the square root of its final count.
+	 *
+	 * @param factor
+	 *            the factor the counts were multiplied by
+	 */
+	public void scaleErrors(double factor) {
+		errorScale *= factor;
+	}
+
+	/**
+	 * Returns the product of the factors passed to {@link #scaleErrors(double)} since the frame was loaded.
+	 */
+	public double getErrorScale() {
+		return errorScale;
+	}
+
+	/**
+	 * Creates a processed dataset from the current contents of the buffers. The error of each channel is the square
+	 * root of its (truncated) count or, if the errors have been {@link #scaleErrors scaled}, the scaled square root of
+	 * the count before scaling.
+	 *
+	 * @return the processed data
+	 */
+	public MythenProcessedDataset toProcessedDataset() {
+		final int n = size;
+		final int[] intCounts = new int[n];
+		final int[] errors = new int[n];
+		ChannelKernels.getDefault().truncateWithErrors(counts, intCounts, errors, n);
+		if (errorScale != 1.0) {
+			// error of (count / scale) raw counts, scaled: scale * sqrt(count / scale) = sqrt(count * scale)
+			for (int i = 0; i < n; i++) {
+				errors[i] = (int) Math.sqrt(counts[i] * errorScale);
+			}
+		}
+		return new MythenProcessedDataset(Arrays.copyOf(angles, n), intCounts, errors, Arrays.copyOf(channels, n));
+	}
+
+}
@@ -0,0 +1,39 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+/**
+ * One step in the correction of a Mythen frame, such as removing bad channels or applying a flat field.
+ * <p>
+ * Stages work in place on the primitive buffers of a {@link CorrectionFrame}, and are run in order by a
+ * {@link DataConverter}. A stage may be used by several threads at once (for example when frames are converted with
+ * {@link DataConverter#processBatch}), so it must not keep per-frame state in fields.
+ */
+public interface CorrectionStage {
+
+	/**
+	 * Applies this correction to a frame.
+	 *
+	 * @param frame
+	 *            the frame to correct
+	 */
+	void apply(CorrectionFrame frame);
+
+}
@@ -0,0 +1,227 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Corrects the counts in a frame for the dead time of the detector (count-rate correction), so that Mythen's own
+ * rate correction can stay disabled on the IOC.
+ * <p>
+ * The dead time depends on the detector settings, so one is configured per mode ({@code standard}, {@code fast},
+ * {@code highgain}, as used by {@link ModuleDefinitions#getMode()}). The measured rate of each channel is its count
+ * divided by the frame's exposure time. With the {@link Model#NON_PARALYZABLE non-paralyzable} model the true rate is
+ * {@code m / (1 - m * tau)}; with the {@link Model#PARALYZABLE paralyzable} model it is the solution of
+ * {@code m = n * exp(-n * tau)}, calculated from a power series at low rates and otherwise with a fixed number of
+ * Newton steps starting from the non-paralyzable value.
+ * Channels whose measured rate is beyond what the model can correct are left as measured.
+ * <p>
+ * The correction is a branch-light loop over primitive arrays. The non-paralyzable loop has only a conditional
+ * select for out-of-range channels and no calls, so the JIT can vectorise it. The paralyzable loop chooses between
+ * the power series and the Newton steps for each channel, and calls {@code Math.exp} in each step.
+ */
+public class CountRateCorrection implements CorrectionStage {
+
+	/**
+	 * Dead time model.
+	 */
+	public enum Model {
+		/** The detector is dead for a fixed time after each counted photon. */
+		NON_PARALYZABLE,
+		/** Each photon, counted or not, extends the dead time. */
+		PARALYZABLE
+	}
+
+	private static final int NEWTON_ITERATIONS = 6;
+
+	/**
+	 * Below this value of {@code m * tau} the paralyzable correction is calculated from the series
+	 * {@code n * tau = sum(k^(k-1) / k! * (m * tau)^k)}, truncated after eight terms (relative error below 1e-11).
+	 */
+	private static final double SERIES_LIMIT = 0.02;
+
+	private Map<String, Double> deadTimes = new HashMap<String, Double>();
+
+	private ModuleDefinitions moduleDefinitions;
+
+	private String mode = "standard";
+
+	private Model model = Model.PARALYZABLE;
+
+	private double exposureTime = Double.NaN;
+
+	/**
+	 * Sets the dead time, in seconds, for each detector mode.
+	 *
+	 * @param deadTimes
+	 *            map of mode name to dead time
+	 */
+	public void setDeadTimes(Map<String, Double> deadTimes) {
+		this.deadTimes = new HashMap<String, Double>(deadTimes);
+	}
+
+	public Map<String, Double> getDeadTimes() {
+		return deadTimes;
+	}
+
+	/**
+	 * Sets the module definitions whose mode selects the dead time. If not set, the mode set with {@link #setMode} is
+	 * used.
+	 *
+	 * @param moduleDefinitions
+	 *            the module definitions
+	 */
+	public void setModuleDefinitions(ModuleDefinitions moduleDefinitions) {
+		this.moduleDefinitions = moduleDefinitions;
+	}
+
+	public ModuleDefinitions getModuleDefinitions() {
+		return moduleDefinitions;
+	}
+
+	public void setMode(String mode) {
+		this.mode = mode;
+	}
+
+	/**
+	 * Returns the detector mode used to select the dead time.
+	 */
+	public String getMode() {
+		return (moduleDefinitions != null) ? moduleDefinitions.getMode() : mode;
+	}
+
+	public void setModel(Model model) {
+		this.model = model;
+	}
+
+	public Model getModel() {
+		return model;
+	}
+
+	/**
+	 * Sets the exposure time, in seconds, used for frames that do not carry their own exposure time.
+	 *
+	 * @param exposureTime
+	 *            the exposure time
+	 */
+	public void setExposureTime(double exposureTime) {
+		this.exposureTime = exposureTime;
+	}
+
+	public double getExposureTime() {
+		return exposureTime;
+	}
+
+	/**
+	 * Returns the dead time for the current mode.
+	 *
+	 * @return the dead time, in seconds
+	 */
+	public double getDeadTime() {
+		final String currentMode = getMode();
+		final Double deadTime = deadTimes.get(currentMode);
+		if (deadTime == null) {
+			throw new IllegalStateException("No dead time configured for Mythen mode '" + currentMode + "'");
+		}
+		return deadTime;
+	}
+
+	@Override
+	public void apply(CorrectionFrame frame) {
+		double time = frame.getExposureTime();
+		if (!(time > 0)) {
+			time = exposureTime;
+		}
+		if (!(time > 0)) {
+			throw new IllegalStateException("Count-rate correction needs the exposure time of the frame");
+		}
+		correct(frame.getCounts(), frame.size(), getDeadTime(), time, model);
+	}
+
+	/**
+	 * Corrects an array of counts in place.
+	 *
+	 * @param counts
+	 *            the measured counts
+	 * @param size
+	 *            the number of counts to correct
+	 * @param deadTime
+	 *            the dead time, in seconds
+	 * @param exposureTime
+	 *            the exposure time, in seconds
+	 * @param model
+	 *            the dead time model
+	 */
+	public static void correct(double[] counts, int size, double deadTime, double exposureTime, Model model) {
+		if (deadTime <= 0) {
+			return;
+		}
+		if (model == Model.NON_PARALYZABLE) {
+			correctNonParalyzable(counts, size, deadTime / exposureTime);
+		} else {
+			correctParalyzable(counts, size, deadTime, exposureTime);
+		}
+	}
+
+	/**
+	 * Non-paralyzable correction in terms of counts: {@code n = m / (1 - m * tau / t)}.
+	 */
+	private static void correctNonParalyzable(double[] counts, int size, double deadFraction) {
+		for (int i = 0; i < size; i++) {
+			final double m = counts[i];
+			final double live = 1.0 - m * deadFraction;
+			// live <= 0 means the count cannot be corrected; keep the measured value
+			counts[i] = (live > 0) ? m / live : m;
+		}
+	}
+
+	/**
+	 * Paralyzable correction: solves {@code m = n * exp(-n * tau)} for the rate {@code n}, using a power series for
+	 * low rates (most channels) and Newton's method otherwise. The model has no solution for {@code m * tau > 1/e};
+	 * such channels are left unchanged.
+	 */
+	private static void correctParalyzable(double[] counts, int size, double deadTime, double exposureTime) {
+		final double limit = 1.0 / (Math.E * deadTime);
+		for (int i = 0; i < size; i++) {
+			final double measuredRate = counts[i] / exposureTime;
+			if (!(measuredRate < limit)) {
+				continue;
+			}
+			final double x = measuredRate * deadTime;
+			if (x < SERIES_LIMIT) {
+				final double y = x * (1 + x * (1 + x * (1.5 + x * (8.0 / 3 + x * (125.0 / 24
+						+ x * (10.8 + x * (117649.0 / 5040 + x * (262144.0 / 5040))))))));
+				counts[i] = y / deadTime * exposureTime;
+				continue;
+			}
+			// Non-paralyzable estimate, which is below the paralyzable solution on the low-rate branch
+			final double live = 1.0 - measuredRate * deadTime;
+			double n = measuredRate / live;
+			for (int k = 0; k < NEWTON_ITERATIONS; k++) {
+				final double e = Math.exp(-n * deadTime);
+				// f(n) = n e^{-n tau} - m, f'(n) = e^{-n tau} (1 - n tau)
+				n -= (n * e - measuredRate) / (e * (1.0 - n * deadTime));
+			}
+			counts[i] = n * exposureTime;
+		}
+	}
+
+}
@@ -18,60 +18,127 @@
 
 package gda.device.detector.mythen.data;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.Vector;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Processes raw Mythen data, converting channel numbers to angles.
+ * <p>
+ * Each frame is passed through a chain of {@link CorrectionStage}s. By default the chain removes bad channels,
+ * applies the flat field and converts channels to angles, configured through the properties of this class; use
+ * {@link #setCorrectionStages} to choose the stages (for example to add {@link CountRateCorrection count-rate
+ * correction} or {@link MonitorNormalisation normalisation to a monitor}).
+ * <p>
+ * The bad channel, flat field and angular calibration properties of this class are passed on to the default stages
+ * and to every stage of the matching type in the chain, whether the chain is set before or after the properties.
+ * A property that is not set on this converter leaves the stages' own configuration alone.
  */
 public class DataConverter {
 
-	private double[] flatFieldCorrections;
+	private static final ThreadLocal<CorrectionFrame> FRAMES = new ThreadLocal<CorrectionFrame>() {
+		@Override
+		protected CorrectionFrame initialValue() {
+			return new CorrectionFrame();
+		}
+	};
+
+	private final BadChannelCorrection badChannelCorrection = new BadChannelCorrection();
 
-	private BadChannelProvider badChannelProvider;
+	private final FlatFieldCorrection flatFieldCorrection = new FlatFieldCorrection();
 
-	private FlatFieldDatasetProvider flatfieldProvider;
+	private final AngularConversion angularConversion = new AngularConversion();
 
-	private AngularCalibrationParameters angularCalParams;
+	private final CorrectionStage[] defaultStages = { badChannelCorrection, flatFieldCorrection, angularConversion };
 
-	private double blOffset;
+	private volatile CorrectionStage[] correctionStages = defaultStages;
 
-	private double globaloff = 0.0;
+	/** The properties set on this converter, in the order they were last set, so they can be applied to a new chain. */
+	private final Map<String, Consumer<CorrectionStage>> settings = new LinkedHashMap<String, Consumer<CorrectionStage>>();
 
 	/**
-	 * Sets the flat field data. This data will be used to adjust each channel.
-	 * 
-	 * @param flatFieldData
-	 *            flat field data
+	 * Sets the correction stages applied to each frame, in order. If not set (or set to {@code null}), bad channels
+	 * are removed, then the flat field is applied, then channels are converted to angles, using the bad channel
+	 * provider, flat field and angular calibration set on this converter. Those properties are also applied to the
+	 * stages of the matching types in the given chain.
+	 *
+	 * @param correctionStages
+	 *            the correction stages
 	 */
-	public void setFlatFieldData(MythenRawDataset flatFieldData) {
-		flatFieldCorrections = null;
-		if (flatFieldData != null) {
-			flatFieldCorrections = calculateFlatFieldScalingFactors(flatFieldData);
+	public synchronized void setCorrectionStages(List<CorrectionStage> correctionStages) {
+		if (correctionStages == null) {
+			this.correctionStages = defaultStages;
+			return;
+		}
+		final CorrectionStage[] stages = correctionStages.toArray(new CorrectionStage[correctionStages.size()]);
+		for (CorrectionStage stage : stages) {
+			if (!Arrays.asList(defaultStages).contains(stage)) {
+				for (Consumer<CorrectionStage> setting : settings.values()) {
+					setting.accept(stage);
+				}
+			}
 		}
+		this.correctionStages = stages;
 	}
 
-	private double[] calculateFlatFieldScalingFactors(MythenRawDataset flatFieldData) {
-		final List<MythenRawData> dataLines = flatFieldData.getLines();
+	/**
+	 * Returns the correction stages applied to each frame, in order.
+	 *
+	 * @return the correction stages
+	 */
+	public List<CorrectionStage> getCorrectionStages() {
+		return Arrays.asList(correctionStages.clone());
+	}
 
-		// Calculate the mean
-		double flatFieldMean = 0;
-		for (MythenRawData line : dataLines) {
-			flatFieldMean += line.getCount();
+	/**
+	 * Returns the first stage of the given type in the chain, or {@code null} if there is none.
+	 */
+	private <T extends CorrectionStage> T findStage(Class<T> type) {
+		for (CorrectionStage stage : correctionStages) {
+			if (type.isInstance(stage)) {
+				return type.cast(stage);
+			}
 		}
-		flatFieldMean /= dataLines.size();
+		return null;
+	}
 
-		// Calculate scaling factors
-		double[] corrections = new double[dataLines.size()];
-		for (int i = 0; i < dataLines.size(); i++) {
-			corrections[i] = flatFieldMean / dataLines.get(i).getCount();
+	/**
+	 * Applies the given setting to the default stage and to every stage of the same type in the current chain, and
+	 * records it so it is applied to any chain set later.
+	 */
+	private synchronized <T extends CorrectionStage> void configureStages(String property, final Class<T> type,
+			T defaultStage, final Consumer<T> setting) {
+		final Consumer<CorrectionStage> apply = stage -> {
+			if (type.isInstance(stage)) {
+				setting.accept(type.cast(stage));
+			}
+		};
+		// moved to the end, so settings that interact (such as flat field data and provider) are replayed in order
+		settings.remove(property);
+		settings.put(property, apply);
+		apply.accept(defaultStage);
+		for (CorrectionStage stage : correctionStages) {
+			if (stage != defaultStage) {
+				apply.accept(stage);
+			}
 		}
-		return corrections;
+	}
+
+	/**
+	 * Sets the flat field data. This data will be used to adjust each channel.
+	 * 
+	 * @param flatFieldData
+	 *            flat field data
+	 */
+	public void setFlatFieldData(MythenRawDataset flatFieldData) {
+		configureStages("flatFieldData", FlatFieldCorrection.class, flatFieldCorrection,
+				stage -> stage.setFlatFieldData(flatFieldData));
 	}
 
 	public void setFlatFieldDatasetProvider(FlatFieldDatasetProvider flatFieldProvider) {
-		this.flatfieldProvider = flatFieldProvider;
+		setFlatfieldProvider(flatFieldProvider);
 	}
 
 	/**
@@ -82,11 +149,17 @@ public class DataConverter {
 	 *            the bad channel provider
 	 */
 	public void setBadChannelProvider(BadChannelProvider badChannelProvider) {
-		this.badChannelProvider = badChannelProvider;
+		configureStages("badChannelProvider", BadChannelCorrection.class, badChannelCorrection,
+				stage -> stage.setBadChannelProvider(badChannelProvider));
 	}
 
+	/**
+	 * Returns the bad channel provider of the first bad channel stage in the chain, or the one set with
+	 * {@link #setBadChannelProvider} if the chain has no such stage.
+	 */
 	public BadChannelProvider getBadChannelProvider() {
-		return badChannelProvider;
+		final BadChannelCorrection stage = findStage(BadChannelCorrection.class);
+		return (stage != null ? stage : badChannelCorrection).getBadChannelProvider();
 	}
 
 	/**
@@ -96,11 +169,27 @@ public class DataConverter {
 	 *            the angular calibration parameters
 	 */
 	public void setAngularCalibrationParameters(AngularCalibrationParameters params) {
-		this.angularCalParams = params;
+		configureStages("angularCalibrationParameters", AngularConversion.class, angularConversion,
+				stage -> stage.setAngularCalibrationParameters(params));
+	}
+
+	/**
+	 * Discards the cached per-channel angles, so they are recalculated from the angular calibration parameters when
+	 * the next frame is processed. This is done automatically when {@link #setAngularCalibrationParameters} is called;
+	 * call it directly if the parameters object is modified in place.
+	 */
+	public void invalidateAngleTable() {
+		angularConversion.invalidateAngleTable();
+		for (CorrectionStage stage : correctionStages) {
+			if (stage instanceof AngularConversion) {
+				((AngularConversion) stage).invalidateAngleTable();
+			}
+		}
 	}
 
 	public AngularCalibrationParameters getAngularCalibrationParameters() {
-		return angularCalParams;
+		final AngularConversion stage = findStage(AngularConversion.class);
+		return (stage != null ? stage : angularConversion).getAngularCalibrationParameters();
 	}
 
 	/**
@@ -110,23 +199,29 @@ public class DataConverter {
 	 *            the beamline offset
 	 */
 	public void setBeamlineOffset(double beamlineOffset) {
-		this.blOffset = beamlineOffset;
+		configureStages("beamlineOffset", AngularConversion.class, angularConversion,
+				stage -> stage.setBeamlineOffset(beamlineOffset));
 	}
 
 	public void setFlatfieldProvider(FlatFieldDatasetProvider flatfieldProvider) {
-		this.flatfieldProvider = flatfieldProvider;
+		configureStages("flatfieldProvider", FlatFieldCorrection.class, flatFieldCorrection,
+				stage -> stage.setFlatfieldProvider(flatfieldProvider));
 	}
 
 	public FlatFieldDatasetProvider getFlatfieldProvider() {
-		return flatfieldProvider;
+		final FlatFieldCorrection stage = findStage(FlatFieldCorrection.class);
+		return (stage != null ? stage : flatFieldCorrection).getFlatfieldProvider();
 	}
 
-	private double[] getFlatFieldCorrections() {
-		// either use the potentially dynamic values from the provider or use the static values stored in memory
-		if (flatfieldProvider == null) {
-			return this.flatFieldCorrections;
-		}
-		return calculateFlatFieldScalingFactors(this.flatfieldProvider.getFlatFieldData());
+	/**
+	 * Returns a number identifying the flat field that will be applied to the next frame. The number increases each
+	 * time the flat field changes, so it can be recorded with the data to show which flat field was used.
+	 *
+	 * @return the flat field generation, or zero if no flat field correction is applied
+	 */
+	public long getFlatFieldGeneration() {
+		final FlatFieldCorrection stage = findStage(FlatFieldCorrection.class);
+		return stage == null ? 0 : stage.getFlatFieldGeneration();
 	}
 
 	/**
@@ -139,46 +234,111 @@ public class DataConverter {
 	 * @return the processed data
 	 */
 	public MythenProcessedDataset process(MythenRawDataset dataset, double detectorPosition) {
-		List<MythenProcessedData> newData = new Vector<MythenProcessedData>();
+		return process(dataset, detectorPosition, Double.NaN);
+	}
 
-		final Set<Integer> badChannels = badChannelProvider == null ? null : badChannelProvider.getBadChannels();
-		final double encoder = detectorPosition;
-		final double[] flatFieldValues = getFlatFieldCorrections();
+	/**
+	 * Processes the supplied raw dataset, which was collected with the given monitor (I0) reading.
+	 *
+	 * @param dataset
+	 *            the raw data
+	 * @param detectorPosition
+	 *            the detector position
+	 * @param monitor
+	 *            the monitor reading, or {@code NaN} if there is none
+	 * @return the processed data
+	 */
+	public MythenProcessedDataset process(MythenRawDataset dataset, double detectorPosition, double monitor) {
+		return process(dataset, detectorPosition, monitor, Double.NaN);
+	}
 
-		for (MythenRawData data : dataset.getLines()) {
-			int channel = data.getChannel();
-			if (badChannels == null || !badChannels.contains(channel)) {
-				int count = data.getCount();
+	/**
+	 * Processes the supplied raw dataset, which was collected with the given monitor (I0) reading and exposure time.
+	 *
+	 * @param dataset
+	 *            the raw data
+	 * @param detectorPosition
+	 *            the detector position
+	 * @param monitor
+	 *            the monitor reading, or {@code NaN} if there is none
+	 * @param exposureTime
+	 *            the exposure time in seconds, or {@code NaN} if it is not known
+	 * @return the processed data
+	 */
+	public MythenProcessedDataset process(MythenRawDataset dataset, double detectorPosition, double monitor,
+			double exposureTime) {
+		final CorrectionFrame frame = FRAMES.get();
+		frame.load(dataset, detectorPosition, monitor, exposureTime);
+		for (CorrectionStage stage : correctionStages) {
+			stage.apply(frame);
+		}
+		return frame.toProcessedDataset();
+	}
 
-				// Flat field correction
-				if (flatFieldValues != null) {
-					count *= flatFieldValues[channel];
-				}
+	/**
+	 * Processes several raw datasets in parallel, using the {@link FrameProcessingEngine#getDefault() shared frame
+	 * processing engine}, without monitor readings or exposure times. Use
+	 * {@link #processBatch(List, double[], double[], double[])} if the chain normalises to a monitor or corrects the
+	 * count rate.
+	 *
+	 * @param datasets
+	 *            the raw data for each frame
+	 * @param detectorPositions
+	 *            the detector position for each frame
+	 * @return the processed data, in the same order as {@code datasets}
+	 */
+	public MythenProcessedDataset[] processBatch(List<MythenRawDataset> datasets, double[] detectorPositions) {
+		final double[] unknown = new double[datasets.size()];
+		Arrays.fill(unknown, Double.NaN);
+		return processBatch(datasets, detectorPositions, unknown, unknown);
+	}
 
-				int error = (int) Math.sqrt(count);
-				if (angularCalParams instanceof SimpleAngularCalibrationParameters) {
-					AngularCalibrationModuleParameters modparams = angularCalParams.getParametersForModule(channel);
-					newData.add(new MythenProcessedData(modparams.getCenter(), count, error, channel));
-				} else if (angularCalParams != null) {
-
-					int imod = channel / 1280;
-					int channelmod = channel % 1280;
-
-					AngularCalibrationModuleParameters modparams = angularCalParams.getParametersForModule(imod);
-					double moffset = modparams.getOffset();
-					double center = modparams.getCenter();
-					double conversion = modparams.getConversion();
-					double ang = 2.404350 + moffset + Math.toDegrees(Math.atan((channelmod - center) * conversion))
-							+ encoder + globaloff + blOffset;
-
-					newData.add(new MythenProcessedData(ang, count, error, channel));
-				} else {
-					newData.add(new MythenProcessedData(channel, count, error));
-				}
-			}
+	/**
+	 * Processes several raw datasets in parallel, using the {@link FrameProcessingEngine#getDefault() shared frame
+	 * processing engine}.
+	 *
+	 * @param datasets
+	 *            the raw data for each frame
+	 * @param detectorPositions
+	 *            the detector position for each frame
+	 * @param monitors
+	 *            the monitor reading for each frame, or {@code NaN} where there is none
+	 * @param exposureTimes
+	 *            the exposure time in seconds for each frame, or {@code NaN} where it is not known
+	 * @return the processed data, in the same order as {@code datasets}
+	 */
+	public MythenProcessedDataset[] processBatch(final List<MythenRawDataset> datasets, final double[] detectorPositions,
+			final double[] monitors, final double[] exposureTimes) {
+		checkBatchLength(datasets, detectorPositions, "detector positions");
+		checkBatchLength(datasets, monitors, "monitor readings");
+		checkBatchLength(datasets, exposureTimes, "exposure times");
+		final MythenProcessedDataset[] processed = new MythenProcessedDataset[datasets.size()];
+		FrameProcessingEngine.getDefault().run(processed.length,
+				frame -> process(datasets.get(frame), detectorPositions[frame], monitors[frame], exposureTimes[frame]),
+				(frame, result) -> processed[frame] = result);
+		return processed;
+	}
+
+	private static void checkBatchLength(List<MythenRawDataset> datasets, double[] values, String description) {
+		if (values.length != datasets.size()) {
+			throw new IllegalArgumentException(String.format("%d datasets but %d %s", datasets.size(), values.length,
+					description));
 		}
+	}
 
-		return new MythenProcessedDataset(newData);
+	/**
+	 * Processes several raw datasets collected at the same detector position in parallel.
+	 *
+	 * @param datasets
+	 *            the raw data for each frame
+	 * @param detectorPosition
+	 *            the detector position
+	 * @return the processed data, in the same order as {@code datasets}
+	 */
+	public MythenProcessedDataset[] processBatch(List<MythenRawDataset> datasets, double detectorPosition) {
+		double[] positions = new double[datasets.size()];
+		Arrays.fill(positions, detectorPosition);
+		return processBatch(datasets, positions);
 	}
 
 }
@@ -0,0 +1,52 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the {@link ChannelKernels} selected by the {@value ChannelKernels#KERNELS_PROPERTY} system property.
+ */
+final class DefaultChannelKernels {
+
+	private static final Logger logger = LoggerFactory.getLogger(DefaultChannelKernels.class);
+
+	static final ChannelKernels INSTANCE = select(
+			System.getProperty(ChannelKernels.KERNELS_PROPERTY, ScalarChannelKernels.NAME));
+
+	private DefaultChannelKernels() {
+	}
+
+	/**
+	 * Returns the kernels with the given name, or the scalar kernels if the name is not recognised. A bad property
+	 * value must not fail here, as that would leave this class, and every correction stage, unusable.
+	 */
+	static ChannelKernels select(String name) {
+		try {
+			return ChannelKernels.forName(name);
+		} catch (IllegalArgumentException e) {
+			logger.warn("Unknown value '{}' for {} - using the {} channel kernels", name, ChannelKernels.KERNELS_PROPERTY,
+					ScalarChannelKernels.NAME);
+			return ScalarChannelKernels.INSTANCE;
+		}
+	}
+
+}
@@ -0,0 +1,236 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Waits for files written by another process, such as the Mythen EPICS IOC, to appear and be completely written.
+ * <p>
+ * A file is considered complete once it exists, is not empty and its size has not changed for the
+ * {@link #setStabilityInterval stability interval}. Directories containing awaited files are registered with a
+ * {@link WatchService} so that waiting threads are woken as soon as a file is created or modified. Because
+ * file-change notifications are not delivered for files written over NFS by other hosts, or on platforms without
+ * native notification, the file is also polled with an interval that starts small and doubles up to a maximum.
+ */
+public class FileArrivalService implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(FileArrivalService.class);
+
+	private static class DefaultHolder {
+		static final FileArrivalService INSTANCE = new FileArrivalService();
+	}
+
+	private final Object lock = new Object();
+
+	private final WatchService watchService;
+
+	private final Set<Path> watchedDirectories = new HashSet<Path>();
+
+	private long stabilityIntervalMillis = 20;
+
+	private long minPollIntervalMillis = 5;
+
+	private long maxPollIntervalMillis = 200;
+
+	/**
+	 * Returns a service shared by all Mythen detectors.
+	 *
+	 * @return the shared service
+	 */
+	public static FileArrivalService getDefault() {
+		return DefaultHolder.INSTANCE;
+	}
+
+	/**
+	 * Creates a service that uses file-change notification where the platform supports it.
+	 */
+	public FileArrivalService() {
+		this(true);
+	}
+
+	/**
+	 * Creates a service.
+	 *
+	 * @param useWatchService
+	 *            {@code false} to rely only on polling
+	 */
+	public FileArrivalService(boolean useWatchService) {
+		watchService = useWatchService ? createWatchService() : null;
+		if (watchService != null) {
+			Thread dispatcher = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					dispatchEvents();
+				}
+			}, "FileArrivalService");
+			dispatcher.setDaemon(true);
+			dispatcher.start();
+		}
+	}
+
+	private static WatchService createWatchService() {
+		try {
+			WatchService service = FileSystems.getDefault().newWatchService();
+			if (service.getClass().getSimpleName().contains("Polling")) {
+				// The JDK's polling implementation checks every few seconds; our own polling is faster
+				service.close();
+				return null;
+			}
+			return service;
+		} catch (IOException | UnsupportedOperationException e) {
+			logger.info("File-change notification unavailable; polling for files instead", e);
+			return null;
+		}
+	}
+
+	private void dispatchEvents() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				key.pollEvents();
+				if (!key.reset()) {
+					synchronized (lock) {
+						watchedDirectories.remove(key.watchable());
+					}
+				}
+				synchronized (lock) {
+					lock.notifyAll();
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// service closed
+		}
+	}
+
+	/**
+	 * Returns whether this service receives file-change notifications, rather than relying only on polling.
+	 */
+	public boolean isWatching() {
+		return watchService != null;
+	}
+
+	/**
+	 * Sets the time for which a file's size must not change before it is considered complete.
+	 */
+	public void setStabilityInterval(long interval, TimeUnit unit) {
+		stabilityIntervalMillis = unit.toMillis(interval);
+	}
+
+	public long getStabilityIntervalMillis() {
+		return stabilityIntervalMillis;
+	}
+
+	/**
+	 * Sets the shortest and longest intervals between checks of the file.
+	 */
+	public void setPollInterval(long min, long max, TimeUnit unit) {
+		minPollIntervalMillis = Math.max(1, unit.toMillis(min));
+		maxPollIntervalMillis = Math.max(minPollIntervalMillis, unit.toMillis(max));
+	}
+
+	/**
+	 * Waits for the specified file to be completely written.
+	 *
+	 * @param file
+	 *            the file to wait for
+	 * @param timeout
+	 *            the maximum time to wait
+	 * @param unit
+	 *            the unit of {@code timeout}
+	 * @return {@code true} if the file is complete, {@code false} if the timeout elapsed first
+	 */
+	public boolean awaitFile(File file, long timeout, TimeUnit unit) throws InterruptedException {
+		final long start = System.nanoTime();
+		final long deadline = start + unit.toNanos(timeout);
+		watch(file.getAbsoluteFile().getParentFile());
+
+		long pollInterval = minPollIntervalMillis;
+		long lastSize = -1;
+		long lastChange = start;
+		while (true) {
+			final long now = System.nanoTime();
+			long waitMillis = pollInterval;
+			if (file.exists()) {
+				final long size = file.length();
+				if (size != lastSize) {
+					lastSize = size;
+					lastChange = now;
+				}
+				final long stableMillis = TimeUnit.NANOSECONDS.toMillis(now - lastChange);
+				if (size > 0 && stableMillis >= stabilityIntervalMillis) {
+					logger.trace("{} complete after {} ms", file, TimeUnit.NANOSECONDS.toMillis(now - start));
+					return true;
+				}
+				waitMillis = Math.min(waitMillis, Math.max(1, stabilityIntervalMillis - stableMillis));
+			}
+			final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - now);
+			if (remainingMillis <= 0) {
+				return false;
+			}
+			synchronized (lock) {
+				lock.wait(Math.min(waitMillis, remainingMillis));
+			}
+			pollInterval = Math.min(pollInterval * 2, maxPollIntervalMillis);
+		}
+	}
+
+	private void watch(File directory) {
+		if (watchService == null || directory == null || !directory.isDirectory()) {
+			return;
+		}
+		final Path path = directory.toPath();
+		synchronized (lock) {
+			if (watchedDirectories.contains(path)) {
+				return;
+			}
+			try {
+				path.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+				watchedDirectories.add(path);
+			} catch (IOException | ClosedWatchServiceException e) {
+				logger.debug("Unable to watch {}; polling instead", directory, e);
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (watchService != null) {
+			watchService.close();
+		}
+	}
+
+}
@@ -33,6 +33,8 @@ import java.util.Set;
 public class FileBadChannelProvider implements BadChannelProvider {
 
 	private Set<Integer> badChannels;
+
+	private BadChannelMask badChannelMask;
 	
 	/**
 	 * Creates a bad channel provider using the bad channels in the specified
@@ -54,6 +56,7 @@ public class FileBadChannelProvider implements BadChannelProvider {
 			throw new RuntimeException("Could not load bad channels from " + badChannelFile, e);
 		}
 		this.badChannels = Collections.unmodifiableSet(badChannels);
+		this.badChannelMask = BadChannelMask.of(badChannels);
 	}
 	
 	@Override
@@ -61,4 +64,9 @@ public class FileBadChannelProvider implements BadChannelProvider {
 		return badChannels;
 	}
 
+	@Override
+	public BadChannelMask getBadChannelMask() {
+		return badChannelMask;
+	}
+
 }
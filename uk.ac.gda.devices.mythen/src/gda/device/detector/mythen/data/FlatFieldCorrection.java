@@ -0,0 +1,152 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multiplies the count of each channel by a flat field scaling factor. The factors are the mean of the flat field
+ * divided by the flat field count of each channel; they are calculated once per flat field and reused until the flat
+ * field changes.
+ */
+public class FlatFieldCorrection implements CorrectionStage {
+
+	/**
+	 * Flat field scaling factors together with the flat field they were calculated from. Replaced, never modified.
+	 */
+	private static final class FlatFieldCorrections {
+
+		final FlatFieldDatasetProvider provider;
+		final Object key;
+		final MythenRawDataset dataset;
+		final double[] factors;
+		final long generation;
+
+		FlatFieldCorrections(FlatFieldDatasetProvider provider, Object key, MythenRawDataset dataset, double[] factors, long generation) {
+			this.provider = provider;
+			this.key = key;
+			this.dataset = dataset;
+			this.factors = factors;
+			this.generation = generation;
+		}
+	}
+
+	/** Corrections from {@link #setFlatFieldData}, used when there is no provider. */
+	private volatile FlatFieldCorrections flatFieldCorrections;
+
+	/** Corrections calculated from the provider's data. */
+	private volatile FlatFieldCorrections providerCorrections;
+
+	private final AtomicLong flatFieldGenerations = new AtomicLong();
+
+	private FlatFieldDatasetProvider flatfieldProvider;
+
+	/**
+	 * Sets the flat field data. This data will be used to adjust each channel.
+	 *
+	 * @param flatFieldData
+	 *            flat field data
+	 */
+	public void setFlatFieldData(MythenRawDataset flatFieldData) {
+		flatFieldCorrections = null;
+		if (flatFieldData != null) {
+			flatFieldCorrections = new FlatFieldCorrections(null, null, flatFieldData,
+					calculateFlatFieldScalingFactors(flatFieldData), flatFieldGenerations.incrementAndGet());
+		}
+	}
+
+	private static double[] calculateFlatFieldScalingFactors(MythenRawDataset flatFieldData) {
+		final int[] counts = flatFieldData.getCounts();
+
+		// Calculate the mean
+		double flatFieldMean = 0;
+		for (int count : counts) {
+			flatFieldMean += count;
+		}
+		flatFieldMean /= counts.length;
+
+		// Calculate scaling factors
+		double[] corrections = new double[counts.length];
+		for (int i = 0; i < counts.length; i++) {
+			corrections[i] = flatFieldMean / counts[i];
+		}
+		return corrections;
+	}
+
+	/**
+	 * Sets a provider of flat field data. If set, the provider's data is used instead of any data set with
+	 * {@link #setFlatFieldData}.
+	 *
+	 * @param flatfieldProvider
+	 *            the flat field provider
+	 */
+	public void setFlatfieldProvider(FlatFieldDatasetProvider flatfieldProvider) {
+		this.flatfieldProvider = flatfieldProvider;
+	}
+
+	public FlatFieldDatasetProvider getFlatfieldProvider() {
+		return flatfieldProvider;
+	}
+
+	private FlatFieldCorrections getFlatFieldCorrections() {
+		// either use the potentially dynamic values from the provider or use the static values stored in memory
+		final FlatFieldDatasetProvider provider = flatfieldProvider;
+		if (provider == null) {
+			return this.flatFieldCorrections;
+		}
+
+		// Only recalculate the scaling factors if the provider's flat field has changed
+		final FlatFieldCorrections cached = providerCorrections;
+		final Object key = provider.getFlatFieldKey();
+		if (cached != null && cached.provider == provider && key != null && key.equals(cached.key)) {
+			return cached;
+		}
+		final MythenRawDataset dataset = provider.getFlatFieldData();
+		if (cached != null && cached.provider == provider && key == null && cached.dataset == dataset) {
+			return cached;
+		}
+		FlatFieldCorrections corrections = new FlatFieldCorrections(provider, key, dataset,
+				calculateFlatFieldScalingFactors(dataset), flatFieldGenerations.incrementAndGet());
+		providerCorrections = corrections;
+		return corrections;
+	}
+
+	/**
+	 * Returns a number identifying the flat field that will be applied to the next frame. The number increases each
+	 * time the flat field changes, so it can be recorded with the data to show which flat field was used.
+	 *
+	 * @return the flat field generation, or zero if no flat field correction is applied
+	 */
+	public long getFlatFieldGeneration() {
+		final FlatFieldCorrections corrections = getFlatFieldCorrections();
+		return corrections == null ? 0 : corrections.generation;
+	}
+
+	@Override
+	public void apply(CorrectionFrame frame) {
+		final FlatFieldCorrections corrections = getFlatFieldCorrections();
+		if (corrections == null) {
+			return;
+		}
+		ChannelKernels.getDefault().multiplyGathered(frame.getCounts(), corrections.factors, frame.getChannels(),
+				frame.size());
+	}
+
+}
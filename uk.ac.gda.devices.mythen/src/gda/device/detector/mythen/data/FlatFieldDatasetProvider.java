@@ -24,4 +24,15 @@ package gda.device.detector.mythen.data;
 public interface FlatFieldDatasetProvider {
 
 	public MythenRawDataset getFlatFieldData();
+
+	/**
+	 * Returns a key that changes whenever the flat field data returned by {@link #getFlatFieldData()} changes, so that
+	 * values derived from the data can be cached. If this returns {@code null} (the default), consumers compare the
+	 * identity of the returned dataset instead.
+	 *
+	 * @return the key identifying the current flat field, or {@code null}
+	 */
+	public default Object getFlatFieldKey() {
+		return null;
+	}
 }
@@ -0,0 +1,172 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+
+/**
+ * Processes the frames of a multi-frame acquisition in parallel while delivering the results in frame order.
+ * <p>
+ * The work for each frame (typically reading the raw file, converting it and saving the processed file) is done by a
+ * {@link FrameTask} on a bounded pool of worker threads. The results are passed to a {@link FrameConsumer} on the
+ * calling thread strictly in frame order, so steps that must be sequential - appending to a scan file, registering
+ * files, plotting - see the frames in the same order as a serial loop would. At most {@link #getWindow()} frames are
+ * in flight at once, which bounds the memory used by results waiting for an earlier frame.
+ */
+public class FrameProcessingEngine {
+
+	/**
+	 * Work done for one frame on a worker thread.
+	 */
+	public interface FrameTask<T> {
+
+		/**
+		 * Processes a frame.
+		 *
+		 * @param frame
+		 *            the frame index, starting from zero
+		 * @return the result for the frame; may be {@code null}
+		 */
+		T process(int frame) throws Exception;
+	}
+
+	/**
+	 * Receives the result of each frame, in frame order, on the thread that called
+	 * {@link FrameProcessingEngine#run(int, FrameTask, FrameConsumer)}.
+	 */
+	public interface FrameConsumer<T> {
+
+		/**
+		 * Called with the result of a frame.
+		 *
+		 * @param frame
+		 *            the frame index, starting from zero
+		 * @param result
+		 *            the value returned by the {@link FrameTask}
+		 */
+		void accept(int frame, T result) throws Exception;
+	}
+
+	private static class DefaultHolder {
+		static final FrameProcessingEngine INSTANCE = new FrameProcessingEngine(Runtime.getRuntime().availableProcessors());
+	}
+
+	private final ExecutorService pool;
+
+	private final int parallelism;
+
+	private int window;
+
+	/**
+	 * Returns an engine shared by all Mythen detectors, with one worker thread per available processor.
+	 *
+	 * @return the shared engine
+	 */
+	public static FrameProcessingEngine getDefault() {
+		return DefaultHolder.INSTANCE;
+	}
+
+	/**
+	 * Creates an engine with its own pool of daemon worker threads.
+	 *
+	 * @param parallelism
+	 *            the number of worker threads
+	 */
+	public FrameProcessingEngine(int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
+		this.window = 4 * this.parallelism;
+		this.pool = new ForkJoinPool(this.parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+			@Override
+			public ForkJoinWorkerThread newThread(ForkJoinPool forkJoinPool) {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+				thread.setName("MythenFrameProcessing-" + thread.getPoolIndex());
+				return thread;
+			}
+		}, null, false);
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Returns the maximum number of frames being processed or waiting to be consumed at any time.
+	 */
+	public int getWindow() {
+		return window;
+	}
+
+	public void setWindow(int window) {
+		this.window = Math.max(1, window);
+	}
+
+	/**
+	 * Processes the specified number of frames. If a task or the consumer fails, the frames not yet started are
+	 * cancelled and the failure is rethrown; frames before the failed frame have already been consumed.
+	 *
+	 * @param numFrames
+	 *            the number of frames
+	 * @param task
+	 *            the work to do for each frame, on a worker thread
+	 * @param consumer
+	 *            receives the result of each frame, in order, on the calling thread
+	 */
+	public <T> void run(int numFrames, final FrameTask<T> task, FrameConsumer<T> consumer) {
+		final Deque<Future<T>> inFlight = new ArrayDeque<Future<T>>();
+		int submitted = 0;
+		int frame = 0;
+		try {
+			for (; frame < numFrames; frame++) {
+				while (submitted < numFrames && inFlight.size() < window) {
+					final int index = submitted++;
+					inFlight.addLast(pool.submit(new Callable<T>() {
+						@Override
+						public T call() throws Exception {
+							return task.process(index);
+						}
+					}));
+				}
+				T result = inFlight.removeFirst().get();
+				consumer.accept(frame, result);
+			}
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Unable to process frame " + frame, e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while processing frame " + frame, e);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException("Unable to consume frame " + frame, e);
+		} finally {
+			for (Future<T> future : inFlight) {
+				future.cancel(true);
+			}
+		}
+	}
+
+}
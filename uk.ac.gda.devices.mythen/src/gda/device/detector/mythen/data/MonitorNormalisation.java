@@ -0,0 +1,68 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+/**
+ * Normalises the counts in a frame to a monitor (I0) reading: each count is multiplied by
+ * {@code referenceMonitor / monitor}, and the frame's error scale by the same factor, so that the errors of the
+ * processed dataset are the scaled Poisson errors of the raw counts. A frame without a positive monitor reading cannot
+ * be normalised, and is rejected rather than passed through unnormalised.
+ * <p>
+ * The reference monitor must be set, and should be of the same order as the monitor readings: the normalised counts
+ * are stored as integers, so scaling to a small reference (counts per monitor count, say) would truncate them to zero.
+ */
+public class MonitorNormalisation implements CorrectionStage {
+
+	private double referenceMonitor = Double.NaN;
+
+	/**
+	 * Sets the monitor reading that the counts are scaled to. This must be set; a typical value is the monitor reading
+	 * expected for a frame at full beam current.
+	 *
+	 * @param referenceMonitor
+	 *            the reference monitor reading; must be positive
+	 */
+	public void setReferenceMonitor(double referenceMonitor) {
+		if (!(referenceMonitor > 0)) {
+			throw new IllegalArgumentException("Reference monitor must be positive (was " + referenceMonitor + ")");
+		}
+		this.referenceMonitor = referenceMonitor;
+	}
+
+	public double getReferenceMonitor() {
+		return referenceMonitor;
+	}
+
+	@Override
+	public void apply(CorrectionFrame frame) {
+		if (Double.isNaN(referenceMonitor)) {
+			throw new IllegalStateException("The reference monitor for monitor normalisation has not been set");
+		}
+		final double monitor = frame.getMonitor();
+		if (!(monitor > 0)) {
+			throw new IllegalStateException("Cannot normalise a frame without a positive monitor reading (was " + monitor
+					+ ")");
+		}
+		final double factor = referenceMonitor / monitor;
+		ChannelKernels.getDefault().scale(frame.getCounts(), frame.size(), factor);
+		frame.scaleErrors(factor);
+	}
+
+}
@@ -0,0 +1,240 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loads batches of Mythen processed data files in parallel.
+ * <p>
+ * Files are loaded on an executor shared by all loaders, sized to the number of available processors, so no threads
+ * are created per batch. Results are always returned in the order of the filenames. If any file cannot be loaded,
+ * the remaining files in the batch are cancelled and the failure is rethrown with the name of the file.
+ */
+public class MythenBatchLoader {
+
+	private static final Logger logger = LoggerFactory.getLogger(MythenBatchLoader.class);
+
+	/**
+	 * Receives progress notifications. Notifications are made from the loading threads, in the order in which files
+	 * finish loading.
+	 */
+	public interface ProgressListener {
+
+		/**
+		 * Called each time a file has been loaded.
+		 *
+		 * @param completed
+		 *            the number of files loaded so far
+		 * @param total
+		 *            the number of files in the batch
+		 */
+		void progress(int completed, int total);
+	}
+
+	/**
+	 * Receives the data from each file, in the order of the filenames, on the thread that called
+	 * {@link MythenBatchLoader#stream(String[], FrameConsumer)}.
+	 */
+	public interface FrameConsumer {
+
+		/**
+		 * Called with the data from one file.
+		 *
+		 * @param index
+		 *            the position of the file in the batch
+		 * @param data
+		 *            the data from the file
+		 */
+		void accept(int index, double[][] data);
+	}
+
+	private static class SharedExecutorHolder {
+		static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
+				Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable r) {
+						Thread thread = new Thread(r, "MythenBatchLoader-" + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
+
+	private final ExecutorService executor;
+
+	private long timeoutMillis;
+
+	private boolean hasChannelInfo;
+
+	private ProgressListener progressListener;
+
+	/**
+	 * Creates a loader that uses the shared executor.
+	 */
+	public MythenBatchLoader() {
+		this(SharedExecutorHolder.EXECUTOR);
+	}
+
+	/**
+	 * Creates a loader that uses the given executor. The executor is not shut down by the loader.
+	 *
+	 * @param executor
+	 *            the executor on which files are loaded
+	 */
+	public MythenBatchLoader(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Sets the maximum time to wait for a whole batch to load. A timeout of zero (the default) means wait
+	 * indefinitely.
+	 *
+	 * @param timeout
+	 *            the timeout
+	 * @param unit
+	 *            the unit of {@code timeout}
+	 */
+	public void setTimeout(long timeout, TimeUnit unit) {
+		this.timeoutMillis = unit.toMillis(timeout);
+	}
+
+	public long getTimeoutMillis() {
+		return timeoutMillis;
+	}
+
+	/**
+	 * Sets whether the files have a fourth (channel) column that should be loaded.
+	 */
+	public void setHasChannelInfo(boolean hasChannelInfo) {
+		this.hasChannelInfo = hasChannelInfo;
+	}
+
+	public boolean isHasChannelInfo() {
+		return hasChannelInfo;
+	}
+
+	public void setProgressListener(ProgressListener progressListener) {
+		this.progressListener = progressListener;
+	}
+
+	public ProgressListener getProgressListener() {
+		return progressListener;
+	}
+
+	/**
+	 * Loads the specified files.
+	 *
+	 * @param filenames
+	 *            the names of the files to read
+	 * @return 3D double array of data, in the same order as {@code filenames}
+	 */
+	public double[][][] load(String[] filenames) {
+		final double[][][] data = new double[filenames.length][][];
+		stream(filenames, new FrameConsumer() {
+			@Override
+			public void accept(int index, double[][] frame) {
+				data[index] = frame;
+			}
+		});
+		return data;
+	}
+
+	/**
+	 * Loads the specified files, passing the data from each file to {@code consumer} as soon as it and all the files
+	 * before it have been loaded. This allows the consumer to start work before the whole batch has been read.
+	 *
+	 * @param filenames
+	 *            the names of the files to read
+	 * @param consumer
+	 *            receives the data from each file in order
+	 */
+	public void stream(String[] filenames, FrameConsumer consumer) {
+		final long deadline = (timeoutMillis > 0) ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : 0;
+		final List<Future<double[][]>> futures = submit(filenames);
+		int index = 0;
+		try {
+			for (; index < futures.size(); index++) {
+				consumer.accept(index, get(futures.get(index), deadline));
+			}
+		} catch (ExecutionException e) {
+			throw new RuntimeException("Unable to load Mythen processed data file " + filenames[index], e.getCause());
+		} catch (TimeoutException e) {
+			throw new RuntimeException(String.format("Timed out after %d ms waiting for %s to load (%d of %d files loaded)",
+					timeoutMillis, filenames[index], index, filenames.length), e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("Interrupted while loading Mythen processed data files", e);
+		} finally {
+			if (index < futures.size()) {
+				logger.debug("Cancelling {} outstanding file(s)", futures.size() - index);
+				for (Future<double[][]> future : futures) {
+					future.cancel(true);
+				}
+			}
+		}
+	}
+
+	private List<Future<double[][]>> submit(String[] filenames) {
+		final int total = filenames.length;
+		final AtomicInteger completed = new AtomicInteger();
+		final ProgressListener listener = progressListener;
+		final boolean channelInfo = hasChannelInfo;
+		List<Future<double[][]>> futures = new ArrayList<Future<double[][]>>(total);
+		for (final String filename : filenames) {
+			futures.add(executor.submit(new Callable<double[][]>() {
+				@Override
+				public double[][] call() {
+					double[][] data = MythenDataFileUtils.readMythenProcessedDataFile(filename, channelInfo);
+					final int done = completed.incrementAndGet();
+					if (listener != null) {
+						listener.progress(done, total);
+					}
+					return data;
+				}
+			}));
+		}
+		return futures;
+	}
+
+	private static double[][] get(Future<double[][]> future, long deadline)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		if (deadline == 0) {
+			return future.get();
+		}
+		return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+	}
+
+}
@@ -0,0 +1,249 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A Mythen raw frame in the compact binary format.
+ * <p>
+ * The file starts with a 32-byte little-endian header:
+ * <pre>
+ *  offset  size  field
+ *       0     4  magic bytes "MYRB"
+ *       4     2  format version (currently 1)
+ *       6     2  bit depth of each count (1-32)
+ *       8     4  number of modules
+ *      12     4  number of channels
+ *      16     8  timestamp (milliseconds since the epoch)
+ *      24     8  detector position (delta), in degrees
+ * </pre>
+ * The header is followed by one count per channel, in channel order starting from zero. Each count is packed
+ * little-endian into {@code ceil(bitDepth / 8)} bytes, so a 24-module frame at 24-bit depth takes 90 KiB rather than
+ * the ~270 KiB of the ASCII format.
+ */
+public class MythenBinaryRawFile {
+
+	/** Size of the header, in bytes. */
+	public static final int HEADER_SIZE = 32;
+
+	/** Current version of the format. */
+	public static final short VERSION = 1;
+
+	private static final byte[] MAGIC = { 'M', 'Y', 'R', 'B' };
+
+	private final int moduleCount;
+
+	private final int bitDepth;
+
+	private final long timestamp;
+
+	private final double delta;
+
+	private final int[] counts;
+
+	/**
+	 * Creates a binary frame. The counts array is not copied.
+	 *
+	 * @param moduleCount
+	 *            number of modules in the detector
+	 * @param bitDepth
+	 *            number of significant bits in each count (1-32)
+	 * @param timestamp
+	 *            acquisition time, in milliseconds since the epoch
+	 * @param delta
+	 *            detector position
+	 * @param counts
+	 *            the counts for channels 0 to {@code counts.length - 1}
+	 */
+	public MythenBinaryRawFile(int moduleCount, int bitDepth, long timestamp, double delta, int[] counts) {
+		if (bitDepth < 1 || bitDepth > 32) {
+			throw new IllegalArgumentException("Bit depth must be between 1 and 32 (was " + bitDepth + ")");
+		}
+		this.moduleCount = moduleCount;
+		this.bitDepth = bitDepth;
+		this.timestamp = timestamp;
+		this.delta = delta;
+		this.counts = counts;
+	}
+
+	public int getModuleCount() {
+		return moduleCount;
+	}
+
+	public int getBitDepth() {
+		return bitDepth;
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public double getDelta() {
+		return delta;
+	}
+
+	/**
+	 * Returns the counts in this frame. The array is not copied and must not be modified.
+	 *
+	 * @return the counts
+	 */
+	public int[] getCounts() {
+		return counts;
+	}
+
+	/**
+	 * Returns the frame as a raw dataset with channels numbered from zero. The dataset shares this frame's counts.
+	 *
+	 * @return the raw dataset
+	 */
+	public MythenRawDataset toDataset() {
+		return MythenRawDataset.fromCounts(counts);
+	}
+
+	/**
+	 * Writes this frame to the specified file.
+	 *
+	 * @param file
+	 *            the file to write
+	 */
+	public void write(File file) throws IOException {
+		final int bytesPerCount = bytesPerCount(bitDepth);
+		final long maxCount = (1L << bitDepth) - 1;
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + counts.length * bytesPerCount).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.put(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.putShort((short) bitDepth);
+		buffer.putInt(moduleCount);
+		buffer.putInt(counts.length);
+		buffer.putLong(timestamp);
+		buffer.putDouble(delta);
+		for (int i = 0; i < counts.length; i++) {
+			final int count = counts[i];
+			if (bitDepth < 32 && (count < 0 || count > maxCount)) {
+				throw new IllegalArgumentException(String.format("Count %d for channel %d does not fit in %d bits", count, i, bitDepth));
+			}
+			for (int b = 0; b < bytesPerCount; b++) {
+				buffer.put((byte) (count >>> (8 * b)));
+			}
+		}
+		buffer.flip();
+		try (FileOutputStream out = new FileOutputStream(file); FileChannel channel = out.getChannel()) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Reads a binary frame from the specified file by memory-mapping it.
+	 *
+	 * @param file
+	 *            the file to read
+	 * @return the frame
+	 */
+	public static MythenBinaryRawFile read(File file) throws IOException {
+		try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+			return read(channel, file);
+		}
+	}
+
+	/**
+	 * Reads a binary frame from an open channel, which must be positioned at the start of the file.
+	 */
+	static MythenBinaryRawFile read(FileChannel channel, File file) throws IOException {
+		final long size = channel.size();
+		if (size < HEADER_SIZE) {
+			throw new IOException("Mythen binary raw file " + file + " is too short to contain a header");
+		}
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		if (!hasMagic(buffer)) {
+			throw new IOException(file + " is not a Mythen binary raw file");
+		}
+		buffer.position(MAGIC.length);
+		final short version = buffer.getShort();
+		if (version != VERSION) {
+			throw new IOException("Unsupported Mythen binary raw file version " + version + " in " + file);
+		}
+		final int bitDepth = buffer.getShort();
+		final int moduleCount = buffer.getInt();
+		final int channelCount = buffer.getInt();
+		final long timestamp = buffer.getLong();
+		final double delta = buffer.getDouble();
+		if (bitDepth < 1 || bitDepth > 32 || channelCount < 0) {
+			throw new IOException("Corrupt header in Mythen binary raw file " + file);
+		}
+		final int bytesPerCount = bytesPerCount(bitDepth);
+		if (size != HEADER_SIZE + (long) channelCount * bytesPerCount) {
+			throw new IOException(String.format("Mythen binary raw file %s should be %d bytes long but is %d bytes", file,
+					HEADER_SIZE + (long) channelCount * bytesPerCount, size));
+		}
+
+		int[] counts = new int[channelCount];
+		switch (bytesPerCount) {
+		case 1:
+			for (int i = 0; i < channelCount; i++) {
+				counts[i] = buffer.get() & 0xff;
+			}
+			break;
+		case 2:
+			for (int i = 0; i < channelCount; i++) {
+				counts[i] = buffer.getShort() & 0xffff;
+			}
+			break;
+		case 3:
+			for (int i = 0; i < channelCount; i++) {
+				counts[i] = (buffer.get() & 0xff) | (buffer.get() & 0xff) << 8 | (buffer.get() & 0xff) << 16;
+			}
+			break;
+		default:
+			buffer.asIntBuffer().get(counts);
+			break;
+		}
+		return new MythenBinaryRawFile(moduleCount, bitDepth, timestamp, delta, counts);
+	}
+
+	/**
+	 * Returns {@code true} if the buffer, from its start, begins with the binary raw file magic bytes.
+	 */
+	static boolean hasMagic(ByteBuffer buffer) {
+		if (buffer.limit() < MAGIC.length) {
+			return false;
+		}
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (buffer.get(i) != MAGIC[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static int bytesPerCount(int bitDepth) {
+		return (bitDepth + 7) / 8;
+	}
+
+}
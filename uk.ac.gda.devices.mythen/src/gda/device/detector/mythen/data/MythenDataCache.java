@@ -0,0 +1,285 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A process-wide cache of parsed Mythen data files.
+ * <p>
+ * Entries are keyed by the canonical path of the file together with its size and last-modified time, so a file that
+ * is rewritten is loaded again. The cache is bounded by the estimated memory used by the cached data; when the bound
+ * is exceeded the least recently used entries are evicted.
+ * <p>
+ * Cached data is shared between callers and must not be modified; the data file readers that use this cache give
+ * their callers copies.
+ */
+public class MythenDataCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(MythenDataCache.class);
+
+	/** Default memory bound: 256 MiB. */
+	public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+	private static final MythenDataCache INSTANCE = new MythenDataCache(DEFAULT_MAX_BYTES);
+
+	/**
+	 * Loads data from a file on a cache miss.
+	 */
+	public interface Loader<T> {
+		T load(File file) throws IOException;
+	}
+
+	private static final class Key {
+
+		private final String path;
+		private final String variant;
+		private final long length;
+		private final long lastModified;
+
+		Key(String path, String variant, long length, long lastModified) {
+			this.path = path;
+			this.variant = variant;
+			this.length = length;
+			this.lastModified = lastModified;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return length == other.length && lastModified == other.lastModified && path.equals(other.path)
+					&& variant.equals(other.variant);
+		}
+
+		@Override
+		public int hashCode() {
+			int result = path.hashCode();
+			result = 31 * result + variant.hashCode();
+			result = 31 * result + (int) (length ^ (length >>> 32));
+			result = 31 * result + (int) (lastModified ^ (lastModified >>> 32));
+			return result;
+		}
+	}
+
+	private static final class Entry {
+		final Object value;
+		final long bytes;
+
+		Entry(Object value, long bytes) {
+			this.value = value;
+			this.bytes = bytes;
+		}
+	}
+
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(64, 0.75f, true);
+
+	private long maxBytes;
+
+	private long bytes;
+
+	private long hits;
+
+	private long misses;
+
+	private long evictions;
+
+	/**
+	 * Returns the cache shared by all Mythen data loaders.
+	 *
+	 * @return the cache
+	 */
+	public static MythenDataCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Creates a cache with the given memory bound.
+	 *
+	 * @param maxBytes
+	 *            the maximum estimated size of the cached data, in bytes; zero disables caching
+	 */
+	public MythenDataCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Returns the cached data for the given file, loading it if it is not cached or the file has changed.
+	 *
+	 * @param file
+	 *            the file
+	 * @param variant
+	 *            distinguishes different representations of the same file (e.g. with and without the channel column)
+	 * @param loader
+	 *            loads the data on a cache miss
+	 * @return the data
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T get(File file, String variant, Loader<T> loader) throws IOException {
+		final Key key = keyFor(file, variant);
+		if (key != null) {
+			synchronized (this) {
+				Entry entry = entries.get(key);
+				if (entry != null) {
+					hits++;
+					return (T) entry.value;
+				}
+				misses++;
+			}
+		}
+
+		// Load outside the lock, so other files can be served while this one is read
+		final T value = loader.load(file);
+		if (key != null) {
+			put(key, value);
+		}
+		return value;
+	}
+
+	private static Key keyFor(File file, String variant) throws IOException {
+		final long lastModified = file.lastModified();
+		if (lastModified == 0) {
+			// Missing file, or modification time unavailable: never cache
+			return null;
+		}
+		return new Key(file.getCanonicalPath(), variant, file.length(), lastModified);
+	}
+
+	private synchronized void put(Key key, Object value) {
+		final long size = estimateBytes(value);
+		if (size > maxBytes) {
+			return;
+		}
+		Entry previous = entries.put(key, new Entry(value, size));
+		if (previous != null) {
+			bytes -= previous.bytes;
+		}
+		bytes += size;
+		evict();
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+		while (bytes > maxBytes && it.hasNext()) {
+			Map.Entry<Key, Entry> eldest = it.next();
+			bytes -= eldest.getValue().bytes;
+			it.remove();
+			evictions++;
+			logger.trace("Evicted {} from Mythen data cache", eldest.getKey().path);
+		}
+	}
+
+	/**
+	 * Estimates the memory used by a parsed dataset.
+	 */
+	static long estimateBytes(Object value) {
+		if (value instanceof double[][]) {
+			double[][] rows = (double[][]) value;
+			long size = 16 + 8L * rows.length;
+			for (double[] row : rows) {
+				size += 16 + 8L * row.length;
+			}
+			return size;
+		}
+		if (value instanceof MythenRawDataset) {
+			return 64 + 8L * ((MythenRawDataset) value).size();
+		}
+		if (value instanceof MythenTextData) {
+			MythenTextData data = (MythenTextData) value;
+			long size = 64 + 8L * data.getNumberOfColumns() * data.getNumberOfRows();
+			for (String header : data.getHeaders()) {
+				size += 40 + 2L * header.length();
+			}
+			return size;
+		}
+		if (value instanceof MythenProcessedDataset) {
+			return 96 + 20L * ((MythenProcessedDataset) value).size();
+		}
+		return 64;
+	}
+
+	/**
+	 * Sets the memory bound, evicting entries if necessary.
+	 *
+	 * @param maxBytes
+	 *            the maximum estimated size of the cached data, in bytes; zero disables caching
+	 */
+	public synchronized void setMaxBytes(long maxBytes) {
+		this.maxBytes = maxBytes;
+		evict();
+	}
+
+	public synchronized long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * Returns the estimated size of the cached data, in bytes.
+	 */
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	/**
+	 * Removes all entries and resets the statistics.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		bytes = 0;
+		hits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%s[%d entries, %d/%d bytes, %d hits, %d misses, %d evictions]",
+				getClass().getSimpleName(), entries.size(), bytes, maxBytes, hits, misses, evictions);
+	}
+
+}
@@ -19,19 +19,15 @@
 package gda.device.detector.mythen.data;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.io.Reader;
-import java.io.StreamTokenizer;
 import java.io.StringReader;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Vector;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,50 +42,19 @@ public class MythenDataFileUtils {
 	private static final Logger logger = LoggerFactory.getLogger(MythenDataFileUtils.class);
 
 	/**
-	 * Reads the specified Mythen processed data files.
+	 * Reads the specified Mythen processed data files in parallel, using a {@link MythenBatchLoader}.
 	 * 
 	 * @param filenames
 	 *            the names of the files to read
 	 * @return 3D double array of data
 	 */
 	public static double[][][] readMythenProcessedDataFiles(String filenames[]) {
-		// 3D array of data; will be filled in by tasks (one task per file to be loaded)
-		final double[][][] data = new double[filenames.length][][];
-
-		// thread pool for loading files
-		// 4 threads seems to give good results
-		ExecutorService executor = Executors.newFixedThreadPool(4);
-
-		// create and execute a task for each file to be loaded
-		for (int i = 0; i < filenames.length; i++) {
-			final int index = i;
-			final String filename = filenames[i];
-			Runnable r = new Runnable() {
-				@Override
-				public void run() {
-					data[index] = readMythenProcessedDataFile(filename, false);
-				}
-
-			};
-			executor.execute(r);
-		}
-
-		// wait until executor has shut down
-		executor.shutdown();
-		try {
-			boolean terminated = executor.awaitTermination(1, TimeUnit.MINUTES);
-			if (!terminated) {
-				throw new Exception("Timed out waiting for files to load");
-			}
-		} catch (Exception e) {
-			throw new RuntimeException("Unable to load data", e);
-		}
-
-		return data;
+		return new MythenBatchLoader().load(filenames);
 	}
 
 	/**
-	 * Reads a Mythen raw data file, consisting of two columns (channel number and count).
+	 * Reads a Mythen raw data file, consisting of two columns (channel number and count). The data is obtained
+	 * through the {@link MythenDataCache}; the returned array is a copy, which the caller may modify.
 	 * 
 	 * @param filename
 	 *            the file to read
@@ -97,30 +62,64 @@ public class MythenDataFileUtils {
 	 */
 	public static double[][] readMythenRawDataFile(String filename) {
 		try {
-			return loadByUsingStreamTokenizer(filename, FileType.RAW);
+			return copyRows(MythenDataCache.getInstance().get(new File(filename), "raw-rows", file -> {
+				final MythenRawDataset dataset = MythenRawFileReader.forCurrentThread().read(file);
+				final int[] channels = dataset.getChannels();
+				final int[] counts = dataset.getCounts();
+				double[][] data = new double[channels.length][];
+				for (int i = 0; i < channels.length; i++) {
+					data[i] = new double[] { channels[i], counts[i] };
+				}
+				return data;
+			}));
 		} catch (IOException e) {
 			throw new RuntimeException("Unable to load Mythen raw data file", e);
 		}
 	}
 
 	/**
-	 * Reads a Mythen processed data file, consisting of three columns (angle, count and error).
+	 * Reads a Mythen processed data file, consisting of three columns (angle, count and error). The data is obtained
+	 * through the {@link MythenDataCache}; the returned array is a copy, which the caller may modify.
 	 * 
 	 * @param filename
 	 *            the file to read
 	 * @return a 2D double array of the data
 	 */
 	public static double[][] readMythenProcessedDataFile(String filename, boolean hasChannelInfo) {
+		final int width = hasChannelInfo ? 4 : 3;
+		final int frame = MythenScanFileReader.parseFrameReference(filename);
+		if (frame >= 0) {
+			final File scanFile = new File(filename.substring(0, filename.lastIndexOf('#')));
+			try {
+				return copyRows(MythenDataCache.getInstance().get(scanFile, "frame" + frame + "-rows" + width, file -> {
+					try (MythenScanFileReader reader = new MythenScanFileReader(file)) {
+						return reader.readProcessedRows(frame, width);
+					}
+				}));
+			} catch (IOException e) {
+				throw new RuntimeException("Unable to load frame " + frame + " from Mythen scan file " + scanFile, e);
+			}
+		}
+		final FileType type = hasChannelInfo ? FileType.PROCESSED_WITH_CHANNELS : FileType.PROCESSED;
 		try {
-			if(!hasChannelInfo)
-				return loadByUsingStreamTokenizer(filename, FileType.PROCESSED);
-			else
-				return loadByUsingStreamTokenizer(filename, FileType.PROCESSED_WITH_CHANNELS);
+			return copyRows(MythenDataCache.getInstance().get(new File(filename), "processed-rows" + width,
+					file -> loadByUsingStreamTokenizer(filename, type)));
 		} catch (IOException e) {
 			throw new RuntimeException("Unable to load Mythen processed data file", e);
 		}
 	}
 
+	/**
+	 * Copies rows of cached data, so callers cannot modify the data held by the cache.
+	 */
+	private static double[][] copyRows(double[][] rows) {
+		final double[][] copy = new double[rows.length][];
+		for (int i = 0; i < rows.length; i++) {
+			copy[i] = rows[i].clone();
+		}
+		return copy;
+	}
+
 	public enum FileType {
 		RAW, PROCESSED, PROCESSED_WITH_CHANNELS
 	}
@@ -131,8 +130,7 @@ public class MythenDataFileUtils {
 	}
 
 	protected static double[][] loadByUsingStreamTokenizer(String filename, FileType type) throws IOException {
-		BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(filename)));
-		return getDataFromReaderUsingStreamTokenizer(br, type);
+		return MythenTextDataReader.forCurrentThread().read(new File(filename)).toRows(numberOfColumns(type));
 	}
 
 	protected static double[][] loadByReadingFileContentAndUsingSplit(String filename) throws IOException {
@@ -169,36 +167,18 @@ public class MythenDataFileUtils {
 	}
 
 	protected static double[][] getDataFromReaderUsingStreamTokenizer(Reader r, FileType type) throws IOException {
-		try {
-			List<double[]> data = new Vector<double[]>();
-			StreamTokenizer st = new StreamTokenizer(r);
-			while (st.nextToken() != StreamTokenizer.TT_EOF) {
-				double angle = st.nval;
-				st.nextToken();
-				double count = st.nval;
-				//st.nextToken();
-				if (type == FileType.PROCESSED) {
-					st.nextToken();
-					double error = st.nval;
-					data.add(new double[] {angle, count, error});
-				}
-				else if (type == FileType.PROCESSED_WITH_CHANNELS) {
-					st.nextToken();
-					double error = st.nval;
-					double channel = st.nval;
-					data.add(new double[] {angle, count, error, channel});
-				}
-				else {
-					data.add(new double[] {angle, count});
-				}
-			}
-			return data.toArray(new double[data.size()][]);
-		} finally {
-			try {
-				r.close();
-			} catch (IOException e) {
-				// ignore
-			}
+		final String contents = FileCopyUtils.copyToString(r);
+		return MythenTextDataReader.forCurrentThread().read(contents).toRows(numberOfColumns(type));
+	}
+
+	private static int numberOfColumns(FileType type) {
+		switch (type) {
+		case RAW:
+			return 2;
+		case PROCESSED:
+			return 3;
+		default:
+			return 4;
 		}
 	}
 
@@ -207,65 +187,24 @@ public class MythenDataFileUtils {
 		return FileCopyUtils.copyToString(br);
 	}
 
+	/**
+	 * Bins the given data, taking the largest count in each bin. Use {@link MythenRebinner} directly for the other
+	 * binning modes, or to avoid creating an array per bin.
+	 *
+	 * @param input
+	 *            array of datasets; each dataset is an array of (angle, count, ...) arrays
+	 * @param binSize
+	 *            the width of each bin
+	 * @return one array of (bin start angle, count) arrays per dataset
+	 */
 	public static double[][][] binMythenData(double[][][] input, double binSize) {
-
-		// Find min/max angle
-		double minAngle = Double.MAX_VALUE;
-		double maxAngle = Double.MIN_VALUE;
-		for (double[][] dataset : input) {
-			for (double[] channel : dataset) {
-				minAngle = Math.min(channel[0], minAngle);
-				maxAngle = Math.max(channel[0], maxAngle);
-			}
-		}
-
-		// Determine bins
-		final int minBinNum = (int) Math.floor(minAngle / binSize);
-		final int maxBinNum = (int) Math.ceil(maxAngle / binSize);
-		final int numBins = maxBinNum - minBinNum + 1;
-
-		final int numDatasets = input.length;
-
-		// Create binned data array
-		double[][][] binnedData = new double[numDatasets][][];
-
-		// Create array for each dataset
-		for (int dataset = 0; dataset < numDatasets; dataset++) {
-			binnedData[dataset] = new double[numBins][];
-		}
-
-		// Within each dataset, create array for each bin
-		// Iterate through bins first, then datasets, for efficiency (only calculate a bin's start angle once)
-		for (int bin = 0; bin < numBins; bin++) {
-			final double binStartAngle = (bin + minBinNum) * binSize;
-			for (int dataset = 0; dataset < numDatasets; dataset++) {
-				binnedData[dataset][bin] = new double[] { binStartAngle, 0 };
-			}
-		}
-
-		// Bin data
-		for (int dataset = 0; dataset < numDatasets; dataset++) {
-			// logger.debug(String.format("Dataset %d of %d", dataset+1, numDatasets));
-			final double[][] inputDataset = input[dataset];
-			for (double[] channel : inputDataset) {
-				final double angle = channel[0];
-				final int binNumForAngle = (int) Math.floor(angle / binSize);
-				final int binIndexForAngle = binNumForAngle - minBinNum;
-				final double[] binForAngle = binnedData[dataset][binIndexForAngle];
-
-				final double count = channel[1];
-				// logger.debug(String.format("%.16f ÷ %.1f = %.16f => %d/%d\tcount=%.0f", angle, binSize,
-				// (angle/binSize), binNumForAngle, binIndexForAngle, count));
-				binForAngle[1] = Math.max(binForAngle[1], count);
-			}
-		}
-
-		return binnedData;
+		return MythenRebinner.bin(input, binSize, MythenRebinner.Mode.MAX).toDoubleArray();
 	}
 
 	/**
 	 * Takes a collection of datasets and returns a subset of the data that includes channels within the specified angle
-	 * range.
+	 * range. The range is found separately in each dataset, whose angles must be in ascending order. Use
+	 * {@link AngleRangeView} to select a range without copying.
 	 * 
 	 * @param data
 	 *            array of datasets; each dataset is a 2D array
@@ -276,31 +215,42 @@ public class MythenDataFileUtils {
 	 * @return data subset
 	 */
 	public static double[][][] getDataSubset(double[][][] data, double minAngle, double maxAngle) {
-		final int numChannels = data[0].length;
-
-		// Get single 1D array of angles
-		// Assumes data has been binned, so that each dataset has the same angles
-		double[] angles = new double[numChannels];
-		for (int c = 0; c < numChannels; c++) {
-			angles[c] = data[0][c][0];
-		}
-
-		// Work out min/max channel indices for desired min/max angles
-		int minPos = getInclusiveIndexForMinIncludedAngle(angles, minAngle);
-		int maxPos = getExclusiveIndexForMaxIncludedAngle(angles, maxAngle);
-		int numChannelsInSubset = maxPos - minPos;
-
-		// Build subset of data
 		final int numDatasets = data.length;
 		double[][][] output = new double[numDatasets][][];
 		for (int d = 0; d < numDatasets; d++) {
-			output[d] = new double[numChannelsInSubset][];
-			for (int c = minPos; c < maxPos; c++) {
-				output[d][c - minPos] = data[d][c];
+			final int minPos = firstRowAtOrAbove(data[d], minAngle);
+			final int maxPos = Math.max(minPos, firstRowAbove(data[d], maxAngle));
+			output[d] = Arrays.copyOfRange(data[d], minPos, maxPos);
+		}
+		return output;
+	}
+
+	private static int firstRowAtOrAbove(double[][] dataset, double angle) {
+		int low = 0;
+		int high = dataset.length;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (dataset[middle][0] < angle) {
+				low = middle + 1;
+			} else {
+				high = middle;
 			}
 		}
+		return low;
+	}
 
-		return output;
+	private static int firstRowAbove(double[][] dataset, double angle) {
+		int low = 0;
+		int high = dataset.length;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (dataset[middle][0] <= angle) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
 	}
 
 	protected static int getInclusiveIndexForMinIncludedAngle(double[] angles, double minAngle) {
@@ -322,11 +272,16 @@ public class MythenDataFileUtils {
 	 *            the file in which to save the data
 	 */
 	public static void saveProcessedDataFile(double[][] data, String file) throws IOException {
-		PrintWriter pw = new PrintWriter(file);
-		for (double[] point : data) {
-			pw.printf("%f %f %f%n", point[0], point[1], point[2]);
+		try (MythenProcessedDataWriter writer = new MythenProcessedDataWriter(new File(file))) {
+			for (double[] point : data) {
+				writer.writeDouble(point[0]);
+				writer.write(' ');
+				writer.writeDouble(point[1]);
+				writer.write(' ');
+				writer.writeDouble(point[2]);
+				writer.newLine();
+			}
 		}
-		pw.close();
 	}
 
 }
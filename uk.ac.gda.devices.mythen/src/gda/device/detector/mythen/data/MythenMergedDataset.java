@@ -18,15 +18,11 @@
 
 package gda.device.detector.mythen.data;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Vector;
 
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
@@ -50,31 +46,33 @@ public class MythenMergedDataset {
 
 	/**
 	 * Loads the specified Mythen {@code .dat} file. It is assumed that the
-	 * file contains three columns - angle, count and error.
+	 * file contains three columns - angle, count and error - optionally followed by a channel column.
 	 *
 	 * @param file the file to load
 	 */
 	public MythenMergedDataset(File file) {
-		lines = new Vector<MythenMergedData>();
-		try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file)))){
-			String line = null;
-			while ((line = br.readLine()) != null) {
-				String[] tokens = line.split(" ");
-				final double angle = Double.parseDouble(tokens[0]);
-				final double count = Double.parseDouble(tokens[1]);
-				final double error = Double.parseDouble(tokens[2]);
-				if(tokens.length>3){
-					final double channel = Double.parseDouble(tokens[3]);
-					MythenMergedData data = new MythenMergedData(angle, count, error, channel);
-					lines.add(data);
-				} else {
-					MythenMergedData data = new MythenMergedData(angle, count, error);
-					lines.add(data);
-				}
-			}
+		final MythenTextData data;
+		try {
+			data = MythenDataCache.getInstance().get(file, "text", f -> MythenTextDataReader.forCurrentThread().read(f));
 		} catch (IOException e) {
 			throw new RuntimeException("Couldn't read Mythen data file " + file, e);
 		}
+		final int numRows = data.getNumberOfRows();
+		final int numColumns = data.getNumberOfColumns();
+		if (numRows > 0 && numColumns != 3 && numColumns != 4) {
+			throw new RuntimeException("Mythen data file " + file + " has " + numColumns + " columns; expected 3 or 4");
+		}
+		lines = new ArrayList<MythenMergedData>(numRows);
+		for (int i = 0; i < numRows; i++) {
+			final double angle = data.getColumn(0)[i];
+			final double count = data.getColumn(1)[i];
+			final double error = data.getColumn(2)[i];
+			if (numColumns > 3) {
+				lines.add(new MythenMergedData(angle, count, error, data.getColumn(3)[i]));
+			} else {
+				lines.add(new MythenMergedData(angle, count, error));
+			}
+		}
 	}
 
 	/**
@@ -92,12 +90,15 @@ public class MythenMergedDataset {
 	 * @param file the file to save the data to
 	 */
 	public void save(File file) {
-		try {
-			PrintWriter pw = new PrintWriter(file);
+		try (MythenProcessedDataWriter writer = new MythenProcessedDataWriter(file)) {
 			for (MythenMergedData line : lines) {
-				pw.printf("%f %f %f\n", line.getAngle(), line.getCount(), line.getError());
+				writer.writeDouble(line.getAngle());
+				writer.write(' ');
+				writer.writeDouble(line.getCount());
+				writer.write(' ');
+				writer.writeDouble(line.getError());
+				writer.write('\n');
 			}
-			pw.close();
 		} catch (IOException ioe) {
 			throw new RuntimeException("Could not save data to " + file, ioe);
 		}
@@ -0,0 +1,231 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Writes Mythen processed data ({@code .dat}) files.
+ * <p>
+ * Numbers are formatted straight into a reusable byte buffer, which is written to the file through a
+ * {@link FileChannel} in large blocks. The output is byte-for-byte the same as that of the {@code printf} calls this
+ * writer replaces: {@link #writeDouble(double)} matches {@code %f} and {@link #writeInt(int)} matches {@code %d}.
+ * Values that cannot be formatted exactly on the fast path (non-finite or very large numbers, numbers within
+ * rounding error of a half-way point, or a default locale that does not use ASCII digits) are formatted with
+ * {@link String#format} instead.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class MythenProcessedDataWriter implements Closeable {
+
+	private static final int BUFFER_SIZE = 256 * 1024;
+
+	/** Longest value produced by the fast paths: a sign, 12 integer digits, a point and 6 decimal places. */
+	private static final int MAX_FAST_LENGTH = 20;
+
+	/** {@code %f} writes 6 decimal places. */
+	private static final int DECIMAL_PLACES = 6;
+
+	private static final long SCALE = 1000000L;
+
+	/** Largest magnitude handled by the fast path, well within the exact range of a scaled {@code long}. */
+	private static final double MAX_FAST_VALUE = 1e12;
+
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+
+	private final FileOutputStream out;
+
+	private final FileChannel channel;
+
+	private final byte[] bytes = new byte[BUFFER_SIZE];
+
+	private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+	private final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+
+	private final boolean fastPathAllowed;
+
+	private final Charset charset = Charset.defaultCharset();
+
+	private int pos;
+
+	/**
+	 * Opens the specified file for writing, replacing any existing contents.
+	 *
+	 * @param file
+	 *            the file to write
+	 */
+	public MythenProcessedDataWriter(File file) throws IOException {
+		out = new FileOutputStream(file);
+		channel = out.getChannel();
+		final DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+		fastPathAllowed = symbols.getZeroDigit() == '0' && symbols.getDecimalSeparator() == '.'
+				&& symbols.getMinusSign() == '-';
+	}
+
+	/**
+	 * Writes a string in the platform's default charset, as {@link java.io.PrintWriter} does.
+	 */
+	public void write(String s) throws IOException {
+		final byte[] encoded = s.getBytes(charset);
+		if (encoded.length > bytes.length - pos) {
+			flush();
+			if (encoded.length > bytes.length) {
+				channelWrite(ByteBuffer.wrap(encoded));
+				return;
+			}
+		}
+		System.arraycopy(encoded, 0, bytes, pos, encoded.length);
+		pos += encoded.length;
+	}
+
+	/**
+	 * Writes a single ASCII character, such as a column separator.
+	 */
+	public void write(char c) throws IOException {
+		ensureSpace(1);
+		bytes[pos++] = (byte) c;
+	}
+
+	/**
+	 * Writes the platform line separator, as {@code %n} does.
+	 */
+	public void newLine() throws IOException {
+		ensureSpace(LINE_SEPARATOR.length);
+		System.arraycopy(LINE_SEPARATOR, 0, bytes, pos, LINE_SEPARATOR.length);
+		pos += LINE_SEPARATOR.length;
+	}
+
+	/**
+	 * Writes an integer, formatted as by {@code %d}.
+	 */
+	public void writeInt(int value) throws IOException {
+		if (!fastPathAllowed) {
+			write(String.format(locale, "%d", value));
+			return;
+		}
+		ensureSpace(MAX_FAST_LENGTH);
+		pos = MythenRawFileWriter.appendInt(bytes, pos, value);
+	}
+
+	/**
+	 * Writes a {@code double}, formatted as by {@code %f}.
+	 */
+	public void writeDouble(double value) throws IOException {
+		if (!fastPathAllowed || !appendFixed(value)) {
+			write(String.format(locale, "%f", value));
+		}
+	}
+
+	/**
+	 * Formats {@code value} with six decimal places, rounding half up as {@link java.util.Formatter} does.
+	 *
+	 * @return {@code false} if the value must be formatted with {@link String#format} instead
+	 */
+	private boolean appendFixed(double value) throws IOException {
+		final boolean negative = (Double.doubleToRawLongBits(value) < 0);
+		final double magnitude = Math.abs(value);
+		if (!(magnitude < MAX_FAST_VALUE)) {
+			return false; // also catches NaN
+		}
+		final double scaled = magnitude * SCALE;
+		long units = (long) scaled;
+		final double fraction = scaled - units;
+		// The scaled value may be out by a few ulps; only its position relative to the half-way point matters
+		final double tolerance = scaled * 1e-15 + 1e-9;
+		if (Math.abs(fraction - 0.5) <= tolerance) {
+			return false;
+		}
+		if (fraction > 0.5) {
+			units++;
+		}
+
+		ensureSpace(MAX_FAST_LENGTH);
+		if (negative) {
+			bytes[pos++] = '-';
+		}
+		final long integerPart = units / SCALE;
+		long decimalPart = units % SCALE;
+		pos = appendLong(bytes, pos, integerPart);
+		bytes[pos++] = '.';
+		for (int i = pos + DECIMAL_PLACES - 1; i >= pos; i--) {
+			bytes[i] = (byte) ('0' + decimalPart % 10);
+			decimalPart /= 10;
+		}
+		pos += DECIMAL_PLACES;
+		return true;
+	}
+
+	private static int appendLong(byte[] bytes, int pos, long value) {
+		if (value == 0) {
+			bytes[pos++] = '0';
+			return pos;
+		}
+		int digits = 0;
+		for (long t = value; t != 0; t /= 10) {
+			digits++;
+		}
+		final int end = pos + digits;
+		for (int i = end - 1; i >= pos; i--) {
+			bytes[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		return end;
+	}
+
+	private void ensureSpace(int length) throws IOException {
+		if (bytes.length - pos < length) {
+			flush();
+		}
+	}
+
+	/**
+	 * Writes any buffered data to the file.
+	 */
+	public void flush() throws IOException {
+		buffer.clear();
+		buffer.limit(pos);
+		channelWrite(buffer);
+		pos = 0;
+	}
+
+	private void channelWrite(ByteBuffer src) throws IOException {
+		while (src.hasRemaining()) {
+			channel.write(src);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			out.close();
+		}
+	}
+
+}
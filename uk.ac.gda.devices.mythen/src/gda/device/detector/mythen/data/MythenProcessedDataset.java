@@ -18,17 +18,16 @@
 
 package gda.device.detector.mythen.data;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Vector;
+import java.util.RandomAccess;
 
 import org.eclipse.january.dataset.Dataset;
 import org.eclipse.january.dataset.DatasetFactory;
@@ -37,10 +36,19 @@ import org.eclipse.january.dataset.IDataset;
 
 /**
  * Holds data from a Mythen {@code .dat} file.
+ * <p>
+ * The angle, count, error and channel columns are stored as primitive arrays; {@link #getLines()} provides a
+ * line-oriented view of the same data for existing callers.
  */
 public class MythenProcessedDataset {
 
-	private List<MythenProcessedData> lines;
+	private double[] angles;
+
+	private int[] counts;
+
+	private int[] errors;
+
+	private int[] channels;
 
 	private List<String> headerStrings = Collections.emptyList();
 
@@ -50,47 +58,113 @@ public class MythenProcessedDataset {
 	 * @param lines the processed data
 	 */
 	public MythenProcessedDataset(List<MythenProcessedData> lines) {
-		this.lines = lines;
+		final int size = lines.size();
+		angles = new double[size];
+		counts = new int[size];
+		errors = new int[size];
+		channels = new int[size];
+		int i = 0;
+		for (MythenProcessedData line : lines) {
+			angles[i] = line.getAngle();
+			counts[i] = line.getCount();
+			errors[i] = line.getError();
+			channels[i] = line.getChannel();
+			i++;
+		}
 	}
 
 	/**
-	 * Loads the specified Mythen {@code .dat} file. It is assumed that the
-	 * file contains three columns - angle, count and error.
+	 * Creates a new processed dataset backed by the supplied columns. The arrays are not copied.
+	 *
+	 * @param angles the angles, in degrees
+	 * @param counts the channel counts
+	 * @param errors the errors
+	 * @param channels the channel numbers
+	 */
+	public MythenProcessedDataset(double[] angles, int[] counts, int[] errors, int[] channels) {
+		final int size = angles.length;
+		if (counts.length != size || errors.length != size || channels.length != size) {
+			throw new IllegalArgumentException("Processed data columns must all be the same length");
+		}
+		this.angles = angles;
+		this.counts = counts;
+		this.errors = errors;
+		this.channels = channels;
+	}
+
+	/**
+	 * Loads the specified Mythen {@code .dat} file. The file may contain three columns - angle, count and error - or
+	 * four, with the channel number in the fourth column. Header lines other than those that {@link #save} generates
+	 * are kept as additional header strings.
 	 *
 	 * @param file the file to load
 	 */
 	public MythenProcessedDataset(File file) {
-		lines = new Vector<MythenProcessedData>();
-		try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file)))){
-			String line = null;
-			while ((line = br.readLine()) != null) {
-				String[] tokens = line.split(" ");
-				final double angle = Double.parseDouble(tokens[0]);
-				final int count = Integer.parseInt(tokens[1]);
-				final int error = Integer.parseInt(tokens[2]);
-				if(tokens.length>3){
-					final int channel = Integer.parseInt(tokens[3]);
-					MythenProcessedData data = new MythenProcessedData(angle, count, error, channel);
-					lines.add(data);
-				}
-				else{
-					MythenProcessedData data = new MythenProcessedData(angle, count, error);
-					lines.add(data);
-				}
-
-			}
+		final MythenTextData data;
+		try {
+			data = MythenDataCache.getInstance().get(file, "text", f -> MythenTextDataReader.forCurrentThread().read(f));
 		} catch (IOException e) {
 			throw new RuntimeException("Couldn't read Mythen data file " + file, e);
 		}
+		final int numColumns = data.getNumberOfColumns();
+		if (data.getNumberOfRows() > 0 && numColumns != 3 && numColumns != 4) {
+			throw new RuntimeException("Mythen data file " + file + " has " + numColumns + " columns; expected 3 or 4");
+		}
+		if (data.getNumberOfRows() == 0) {
+			angles = new double[0];
+			counts = errors = channels = new int[0];
+		} else {
+			// the text data may be shared through the cache, so the angles are copied
+			angles = data.getColumn(0).clone();
+			counts = data.getIntColumn(1);
+			errors = data.getIntColumn(2);
+			channels = (numColumns == 4) ? data.getIntColumn(3) : new int[angles.length];
+		}
+
+		List<String> additionalHeaders = new ArrayList<String>();
+		for (String header : data.getHeaders()) {
+			if (!header.startsWith("Filename\t") && !header.startsWith("Date\t") && !header.startsWith("Angle,")) {
+				additionalHeaders.add(header);
+			}
+		}
+		if (!additionalHeaders.isEmpty()) {
+			headerStrings = additionalHeaders;
+		}
 	}
 
 	/**
-	 * Returns the lines in this dataset.
+	 * Returns the lines in this dataset. The returned list is an unmodifiable view; a {@link MythenProcessedData}
+	 * object is created for a line only when it is requested.
 	 *
 	 * @return the lines
 	 */
 	public List<MythenProcessedData> getLines() {
-		return Collections.unmodifiableList(lines);
+		return new LinesView();
+	}
+
+	/**
+	 * Returns the number of lines in this dataset.
+	 *
+	 * @return the number of lines
+	 */
+	public int size() {
+		return angles.length;
+	}
+
+	public double getAngle(int index) {
+		return angles[index];
+	}
+
+	public int getCount(int index) {
+		return counts[index];
+	}
+
+	public int getError(int index) {
+		return errors[index];
+	}
+
+	public int getChannel(int index) {
+		return channels[index];
 	}
 
 	/**
@@ -99,17 +173,21 @@ public class MythenProcessedDataset {
 	 * @param file the file to save the data to
 	 */
 	public void save(File file, boolean hasChannelInfo) {
-		try(PrintWriter pw = new PrintWriter(file)) {
-			pw.printf("# Filename\t %s\n", file.getAbsolutePath());
-			addHeader(pw);
-			if (!hasChannelInfo) {
-				for (MythenProcessedData line : lines) {
-					pw.printf("%f %d %d\n", line.getAngle(), line.getCount(), line.getError());
-				}
-			} else {
-				for (MythenProcessedData line : lines) {
-					pw.printf("%f	%d	%d	%d\n", line.getAngle(), line.getCount(), line.getError(), line.getChannel());
+		try (MythenProcessedDataWriter writer = new MythenProcessedDataWriter(file)) {
+			writer.write(String.format("# Filename\t %s\n", file.getAbsolutePath()));
+			addHeader(writer);
+			final char separator = hasChannelInfo ? '\t' : ' ';
+			for (int i = 0; i < angles.length; i++) {
+				writer.writeDouble(angles[i]);
+				writer.write(separator);
+				writer.writeInt(counts[i]);
+				writer.write(separator);
+				writer.writeInt(errors[i]);
+				if (hasChannelInfo) {
+					writer.write(separator);
+					writer.writeInt(channels[i]);
 				}
+				writer.write('\n');
 			}
 		} catch (IOException ioe) {
 			throw new RuntimeException("Could not save data to " + file, ioe);
@@ -119,16 +197,16 @@ public class MythenProcessedDataset {
 	/**
 	 * Add header lines containing useful information to file.
 	 *
-	 * @param pw
+	 * @param writer
 	 */
-	private void addHeader(PrintWriter pw) {
+	private void addHeader(MythenProcessedDataWriter writer) throws IOException {
 		for (String headerString : headerStrings) {
-			pw.printf("# %s\n", headerString);
+			writer.write(String.format("# %s\n", headerString));
 		}
 
 		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyy , hh:mm:ss");
-		pw.printf("# Date\t %s\n", formatter.format(LocalDateTime.now()));
-		pw.printf("# Angle,	Count,	Error,	Channel\n");
+		writer.write(String.format("# Date\t %s\n", formatter.format(LocalDateTime.now())));
+		writer.write("# Angle,	Count,	Error,	Channel\n");
 	}
 
 	/**
@@ -138,10 +216,9 @@ public class MythenProcessedDataset {
 	 * @return a {@code double} array
 	 */
 	public double[][] toDoubleArray() {
-		double[][] data = new double[lines.size()][];
-		int i = 0;
-		for (MythenProcessedData line : lines) {
-			data[i++] = new double[] { line.getAngle(), line.getCount(), line.getError(), line.getChannel()};
+		double[][] data = new double[angles.length][];
+		for (int i = 0; i < angles.length; i++) {
+			data[i] = new double[] { angles[i], counts[i], errors[i], channels[i]};
 		}
 		return data;
 	}
@@ -152,12 +229,21 @@ public class MythenProcessedDataset {
 	 * @return array of angles
 	 */
 	public double[] getAngleArray() {
-		double[] data = new double[lines.size()];
-		int i = 0;
-		for (MythenProcessedData line : lines) {
-			data[i++] = line.getAngle();
-		}
-		return data;
+		return angles.clone();
+	}
+
+	/**
+	 * Returns the array of angles backing this dataset. The array is not copied and must not be modified.
+	 */
+	double[] angleColumn() {
+		return angles;
+	}
+
+	/**
+	 * Returns the array of counts backing this dataset. The array is not copied and must not be modified.
+	 */
+	int[] countColumn() {
+		return counts;
 	}
 
 	/**
@@ -166,10 +252,9 @@ public class MythenProcessedDataset {
 	 * @return array of counts
 	 */
 	public double[] getCountArray() {
-		double[] data = new double[lines.size()];
-		int i = 0;
-		for (MythenProcessedData line : lines) {
-			data[i++] = line.getCount();
+		double[] data = new double[counts.length];
+		for (int i = 0; i < counts.length; i++) {
+			data[i] = counts[i];
 		}
 		return data;
 	}
@@ -220,7 +305,7 @@ public class MythenProcessedDataset {
 
 	@Override
 	public String toString() {
-		final int numLines = lines.size();
+		final int numLines = angles.length;
 		return getClass().getSimpleName() + "[" + numLines + " line" + (numLines == 1 ? "" : "s") + "]";
 	}
 
@@ -228,7 +313,10 @@ public class MythenProcessedDataset {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((lines == null) ? 0 : lines.hashCode());
+		result = prime * result + Arrays.hashCode(angles);
+		result = prime * result + Arrays.hashCode(counts);
+		result = prime * result + Arrays.hashCode(errors);
+		result = prime * result + Arrays.hashCode(channels);
 		return result;
 	}
 
@@ -241,12 +329,23 @@ public class MythenProcessedDataset {
 		if (getClass() != obj.getClass())
 			return false;
 		MythenProcessedDataset other = (MythenProcessedDataset) obj;
-		if (lines == null) {
-			if (other.lines != null)
-				return false;
-		} else if (!lines.equals(other.lines))
-			return false;
-		return true;
+		return Arrays.equals(angles, other.angles)
+				&& Arrays.equals(counts, other.counts)
+				&& Arrays.equals(errors, other.errors)
+				&& Arrays.equals(channels, other.channels);
+	}
+
+	private class LinesView extends AbstractList<MythenProcessedData> implements RandomAccess {
+
+		@Override
+		public MythenProcessedData get(int index) {
+			return new MythenProcessedData(angles[index], counts[index], errors[index], channels[index]);
+		}
+
+		@Override
+		public int size() {
+			return angles.length;
+		}
 	}
 
 }
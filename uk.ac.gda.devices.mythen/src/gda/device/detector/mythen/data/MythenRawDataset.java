@@ -18,96 +18,177 @@
 
 package gda.device.detector.mythen.data;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Vector;
+import java.util.RandomAccess;
 
 /**
  * Holds data from a Mythen {@code .raw} file.
+ * <p>
+ * The data is stored as two parallel {@code int} arrays (channel numbers and counts) rather than as one object per
+ * channel; {@link #getLines()} provides a line-oriented view of the same data for existing callers.
  */
 public class MythenRawDataset {
-	private List<MythenRawData> lines;
+
+	private static final int[] EMPTY = new int[0];
+
+	private int[] channels = EMPTY;
+
+	private int[] counts = EMPTY;
 
 	public MythenRawDataset() {
 	}
 
 	/**
-	 * Loads the specified Mythen {@code .raw} file.
-	 * 
+	 * Creates a dataset backed by the given arrays. The arrays are not copied.
+	 *
+	 * @param channels
+	 *            the channel numbers
+	 * @param counts
+	 *            the channel counts; must be the same length as {@code channels}
+	 */
+	public MythenRawDataset(int[] channels, int[] counts) {
+		setData(channels, counts);
+	}
+
+	/**
+	 * Loads the specified Mythen {@code .raw} file. Raw files are normally read once, to be processed, so they are read
+	 * directly rather than through the {@link MythenDataCache}.
+	 *
 	 * @param file
 	 *            the file to load
 	 */
 	public MythenRawDataset(File file) {
-		lines = readRawMythenFile(file);
-	}
-
-	private List<MythenRawData> readRawMythenFile(File file) {
-		Vector<MythenRawData> lines = new Vector<MythenRawData>();
-		try (BufferedReader br = new BufferedReader(new InputStreamReader(new FileInputStream(file)))){
-			String line = null;
-			while ((line = br.readLine()) != null) {
-				String[] tokens = line.split(" ");
-				final int channel = Integer.parseInt(tokens[0]);
-				final int count = Integer.parseInt(tokens[1]);
-				MythenRawData rawLine = new MythenRawData(channel, count);
-				lines.add(rawLine);
-			}
+		readRawMythenFile(file);
+	}
+
+	/**
+	 * Creates a dataset from a frame of counts, numbering the channels from zero. The counts array is not copied.
+	 *
+	 * @param counts
+	 *            the channel counts
+	 * @return the dataset
+	 */
+	public static MythenRawDataset fromCounts(int[] counts) {
+		int[] channels = new int[counts.length];
+		for (int i = 0; i < channels.length; i++) {
+			channels[i] = i;
+		}
+		return new MythenRawDataset(channels, counts);
+	}
+
+	private void readRawMythenFile(File file) {
+		try {
+			MythenRawDataset data = MythenRawFileReader.forCurrentThread().read(file);
+			setData(data.channels, data.counts);
 		} catch (IOException e) {
 			throw new RuntimeException("Couldn't read Mythen data file " + file, e);
 		}
+	}
 
-		return lines;
+	private void setData(int[] channels, int[] counts) {
+		if (channels.length != counts.length) {
+			throw new IllegalArgumentException(String.format("Channel and count arrays differ in length (%d != %d)",
+					channels.length, counts.length));
+		}
+		this.channels = channels;
+		this.counts = counts;
 	}
 
 	public void setLines(List<MythenRawData> lines) {
-		this.lines = lines;
+		int[] channels = new int[lines.size()];
+		int[] counts = new int[lines.size()];
+		int i = 0;
+		for (MythenRawData line : lines) {
+			channels[i] = line.getChannel();
+			counts[i] = line.getCount();
+			i++;
+		}
+		setData(channels, counts);
 	}
 
 	/**
-	 * Returns the lines in this file.
-	 * 
+	 * Returns the lines in this file. The returned list is an unmodifiable view; a {@link MythenRawData} object is
+	 * created for a line only when it is requested.
+	 *
 	 * @return the lines
 	 */
 	public List<MythenRawData> getLines() {
-		return Collections.unmodifiableList(lines);
+		return new LinesView();
+	}
+
+	/**
+	 * Returns the number of channels in this dataset.
+	 *
+	 * @return the number of channels
+	 */
+	public int size() {
+		return counts.length;
+	}
+
+	/**
+	 * Returns the array of channel numbers backing this dataset. The array is not copied and must not be modified.
+	 *
+	 * @return the channel numbers
+	 */
+	public int[] getChannels() {
+		return channels;
+	}
+
+	/**
+	 * Returns the array of counts backing this dataset. The array is not copied and must not be modified.
+	 *
+	 * @return the counts
+	 */
+	public int[] getCounts() {
+		return counts;
 	}
 
 	/**
 	 * Returns a {@code double} array of the channels in this dataset.
-	 * 
+	 *
 	 * @return array of counts
 	 */
 	public double[] getChannelArray() {
-		double[] data = new double[lines.size()];
-		int i = 0;
-		for (MythenRawData line : lines) {
-			data[i++] = line.getChannel();
-		}
-		return data;
+		return toDoubles(channels);
 	}
 
 	/**
 	 * Returns a {@code double} array of the counts in this dataset.
-	 * 
+	 *
 	 * @return array of counts
 	 */
 	public double[] getCountArray() {
-		double[] data = new double[lines.size()];
-		int i = 0;
-		for (MythenRawData line : lines) {
-			data[i++] = line.getCount();
+		return toDoubles(counts);
+	}
+
+	private static double[] toDoubles(int[] values) {
+		double[] data = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			data[i] = values[i];
 		}
 		return data;
 	}
 
 	@Override
 	public String toString() {
-		final int numLines = lines.size();
+		final int numLines = counts.length;
 		return getClass().getSimpleName() + "[" + numLines + " line" + (numLines == 1 ? "" : "s") + "]";
 	}
+
+	private class LinesView extends AbstractList<MythenRawData> implements RandomAccess {
+
+		@Override
+		public MythenRawData get(int index) {
+			return new MythenRawData(channels[index], counts[index]);
+		}
+
+		@Override
+		public int size() {
+			return counts.length;
+		}
+	}
 }
@@ -0,0 +1,198 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Reads Mythen {@code .raw} files, which contain one {@code channel count} pair of ASCII integers per line.
+ * Files in the {@link MythenBinaryRawFile binary format} are recognised by their header and memory-mapped instead.
+ * <p>
+ * The file is read into a {@link ByteBuffer} that is reused between calls, and the integers are decoded directly
+ * from the bytes, so no {@code String}s are created while parsing. Columns may be separated by spaces or tabs, lines
+ * may end with {@code \n} or {@code \r\n}, and blank lines and lines starting with {@code #} are ignored.
+ * <p>
+ * Instances are not thread-safe; use {@link #forCurrentThread()} to obtain a reader for the calling thread.
+ */
+public class MythenRawFileReader {
+
+	private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+	private static final int INITIAL_CHANNELS = 1280;
+
+	private static final ThreadLocal<MythenRawFileReader> READERS = new ThreadLocal<MythenRawFileReader>() {
+		@Override
+		protected MythenRawFileReader initialValue() {
+			return new MythenRawFileReader();
+		}
+	};
+
+	private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+	private int[] channels = new int[INITIAL_CHANNELS];
+
+	private int[] counts = new int[INITIAL_CHANNELS];
+
+	private int size;
+
+	/** Position just after the last integer decoded by {@link #parseInt}. */
+	private int end;
+
+	/**
+	 * Returns a reader owned by the calling thread.
+	 *
+	 * @return the reader
+	 */
+	public static MythenRawFileReader forCurrentThread() {
+		return READERS.get();
+	}
+
+	/**
+	 * Reads the specified file into a new {@link MythenRawDataset}.
+	 *
+	 * @param file
+	 *            the file to read
+	 * @return the data in the file
+	 */
+	public MythenRawDataset read(File file) throws IOException {
+		try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+			if (isBinary(channel)) {
+				return MythenBinaryRawFile.read(channel, file).toDataset();
+			}
+			readFile(channel, file);
+		}
+		parse(buffer.array(), buffer.limit());
+		return new MythenRawDataset(Arrays.copyOf(channels, size), Arrays.copyOf(counts, size));
+	}
+
+	private boolean isBinary(FileChannel channel) throws IOException {
+		buffer.clear();
+		buffer.limit(MythenBinaryRawFile.HEADER_SIZE);
+		while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+			// keep reading until the header is filled or the file ends
+		}
+		buffer.flip();
+		channel.position(0);
+		return MythenBinaryRawFile.hasMagic(buffer);
+	}
+
+	private void readFile(FileChannel channel, File file) throws IOException {
+		final long length = channel.size();
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("Mythen raw file " + file + " is too large (" + length + " bytes)");
+		}
+		if (buffer.capacity() < length) {
+			buffer = ByteBuffer.allocate(Math.max((int) length, 2 * buffer.capacity()));
+		}
+		buffer.clear();
+		buffer.limit((int) length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				break;
+			}
+		}
+		buffer.flip();
+	}
+
+	private void parse(byte[] bytes, int length) throws IOException {
+		size = 0;
+		int pos = 0;
+		int lineNumber = 1;
+		while (pos < length) {
+			// Skip leading whitespace, blank lines and comments
+			byte b = bytes[pos];
+			if (b == ' ' || b == '\t' || b == '\r') {
+				pos++;
+				continue;
+			}
+			if (b == '\n') {
+				pos++;
+				lineNumber++;
+				continue;
+			}
+			if (b == '#') {
+				while (pos < length && bytes[pos] != '\n') {
+					pos++;
+				}
+				continue;
+			}
+
+			final long channel = parseInt(bytes, pos, length, lineNumber);
+			pos = skipSeparators(bytes, end, length);
+			final long count = parseInt(bytes, pos, length, lineNumber);
+			pos = skipSeparators(bytes, end, length);
+			if (pos < length && bytes[pos] != '\n') {
+				throw new IOException("Unexpected content after count on line " + lineNumber);
+			}
+
+			if (size == counts.length) {
+				channels = Arrays.copyOf(channels, size * 2);
+				counts = Arrays.copyOf(counts, size * 2);
+			}
+			channels[size] = (int) channel;
+			counts[size] = (int) count;
+			size++;
+		}
+	}
+
+	private long parseInt(byte[] bytes, int pos, int length, int lineNumber) throws IOException {
+		boolean negative = false;
+		if (pos < length && (bytes[pos] == '-' || bytes[pos] == '+')) {
+			negative = bytes[pos] == '-';
+			pos++;
+		}
+		final int start = pos;
+		long value = 0;
+		while (pos < length) {
+			final int digit = bytes[pos] - '0';
+			if (digit < 0 || digit > 9) {
+				break;
+			}
+			value = value * 10 + digit;
+			if (value > Integer.MAX_VALUE + 1L) {
+				throw new IOException("Integer out of range on line " + lineNumber);
+			}
+			pos++;
+		}
+		if (pos == start) {
+			throw new IOException("Expected an integer on line " + lineNumber);
+		}
+		if (negative) {
+			value = -value;
+		}
+		if (value > Integer.MAX_VALUE) {
+			throw new IOException("Integer out of range on line " + lineNumber);
+		}
+		end = pos;
+		return value;
+	}
+
+	private static int skipSeparators(byte[] bytes, int pos, int length) {
+		while (pos < length && (bytes[pos] == ' ' || bytes[pos] == '\t' || bytes[pos] == '\r')) {
+			pos++;
+		}
+		return pos;
+	}
+
+}
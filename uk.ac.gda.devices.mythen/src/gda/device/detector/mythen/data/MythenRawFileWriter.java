@@ -0,0 +1,158 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes Mythen raw frames in either of the {@link RawFileFormat}s.
+ * <p>
+ * ASCII output is identical to that produced with {@code printf("%d %d\n", channel, count)}, but the integers are
+ * formatted directly into a byte buffer. Binary output requires a full frame, i.e. channels numbered consecutively
+ * from zero.
+ */
+public class MythenRawFileWriter {
+
+	/** Default bit depth of binary frames; the Mythen counters are 24 bits wide. */
+	public static final int DEFAULT_BIT_DEPTH = 24;
+
+	/** Longest ASCII line: two signed 32-bit integers, a space and a newline. */
+	private static final int MAX_LINE_LENGTH = 2 * 11 + 2;
+
+	private final RawFileFormat format;
+
+	private int bitDepth = DEFAULT_BIT_DEPTH;
+
+	private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+	/**
+	 * Creates a writer for the given format.
+	 *
+	 * @param format
+	 *            the format in which frames will be written
+	 */
+	public MythenRawFileWriter(RawFileFormat format) {
+		this.format = format;
+	}
+
+	public RawFileFormat getFormat() {
+		return format;
+	}
+
+	/**
+	 * Sets the number of bits used to store each count in binary frames.
+	 *
+	 * @param bitDepth
+	 *            the bit depth (1-32)
+	 */
+	public void setBitDepth(int bitDepth) {
+		this.bitDepth = bitDepth;
+	}
+
+	public int getBitDepth() {
+		return bitDepth;
+	}
+
+	/**
+	 * Writes a raw frame to the specified file.
+	 *
+	 * @param file
+	 *            the file to write
+	 * @param data
+	 *            the raw frame
+	 * @param delta
+	 *            the detector position at which the frame was collected; only stored in binary frames
+	 */
+	public synchronized void write(File file, MythenRawDataset data, double delta) throws IOException {
+		if (format == RawFileFormat.BINARY) {
+			writeBinary(file, data, delta);
+		} else {
+			writeAscii(file, data);
+		}
+	}
+
+	private void writeBinary(File file, MythenRawDataset data, double delta) throws IOException {
+		final int[] channels = data.getChannels();
+		for (int i = 0; i < channels.length; i++) {
+			if (channels[i] != i) {
+				throw new IllegalArgumentException("Binary raw frames must contain every channel in order (channel "
+						+ channels[i] + " found at index " + i + ")");
+			}
+		}
+		final int channelsPerModule = SplitCalibrationFilesBase.CHANNELSPERMODULE;
+		final int moduleCount = (channels.length + channelsPerModule - 1) / channelsPerModule;
+		new MythenBinaryRawFile(moduleCount, bitDepth, System.currentTimeMillis(), delta, data.getCounts()).write(file);
+	}
+
+	private void writeAscii(File file, MythenRawDataset data) throws IOException {
+		final int[] channels = data.getChannels();
+		final int[] counts = data.getCounts();
+		final int required = channels.length * MAX_LINE_LENGTH;
+		if (buffer.capacity() < required) {
+			buffer = ByteBuffer.allocate(required);
+		}
+		final byte[] bytes = buffer.array();
+		int pos = 0;
+		for (int i = 0; i < channels.length; i++) {
+			pos = appendInt(bytes, pos, channels[i]);
+			bytes[pos++] = ' ';
+			pos = appendInt(bytes, pos, counts[i]);
+			bytes[pos++] = '\n';
+		}
+		buffer.clear();
+		buffer.limit(pos);
+		try (FileOutputStream out = new FileOutputStream(file); FileChannel channel = out.getChannel()) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Appends the decimal representation of {@code value} to {@code bytes} at {@code pos}.
+	 *
+	 * @return the position after the last character written
+	 */
+	static int appendInt(byte[] bytes, int pos, int value) {
+		long v = value;
+		if (v < 0) {
+			bytes[pos++] = '-';
+			v = -v;
+		}
+		if (v == 0) {
+			bytes[pos++] = '0';
+			return pos;
+		}
+		int digits = 0;
+		for (long t = v; t != 0; t /= 10) {
+			digits++;
+		}
+		int end = pos + digits;
+		for (int i = end - 1; i >= pos; i--) {
+			bytes[i] = (byte) ('0' + v % 10);
+			v /= 10;
+		}
+		return end;
+	}
+
+}
@@ -0,0 +1,176 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import java.util.stream.IntStream;
+
+/**
+ * Rebins Mythen datasets onto a common grid of angle bins whose width is the bin size.
+ * <p>
+ * The binned counts are written into one flat array (see {@link BinnedMythenData}). Each dataset is binned
+ * independently, so large inputs are binned in parallel, one dataset per task.
+ */
+public final class MythenRebinner {
+
+	/**
+	 * How the counts falling into a bin are combined.
+	 */
+	public enum Mode {
+
+		/** The total of the counts in the bin. */
+		SUM,
+
+		/** The mean of the counts in the bin. */
+		MEAN,
+
+		/** The largest count in the bin. */
+		MAX,
+
+		/**
+		 * Each channel is treated as covering an interval of angles centred on its angle, as wide as the gap to its
+		 * nearest neighbour, and its count is shared between the bins that interval overlaps in proportion to the
+		 * overlap. The total count of each dataset is preserved.
+		 */
+		OVERLAP
+	}
+
+	/** Smallest number of data points that are binned in parallel. */
+	static final int PARALLEL_THRESHOLD = 100000;
+
+	private MythenRebinner() {
+		// prevent instantiation
+	}
+
+	/**
+	 * Rebins the specified datasets. Bins that no data falls into have a count of zero.
+	 *
+	 * @param input
+	 *            the data to bin - each element should be an array of (angle, count, ...) arrays
+	 * @param binSize
+	 *            the width of each bin
+	 * @param mode
+	 *            how the counts in each bin are combined
+	 * @return the binned data
+	 */
+	public static BinnedMythenData bin(final double[][][] input, final double binSize, final Mode mode) {
+		if (!(binSize > 0)) {
+			throw new IllegalArgumentException("Bin size must be positive (" + binSize + ")");
+		}
+
+		// Find the range of angles covered by the data
+		double minAngle = Double.POSITIVE_INFINITY;
+		double maxAngle = Double.NEGATIVE_INFINITY;
+		long numPoints = 0;
+		for (double[][] dataset : input) {
+			for (int i = 0; i < dataset.length; i++) {
+				final double angle = dataset[i][0];
+				final double halfWidth = (mode == Mode.OVERLAP) ? halfWidth(dataset, i) : 0;
+				minAngle = Math.min(minAngle, angle - halfWidth);
+				maxAngle = Math.max(maxAngle, angle + halfWidth);
+			}
+			numPoints += dataset.length;
+		}
+		if (numPoints == 0) {
+			return new BinnedMythenData(binSize, 0, 0, input.length, new double[0]);
+		}
+
+		final int firstBin = (int) Math.floor(minAngle / binSize);
+		final int numBins = (int) Math.floor(maxAngle / binSize) - firstBin + 1;
+		final double[] counts = new double[input.length * numBins];
+		if (numPoints >= PARALLEL_THRESHOLD && input.length > 1) {
+			IntStream.range(0, input.length).parallel().forEach(d -> binDataset(input[d], binSize, mode, firstBin, numBins, counts, d * numBins));
+		} else {
+			for (int d = 0; d < input.length; d++) {
+				binDataset(input[d], binSize, mode, firstBin, numBins, counts, d * numBins);
+			}
+		}
+		return new BinnedMythenData(binSize, firstBin, numBins, input.length, counts);
+	}
+
+	private static void binDataset(double[][] dataset, double binSize, Mode mode, int firstBin, int numBins, double[] counts, int offset) {
+		if (mode == Mode.OVERLAP) {
+			binOverlaps(dataset, binSize, firstBin, counts, offset);
+			return;
+		}
+		final int[] contributors = (mode == Mode.SUM) ? null : new int[numBins];
+		for (double[] channel : dataset) {
+			final int bin = (int) Math.floor(channel[0] / binSize) - firstBin;
+			final double count = channel[1];
+			switch (mode) {
+			case SUM:
+				counts[offset + bin] += count;
+				break;
+			case MEAN:
+				counts[offset + bin] += count;
+				contributors[bin]++;
+				break;
+			case MAX:
+				counts[offset + bin] = (contributors[bin]++ == 0) ? count : Math.max(counts[offset + bin], count);
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported binning mode " + mode);
+			}
+		}
+		if (mode == Mode.MEAN) {
+			for (int b = 0; b < numBins; b++) {
+				if (contributors[b] > 1) {
+					counts[offset + b] /= contributors[b];
+				}
+			}
+		}
+	}
+
+	private static void binOverlaps(double[][] dataset, double binSize, int firstBin, double[] counts, int offset) {
+		for (int i = 0; i < dataset.length; i++) {
+			final double angle = dataset[i][0];
+			final double count = dataset[i][1];
+			final double halfWidth = halfWidth(dataset, i);
+			if (halfWidth == 0) {
+				counts[offset + (int) Math.floor(angle / binSize) - firstBin] += count;
+				continue;
+			}
+			final double lower = angle - halfWidth;
+			final double upper = angle + halfWidth;
+			final int lastBin = (int) Math.floor(upper / binSize);
+			for (int bin = (int) Math.floor(lower / binSize); bin <= lastBin; bin++) {
+				final double overlap = Math.min(upper, (bin + 1) * binSize) - Math.max(lower, bin * binSize);
+				if (overlap > 0) {
+					counts[offset + bin - firstBin] += count * overlap / (2 * halfWidth);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns half the width of the interval covered by a channel: half the distance to its nearest neighbour, so
+	 * that neighbouring intervals never overlap and gaps between modules are not bridged.
+	 */
+	private static double halfWidth(double[][] dataset, int i) {
+		double width = Double.POSITIVE_INFINITY;
+		if (i > 0) {
+			width = Math.abs(dataset[i][0] - dataset[i - 1][0]);
+		}
+		if (i < dataset.length - 1) {
+			width = Math.min(width, Math.abs(dataset[i + 1][0] - dataset[i][0]));
+		}
+		return (width == Double.POSITIVE_INFINITY) ? 0 : width / 2;
+	}
+
+}
@@ -0,0 +1,213 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+import gda.device.detector.mythen.data.MythenSum.ModuleBoundary;
+
+/**
+ * Sums Mythen datasets as they are collected, rather than all at once at the end of a scan.
+ * <p>
+ * Each dataset passed to {@link #add} is interpolated onto the angle grid and added into accumulators that are kept
+ * in memory; the grid grows as datasets covering new angles arrive. {@link #getSum()} can be called at any time to
+ * obtain the sum of the datasets added so far, and gives the same result as {@link MythenSum#sumSerially} would for those
+ * datasets.
+ * <p>
+ * The sum must be {@link #start started} before datasets are added. Instances are thread-safe.
+ */
+public class MythenRunningSum {
+
+	/** Number of extra grid points allocated when the grid has to grow. */
+	private static final int MIN_GROWTH = 1024;
+
+	private double step = 0.004;
+
+	/** The step used for the data summed since the sum was last started. */
+	private double gridStep = step;
+
+	private ModuleBoundary[] boundaries;
+
+	private final ChannelKernels kernels = ChannelKernels.getDefault();
+
+	/** Accumulated counts; element {@code i} is for grid index {@code firstGridIndex + i}. */
+	private double[] sums = new double[0];
+
+	/** Number of counts added into each element of {@link #sums}. */
+	private int[] contributors = new int[0];
+
+	private int firstGridIndex;
+
+	/** Interpolated counts for each module of the dataset being added. */
+	private double[][] runs = new double[0][];
+
+	private int numDatasets;
+
+	/**
+	 * Sets the angle step to use when summing the data. The new step is used from the next time the sum is
+	 * {@link #start started}.
+	 */
+	public synchronized void setStep(double step) {
+		this.step = step;
+	}
+
+	public synchronized double getStep() {
+		return step;
+	}
+
+	/**
+	 * Returns the angle step of the data summed since the sum was last started.
+	 */
+	public synchronized double getGridStep() {
+		return gridStep;
+	}
+
+	/**
+	 * Discards any data summed so far and prepares to sum data from a detector with the specified modules.
+	 *
+	 * @param numModules number of modules in the detector
+	 * @param badChannels bad channel provider
+	 */
+	public synchronized void start(int numModules, BadChannelProvider badChannels) {
+		boundaries = MythenSum.determineModuleBoundaries(numModules, badChannels);
+		runs = new double[numModules][0];
+		gridStep = step;
+		clear();
+	}
+
+	/**
+	 * Discards any data summed so far.
+	 */
+	public synchronized void clear() {
+		sums = new double[0];
+		contributors = new int[0];
+		firstGridIndex = 0;
+		numDatasets = 0;
+	}
+
+	/**
+	 * Returns {@code true} if this sum has been {@link #start started}.
+	 */
+	public synchronized boolean isStarted() {
+		return boundaries != null;
+	}
+
+	/**
+	 * Returns the number of datasets added since the sum was started or cleared.
+	 */
+	public synchronized int getNumberOfDatasets() {
+		return numDatasets;
+	}
+
+	/**
+	 * Adds the specified dataset to the sum.
+	 *
+	 * @param dataset the processed data
+	 */
+	public void add(MythenProcessedDataset dataset) {
+		add(dataset.toDoubleArray());
+	}
+
+	/**
+	 * Adds the specified dataset to the sum. If the dataset cannot be interpolated onto the grid the exception is
+	 * thrown before anything is added, so the sum is left unchanged.
+	 *
+	 * @param dataset the data to add - an array of (angle, count, error) arrays
+	 */
+	public synchronized void add(double[][] dataset) {
+		if (boundaries == null) {
+			throw new IllegalStateException("The running sum has not been started");
+		}
+		final int numModules = boundaries.length;
+
+		// Find the grid points covered by each module
+		final int[] minIndices = new int[numModules];
+		final int[] maxIndices = new int[numModules];
+		int datasetMin = Integer.MAX_VALUE;
+		int datasetMax = Integer.MIN_VALUE;
+		boolean covered = false;
+		for (int m=0; m<numModules; m++) {
+			final int[] minAndMaxIndices = MythenSum.findMinMaxIndices(dataset[boundaries[m].first][0], dataset[boundaries[m].last][0], gridStep);
+			minIndices[m] = minAndMaxIndices[0];
+			maxIndices[m] = minAndMaxIndices[1];
+			if (minIndices[m] <= maxIndices[m]) {
+				datasetMin = Math.min(datasetMin, minIndices[m]);
+				datasetMax = Math.max(datasetMax, maxIndices[m]);
+				covered = true;
+			}
+		}
+
+		// Interpolate every module before touching the accumulators
+		final int[] runLengths = new int[numModules];
+		for (int m=0; m<numModules; m++) {
+			final int length = maxIndices[m] - minIndices[m] + 1;
+			if (runs[m].length < length) {
+				runs[m] = new double[length];
+			}
+			runLengths[m] = MythenSum.interpolateModule(dataset, boundaries[m], minIndices[m], maxIndices[m], gridStep, runs[m]);
+		}
+
+		if (covered) {
+			ensureGridCovers(datasetMin, datasetMax);
+			for (int m=0; m<numModules; m++) {
+				if (runLengths[m] > 0) {
+					kernels.accumulate(sums, contributors, minIndices[m] - firstGridIndex, runs[m], runLengths[m]);
+				}
+			}
+		}
+		numDatasets++;
+	}
+
+	/**
+	 * Grows the accumulators, if necessary, so that they cover the grid indices {@code minIndex} to {@code maxIndex}.
+	 * Extra space is added on the side that grew, so that a scan moving steadily in one direction does not copy the
+	 * accumulators at every point.
+	 */
+	private void ensureGridCovers(int minIndex, int maxIndex) {
+		if (sums.length == 0) {
+			sums = new double[maxIndex - minIndex + 1];
+			contributors = new int[sums.length];
+			firstGridIndex = minIndex;
+			return;
+		}
+		final int end = firstGridIndex + sums.length;
+		if (minIndex >= firstGridIndex && maxIndex < end) {
+			return;
+		}
+		final int growth = Math.max(MIN_GROWTH, sums.length / 2);
+		final int newFirst = (minIndex < firstGridIndex) ? minIndex - growth : firstGridIndex;
+		final int newEnd = (maxIndex >= end) ? maxIndex + 1 + growth : end;
+		final double[] newSums = new double[newEnd - newFirst];
+		final int[] newContributors = new int[newSums.length];
+		System.arraycopy(sums, 0, newSums, firstGridIndex - newFirst, sums.length);
+		System.arraycopy(contributors, 0, newContributors, firstGridIndex - newFirst, contributors.length);
+		sums = newSums;
+		contributors = newContributors;
+		firstGridIndex = newFirst;
+	}
+
+	/**
+	 * Returns the sum of the datasets added so far.
+	 *
+	 * @return summed data - array of (angle, count, error) arrays
+	 */
+	public synchronized double[][] getSum() {
+		return MythenSum.combineData(sums, contributors, firstGridIndex, gridStep);
+	}
+
+}
@@ -0,0 +1,346 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import static gda.device.detector.mythen.data.MythenScanFileWriter.FILE_HEADER_SIZE;
+import static gda.device.detector.mythen.data.MythenScanFileWriter.FILE_MAGIC;
+import static gda.device.detector.mythen.data.MythenScanFileWriter.FRAME_HEADER_SIZE;
+import static gda.device.detector.mythen.data.MythenScanFileWriter.FRAME_MAGIC;
+import static gda.device.detector.mythen.data.MythenScanFileWriter.INDEX_MAGIC;
+import static gda.device.detector.mythen.data.MythenScanFileWriter.TRAILER_SIZE;
+import static gda.device.detector.mythen.data.MythenScanFileWriter.VERSION;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads frames from a Mythen scan file written by {@link MythenScanFileWriter}.
+ * <p>
+ * The frame index is loaded when the file is opened, after which any frame can be read with a single positioned read.
+ * If the file has no index because the writer was not closed, the index is rebuilt from the frame records and any
+ * incomplete final frame is ignored.
+ */
+public class MythenScanFileReader implements Closeable {
+
+	private final File file;
+
+	private final FileInputStream in;
+
+	private final FileChannel channel;
+
+	private final long[] frameOffsets;
+
+	private final ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+	/**
+	 * Opens the specified scan file.
+	 *
+	 * @param file
+	 *            the file to open
+	 */
+	public MythenScanFileReader(File file) throws IOException {
+		this.file = file;
+		in = new FileInputStream(file);
+		channel = in.getChannel();
+		try {
+			ByteBuffer header = read(0, FILE_HEADER_SIZE);
+			if (!startsWith(header, FILE_MAGIC)) {
+				throw new IOException(file + " is not a Mythen scan file");
+			}
+			final short version = header.getShort(FILE_MAGIC.length);
+			if (version != VERSION) {
+				throw new IOException("Unsupported Mythen scan file version " + version + " in " + file);
+			}
+			long[] offsets = readIndex();
+			frameOffsets = (offsets != null) ? offsets : rebuildIndex();
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns {@code true} if the specified file starts with the Mythen scan file magic bytes.
+	 *
+	 * @param file
+	 *            the file to check
+	 * @return whether the file is a scan file
+	 */
+	public static boolean isScanFile(File file) {
+		if (!file.isFile() || file.length() < FILE_HEADER_SIZE) {
+			return false;
+		}
+		try (FileInputStream stream = new FileInputStream(file)) {
+			byte[] magic = new byte[FILE_MAGIC.length];
+			return stream.read(magic) == magic.length && Arrays.equals(magic, FILE_MAGIC);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	public int getNumberOfFrames() {
+		return frameOffsets.length;
+	}
+
+	/**
+	 * Reads the specified frame.
+	 *
+	 * @param frame
+	 *            the frame index, starting from zero
+	 * @return the frame
+	 */
+	public synchronized MythenScanFrame readFrame(int frame) throws IOException {
+		if (frame < 0 || frame >= frameOffsets.length) {
+			throw new IndexOutOfBoundsException("Frame " + frame + " requested but " + file + " contains " + frameOffsets.length + " frames");
+		}
+		final long offset = frameOffsets[frame];
+		frameHeader.clear();
+		readFully(frameHeader, offset);
+		frameHeader.flip();
+		if (!startsWith(frameHeader, FRAME_MAGIC)) {
+			throw new IOException("Corrupt frame " + frame + " in Mythen scan file " + file);
+		}
+		final int compression = frameHeader.get(4);
+		final int rawChannels = frameHeader.getInt(8);
+		final int points = frameHeader.getInt(12);
+		final long timestamp = frameHeader.getLong(16);
+		final double delta = frameHeader.getDouble(24);
+		final int storedLength = frameHeader.getInt(32);
+		final int payloadLength = frameHeader.getInt(36);
+
+		ByteBuffer payload = read(offset + FRAME_HEADER_SIZE, storedLength);
+		if (compression == ScanFileCompression.DEFLATE.ordinal()) {
+			payload = inflate(payload, payloadLength, frame);
+		} else if (compression != ScanFileCompression.NONE.ordinal()) {
+			throw new IOException("Unknown compression " + compression + " for frame " + frame + " in " + file);
+		}
+
+		int[] rawCounts = new int[rawChannels];
+		payload.asIntBuffer().get(rawCounts);
+		payload.position(4 * rawChannels);
+		double[] angles = new double[points];
+		payload.asDoubleBuffer().get(angles);
+		payload.position(payload.position() + 8 * points);
+		int[] counts = new int[points];
+		payload.asIntBuffer().get(counts);
+		payload.position(payload.position() + 4 * points);
+		int[] errors = new int[points];
+		payload.asIntBuffer().get(errors);
+		payload.position(payload.position() + 4 * points);
+		int[] channels = new int[points];
+		payload.asIntBuffer().get(channels);
+
+		return new MythenScanFrame(timestamp, delta, MythenRawDataset.fromCounts(rawCounts),
+				new MythenProcessedDataset(angles, counts, errors, channels));
+	}
+
+	/**
+	 * Reads the processed data of one frame as rows of (angle, count, error) or, if {@code width} is 4, (angle,
+	 * count, error, channel).
+	 *
+	 * @param frame
+	 *            the frame index, starting from zero
+	 * @param width
+	 *            the number of values in each row
+	 * @return 2D double array of data
+	 */
+	public double[][] readProcessedRows(int frame, int width) throws IOException {
+		MythenProcessedDataset processed = readFrame(frame).getProcessedData();
+		double[][] rows = new double[processed.size()][];
+		for (int i = 0; i < rows.length; i++) {
+			double[] row = new double[width];
+			row[0] = processed.getAngle(i);
+			row[1] = processed.getCount(i);
+			row[2] = processed.getError(i);
+			if (width > 3) {
+				row[3] = processed.getChannel(i);
+			}
+			rows[i] = row;
+		}
+		return rows;
+	}
+
+	/**
+	 * Reads the processed data of every frame as (angle, count, error) rows, in the same form as
+	 * {@link MythenDataFileUtils#readMythenProcessedDataFiles(String[])}.
+	 *
+	 * @return 3D double array of data
+	 */
+	public double[][][] readAllProcessedData() throws IOException {
+		double[][][] data = new double[frameOffsets.length][][];
+		for (int frame = 0; frame < data.length; frame++) {
+			data[frame] = readProcessedRows(frame, 3);
+		}
+		return data;
+	}
+
+	/**
+	 * Returns a name that refers to one frame of a scan file, of the form {@code <path>#<frame>}. Such names can be
+	 * passed to {@link MythenDataFileUtils#readMythenProcessedDataFile(String, boolean)} and to plotting tasks in place
+	 * of a {@code .dat} filename.
+	 *
+	 * @param file
+	 *            the scan file
+	 * @param frame
+	 *            the frame index, starting from zero
+	 * @return the frame reference
+	 */
+	public static String frameReference(File file, int frame) {
+		return file.getAbsolutePath() + "#" + frame;
+	}
+
+	/**
+	 * Returns the frame number from a reference created by {@link #frameReference(File, int)}, or -1 if the name is
+	 * not a reference to a frame in an existing scan file.
+	 *
+	 * @param name
+	 *            the name to check
+	 * @return the frame number, or -1
+	 */
+	public static int parseFrameReference(String name) {
+		final int hash = name.lastIndexOf('#');
+		if (hash <= 0 || hash == name.length() - 1) {
+			return -1;
+		}
+		for (int i = hash + 1; i < name.length(); i++) {
+			if (!Character.isDigit(name.charAt(i))) {
+				return -1;
+			}
+		}
+		if (!isScanFile(new File(name.substring(0, hash)))) {
+			return -1;
+		}
+		return Integer.parseInt(name.substring(hash + 1));
+	}
+
+	private long[] readIndex() throws IOException {
+		final long size = channel.size();
+		if (size < FILE_HEADER_SIZE + TRAILER_SIZE) {
+			return null;
+		}
+		ByteBuffer trailer = read(size - TRAILER_SIZE, TRAILER_SIZE);
+		for (int i = 0; i < INDEX_MAGIC.length; i++) {
+			if (trailer.get(12 + i) != INDEX_MAGIC[i]) {
+				return null;
+			}
+		}
+		final long indexOffset = trailer.getLong(0);
+		final int numberOfFrames = trailer.getInt(8);
+		if (numberOfFrames < 0 || indexOffset + 8L * numberOfFrames + TRAILER_SIZE != size) {
+			return null;
+		}
+		ByteBuffer index = read(indexOffset, 8 * numberOfFrames);
+		long[] offsets = new long[numberOfFrames];
+		index.asLongBuffer().get(offsets);
+		return offsets;
+	}
+
+	private long[] rebuildIndex() throws IOException {
+		final long size = channel.size();
+		long[] offsets = new long[64];
+		int numberOfFrames = 0;
+		long offset = FILE_HEADER_SIZE;
+		while (offset + FRAME_HEADER_SIZE <= size) {
+			frameHeader.clear();
+			readFully(frameHeader, offset);
+			frameHeader.flip();
+			if (!startsWith(frameHeader, FRAME_MAGIC)) {
+				break;
+			}
+			final long next = offset + FRAME_HEADER_SIZE + frameHeader.getInt(32);
+			if (next > size) {
+				break;
+			}
+			if (numberOfFrames == offsets.length) {
+				offsets = Arrays.copyOf(offsets, numberOfFrames * 2);
+			}
+			offsets[numberOfFrames++] = offset;
+			offset = next;
+		}
+		return Arrays.copyOf(offsets, numberOfFrames);
+	}
+
+	private ByteBuffer inflate(ByteBuffer stored, int payloadLength, int frame) throws IOException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(stored.array(), 0, stored.limit());
+			byte[] output = new byte[payloadLength];
+			int size = 0;
+			while (size < payloadLength && !inflater.finished()) {
+				final int n = inflater.inflate(output, size, payloadLength - size);
+				if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				size += n;
+			}
+			if (size != payloadLength) {
+				throw new IOException("Frame " + frame + " in " + file + " is truncated");
+			}
+			return ByteBuffer.wrap(output).order(ByteOrder.LITTLE_ENDIAN);
+		} catch (DataFormatException e) {
+			throw new IOException("Frame " + frame + " in " + file + " is corrupt", e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private ByteBuffer read(long offset, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(buffer, offset);
+		buffer.flip();
+		return buffer;
+	}
+
+	private void readFully(ByteBuffer buffer, long offset) throws IOException {
+		while (buffer.hasRemaining()) {
+			final int n = channel.read(buffer, offset);
+			if (n < 0) {
+				throw new IOException("Unexpected end of Mythen scan file " + file);
+			}
+			offset += n;
+		}
+	}
+
+	private static boolean startsWith(ByteBuffer buffer, byte[] magic) {
+		for (int i = 0; i < magic.length; i++) {
+			if (buffer.get(i) != magic[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+}
@@ -0,0 +1,248 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Writes every frame of a scan into a single append-only Mythen scan file ({@code .mythen}), instead of one
+ * {@code .raw} and one {@code .dat} file per frame.
+ * <p>
+ * All values are little-endian. The file consists of:
+ * <ul>
+ * <li>a 16-byte file header: magic bytes {@code "MYSC"}, a 2-byte format version, 2 reserved bytes and the creation
+ * time (8 bytes, milliseconds since the epoch);</li>
+ * <li>one record per frame: a 40-byte record header (magic {@code "MYFR"}, compression, 3 reserved bytes, number of
+ * raw channels, number of processed points, timestamp, delta, stored payload length and uncompressed payload length)
+ * followed by the payload - raw counts ({@code int}s), then the processed angles ({@code double}s), counts, errors and
+ * channels ({@code int}s), optionally compressed;</li>
+ * <li>written by {@link #close()}: an index holding the file offset of each frame record ({@code long}s), followed
+ * by a 16-byte trailer containing the offset of the index, the number of frames and the magic bytes
+ * {@code "MYSI"}.</li>
+ * </ul>
+ * The index gives {@link MythenScanFileReader} constant-time access to any frame. If the writer is never closed (for
+ * example because the server stopped mid-scan) the reader rebuilds the index by walking the frame records.
+ */
+public class MythenScanFileWriter implements Closeable {
+
+	/** Conventional extension for Mythen scan files. */
+	public static final String EXTENSION = "mythen";
+
+	static final byte[] FILE_MAGIC = { 'M', 'Y', 'S', 'C' };
+
+	static final byte[] FRAME_MAGIC = { 'M', 'Y', 'F', 'R' };
+
+	static final byte[] INDEX_MAGIC = { 'M', 'Y', 'S', 'I' };
+
+	static final short VERSION = 1;
+
+	static final int FILE_HEADER_SIZE = 16;
+
+	static final int FRAME_HEADER_SIZE = 40;
+
+	static final int TRAILER_SIZE = 16;
+
+	private final File file;
+
+	private final RandomAccessFile raf;
+
+	private final FileChannel channel;
+
+	private final ScanFileCompression compression;
+
+	private final Deflater deflater;
+
+	private ByteBuffer payload = ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+
+	private byte[] compressed = new byte[0];
+
+	private final ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+	private long[] frameOffsets = new long[64];
+
+	private int numberOfFrames;
+
+	private long position;
+
+	private boolean closed;
+
+	/**
+	 * Creates a new scan file, replacing any existing file.
+	 *
+	 * @param file
+	 *            the file to create
+	 * @param compression
+	 *            the compression to apply to each frame
+	 */
+	public MythenScanFileWriter(File file, ScanFileCompression compression) throws IOException {
+		this.file = file;
+		this.compression = compression;
+		this.deflater = (compression == ScanFileCompression.DEFLATE) ? new Deflater(Deflater.BEST_SPEED) : null;
+		raf = new RandomAccessFile(file, "rw");
+		raf.setLength(0);
+		channel = raf.getChannel();
+
+		ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.put(FILE_MAGIC);
+		header.putShort(VERSION);
+		header.putShort((short) 0);
+		header.putLong(System.currentTimeMillis());
+		header.flip();
+		write(header);
+	}
+
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Returns the number of frames appended so far.
+	 *
+	 * @return the number of frames
+	 */
+	public synchronized int getNumberOfFrames() {
+		return numberOfFrames;
+	}
+
+	/**
+	 * Appends a frame to the file.
+	 *
+	 * @param rawData
+	 *            the raw data for the frame, or {@code null} to store only the processed data
+	 * @param processedData
+	 *            the processed data for the frame
+	 * @param delta
+	 *            the detector position used to process the frame
+	 * @return the index of the new frame, starting from zero
+	 */
+	public synchronized int append(MythenRawDataset rawData, MythenProcessedDataset processedData, double delta) throws IOException {
+		if (closed) {
+			throw new IOException("Mythen scan file " + file + " has already been closed");
+		}
+		final int rawChannels = (rawData == null) ? 0 : rawData.size();
+		final int points = processedData.size();
+		final int payloadLength = 4 * rawChannels + 20 * points;
+		if (payload.capacity() < payloadLength) {
+			payload = ByteBuffer.allocate(payloadLength).order(ByteOrder.LITTLE_ENDIAN);
+		}
+		payload.clear();
+		if (rawData != null) {
+			payload.asIntBuffer().put(rawData.getCounts());
+			payload.position(4 * rawChannels);
+		}
+		for (int i = 0; i < points; i++) {
+			payload.putDouble(processedData.getAngle(i));
+		}
+		for (int i = 0; i < points; i++) {
+			payload.putInt(processedData.getCount(i));
+		}
+		for (int i = 0; i < points; i++) {
+			payload.putInt(processedData.getError(i));
+		}
+		for (int i = 0; i < points; i++) {
+			payload.putInt(processedData.getChannel(i));
+		}
+		payload.flip();
+
+		ByteBuffer stored = payload;
+		if (deflater != null) {
+			stored = deflate(payload.array(), payloadLength);
+		}
+
+		frameHeader.clear();
+		frameHeader.put(FRAME_MAGIC);
+		frameHeader.put((byte) compression.ordinal());
+		frameHeader.put((byte) 0).put((byte) 0).put((byte) 0);
+		frameHeader.putInt(rawChannels);
+		frameHeader.putInt(points);
+		frameHeader.putLong(System.currentTimeMillis());
+		frameHeader.putDouble(delta);
+		frameHeader.putInt(stored.remaining());
+		frameHeader.putInt(payloadLength);
+		frameHeader.flip();
+
+		if (numberOfFrames == frameOffsets.length) {
+			frameOffsets = Arrays.copyOf(frameOffsets, numberOfFrames * 2);
+		}
+		frameOffsets[numberOfFrames] = position;
+		write(frameHeader);
+		write(stored);
+		return numberOfFrames++;
+	}
+
+	private ByteBuffer deflate(byte[] input, int length) {
+		deflater.reset();
+		deflater.setInput(input, 0, length);
+		deflater.finish();
+		if (compressed.length < length + 64) {
+			compressed = new byte[length + length / 10 + 64];
+		}
+		int size = 0;
+		while (!deflater.finished()) {
+			if (size == compressed.length) {
+				compressed = Arrays.copyOf(compressed, compressed.length * 2);
+			}
+			size += deflater.deflate(compressed, size, compressed.length - size);
+		}
+		return ByteBuffer.wrap(compressed, 0, size);
+	}
+
+	private void write(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	/**
+	 * Writes the frame index and closes the file.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			final long indexOffset = position;
+			ByteBuffer index = ByteBuffer.allocate(8 * numberOfFrames + TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			for (int i = 0; i < numberOfFrames; i++) {
+				index.putLong(frameOffsets[i]);
+			}
+			index.putLong(indexOffset);
+			index.putInt(numberOfFrames);
+			index.put(INDEX_MAGIC);
+			index.flip();
+			write(index);
+		} finally {
+			if (deflater != null) {
+				deflater.end();
+			}
+			raf.close();
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+/**
+ * A single frame read from a Mythen scan file.
+ */
+public class MythenScanFrame {
+
+	private final long timestamp;
+
+	private final double delta;
+
+	private final MythenRawDataset rawData;
+
+	private final MythenProcessedDataset processedData;
+
+	MythenScanFrame(long timestamp, double delta, MythenRawDataset rawData, MythenProcessedDataset processedData) {
+		this.timestamp = timestamp;
+		this.delta = delta;
+		this.rawData = rawData;
+		this.processedData = processedData;
+	}
+
+	/**
+	 * Returns the time at which the frame was written, in milliseconds since the epoch.
+	 *
+	 * @return the timestamp
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * Returns the detector position used to process the frame.
+	 *
+	 * @return the detector position
+	 */
+	public double getDelta() {
+		return delta;
+	}
+
+	/**
+	 * Returns the raw counts for the frame; empty if raw data was not stored.
+	 *
+	 * @return the raw data
+	 */
+	public MythenRawDataset getRawData() {
+		return rawData;
+	}
+
+	public MythenProcessedDataset getProcessedData() {
+		return processedData;
+	}
+
+}
@@ -21,8 +21,9 @@ package gda.device.detector.mythen.data;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class MythenSum {
 	
@@ -31,8 +32,25 @@ public class MythenSum {
 	 */
 	private static int CHANNELS_PER_MODULE = 1280;
 	
+	/**
+	 * Smallest number of datasets that are summed in parallel; fewer datasets are summed on the calling thread.
+	 */
+	static final int PARALLEL_THRESHOLD = 32;
+
+	/**
+	 * Number of datasets summed into each private accumulator grid when summing in parallel.
+	 */
+	static final int DATASETS_PER_TASK = 8;
+
 	/**
 	 * Sums the specified datasets.
+	 * <p>
+	 * Each module's data is interpolated onto a grid of angles that are multiples of {@code step}, and the
+	 * interpolated counts are added into one accumulator per grid point covering the whole angle range. Grid points
+	 * with fewer contributions than the best-covered point are scaled up accordingly.
+	 * <p>
+	 * Large inputs are summed in parallel using the {@link ForkJoinPool#commonPool() common pool}; see
+	 * {@link #sum(double[][][], int, BadChannelProvider, double, ForkJoinPool)}.
 	 * 
 	 * @param datasets the data to sum - each element should be an array of
 	 *        (angle, count, error) arrays
@@ -43,6 +61,242 @@ public class MythenSum {
 	 * @return summed data
 	 */
 	public static double[][] sum(double[][][] datasets, int numModules, BadChannelProvider badChannels, double step) {
+		return sum(datasets, numModules, badChannels, step, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Sums the specified datasets, using the specified pool if there are at least {@link #PARALLEL_THRESHOLD}
+	 * datasets.
+	 * <p>
+	 * When summing in parallel the datasets are split into groups of {@link #DATASETS_PER_TASK}, each of which is
+	 * summed into its own accumulator grid; the grids are then added together. The way the datasets are split does
+	 * not depend on the pool, so the result is the same whatever the parallelism, although it may differ from the
+	 * serial sum in the last few bits because the counts are added in a different order.
+	 *
+	 * @param datasets the data to sum - each element should be an array of
+	 *        (angle, count, error) arrays
+	 * @param numModules number of modules in the detector
+	 * @param badChannels bad channel provider
+	 * @param step angle step
+	 * @param pool the pool to sum the data in
+	 *
+	 * @return summed data
+	 */
+	public static double[][] sum(double[][][] datasets, int numModules, BadChannelProvider badChannels, double step, ForkJoinPool pool) {
+		final GridLayout layout = new GridLayout(datasets, determineModuleBoundaries(numModules, badChannels), step);
+		if (layout.longestRun == 0) {
+			return new double[0][];
+		}
+		final Accumulator total;
+		if (datasets.length < PARALLEL_THRESHOLD) {
+			total = layout.accumulate(0, datasets.length);
+		} else {
+			total = pool.invoke(new SumTask(layout, 0, datasets.length));
+		}
+		return combineData(total.sums, total.contributors, layout.globalMin, step);
+	}
+
+	/**
+	 * Sums the specified datasets on the calling thread.
+	 *
+	 * @param datasets the data to sum - each element should be an array of
+	 *        (angle, count, error) arrays
+	 * @param numModules number of modules in the detector
+	 * @param badChannels bad channel provider
+	 * @param step angle step
+	 *
+	 * @return summed data
+	 */
+	public static double[][] sumSerially(double[][][] datasets, int numModules, BadChannelProvider badChannels, double step) {
+		final GridLayout layout = new GridLayout(datasets, determineModuleBoundaries(numModules, badChannels), step);
+		if (layout.longestRun == 0) {
+			return new double[0][];
+		}
+		final Accumulator total = layout.accumulate(0, datasets.length);
+		return combineData(total.sums, total.contributors, layout.globalMin, step);
+	}
+
+	/**
+	 * The grid points covered by each module of each dataset, and the overall range of the grid.
+	 */
+	private static final class GridLayout {
+
+		final double[][][] datasets;
+		final ModuleBoundary[] boundaries;
+		final double step;
+		final int[][] minIndices;
+		final int[][] maxIndices;
+		int globalMin = Integer.MAX_VALUE;
+		int globalMax = Integer.MIN_VALUE;
+		int longestRun;
+
+		GridLayout(double[][][] datasets, ModuleBoundary[] boundaries, double step) {
+			this.datasets = datasets;
+			this.boundaries = boundaries;
+			this.step = step;
+			final int numDatasets = datasets.length;
+			final int numModules = boundaries.length;
+			minIndices = new int[numDatasets][numModules];
+			maxIndices = new int[numDatasets][numModules];
+			for (int d=0; d<numDatasets; d++) {
+				for (int m=0; m<numModules; m++) {
+					final int[] minAndMaxIndices = findMinMaxIndices(datasets[d][boundaries[m].first][0], datasets[d][boundaries[m].last][0], step);
+					minIndices[d][m] = minAndMaxIndices[0];
+					maxIndices[d][m] = minAndMaxIndices[1];
+					if (minAndMaxIndices[0] <= minAndMaxIndices[1]) {
+						globalMin = Math.min(globalMin, minAndMaxIndices[0]);
+						globalMax = Math.max(globalMax, minAndMaxIndices[1]);
+						longestRun = Math.max(longestRun, minAndMaxIndices[1] - minAndMaxIndices[0] + 1);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Accumulates the interpolated counts of datasets {@code from} (inclusive) to {@code to} (exclusive) into a
+		 * new grid.
+		 */
+		Accumulator accumulate(int from, int to) {
+			final ChannelKernels kernels = ChannelKernels.getDefault();
+			final Accumulator accumulator = new Accumulator(globalMax - globalMin + 1);
+			final double[] run = new double[longestRun];
+			for (int d=from; d<to; d++) {
+				for (int m=0; m<boundaries.length; m++) {
+					final int runLength = interpolateModule(datasets[d], boundaries[m], minIndices[d][m], maxIndices[d][m], step, run);
+					if (runLength > 0) {
+						kernels.accumulate(accumulator.sums, accumulator.contributors, minIndices[d][m] - globalMin, run, runLength);
+					}
+				}
+			}
+			return accumulator;
+		}
+	}
+
+	/**
+	 * Accumulated counts, and the number of counts added, for each point of the grid.
+	 */
+	private static final class Accumulator {
+
+		final double[] sums;
+		final int[] contributors;
+
+		Accumulator(int numGridPoints) {
+			sums = new double[numGridPoints];
+			contributors = new int[numGridPoints];
+		}
+
+		void add(Accumulator other) {
+			for (int i=0; i<sums.length; i++) {
+				sums[i] += other.sums[i];
+				contributors[i] += other.contributors[i];
+			}
+		}
+	}
+
+	/**
+	 * Sums a range of datasets, splitting it in half until each part has at most {@link #DATASETS_PER_TASK}
+	 * datasets.
+	 */
+	private static final class SumTask extends RecursiveTask<Accumulator> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final GridLayout layout;
+		private final int from;
+		private final int to;
+
+		SumTask(GridLayout layout, int from, int to) {
+			this.layout = layout;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Accumulator compute() {
+			if (to - from <= DATASETS_PER_TASK) {
+				return layout.accumulate(from, to);
+			}
+			final int middle = (from + to) >>> 1;
+			final SumTask upper = new SumTask(layout, middle, to);
+			upper.fork();
+			final Accumulator lower = new SumTask(layout, from, middle).compute();
+			lower.add(upper.join());
+			return lower;
+		}
+	}
+
+	/**
+	 * Interpolates one module's data onto the grid points {@code minIndex} to {@code maxIndex}.
+	 *
+	 * @param dataset the dataset - an array of (angle, count, error) arrays
+	 * @param boundary the module's first and last channel
+	 * @param minIndex the first grid point covered by the module
+	 * @param maxIndex the last grid point covered by the module
+	 * @param step the angle step
+	 * @param counts receives the interpolated count for each grid point
+	 * @return the number of grid points
+	 */
+	static int interpolateModule(double[][] dataset, ModuleBoundary boundary, int minIndex, int maxIndex, double step, double[] counts) {
+		int upperChannel = boundary.first;
+		for (int gridIndex=minIndex; gridIndex<=maxIndex; gridIndex++) {
+			final double gridAngle = gridIndex * step;
+
+			// Advance upperChannel, to satisfy this:
+			//   upperChannel-1 ≤ gridAngle ≤ upperChannel
+			while (dataset[upperChannel][0] < gridAngle) {
+				upperChannel++;
+			}
+
+			// Calculate interpolated count, using the real data point either side
+			counts[gridIndex - minIndex] = interpolate(gridAngle, dataset[upperChannel-1], dataset[upperChannel]);
+		}
+		return Math.max(0, maxIndex - minIndex + 1);
+	}
+
+	/**
+	 * Creates the summed data from the accumulated counts, leaving out grid points that no data contributed to.
+	 *
+	 * @param sums the sum of the interpolated counts for each grid point
+	 * @param contributors the number of counts added into each sum
+	 * @param firstGridIndex the grid index of the first element of the arrays
+	 * @param step the angle step
+	 * @return combined data - array of (angle, count, error) arrays
+	 */
+	static double[][] combineData(double[] sums, int[] contributors, int firstGridIndex, double step) {
+		int numPoints = 0;
+		int maxDataPointsPerGridIndex = 0;
+		for (int contributorCount : contributors) {
+			if (contributorCount > 0) {
+				numPoints++;
+				maxDataPointsPerGridIndex = Math.max(maxDataPointsPerGridIndex, contributorCount);
+			}
+		}
+
+		double[][] combinedData = new double[numPoints][];
+		int i = 0;
+		for (int g=0; g<sums.length; g++) {
+			if (contributors[g] > 0) {
+				double totalCount = sums[g];
+				totalCount *= (1.0 * maxDataPointsPerGridIndex / contributors[g]);
+				combinedData[i++] = new double[] {(firstGridIndex + g) * step, totalCount, Math.sqrt(totalCount)};
+			}
+		}
+		return combinedData;
+	}
+
+	/**
+	 * Sums the specified datasets using one {@link AlignedData} object per grid point and dataset. This was the
+	 * original summing algorithm; it is kept as a reference for checking {@link #sum}.
+	 *
+	 * @param datasets the data to sum - each element should be an array of
+	 *        (angle, count, error) arrays
+	 * @param numModules number of modules in the detector
+	 * @param badChannels bad channel provider
+	 * @param step angle step
+	 *
+	 * @return summed data
+	 */
+	static double[][] sumUsingAlignedData(double[][][] datasets, int numModules, BadChannelProvider badChannels, double step) {
 		Map<Integer, List<AlignedData>> alignedData = alignData(datasets, numModules, badChannels, step);
 		double[][] combinedData = combineData(alignedData, step);
 		return combinedData;
@@ -121,11 +375,13 @@ public class MythenSum {
 	static ModuleBoundary[] determineModuleBoundaries(int numModules, BadChannelProvider badChannelProvider) {
 		
 		// determine number of bad channels for each module
-		final Set<Integer> badChannels = badChannelProvider.getBadChannels();
+		final BadChannelMask badChannels = badChannelProvider.getBadChannelMask();
+		if (badChannels.length() > numModules * CHANNELS_PER_MODULE) {
+			throw new ArrayIndexOutOfBoundsException("Bad channel " + (badChannels.length() - 1) + " is not in any of the " + numModules + " modules");
+		}
 		int[] badModulesPerChannel = new int[numModules];
-		for (int badChannel : badChannels) {
-			final int module = moduleForChannel(badChannel);
-			badModulesPerChannel[module]++;
+		for (int module = 0; module < numModules; module++) {
+			badModulesPerChannel[module] = badChannels.countInRange(module * CHANNELS_PER_MODULE, (module + 1) * CHANNELS_PER_MODULE);
 		}
 		
 		// determine channel boundaries for each module
@@ -0,0 +1,119 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Columns of numbers read from a Mythen text data file by {@link MythenTextDataReader}, together with the file's
+ * {@code #} comment lines.
+ */
+public class MythenTextData {
+
+	private final List<String> headers;
+
+	private final char delimiter;
+
+	private final double[][] columns;
+
+	private final int numberOfRows;
+
+	MythenTextData(List<String> headers, char delimiter, double[][] columns, int numberOfRows) {
+		this.headers = Collections.unmodifiableList(headers);
+		this.delimiter = delimiter;
+		this.columns = columns;
+		this.numberOfRows = numberOfRows;
+	}
+
+	/**
+	 * Returns the comment lines from the file, without the leading {@code #} and any whitespace that follows it.
+	 *
+	 * @return the header lines
+	 */
+	public List<String> getHeaders() {
+		return headers;
+	}
+
+	/**
+	 * Returns the delimiter used between the columns of the first data line: either a space or a tab.
+	 *
+	 * @return the delimiter
+	 */
+	public char getDelimiter() {
+		return delimiter;
+	}
+
+	public int getNumberOfColumns() {
+		return columns.length;
+	}
+
+	public int getNumberOfRows() {
+		return numberOfRows;
+	}
+
+	/**
+	 * Returns a column of values. The array is not copied.
+	 *
+	 * @param column
+	 *            the column index, starting from zero
+	 * @return the values in the column
+	 */
+	public double[] getColumn(int column) {
+		return columns[column];
+	}
+
+	/**
+	 * Returns a column of values converted to {@code int}s.
+	 *
+	 * @param column
+	 *            the column index, starting from zero
+	 * @return the values in the column
+	 */
+	public int[] getIntColumn(int column) {
+		final double[] values = columns[column];
+		int[] ints = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			ints[i] = (int) values[i];
+		}
+		return ints;
+	}
+
+	/**
+	 * Returns the data as one array per row, containing the first {@code width} columns. Columns missing from the
+	 * file are filled with zeros.
+	 *
+	 * @param width
+	 *            the number of columns in each row
+	 * @return the rows
+	 */
+	public double[][] toRows(int width) {
+		final int available = Math.min(width, columns.length);
+		double[][] rows = new double[numberOfRows][];
+		for (int r = 0; r < numberOfRows; r++) {
+			double[] row = new double[width];
+			for (int c = 0; c < available; c++) {
+				row[c] = columns[c][r];
+			}
+			rows[r] = row;
+		}
+		return rows;
+	}
+
+}
@@ -0,0 +1,316 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-pass reader for Mythen text data files: processed ({@code angle count error [channel]}), merged and raw
+ * files.
+ * <p>
+ * Lines starting with {@code #} are returned as headers. The number of columns is taken from the first data line and
+ * every other data line must have the same number. Columns may be separated by any mix of spaces and tabs, and lines
+ * may end with {@code \n} or {@code \r\n}. The file is read into a reusable buffer and numbers are decoded directly
+ * from its bytes into {@code double} column arrays; only header lines are turned into {@code String}s.
+ * <p>
+ * Instances are not thread-safe; use {@link #forCurrentThread()} to obtain a reader for the calling thread.
+ */
+public class MythenTextDataReader {
+
+	private static final int INITIAL_BUFFER_SIZE = 256 * 1024;
+
+	private static final int INITIAL_ROWS = 1280;
+
+	/** Largest number of significant digits for which the fast path is exact (must fit in 53 bits). */
+	private static final int MAX_FAST_DIGITS = 15;
+
+	/** Powers of ten that are exactly representable as {@code double}s. */
+	private static final double[] POWERS_OF_TEN = new double[23];
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+			POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+		}
+	}
+
+	private static final ThreadLocal<MythenTextDataReader> READERS = new ThreadLocal<MythenTextDataReader>() {
+		@Override
+		protected MythenTextDataReader initialValue() {
+			return new MythenTextDataReader();
+		}
+	};
+
+	private final Charset headerCharset = Charset.defaultCharset();
+
+	private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+	private double[] row = new double[8];
+
+	/** Position just after the last number decoded by {@link #parseDouble}. */
+	private int end;
+
+	/**
+	 * Returns a reader owned by the calling thread.
+	 *
+	 * @return the reader
+	 */
+	public static MythenTextDataReader forCurrentThread() {
+		return READERS.get();
+	}
+
+	/**
+	 * Reads the specified file.
+	 *
+	 * @param file
+	 *            the file to read
+	 * @return the data in the file
+	 */
+	public MythenTextData read(File file) throws IOException {
+		try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+			final long length = channel.size();
+			if (length > Integer.MAX_VALUE) {
+				throw new IOException("Mythen data file " + file + " is too large (" + length + " bytes)");
+			}
+			if (buffer.capacity() < length) {
+				buffer = ByteBuffer.allocate(Math.max((int) length, 2 * buffer.capacity()));
+			}
+			buffer.clear();
+			buffer.limit((int) length);
+			while (buffer.hasRemaining()) {
+				if (channel.read(buffer) < 0) {
+					break;
+				}
+			}
+			buffer.flip();
+		}
+		try {
+			return parse(buffer.array(), buffer.limit());
+		} catch (IOException e) {
+			throw new IOException("Couldn't parse Mythen data file " + file + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Reads data from text that has already been loaded into memory.
+	 *
+	 * @param text
+	 *            the file contents
+	 * @return the data in the text
+	 */
+	public MythenTextData read(CharSequence text) throws IOException {
+		final byte[] bytes = text.toString().getBytes(StandardCharsets.ISO_8859_1);
+		return parse(bytes, bytes.length);
+	}
+
+	MythenTextData parse(byte[] bytes, int length) throws IOException {
+		final List<String> headers = new ArrayList<String>();
+		double[][] columns = null;
+		int numColumns = 0;
+		char delimiter = ' ';
+		int numRows = 0;
+		int lineNumber = 1;
+		int pos = 0;
+
+		while (pos < length) {
+			byte b = bytes[pos];
+			if (b == ' ' || b == '\t' || b == '\r') {
+				pos++;
+				continue;
+			}
+			if (b == '\n') {
+				pos++;
+				lineNumber++;
+				continue;
+			}
+			if (b == '#') {
+				pos = readHeader(bytes, pos + 1, length, headers);
+				continue;
+			}
+
+			// Data line
+			int col = 0;
+			while (true) {
+				if (col == row.length) {
+					row = Arrays.copyOf(row, col * 2);
+				}
+				row[col++] = parseDouble(bytes, pos, length, lineNumber);
+				pos = end;
+				if (columns == null && col == 1 && pos < length && bytes[pos] == '\t') {
+					delimiter = '\t';
+				}
+				while (pos < length && (bytes[pos] == ' ' || bytes[pos] == '\t' || bytes[pos] == '\r')) {
+					pos++;
+				}
+				if (pos == length || bytes[pos] == '\n') {
+					break;
+				}
+			}
+
+			if (columns == null) {
+				numColumns = col;
+				columns = new double[numColumns][INITIAL_ROWS];
+			} else if (col != numColumns) {
+				throw new IOException(String.format("line %d has %d columns but previous lines have %d", lineNumber, col, numColumns));
+			}
+			if (numRows == columns[0].length) {
+				for (int c = 0; c < numColumns; c++) {
+					columns[c] = Arrays.copyOf(columns[c], numRows * 2);
+				}
+			}
+			for (int c = 0; c < numColumns; c++) {
+				columns[c][numRows] = row[c];
+			}
+			numRows++;
+		}
+
+		if (columns == null) {
+			columns = new double[0][];
+		}
+		for (int c = 0; c < numColumns; c++) {
+			columns[c] = Arrays.copyOf(columns[c], numRows);
+		}
+		return new MythenTextData(headers, delimiter, columns, numRows);
+	}
+
+	private int readHeader(byte[] bytes, int pos, int length, List<String> headers) {
+		while (pos < length && (bytes[pos] == ' ' || bytes[pos] == '\t')) {
+			pos++;
+		}
+		final int start = pos;
+		while (pos < length && bytes[pos] != '\n') {
+			pos++;
+		}
+		int stop = pos;
+		if (stop > start && bytes[stop - 1] == '\r') {
+			stop--;
+		}
+		headers.add(new String(bytes, start, stop - start, headerCharset));
+		return pos;
+	}
+
+	/**
+	 * Decodes the number starting at {@code pos}. Numbers with at most 15 significant digits and a small decimal
+	 * exponent are converted exactly with a single multiplication or division; anything else is passed to
+	 * {@link Double#parseDouble}.
+	 */
+	private double parseDouble(byte[] bytes, int pos, int length, int lineNumber) throws IOException {
+		final int start = pos;
+		boolean negative = false;
+		if (pos < length && (bytes[pos] == '-' || bytes[pos] == '+')) {
+			negative = bytes[pos] == '-';
+			pos++;
+		}
+
+		long mantissa = 0;
+		int significantDigits = 0;
+		int exponent = 0;
+		boolean anyDigits = false;
+		boolean fast = true;
+
+		// Integer part
+		while (pos < length && bytes[pos] >= '0' && bytes[pos] <= '9') {
+			anyDigits = true;
+			if (mantissa != 0 || bytes[pos] != '0') {
+				if (significantDigits < MAX_FAST_DIGITS) {
+					mantissa = mantissa * 10 + (bytes[pos] - '0');
+					significantDigits++;
+				} else {
+					fast = false;
+				}
+			}
+			pos++;
+		}
+		// Fractional part
+		if (pos < length && bytes[pos] == '.') {
+			pos++;
+			while (pos < length && bytes[pos] >= '0' && bytes[pos] <= '9') {
+				anyDigits = true;
+				if (mantissa != 0 || bytes[pos] != '0') {
+					if (significantDigits < MAX_FAST_DIGITS) {
+						mantissa = mantissa * 10 + (bytes[pos] - '0');
+						significantDigits++;
+					} else {
+						fast = false;
+					}
+				}
+				exponent--;
+				pos++;
+			}
+		}
+		// Exponent
+		if (anyDigits && pos < length && (bytes[pos] == 'e' || bytes[pos] == 'E')) {
+			pos++;
+			boolean negativeExponent = false;
+			if (pos < length && (bytes[pos] == '-' || bytes[pos] == '+')) {
+				negativeExponent = bytes[pos] == '-';
+				pos++;
+			}
+			int explicitExponent = 0;
+			final int exponentStart = pos;
+			while (pos < length && bytes[pos] >= '0' && bytes[pos] <= '9') {
+				if (explicitExponent < 10000) {
+					explicitExponent = explicitExponent * 10 + (bytes[pos] - '0');
+				}
+				pos++;
+			}
+			if (pos == exponentStart) {
+				fast = false;
+			}
+			exponent += negativeExponent ? -explicitExponent : explicitExponent;
+		}
+
+		final boolean atSeparator = pos == length || bytes[pos] == ' ' || bytes[pos] == '\t' || bytes[pos] == '\r'
+				|| bytes[pos] == '\n';
+		if (fast && anyDigits && atSeparator && exponent >= -22 && exponent <= 22) {
+			end = pos;
+			double value = (double) mantissa;
+			if (exponent < 0) {
+				value /= POWERS_OF_TEN[-exponent];
+			} else if (exponent > 0) {
+				value *= POWERS_OF_TEN[exponent];
+			}
+			return negative ? -value : value;
+		}
+
+		// Slow path - find the end of the token and let Double.parseDouble deal with it
+		pos = start;
+		while (pos < length && bytes[pos] != ' ' && bytes[pos] != '\t' && bytes[pos] != '\r' && bytes[pos] != '\n') {
+			pos++;
+		}
+		final String token = new String(bytes, start, pos - start, StandardCharsets.ISO_8859_1);
+		try {
+			final double value = Double.parseDouble(token);
+			end = pos;
+			return value;
+		} catch (NumberFormatException e) {
+			throw new IOException("invalid number '" + token + "' on line " + lineNumber, e);
+		}
+	}
+
+}
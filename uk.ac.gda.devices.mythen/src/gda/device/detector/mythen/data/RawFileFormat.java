@@ -0,0 +1,33 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package gda.device.detector.mythen.data;
+
+/**
+ * Formats in which a Mythen raw frame can be written to disk. {@link MythenRawFileReader} recognises either format
+ * when reading, so the choice only affects writing.
+ */
+public enum RawFileFormat {
+
+	/** One {@code channel count} pair of ASCII integers per line. */
+	ASCII,
+
+	/** A {@link MythenBinaryRawFile} header followed by packed little-endian counts. */
+	BINARY
+
+}
@@ -0,0 +1,101 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+/**
+ * {@link ChannelKernels} written as one simple loop per operation. This is the reference implementation.
+ */
+public final class ScalarChannelKernels implements ChannelKernels {
+
+	static final String NAME = "scalar";
+
+	public static final ScalarChannelKernels INSTANCE = new ScalarChannelKernels();
+
+	private ScalarChannelKernels() {
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public void multiplyGathered(double[] values, double[] factors, int[] channels, int size) {
+		for (int i = 0; i < size; i++) {
+			values[i] *= factors[channels[i]];
+		}
+	}
+
+	@Override
+	public void scale(double[] values, int size, double factor) {
+		for (int i = 0; i < size; i++) {
+			values[i] *= factor;
+		}
+	}
+
+	@Override
+	public void gatherAndOffset(double[] result, double[] table, int[] channels, int size, double a, double b, double c) {
+		for (int i = 0; i < size; i++) {
+			result[i] = table[channels[i]] + a + b + c;
+		}
+	}
+
+	@Override
+	public void truncateWithErrors(double[] values, int[] counts, int[] errors, int size) {
+		for (int i = 0; i < size; i++) {
+			final int count = (int) values[i];
+			counts[i] = count;
+			errors[i] = (int) Math.sqrt(count);
+		}
+	}
+
+	@Override
+	public int compact(BadChannelMask mask, int[] channels, double[] counts, double[] angles, int size) {
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			final int channel = channels[i];
+			if (!mask.isBad(channel)) {
+				channels[n] = channel;
+				counts[n] = counts[i];
+				angles[n] = angles[i];
+				n++;
+			}
+		}
+		return n;
+	}
+
+	@Override
+	public void accumulate(double[] sums, int[] contributors, int offset, double[] values, int size) {
+		for (int i = 0; i < size; i++) {
+			sums[offset + i] += values[i];
+			contributors[offset + i]++;
+		}
+	}
+
+	@Override
+	public double sum(double[] values, int size) {
+		double total = 0;
+		for (int i = 0; i < size; i++) {
+			total += values[i];
+		}
+		return total;
+	}
+
+}
@@ -30,14 +30,17 @@ public class SimpleBadChannelProvider implements BadChannelProvider {
 	
 	private Set<Integer> badChannels;
 
+	private BadChannelMask badChannelMask;
+
 	/**
-	 * Creates a {@link SimpleBadChannelProvider} that holds the specified bad
-	 * channels.
+	 * Creates a {@link SimpleBadChannelProvider} that holds a copy of the
+	 * specified bad channels.
 	 * 
 	 * @param badChannels the bad channels
 	 */
 	public SimpleBadChannelProvider(Set<Integer> badChannels) {
-		this.badChannels = Collections.unmodifiableSet(badChannels);
+		this.badChannels = Collections.unmodifiableSet(new TreeSet<Integer>(badChannels));
+		this.badChannelMask = BadChannelMask.of(this.badChannels);
 	}
 	
 	/**
@@ -51,6 +54,7 @@ public class SimpleBadChannelProvider implements BadChannelProvider {
 		for (int badChannel : badChannels) {
 			this.badChannels.add(badChannel);
 		}
+		this.badChannelMask = BadChannelMask.of(badChannels);
 	}
 	
 	@Override
@@ -58,4 +62,9 @@ public class SimpleBadChannelProvider implements BadChannelProvider {
 		return badChannels;
 	}
 
+	@Override
+	public BadChannelMask getBadChannelMask() {
+		return badChannelMask;
+	}
+
 }
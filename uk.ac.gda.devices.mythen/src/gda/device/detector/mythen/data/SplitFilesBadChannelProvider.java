@@ -22,6 +22,7 @@ import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -31,24 +32,68 @@ import java.util.Set;
  */
 public class SplitFilesBadChannelProvider extends SplitCalibrationFilesBase implements BadChannelProvider {
 
-	Set<Integer> storedBadChannels;
-	String storedMode = "";
-	String storedCalibrationFolder = "";
+	/**
+	 * The bad channels loaded for one mode and calibration folder. Published as a whole, so a thread that sees it
+	 * also sees the matching mask, mode and folder.
+	 */
+	private static final class BadChannels {
+
+		final Set<Integer> channels;
+		final BadChannelMask mask;
+		final String mode;
+		final String calibrationFolder;
+
+		BadChannels(Set<Integer> channels, String mode, String calibrationFolder) {
+			this.channels = Collections.unmodifiableSet(channels);
+			this.mask = BadChannelMask.of(channels);
+			this.mode = mode;
+			this.calibrationFolder = calibrationFolder;
+		}
+
+		boolean isFor(String mode, String calibrationFolder) {
+			return this.mode.equals(mode) && this.calibrationFolder.equals(calibrationFolder);
+		}
+	}
+
+	/** Read by every frame processing worker, so it is replaced as a whole rather than updated field by field. */
+	private volatile BadChannels stored;
 
 	@Override
 	public Set<Integer> getBadChannels() {
+		return load().channels;
+	}
 
-		if (storedBadChannels != null && storedMode.equals(modules.getMode())
-				&& storedCalibrationFolder.equals(modules.getCalibrationFolder())) {
-			return storedBadChannels;
+	@Override
+	public BadChannelMask getBadChannelMask() {
+		// reloads the files, and the mask, if the mode or calibration folder has changed
+		return load().mask;
+	}
+
+	private BadChannels load() {
+		final String mode = modules.getMode();
+		final String calibrationFolder = modules.getCalibrationFolder();
+		BadChannels current = stored;
+		if (current != null && current.isFor(mode, calibrationFolder)) {
+			return current;
+		}
+		synchronized (this) {
+			// another worker may have loaded the files while this one waited
+			current = stored;
+			if (current == null || !current.isFor(mode, calibrationFolder)) {
+				current = new BadChannels(readBadChannels(mode, calibrationFolder), mode, calibrationFolder);
+				stored = current;
+			}
+			return current;
 		}
+	}
 
+	private Set<Integer> readBadChannels(String mode, String calibrationFolder) {
 		Set<Integer> badChannels = new LinkedHashSet<Integer>();
 
 		for (int moduleNum = 0; moduleNum < modules.getModules().size(); moduleNum++) {
 
-			String badChannelFile = modules.getCalibrationFolder() + "/" + modules.getModules().get(moduleNum) + "/"
-					+ modules.getMode() + "/badch/" + modules.getCalibrationFilePrefix() + "Bad."
+			String badChannelFile = calibrationFolder + "/" + modules.getModules().get(moduleNum) + "/"
+					+ mode + "/badch/" + modules.getCalibrationFilePrefix() + "Bad."
 					+ modules.getModules().get(moduleNum).toLowerCase();
 
 			try {
@@ -64,11 +109,6 @@ public class SplitFilesBadChannelProvider extends SplitCalibrationFilesBase impl
 			}
 
 		}
-
-		storedBadChannels = badChannels;
-		storedMode = modules.getMode();
-		storedCalibrationFolder = modules.getCalibrationFolder();
-
 		return badChannels;
 	}
 
@@ -19,7 +19,7 @@
 package gda.device.detector.mythen.data;
 
 import java.io.File;
-import java.util.Vector;
+import java.util.Arrays;
 
 /**
  * Merges raw files providing a flat field calibration to create a single MythenRawDataset for use by the DataConvertor.
@@ -43,19 +43,33 @@ public class SplitFilesFlatFieldCorrectionProvider extends SplitCalibrationFiles
 			return storedDataSet;
 		}
 
-		Vector<MythenRawData> lines = new Vector<MythenRawData>();
+		final int numModules = modules.getModules().size();
+		int[][] moduleChannels = new int[numModules][];
+		int[][] moduleCounts = new int[numModules][];
+		int totalChannels = 0;
 
-		for (int moduleNum = 0; moduleNum < modules.getModules().size(); moduleNum++) {
+		for (int moduleNum = 0; moduleNum < numModules; moduleNum++) {
 
 			String flatFieldFile = modules.getCalibrationFolder() + "/" + modules.getModules().get(moduleNum) + "/"
 					+ modules.getMode() + "/flat/" + modules.getCalibrationFilePrefix() + modules.getFlatFilePrefix() + "."
 					+ modules.getModules().get(moduleNum).toLowerCase();
 			File file = new File(flatFieldFile);
-			lines.addAll((new MythenRawDataset(file)).getLines());
+			MythenRawDataset moduleData = new MythenRawDataset(file);
+			moduleChannels[moduleNum] = moduleData.getChannels();
+			moduleCounts[moduleNum] = moduleData.getCounts();
+			totalChannels += moduleData.size();
 		}
 
-		MythenRawDataset dataset = new MythenRawDataset();
-		dataset.setLines(lines);
+		int[] channels = new int[totalChannels];
+		int[] counts = new int[totalChannels];
+		int offset = 0;
+		for (int moduleNum = 0; moduleNum < numModules; moduleNum++) {
+			final int length = moduleCounts[moduleNum].length;
+			System.arraycopy(moduleChannels[moduleNum], 0, channels, offset, length);
+			System.arraycopy(moduleCounts[moduleNum], 0, counts, offset, length);
+			offset += length;
+		}
+		MythenRawDataset dataset = new MythenRawDataset(channels, counts);
 
 		storedDataSet = dataset;
 		storedMode = modules.getMode();
@@ -65,4 +79,12 @@ public class SplitFilesFlatFieldCorrectionProvider extends SplitCalibrationFiles
 		return dataset;
 
 	}
+
+	/**
+	 * Returns the mode, flat file prefix and calibration folder, which together identify the flat field files.
+	 */
+	@Override
+	public Object getFlatFieldKey() {
+		return Arrays.asList(modules.getMode(), modules.getFlatFilePrefix(), modules.getCalibrationFolder());
+	}
 }
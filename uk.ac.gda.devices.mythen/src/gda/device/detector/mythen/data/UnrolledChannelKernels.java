@@ -0,0 +1,164 @@
+/*-
+ * Copyright © 2026 Diamond Light Source Ltd.
+ *
+ * This file is part of GDA.
+ *
+ * GDA is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License version 3 as published by the Free
+ * Software Foundation.
+ *
+ * GDA is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with GDA. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package gda.device.detector.mythen.data;
+
+/**
+ * {@link ChannelKernels} that process four channels per loop iteration, finishing any remaining channels one at a
+ * time. The operations on the four channels are independent, which lets the JIT overlap them and, for the
+ * contiguous loops, use SIMD instructions. {@link #sum} uses four partial sums, so its result may differ from the
+ * scalar sum in the last few bits.
+ */
+public final class UnrolledChannelKernels implements ChannelKernels {
+
+	static final String NAME = "unrolled";
+
+	public static final UnrolledChannelKernels INSTANCE = new UnrolledChannelKernels();
+
+	private UnrolledChannelKernels() {
+	}
+
+	@Override
+	public String getName() {
+		return NAME;
+	}
+
+	@Override
+	public void multiplyGathered(double[] values, double[] factors, int[] channels, int size) {
+		int i = 0;
+		for (; i + 3 < size; i += 4) {
+			values[i] *= factors[channels[i]];
+			values[i + 1] *= factors[channels[i + 1]];
+			values[i + 2] *= factors[channels[i + 2]];
+			values[i + 3] *= factors[channels[i + 3]];
+		}
+		for (; i < size; i++) {
+			values[i] *= factors[channels[i]];
+		}
+	}
+
+	@Override
+	public void scale(double[] values, int size, double factor) {
+		int i = 0;
+		for (; i + 3 < size; i += 4) {
+			values[i] *= factor;
+			values[i + 1] *= factor;
+			values[i + 2] *= factor;
+			values[i + 3] *= factor;
+		}
+		for (; i < size; i++) {
+			values[i] *= factor;
+		}
+	}
+
+	@Override
+	public void gatherAndOffset(double[] result, double[] table, int[] channels, int size, double a, double b, double c) {
+		int i = 0;
+		for (; i + 3 < size; i += 4) {
+			result[i] = table[channels[i]] + a + b + c;
+			result[i + 1] = table[channels[i + 1]] + a + b + c;
+			result[i + 2] = table[channels[i + 2]] + a + b + c;
+			result[i + 3] = table[channels[i + 3]] + a + b + c;
+		}
+		for (; i < size; i++) {
+			result[i] = table[channels[i]] + a + b + c;
+		}
+	}
+
+	@Override
+	public void truncateWithErrors(double[] values, int[] counts, int[] errors, int size) {
+		int i = 0;
+		for (; i + 3 < size; i += 4) {
+			final int c0 = (int) values[i];
+			final int c1 = (int) values[i + 1];
+			final int c2 = (int) values[i + 2];
+			final int c3 = (int) values[i + 3];
+			counts[i] = c0;
+			counts[i + 1] = c1;
+			counts[i + 2] = c2;
+			counts[i + 3] = c3;
+			errors[i] = (int) Math.sqrt(c0);
+			errors[i + 1] = (int) Math.sqrt(c1);
+			errors[i + 2] = (int) Math.sqrt(c2);
+			errors[i + 3] = (int) Math.sqrt(c3);
+		}
+		for (; i < size; i++) {
+			final int count = (int) values[i];
+			counts[i] = count;
+			errors[i] = (int) Math.sqrt(count);
+		}
+	}
+
+	@Override
+	public int compact(BadChannelMask mask, int[] channels, double[] counts, double[] angles, int size) {
+		// Skip the leading good channels, which do not need to move
+		int i = 0;
+		while (i < size && !mask.isBad(channels[i])) {
+			i++;
+		}
+		int n = i;
+		for (; i < size; i++) {
+			final int channel = channels[i];
+			if (!mask.isBad(channel)) {
+				channels[n] = channel;
+				counts[n] = counts[i];
+				angles[n] = angles[i];
+				n++;
+			}
+		}
+		return n;
+	}
+
+	@Override
+	public void accumulate(double[] sums, int[] contributors, int offset, double[] values, int size) {
+		int i = 0;
+		for (; i + 3 < size; i += 4) {
+			final int j = offset + i;
+			sums[j] += values[i];
+			sums[j + 1] += values[i + 1];
+			sums[j + 2] += values[i + 2];
+			sums[j + 3] += values[i + 3];
+			contributors[j]++;
+			contributors[j + 1]++;
+			contributors[j + 2]++;
+			contributors[j + 3]++;
+		}
+		for (; i < size; i++) {
+			sums[offset + i] += values[i];
+			contributors[offset + i]++;
+		}
+	}
+
+	@Override
+	public double sum(double[] values, int size) {
+		double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+		int i = 0;
+		for (; i + 3 < size; i += 4) {
+			s0 += values[i];
+			s1 += values[i + 1];
+			s2 += values[i + 2];
+			s3 += values[i + 3];
+		}
+		for (; i < size; i++) {
+			s0 += values[i];
+		}
+		return (s0 + s1) + (s2 + s3);
+	}
+
+}
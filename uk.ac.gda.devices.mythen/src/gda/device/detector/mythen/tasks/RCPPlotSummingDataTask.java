@@ -21,6 +21,8 @@ package gda.device.detector.mythen.tasks;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.commons.io.FilenameUtils;
 import org.eclipse.january.dataset.Dataset;
@@ -33,8 +35,11 @@ import gda.data.fileregistrar.FileRegistrarHelper;
 import gda.device.Detector;
 import gda.device.DeviceException;
 import gda.device.detector.mythen.data.DataConverter;
+import gda.device.detector.mythen.data.MythenBatchLoader;
 import gda.device.detector.mythen.data.MythenDataFileUtils;
 import gda.device.detector.mythen.data.MythenDataFileUtils.FileType;
+import gda.device.detector.mythen.data.MythenRunningSum;
+import gda.device.detector.mythen.data.MythenScanFileReader;
 import gda.device.detector.mythen.data.MythenSum;
 import gda.jython.InterfaceProvider;
 import gda.jython.scriptcontroller.ScriptControllerBase;
@@ -47,11 +52,17 @@ import uk.ac.gda.devices.mythen.event.PlotDataFileEvent;
  * A Spring configurable {@link DataProcessingTask} to sum all the data files collected from the {@link MythenDetector} in a scan.
  * The summed data are then plotted either using an instance of {@link PlotServer} built-in GDA server or directly by the GDA client
  * from the data file using event notification to the registered observers.
+ * <p>
+ * If the detector has a {@link MythenDetector#setRunningSum running sum} that holds every dataset of the scan, the
+ * summed data is taken from it; otherwise the data files are loaded and summed.
  */
 public class RCPPlotSummingDataTask implements DataProcessingTask, InitializingBean {
 
 	private static final Logger logger = LoggerFactory.getLogger(RCPPlotSummingDataTask.class);
 
+	/** Number of files between progress messages while loading data files. */
+	private static final int PROGRESS_INTERVAL = 250;
+
 	protected double step = 0.004;
 
 	/**
@@ -77,44 +88,38 @@ public class RCPPlotSummingDataTask implements DataProcessingTask, InitializingB
 
 	protected void sumProcessedData(Detector detector)  throws DeviceException {
 		ArrayList<File> files;
+		List<File> scanFiles;
 		int numberOfModules;
 		DataConverter dataConverter;
 		File dataDirectory;
 		String summedFilename;
+		MythenRunningSum runningSum;
 		if (detector instanceof MythenDetector) {
 			MythenDetector mydetector=(MythenDetector)detector;
 			files = mydetector.getProcessedDataFilesForThisScan();
+			scanFiles = mydetector.getScanFilesForThisScan();
 			numberOfModules=mydetector.getNumberOfModules();
 			dataConverter=mydetector.getDataConverter();
 			dataDirectory=mydetector.getDataDirectory();
 			summedFilename = mydetector.buildFilename("summed", FileType.PROCESSED);
+			runningSum = mydetector.getRunningSumForThisScan();
 		} else {
 			throw new IllegalArgumentException("Summing processed data is not supported for detector " + detector.getName());
 		}
-		logger.info("Going to sum {} dataset(s)", files.size());
-
-		// Build filename of each processed data file
-		String[] filenames = new String[files.size()];
-		for (int i=1; i<=files.size(); i++) {
-			filenames[i-1] = files.get(i-1).getAbsolutePath();
-		}
+		logger.info("Going to sum {} dataset(s) and {} scan file(s)", files.size(), scanFiles.size());
 
-		// Load all processed data files
-		logger.info("Loading processed data...");
-		double[][][] allData = MythenDataFileUtils.readMythenProcessedDataFiles(filenames);
-		logger.info("Done");
-
-		// Sum the data
-		logger.info("Summing data...");
-		print("Summing data ...");
 		double[][] summedData;
-		try {
-			summedData = MythenSum.sum(allData, numberOfModules, dataConverter.getBadChannelProvider(), step);
-		} catch (IndexOutOfBoundsException ioobe) {
-			logger.error("Could not calculate MythenSum", ioobe);
-			return;
+		if (runningSum != null && runningSum.getGridStep() == step && runningSum.getNumberOfDatasets() == countDatasets(files, scanFiles)) {
+			// Every dataset has already been summed as it was collected
+			logger.info("Using running sum of {} dataset(s)", runningSum.getNumberOfDatasets());
+			summedData = runningSum.getSum();
+		} else {
+			summedData = loadAndSum(files, scanFiles, numberOfModules, dataConverter);
+			if (summedData == null) {
+				return;
+			}
+			logger.info("Done");
 		}
-		logger.info("Done");
 		// Save the summed data
 		File summedDataFile = new File(dataDirectory, summedFilename);
 		logger.info("Saving summed data to {}", summedDataFile.getAbsolutePath());
@@ -160,6 +165,72 @@ public class RCPPlotSummingDataTask implements DataProcessingTask, InitializingB
 			}
 		}
 	}
+
+	/**
+	 * Loads the processed data files and scan file frames for the scan and sums them.
+	 *
+	 * @return the summed data, or {@code null} if the data could not be summed
+	 */
+	private double[][] loadAndSum(List<File> files, List<File> scanFiles, int numberOfModules, DataConverter dataConverter) throws DeviceException {
+		// Build filename of each processed data file
+		String[] filenames = new String[files.size()];
+		for (int i=1; i<=files.size(); i++) {
+			filenames[i-1] = files.get(i-1).getAbsolutePath();
+		}
+
+		// Load all processed data files
+		logger.info("Loading processed data...");
+		MythenBatchLoader loader = new MythenBatchLoader();
+		loader.setProgressListener((completed, total) -> {
+			if (completed % PROGRESS_INTERVAL == 0 && completed < total) {
+				print(String.format("Loaded %d of %d data files", completed, total));
+			}
+		});
+		double[][][] allData = loader.load(filenames);
+		allData = appendScanFileFrames(allData, scanFiles);
+		logger.info("Done");
+
+		// Sum the data
+		logger.info("Summing data...");
+		print("Summing data ...");
+		try {
+			return MythenSum.sum(allData, numberOfModules, dataConverter.getBadChannelProvider(), step);
+		} catch (IndexOutOfBoundsException ioobe) {
+			logger.error("Could not calculate MythenSum", ioobe);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the number of datasets in the processed data files and scan files for the scan.
+	 */
+	private static int countDatasets(List<File> files, List<File> scanFiles) throws DeviceException {
+		int count = files.size();
+		for (File scanFile : scanFiles) {
+			try (MythenScanFileReader reader = new MythenScanFileReader(scanFile)) {
+				count += reader.getNumberOfFrames();
+			} catch (IOException e) {
+				throw new DeviceException("Unable to read Mythen scan file " + scanFile, e);
+			}
+		}
+		return count;
+	}
+
+	private static double[][][] appendScanFileFrames(double[][][] allData, List<File> scanFiles) throws DeviceException {
+		if (scanFiles.isEmpty()) {
+			return allData;
+		}
+		List<double[][]> frames = new ArrayList<double[][]>(Arrays.asList(allData));
+		for (File scanFile : scanFiles) {
+			try (MythenScanFileReader reader = new MythenScanFileReader(scanFile)) {
+				frames.addAll(Arrays.asList(reader.readAllProcessedData()));
+			} catch (IOException e) {
+				throw new DeviceException("Unable to load frames from Mythen scan file " + scanFile, e);
+			}
+		}
+		return frames.toArray(new double[frames.size()][][]);
+	}
+
 	@Override
 	public void run(Detector detector) throws DeviceException {
 		sumProcessedData(detector);
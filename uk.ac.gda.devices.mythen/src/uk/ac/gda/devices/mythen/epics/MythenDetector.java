@@ -21,9 +21,15 @@ package uk.ac.gda.devices.mythen.epics;
 import gda.data.fileregistrar.FileRegistrarHelper;
 import gda.device.DeviceException;
 import gda.device.detector.mythen.MythenDetectorImpl;
+import gda.device.detector.mythen.ProcessingPipeline;
+import gda.device.detector.mythen.data.FileArrivalService;
+import gda.device.detector.mythen.data.FrameProcessingEngine.FrameConsumer;
 import gda.device.detector.mythen.data.MythenDataFileUtils.FileType;
 import gda.device.detector.mythen.data.MythenProcessedDataset;
 import gda.device.detector.mythen.data.MythenRawDataset;
+import gda.device.detector.mythen.data.MythenRawFileWriter;
+import gda.device.detector.mythen.data.MythenScanFileReader;
+import gda.device.detector.mythen.data.MythenScanFileWriter;
 import gda.device.detector.mythen.tasks.DataProcessingTask;
 import gda.factory.FactoryException;
 import gda.jython.InterfaceProvider;
@@ -33,6 +39,9 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +60,17 @@ public class MythenDetector extends MythenDetectorImpl implements IMythenDetecto
 	private MythenEpicsClient mythenClient;
 
 	private ArrayList<File> processedDataFilesForScan=new ArrayList<File>();
+
+	private FileArrivalService fileArrivalService = FileArrivalService.getDefault();
+
+	private boolean diskless;
+
+	/**
+	 * Time in seconds to wait for the IOC to write a raw data file, or for the array plugin to receive a frame in
+	 * diskless mode, once acquisition has finished.
+	 */
+	private double rawFileTimeout = 10.0;
+
 	public MythenDetector() {
 		
 	}
@@ -77,7 +97,14 @@ public class MythenDetector extends MythenDetectorImpl implements IMythenDetecto
 		setFileTemplate("%s_%d"); // name convention 
 		setImageMode(0);
 		enableAutoIncrement();
-		enableAutoSave();
+		if (isDiskless()) {
+			checkArrayPluginConfigured();
+			// frames are read from the array plugin, so the IOC does not need to write them
+			disableAutoSave();
+			getMythenClient().enableArrayCallbacks();
+		} else {
+			enableAutoSave();
+		}
 		setNumCycles(1);
 		setNumFrames(1);
 		setNumGates(1);
@@ -87,6 +114,13 @@ public class MythenDetector extends MythenDetectorImpl implements IMythenDetecto
 		disableDataCorrection();
 	}
 
+	private void checkArrayPluginConfigured() throws DeviceException {
+		if (!getMythenClient().isArrayDataAvailable()) {
+			throw new DeviceException(getName()
+					+ " - diskless mode needs an NDArray plugin and its array counter PV to be set on the EPICS client");
+		}
+	}
+
 	/**
 	 * @throws IOException
 	 */
@@ -115,6 +149,9 @@ public class MythenDetector extends MythenDetectorImpl implements IMythenDetecto
 
 	@Override
 	public void atScanStart() throws DeviceException {
+		if (isDiskless()) {
+			checkArrayPluginConfigured();
+		}
 		super.atScanStart();
 		if (!processedDataFilesForScan.isEmpty()) {
 			processedDataFilesForScan.clear();
@@ -185,60 +222,71 @@ public class MythenDetector extends MythenDetectorImpl implements IMythenDetecto
 	/**
 	 * collect data from detector using EPICS client.
 	 * This method is non-blocking.
+	 * <p>
+	 * If a {@link #setPipelineDepth pipeline depth} is set, the collection is queued for processing as soon as its
+	 * frame (or raw file) has arrived, and the next collection can start while it is processed.
 	 */
 	@Override
 	public void collectData() throws DeviceException {
+		waitForPreviousCollection();
 		beforeCollectData();
-		Thread mythenAcquire = new Thread(new Runnable() {
-
-			@Override
-			public void run() {
-				try {
-					startWait();
+		final int arrayCounter = isDiskless() ? getArrayCounter() : 0;
+		final ProcessingPipeline pipeline = getProcessingPipeline();
+		getAcquisitionExecutor().submit(collectionFilename, () -> {
+			try {
+				startWait();
+				if (pipeline != null) {
+					queueCollectionPoint(pipeline, captureCollectionPoint(arrayCounter));
+				} else if (isDiskless()) {
+					afterCollectArrayData(arrayCounter);
+				} else {
 					afterCollectData();
-				} catch (DeviceException e) {
-					logger.error("{}: acquisition failed." + getName(), e);
-					throw new RuntimeException("Unable to collect data", e);
-				} finally {
-					status = IDLE;
 				}
+			} finally {
+				status = IDLE;
 			}
-		}, collectionFilename);
-//		while (mythenAcquire.isAlive()) {
-//			try {
-//				Thread.sleep(50);
-//			} catch (InterruptedException e) {
-//				// TODO Auto-generated catch block
-//				e.printStackTrace();
-//			}
-//		}
-		mythenAcquire.start();
+		});
+	}
+
+	/**
+	 * Records the collection that has just finished once its data has arrived: the frame from the array plugin in
+	 * diskless mode, otherwise the raw file written by the IOC.
+	 */
+	private CollectionPoint captureCollectionPoint(int previousArrayCounter) throws DeviceException {
+		if (isDiskless()) {
+			return captureCollectionPoint(readArrayFrame(previousArrayCounter));
+		}
+		awaitRawFile();
+		return captureCollectionPoint();
+	}
+
+	/**
+	 * Waits for the IOC to write the raw file of the collection that has just finished.
+	 *
+	 * @throws DeviceException
+	 *             if the file is not written within {@link #getRawFileTimeout() the timeout}
+	 */
+	private void awaitRawFile() throws DeviceException {
+		if (!waitForRawFile(rawFile)) {
+			throw new DeviceException(getName() + " - raw data file " + rawFile.getAbsolutePath() + " was not written");
+		}
+	}
+
+	@Override
+	protected File saveProcessedData(CollectionPoint point, MythenProcessedDataset pointProcessedData) {
+		final File pointProcessedFile = super.saveProcessedData(point, pointProcessedData);
+		processedDataFilesForScan.add(pointProcessedFile);
+		return pointProcessedFile;
 	}
 	@Override
-	protected void afterCollectData() {
+	protected void afterCollectData() throws DeviceException {
 //		super.afterCollectData();
+		// check if Mythen created raw data file successfully or not; the collection fails, as it does when pipelined
+		awaitRawFile();
 		processedFile = new File(getDataDirectory(), collectionFilename + ".dat");
-		// check if Mythen created raw data file successfully or not
-		double timer=System.currentTimeMillis();
-		double timerElapsed=0.0;
-		try {
-			while (!rawFile.exists() && timerElapsed*1000 < collectionTime) { //checking for maximum of the collection time
-				Thread.sleep(100);
-				timerElapsed=System.currentTimeMillis()-timer;
-			}
-		} catch (InterruptedException ie) {
-			Thread.currentThread().interrupt();
-			logger.error("{} - Thread interrupted while waiting for {} to be written", getName(), rawFile.getName(), ie);
-			return;
-		}
-		if (timerElapsed*1000>= collectionTime) {
-			// failed to create raw data after exposure time, then return no further process of raw data.
-			print("Detector "+ getName()+" failed to create RAW data file "+rawFile.getAbsolutePath());
-			return;
-		}
 		// read data and process it
 		rawData = new MythenRawDataset(rawFile);
-		processedData = dataConverter.process(rawData, delta);
+		processedData = dataConverter.process(rawData, delta, getMonitorValue(), getExposureTimeSeconds());
 		processedData.save(processedFile, isHasChannelInfo());
 		if (InterfaceProvider.getTerminalPrinter() != null) {
 			InterfaceProvider.getTerminalPrinter().print("Save to file " + processedFile.getAbsolutePath());
@@ -247,7 +295,79 @@ public class MythenDetector extends MythenDetectorImpl implements IMythenDetecto
 
 		status = IDLE;
 		processedDataFilesForScan.add(processedFile);
+		addToRunningSum(processedData);
 	}
+	/**
+	 * Processes the frame held by the array plugin, without reading a raw file. The raw data is written to disk in
+	 * the background if a {@link #setRawFileFormat raw file format} is set.
+	 *
+	 * @param previousArrayCounter
+	 *            the plugin's array counter before the acquisition started
+	 */
+	private void afterCollectArrayData(int previousArrayCounter) throws DeviceException {
+		processedFile = new File(getDataDirectory(), collectionFilename + ".dat");
+		rawData = readArrayFrame(previousArrayCounter);
+		processedData = dataConverter.process(rawData, delta, getMonitorValue(), getExposureTimeSeconds());
+		processedData.save(processedFile, isHasChannelInfo());
+		print("Save to file " + processedFile.getAbsolutePath());
+		FileRegistrarHelper.registerFiles(new String[] { processedFile.getAbsolutePath() });
+		writeRawFileInBackground(rawFile, rawData, delta);
+
+		status = IDLE;
+		processedDataFilesForScan.add(processedFile);
+		addToRunningSum(processedData);
+	}
+
+	/**
+	 * Reads the frame from the last acquisition from the array plugin, waiting for the frame to arrive as it may do so
+	 * shortly after the acquisition completes.
+	 *
+	 * @throws DeviceException
+	 *             if the plugin does not receive the frame within {@link #getRawFileTimeout() the timeout}, or it
+	 *             cannot be read
+	 */
+	private MythenRawDataset readArrayFrame(int previousArrayCounter) throws DeviceException {
+		try {
+			getMythenClient().waitForArrayCounterToChange(previousArrayCounter, rawFileTimeout);
+		} catch (DeviceException e) {
+			throw new DeviceException(getName() + " - did not receive the frame for " + collectionFilename
+					+ " from the array plugin", e);
+		}
+		try {
+			return MythenRawDataset.fromCounts(getMythenClient().readArrayData());
+		} catch (Exception e) {
+			throw new DeviceException(getName() + " - unable to read frame from the array plugin", e);
+		}
+	}
+
+	private int getArrayCounter() throws DeviceException {
+		try {
+			return getMythenClient().getArrayCounter();
+		} catch (Exception e) {
+			throw new DeviceException(getName() + " - unable to read the array plugin counter", e);
+		}
+	}
+
+	/**
+	 * Writes raw data to disk on the {@link #getPostProcessingExecutor() post-processing executor}, so the processing
+	 * of the next point does not wait for the disk. A failure to write the file is reported at the end of the scan.
+	 */
+	private void writeRawFileInBackground(final File file, final MythenRawDataset data, final double deltaPosition) {
+		final MythenRawFileWriter writer = getRawFileWriter();
+		if (writer == null) {
+			return;
+		}
+		getPostProcessingExecutor().submit("writing of " + file.getName(), () -> {
+			try {
+				writer.write(file, data, deltaPosition);
+			} catch (IOException | IllegalArgumentException e) {
+				// the writer rejects frames it cannot pack, such as counts beyond its bit depth
+				throw new DeviceException(getName() + " - unable to write raw data to " + file.getAbsolutePath(), e);
+			}
+			FileRegistrarHelper.registerFiles(new String[] { file.getAbsolutePath() });
+		});
+	}
+
 	@Override
 	public void stop() throws DeviceException {
 		try {
@@ -261,6 +381,10 @@ public class MythenDetector extends MythenDetectorImpl implements IMythenDetecto
 	
 	@Override
 	public Object readout() throws DeviceException {
+		if (getProcessingPipeline() != null) {
+			// the processed file for this point may not have been written yet, but its name is already known
+			return collectionFilename + ".dat";
+		}
 		String filename = processedFile.getName();
 		return filename;
 	}
@@ -521,30 +645,28 @@ public class MythenDetector extends MythenDetectorImpl implements IMythenDetecto
 
 
 		startWait();
+		// one monitor reading, taken when the acquisition ends, normalises every frame of the collection
+		final double monitor = getMonitorValue();
 
 		// process data
 		logger.info("Processing data");
 		print("Processing data");
-		Thread processing = new Thread(new Runnable() { // post process raw data so it does not block acquisition
-
-					@Override
-					public void run() {
-						logger.info("Processing data");
-						afterCollectData(numCycles, numFrames, dataDirectory, filenameTemplate, prefix, delta2);
-					}
-				}, "DataProcessing");
-		processing.start();
+		// post process raw data in the background, so the detector is free for the next acquisition
+		final CompletableFuture<Void> processing = getPostProcessingExecutor().submit("processing of " + prefix, () -> {
+			logger.info("Processing data");
+			afterCollectData(numCycles, numFrames, dataDirectory, filenameTemplate, prefix, delta2, monitor, exposureTime);
+		});
 		if (waitForDataCorrection) {
-			// wait for data processing thread to return
 			try {
-				while (processing.isAlive()) {
-					Thread.sleep(100);
-				}
+				processing.get();
 			} catch (InterruptedException e) {
 				Thread.currentThread().interrupt();
 				String msg = getName() + " - Thread interrupted waiting for processing to complete";
 				logger.error(msg, e);
 				throw new DeviceException(msg, e);
+			} catch (ExecutionException e) {
+				getPostProcessingExecutor().clearFailure();
+				throw new DeviceException(getName() + " - data processing failed", e.getCause());
 			}
 		}
 		status = IDLE;
@@ -552,41 +674,189 @@ public class MythenDetector extends MythenDetectorImpl implements IMythenDetecto
 		logger.info("Finished");
 	}
 
-	private void afterCollectData(int numCycles, int numFrames, File dataDirectory, final String filenameTemplate,final String prefix, double deltaPosition) {
+	private void afterCollectData(int numCycles, final int numFrames, final File dataDirectory, final String filenameTemplate,final String prefix, final double deltaPosition, final double monitor, final double exposureTime) {
 		print("Performe data corrections in 'DataProcessing' thread ...");
-		for (int cycle = 1; cycle <= numCycles; cycle++) {
-			File rawFile;
-			if (numFrames > 1) {
-				for (int frame = 0; frame < numFrames; frame++) {
+		final MythenScanFileWriter initialScanFileWriter = openScanFile(dataDirectory, prefix);
+		// without a scan file each frame's .dat file can be written by the worker that converted it
+		final boolean saveInWorker = initialScanFileWriter == null;
+		final FrameArchiver archiver = new FrameArchiver(initialScanFileWriter, deltaPosition);
+		try {
+			// frames are converted in parallel; archiving and plotting happen in acquisition order
+			getFrameProcessingEngine().run(numCycles * numFrames, index -> {
+				final int cycle = index / numFrames + 1;
+				final File rawFile;
+				final File processedFile;
+				if (numFrames > 1) {
 					//filename convention 'prefix_f%d_index.raw' for multiple frames acquisition
+					final int frame = index % numFrames;
 					rawFile = new File(dataDirectory, String.format(filenameTemplate, prefix, frame, cycle, "raw")); //"%s_f%d_%d.%s";
-					MythenRawDataset rawData = new MythenRawDataset(rawFile);
-//					print("deltaPosition used for correction 1 : "+deltaPosition);
-					MythenProcessedDataset processedData = dataConverter.process(rawData, deltaPosition);
-					File processedFile = new File(dataDirectory, String.format(filenameTemplate, prefix, frame, cycle, "dat"));
-					processedDataArchievalAndPlot(cycle, rawFile, processedData, processedFile);
+					processedFile = new File(dataDirectory, String.format(filenameTemplate, prefix, frame, cycle, "dat"));
+				} else {
+					//filename convention 'prefix_index.raw' for single frame acquisition
+					rawFile = new File(dataDirectory, String.format(filenameTemplate, prefix, cycle, "raw"));
+					processedFile = new File(dataDirectory, String.format(filenameTemplate, prefix, cycle, "dat"));
+				}
+				if (!waitForRawFile(rawFile)) {
+					return null;
 				}
-			} else {
-				//filename convention 'prefix_index.raw' for single frame acquisition
-				rawFile = new File(dataDirectory, String.format(filenameTemplate, prefix, cycle, "raw"));
 				MythenRawDataset rawData = new MythenRawDataset(rawFile);
-//				print("deltaPosition used for correction 2 : "+deltaPosition);
-				MythenProcessedDataset processedData = dataConverter.process(rawData, deltaPosition);
-				File processedFile = new File(dataDirectory, String.format(filenameTemplate, prefix, cycle, "dat"));
-				processedDataArchievalAndPlot(cycle, rawFile, processedData, processedFile);
-			}
+				MythenProcessedDataset processedData = dataConverter.process(rawData, deltaPosition, monitor, exposureTime);
+				if (saveInWorker) {
+					processedData.save(processedFile, isHasChannelInfo());
+				}
+				return new ProcessedFrame(cycle, rawFile, rawData, processedFile, processedData, saveInWorker);
+			}, archiver);
+		} finally {
+			closeScanFile(archiver.scanFileWriter);
 		}
 		print("Data correction and angular conversion completed.");
 	}
+
+	/**
+	 * A frame that has been read and converted by a worker thread.
+	 */
+	private static class ProcessedFrame {
+
+		final int cycle;
+		final File rawFile;
+		final MythenRawDataset rawData;
+		final File processedFile;
+		final MythenProcessedDataset processedData;
+		/** whether {@link #processedFile} has already been written */
+		final boolean saved;
+
+		ProcessedFrame(int cycle, File rawFile, MythenRawDataset rawData, File processedFile,
+				MythenProcessedDataset processedData, boolean saved) {
+			this.cycle = cycle;
+			this.rawFile = rawFile;
+			this.rawData = rawData;
+			this.processedFile = processedFile;
+			this.processedData = processedData;
+			this.saved = saved;
+		}
+	}
+
+	/**
+	 * Archives and plots converted frames in acquisition order, on the processing thread.
+	 */
+	private class FrameArchiver implements FrameConsumer<ProcessedFrame> {
+
+		MythenScanFileWriter scanFileWriter;
+
+		private final double deltaPosition;
+
+		FrameArchiver(MythenScanFileWriter scanFileWriter, double deltaPosition) {
+			this.scanFileWriter = scanFileWriter;
+			this.deltaPosition = deltaPosition;
+		}
+
+		@Override
+		public void accept(int index, ProcessedFrame frame) {
+			if (frame == null) {
+				// raw file did not arrive
+				return;
+			}
+			// every frame is summed, whether it goes to the scan file or to its own .dat file
+			addToRunningSum(frame.processedData);
+			if (frame.saved) {
+				processedDataArchievalAndPlot(frame.cycle, frame.rawFile, frame.processedData, frame.processedFile, false);
+			} else {
+				scanFileWriter = archiveAndPlot(scanFileWriter, frame.cycle, frame.rawFile, frame.rawData,
+						frame.processedData, frame.processedFile, deltaPosition);
+			}
+		}
+	}
+
+	/**
+	 * Waits for the IOC to finish writing a raw data file.
+	 *
+	 * @return {@code true} if the file is ready to read, {@code false} if it did not arrive within
+	 *         {@link #getRawFileTimeout() the timeout}
+	 */
+	private boolean waitForRawFile(File rawFile) {
+		try {
+			if (fileArrivalService.awaitFile(rawFile, (long) (rawFileTimeout * 1000), TimeUnit.MILLISECONDS)) {
+				return true;
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			logger.error("{} - Thread interrupted while waiting for {} to be written", getName(), rawFile.getName(), ie);
+			return false;
+		}
+		// failed to create raw data within the timeout, then no further process of raw data.
+		print("Detector "+ getName()+" failed to create RAW data file "+rawFile.getAbsolutePath());
+		return false;
+	}
+
+	/**
+	 * Opens the scan file for this acquisition, if scan files are enabled.
+	 *
+	 * @return the writer, or {@code null} if frames are to be saved as individual {@code .dat} files
+	 */
+	private MythenScanFileWriter openScanFile(File dataDirectory, String prefix) {
+		if (!isUseScanFile()) {
+			return null;
+		}
+		File scanFile = new File(dataDirectory, prefix + "." + MythenScanFileWriter.EXTENSION);
+		try {
+			return new MythenScanFileWriter(scanFile, getScanFileCompression());
+		} catch (IOException e) {
+			logger.error("{} - unable to create scan file {}, saving individual frames instead", getName(), scanFile, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Appends a frame to the scan file, or saves it to its own {@code .dat} file if there is no scan file.
+	 *
+	 * @return the scan file writer to use for subsequent frames, which is {@code null} if appending failed
+	 */
+	private MythenScanFileWriter archiveAndPlot(MythenScanFileWriter scanFileWriter, int cycle, File rawFile, MythenRawDataset rawData,
+			MythenProcessedDataset processedData, File processedFile, double deltaPosition) {
+		if (scanFileWriter != null) {
+			try {
+				int frame = scanFileWriter.append(rawData, processedData, deltaPosition);
+				atPointEnd(MythenScanFileReader.frameReference(scanFileWriter.getFile(), frame), processedData, cycle == 1);
+				return scanFileWriter;
+			} catch (IOException e) {
+				logger.error("{} - unable to append to scan file {}, saving individual frames instead", getName(), scanFileWriter.getFile(), e);
+				closeScanFile(scanFileWriter);
+			}
+		}
+		processedDataArchievalAndPlot(cycle, rawFile, processedData, processedFile, true);
+		return null;
+	}
+
+	private void closeScanFile(MythenScanFileWriter scanFileWriter) {
+		if (scanFileWriter == null) {
+			return;
+		}
+		final File scanFile = scanFileWriter.getFile();
+		try {
+			scanFileWriter.close();
+		} catch (IOException e) {
+			logger.error("{} - unable to write frame index to {}", getName(), scanFile, e);
+		}
+		if (!scanFilesForScan.contains(scanFile)) {
+			scanFilesForScan.add(scanFile);
+			print("Save to file " + scanFile.getAbsolutePath());
+			FileRegistrarHelper.registerFiles(new String[] { scanFile.getAbsolutePath() });
+		}
+	}
+
 	/**
 	 * @param cycle
 	 * @param rawFile
 	 * @param processedData
 	 * @param processedFile
+	 * @param save
+	 *            whether the processed data still needs to be written to {@code processedFile}
 	 */
 	private void processedDataArchievalAndPlot(int cycle, File rawFile, MythenProcessedDataset processedData,
-			File processedFile) {
-		processedData.save(processedFile, isHasChannelInfo());
+			File processedFile, boolean save) {
+		if (save) {
+			processedData.save(processedFile, isHasChannelInfo());
+		}
 		print("Save to file " + processedFile.getAbsolutePath());
 		FileRegistrarHelper.registerFiles(new String[] { rawFile.getAbsolutePath(), processedFile.getAbsolutePath() });
 		if (cycle ==1) {
@@ -871,6 +1141,44 @@ public class MythenDetector extends MythenDetectorImpl implements IMythenDetecto
 		getMythenClient().resetArrayCounter();
 	}
 
+	/**
+	 * Returns {@code true} if frames collected during a scan are read directly from the array plugin rather than
+	 * from raw files written by the IOC.
+	 */
+	public boolean isDiskless() {
+		return diskless;
+	}
+
+	/**
+	 * Sets whether frames collected during a scan are read directly from the array plugin of the
+	 * {@link MythenEpicsClient#setNdArray EPICS client}, instead of waiting for the IOC to write each raw file and
+	 * reading it back. In this mode raw files are only written, in the background, if a
+	 * {@link #setRawFileFormat raw file format} is set.
+	 */
+	public void setDiskless(boolean diskless) {
+		this.diskless = diskless;
+	}
+
+	public FileArrivalService getFileArrivalService() {
+		return fileArrivalService;
+	}
+
+	public void setFileArrivalService(FileArrivalService fileArrivalService) {
+		this.fileArrivalService = fileArrivalService;
+	}
+
+	/**
+	 * Returns the time in seconds to wait for the IOC to write each raw data file, or for the array plugin to receive
+	 * each frame in diskless mode, once acquisition has finished.
+	 */
+	public double getRawFileTimeout() {
+		return rawFileTimeout;
+	}
+
+	public void setRawFileTimeout(double rawFileTimeout) {
+		this.rawFileTimeout = rawFileTimeout;
+	}
+
 	@Override
 	public ArrayList<File> getProcessedDataFilesForThisScan() {
 		return processedDataFilesForScan;
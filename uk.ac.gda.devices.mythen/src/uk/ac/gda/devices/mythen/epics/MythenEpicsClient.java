@@ -21,8 +21,10 @@ package uk.ac.gda.devices.mythen.epics;
 import gda.device.Detector;
 import gda.device.DeviceException;
 import gda.device.detector.areadetector.v17.ADBase;
+import gda.device.detector.areadetector.v17.NDArray;
+import gda.device.detector.areadetector.v17.NDPluginBase;
 import gda.device.detector.mythen.client.AcquisitionParameters;
-import gda.device.detector.mythen.client.MythenClient;
+import gda.device.detector.mythen.client.ArmableMythenClient;
 import gda.epics.CachedLazyPVFactory;
 import gda.epics.LazyPVFactory;
 import gda.epics.PV;
@@ -30,12 +32,13 @@ import gda.jython.InterfaceProvider;
 import gda.observable.Predicate;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 
-public class MythenEpicsClient implements MythenClient, InitializingBean {
+public class MythenEpicsClient implements ArmableMythenClient, InitializingBean {
 	static final Logger logger = LoggerFactory.getLogger(MythenEpicsClient.class);
 
 	private static final String THRESHOLD_ENERGY = "ThresholdEnergy";
@@ -83,6 +86,11 @@ public class MythenEpicsClient implements MythenClient, InitializingBean {
 	private static final String FULL_FILE_NAME_RBV = "FullFileName_RBV";
 	
 	private ADBase adbase;
+	/** Optional array plugin, used to read frames without going through a file */
+	private NDArray ndArray;
+	/** Full name of the array plugin's ArrayCounter_RBV PV, monitored to detect each new frame */
+	private String arrayCounterPvName;
+	private PV<Integer> arrayCounterPv;
 	public enum Setting {
 		standard,
 		fast,
@@ -90,6 +98,10 @@ public class MythenEpicsClient implements MythenClient, InitializingBean {
 	}
 	private CachedLazyPVFactory dev;
 	private String prefix;
+	/** Optional PV, relative to the prefix, that reads 1 when the detector is armed and waiting for its trigger */
+	private String armedPvName;
+	/** Time in seconds to wait for the armed PV once acquisition has started */
+	private double armingTimeout = 10.0;
 
 	private enum YesNo {
 		No,
@@ -110,6 +122,26 @@ public class MythenEpicsClient implements MythenClient, InitializingBean {
 		this.prefix = prefix;
 	}
 
+	public String getArmedPvName() {
+		return armedPvName;
+	}
+
+	/**
+	 * Sets the PV, relative to the prefix, that reads 1 when the detector is armed. If it is not set, the detector is
+	 * treated as armed as soon as acquisition has been started.
+	 */
+	public void setArmedPvName(String armedPvName) {
+		this.armedPvName = armedPvName;
+	}
+
+	public double getArmingTimeout() {
+		return armingTimeout;
+	}
+
+	public void setArmingTimeout(double armingTimeout) {
+		this.armingTimeout = armingTimeout;
+	}
+
 	@Override
 	public void afterPropertiesSet() {
 		
@@ -448,6 +480,33 @@ public class MythenEpicsClient implements MythenClient, InitializingBean {
 		
 	}
 
+	@Override
+	public boolean isArmingReported() {
+		return true;
+	}
+
+	/**
+	 * start acquire data from detector asynchronously, notifying the listener once the detector is armed. If the
+	 * armed PV does not read 1 within the arming timeout, a warning is logged and the listener is not called; the
+	 * acquisition carries on, and the caller decides what to do.
+	 */
+	@Override
+	public void acquire(AcquisitionParameters params, ArmingListener listener) throws DeviceException {
+		acquire(params);
+		if (listener == null) {
+			return;
+		}
+		if (armedPvName != null) {
+			try {
+				waitForIntPVValEqualTo(dev.getPVInteger(armedPvName), 1, armingTimeout);
+			} catch (DeviceException e) {
+				logger.warn("Detector was not armed within {} s according to PV {}", armingTimeout, armedPvName, e);
+				return;
+			}
+		}
+		listener.armed();
+	}
+
 	public ADBase getAdbase() {
 		return adbase;
 	}
@@ -455,6 +514,86 @@ public class MythenEpicsClient implements MythenClient, InitializingBean {
 	public void setAdbase(ADBase adbase) {
 		this.adbase = adbase;
 	}
+
+	public NDArray getNdArray() {
+		return ndArray;
+	}
+
+	public void setNdArray(NDArray ndArray) {
+		this.ndArray = ndArray;
+	}
+
+	public String getArrayCounterPvName() {
+		return arrayCounterPvName;
+	}
+
+	/**
+	 * Sets the full name of the array plugin's {@code ArrayCounter_RBV} PV, which is monitored to detect each new
+	 * frame. Required, with the {@link #setNdArray array plugin}, to read frames without going through a file.
+	 */
+	public synchronized void setArrayCounterPvName(String arrayCounterPvName) {
+		this.arrayCounterPvName = arrayCounterPvName;
+		this.arrayCounterPv = null;
+	}
+
+	/**
+	 * Returns {@code true} if an array plugin and its array counter PV have been configured, so frames can be read with
+	 * {@link #readArrayData()}.
+	 */
+	public boolean isArrayDataAvailable() {
+		return ndArray != null && arrayCounterPvName != null;
+	}
+
+	/**
+	 * Enables array callbacks in the driver and the array plugin, so the plugin is updated with each new frame.
+	 */
+	public void enableArrayCallbacks() throws Exception {
+		adbase.setArrayCallbacks(1);
+		ndArray.getPluginBase().enableCallbacks();
+	}
+
+	/**
+	 * Returns the number of frames the array plugin has received.
+	 */
+	public int getArrayCounter() throws Exception {
+		return ndArray.getPluginBase().getArrayCounter_RBV();
+	}
+
+	/**
+	 * Waits for the array plugin to receive a new frame, using a monitor on its array counter.
+	 *
+	 * @param previousArrayCounter
+	 *            the array counter before the frame was acquired
+	 * @param timeoutSec
+	 *            the time to wait, in seconds
+	 * @throws DeviceException
+	 *             if no new frame arrives within the timeout
+	 */
+	public void waitForArrayCounterToChange(int previousArrayCounter, double timeoutSec) throws DeviceException {
+		waitForIntPVValNotEqualTo(getArrayCounterPv(), previousArrayCounter, timeoutSec);
+	}
+
+	private synchronized PV<Integer> getArrayCounterPv() {
+		if (arrayCounterPvName == null) {
+			throw new IllegalStateException("The array counter PV of the array plugin has not been set");
+		}
+		if (arrayCounterPv == null) {
+			arrayCounterPv = LazyPVFactory.newIntegerPV(arrayCounterPvName);
+		}
+		return arrayCounterPv;
+	}
+
+	/**
+	 * Reads the most recent frame from the array plugin.
+	 *
+	 * @return the counts for each channel
+	 */
+	public int[] readArrayData() throws Exception {
+		NDPluginBase pluginBase = ndArray.getPluginBase();
+		final int numChannels = Math.max(1, pluginBase.getArraySize0_RBV()) * Math.max(1, pluginBase.getArraySize1_RBV());
+		final int[] data = ndArray.getIntArrayData(numChannels);
+		return data.length == numChannels ? data : Arrays.copyOf(data, numChannels);
+	}
 	/**
 	 * synchronise acquire data from detector
 	 * @throws DeviceException